@@ -0,0 +1,68 @@
+package com.grainger.products.benchmark;
+
+import com.grainger.products.BenchmarkData;
+import com.grainger.products.HarnessApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * End-to-end request handling through the Spring MVC stack with MockMvc:
+ * routing, controller, service, repository and Jackson serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductApiBenchmark {
+
+    private static final int TABLE_SIZE = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = HarnessApplication.servlet()
+                .profiles("benchmark")
+                .web(WebApplicationType.SERVLET)
+                .start();
+        BenchmarkData.seedProducts(context.getBean(JdbcTemplate.class), TABLE_SIZE);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getProductById() throws Exception {
+        long id = ThreadLocalRandom.current().nextLong(1, TABLE_SIZE + 1);
+        return mockMvc.perform(get("/api/products/{id}", id)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getFirstPage() throws Exception {
+        return mockMvc.perform(get("/api/products")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createProduct() throws Exception {
+        return mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Benchmark Created Product\"}"))
+                .andReturn();
+    }
+}
@@ -0,0 +1,77 @@
+package com.grainger.products.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.grainger.products.model.ProductView;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding of list responses as JSON, Smile and CBOR, with and without gzip,
+ * using the same ObjectMapper settings as the HTTP message converters.
+ * Payload sizes do not vary between runs, so they are printed once per trial
+ * rather than measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProductEncodingBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    @Param({"1000", "100000"})
+    public int items;
+
+    private ObjectMapper objectMapper;
+    private List<ProductView> page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory(format))
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        page = new ArrayList<>(items);
+        for (long id = 1; id <= items; id++) {
+            page.add(new ProductView(id, "Heavy-Duty Cordless Drill Model " + id,
+                    LocalDateTime.of(2024, 1, 15, 10, 30), LocalDateTime.of(2024, 2, 1, 8, 0, 0, 123_456_000)));
+        }
+        System.out.printf("%n%s%s, %d items: %d bytes%n", format, gzip ? "+gzip" : "", items, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        if (gzip) {
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                objectMapper.writeValue(out, page);
+            }
+        } else {
+            objectMapper.writeValue(buffer, page);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+    }
+}
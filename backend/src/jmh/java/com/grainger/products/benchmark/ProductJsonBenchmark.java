@@ -0,0 +1,64 @@
+package com.grainger.products.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.grainger.products.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization and deserialization of Product, configured the way
+ * Spring Boot configures the ObjectMapper used by the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Product product;
+    private List<Product> page;
+    private String productJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        product = createProduct(42L);
+        page = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            page.add(createProduct(id));
+        }
+        productJson = objectMapper.writeValueAsString(product);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws Exception {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] serializePageOf100() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public Product deserializeProduct() throws Exception {
+        return objectMapper.readValue(productJson, Product.class);
+    }
+
+    private static Product createProduct(long id) {
+        Product product = new Product("Heavy-Duty Cordless Drill Model " + id);
+        product.setId(id);
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 15, 10, 30));
+        product.setUpdatedAt(LocalDateTime.of(2024, 2, 1, 8, 0));
+        return product;
+    }
+}
@@ -0,0 +1,79 @@
+package com.grainger.products.benchmark;
+
+import com.grainger.products.BenchmarkData;
+import com.grainger.products.HarnessApplication;
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductViewPage;
+import com.grainger.products.repository.ProductRepository;
+import com.grainger.products.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository and service reads against embedded H2 at several table sizes.
+ * The Hibernate second-level cache is off so repository reads measure the
+ * JDBC and entity mapping path; getProductById goes through the service cache.
+ * getFirstViewPage measures the constructor projection behind the list
+ * endpoint; run with the gc profiler to see allocation per page as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductRepositoryBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = HarnessApplication.servlet()
+                .profiles("benchmark")
+                .web(WebApplicationType.NONE)
+                .withoutSecondLevelCache()
+                .start();
+        BenchmarkData.seedProducts(context.getBean(JdbcTemplate.class), tableSize);
+        productRepository = context.getBean(ProductRepository.class);
+        productService = context.getBean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Product> findById() {
+        return productRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public Optional<Product> getProductByIdCached() {
+        return productService.getProductById(randomId());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Product> findAll() {
+        return productRepository.findAll();
+    }
+
+    @Benchmark
+    public ProductViewPage getFirstViewPage() {
+        return productService.getProductViewPage(null, ProductService.DEFAULT_PAGE_SIZE);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, tableSize + 1);
+    }
+}
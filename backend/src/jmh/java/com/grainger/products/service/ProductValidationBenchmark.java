@@ -0,0 +1,34 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of ProductService.validateProduct for accepted and rejected input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductValidationBenchmark {
+
+    private final Product valid = new Product("Heavy-Duty Cordless Drill");
+    private final Product blank = new Product("   ");
+
+    @Benchmark
+    public Product validProduct() {
+        ProductService.validateProduct(valid);
+        return valid;
+    }
+
+    @Benchmark
+    public Object blankName() {
+        try {
+            ProductService.validateProduct(blank);
+            return blank;
+        } catch (IllegalArgumentException ex) {
+            return ex;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.grainger.products.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A concurrency limit that adapts to observed latency, in the style of the
+ * gradient algorithm of Netflix's concurrency-limits.
+ * <p>
+ * Latencies are averaged over sampling windows. A slow exponential average of
+ * the window averages tracks the latency the service has when it is not
+ * queueing; the ratio of that baseline to the latest window, the gradient,
+ * shrinks the limit when latency rises beyond the tolerance, and a small
+ * allowance of about the square root of the limit probes for more capacity
+ * when it does not. Windows in which requests were dropped (answered 503 by
+ * the application, for instance when no connection was available) back the
+ * limit off, and windows in which the service never got close to its limit
+ * leave it unchanged, so an idle service does not grow an unbounded limit.
+ * <p>
+ * Callers take a permit with {@link #tryAcquire()} and must return it with
+ * {@link #release(long, boolean)}; nothing waits for a permit. The clock only
+ * delimits sampling windows; callers measure latency themselves.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    /**
+     * Weight of the newest window in the smoothed limit.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * Number of windows the baseline latency averages over.
+     */
+    private static final int BASELINE_WINDOWS = 20;
+
+    /**
+     * Factor applied to the limit after a window with dropped requests.
+     */
+    private static final double BACKOFF = 0.9;
+
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double baselineNanos;
+    private long windowStart;
+    private long windowSumNanos;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    /**
+     * Create a limit.
+     *
+     * @param initialLimit the limit before any latency has been observed
+     * @param minLimit     the lowest the limit goes
+     * @param maxLimit     the highest the limit goes
+     * @param tolerance    how far latency may rise above the baseline before the limit shrinks, e.g. 1.5
+     * @param windowNanos  the shortest sampling window; a window also needs at least 10 samples
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, long windowNanos) {
+        this(initialLimit, minLimit, maxLimit, tolerance, windowNanos, System::nanoTime);
+    }
+
+    /**
+     * Create a limit with an explicit clock, for tests.
+     */
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, long windowNanos,
+                             LongSupplier nanoClock) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (tolerance < 1.0) {
+            throw new IllegalArgumentException("Latency tolerance must be at least 1.0");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = windowNanos;
+        this.nanoClock = nanoClock;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    /**
+     * Take a permit if fewer requests than the limit are in flight.
+     *
+     * @return true if the request may proceed, false if it must be shed
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Return a permit and record the request's latency.
+     *
+     * @param latencyNanos how long the request held the permit
+     * @param dropped      whether the request failed for lack of capacity
+     */
+    public void release(long latencyNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        sample(nanoClock.getAsLong(), latencyNanos, current, dropped);
+    }
+
+    /**
+     * The current limit.
+     *
+     * @return the most requests allowed in flight
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * The requests currently holding a permit.
+     *
+     * @return the number of requests in flight
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * The requests shed so far.
+     *
+     * @return the number of rejected requests
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    private synchronized void sample(long now, long latencyNanos, int inFlightAtEnd, boolean dropped) {
+        windowSumNanos += latencyNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtEnd);
+        windowDropped |= dropped;
+        if (now - windowStart < windowNanos || windowSamples < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+
+        double windowNanosAverage = (double) windowSumNanos / windowSamples;
+        if (baselineNanos == 0) {
+            baselineNanos = windowNanosAverage;
+        } else {
+            baselineNanos += (windowNanosAverage - baselineNanos) * 2 / (BASELINE_WINDOWS + 1);
+            if (baselineNanos > 2 * windowNanosAverage) {
+                // Latency has dropped well below the baseline, e.g. after a slow spell; let the baseline follow
+                baselineNanos *= 0.95;
+            }
+        }
+
+        double newLimit;
+        if (windowDropped) {
+            newLimit = estimatedLimit * BACKOFF;
+        } else if (windowMaxInFlight < estimatedLimit / 2) {
+            // Demand, not the limit, bounded concurrency; the samples say nothing about capacity
+            newLimit = estimatedLimit;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineNanos / windowNanosAverage));
+            newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        limit = (int) estimatedLimit;
+
+        windowStart = now;
+        windowSumNanos = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+    }
+}
@@ -0,0 +1,50 @@
+package com.grainger.products.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the JSON API for internal service-to-service callers.
+ * A client sending Accept: application/cbor or application/x-jackson-smile
+ * receives the same document as the JSON response in a compact binary form;
+ * JSON stays the default. Both converters are built from Spring Boot's
+ * ObjectMapper builder so dates and other settings match the JSON output,
+ * and replace the defaults Spring MVC would otherwise register with its own
+ * unconfigured mappers.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    /**
+     * Media type of Jackson Smile responses.
+     */
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    /**
+     * CBOR (RFC 8949) converter.
+     *
+     * @param builder Spring Boot's ObjectMapper builder
+     * @return the converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Jackson Smile converter.
+     *
+     * @param builder Spring Boot's ObjectMapper builder
+     * @return the converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
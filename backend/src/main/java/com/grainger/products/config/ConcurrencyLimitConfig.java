@@ -0,0 +1,46 @@
+package com.grainger.products.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Adaptive concurrency limiting for the product API, enabled with
+ * {@code products.concurrency-limit.enabled}. Registers
+ * {@link ConcurrencyLimitFilter} for /api/products, after the observation
+ * filter so shed requests still show up in the http.server.requests metrics.
+ */
+@Configuration
+@ConditionalOnProperty(name = "products.concurrency-limit.enabled", havingValue = "true")
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+    /**
+     * Create the read and write limits and the filter applying them.
+     *
+     * @param properties the limit settings
+     * @return the filter
+     */
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(ConcurrencyLimitProperties properties) {
+        return new ConcurrencyLimitFilter(properties);
+    }
+
+    /**
+     * Register the filter for the product API only.
+     *
+     * @param filter the concurrency limit filter
+     * @return the registration
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(
+            ConcurrencyLimitFilter filter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns(ConcurrencyLimitFilter.PATH_PREFIX, ConcurrencyLimitFilter.PATH_PREFIX + "/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
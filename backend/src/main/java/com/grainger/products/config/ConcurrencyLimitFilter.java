@@ -0,0 +1,199 @@
+package com.grainger.products.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Load shedding for the product API.
+ * <p>
+ * Every request to /api/products takes a permit from one of two
+ * {@link AdaptiveConcurrencyLimit}s, reads or writes, before it reaches a
+ * controller; when the limit is reached it is answered at once with the
+ * limit's reject status and a Retry-After header, instead of waiting for a
+ * worker thread or a database connection. Limits adapt to the latency of the
+ * requests they admit, so a slower database lowers them. The change stream and
+ * the export hold their response open for minutes and are not limited.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String PATH_PREFIX = "/api/products";
+
+    private static final List<String> UNLIMITED_PATHS = List.of("/api/products/changes/stream", "/api/products/export");
+
+    private static final String LOOKUP_PATH = "/api/products/lookup";
+
+    private static final byte[] REJECTED_BODY =
+            "{\"error\":\"Too many concurrent requests, please retry\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final AdaptiveConcurrencyLimit readLimit;
+    private final AdaptiveConcurrencyLimit writeLimit;
+    private final int readRejectStatus;
+    private final int writeRejectStatus;
+    private final String retryAfterSeconds;
+
+    /**
+     * Create the filter from configuration.
+     *
+     * @param properties the limit settings
+     */
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties) {
+        this(limit(properties.read(), properties), limit(properties.write(), properties),
+                properties.read().rejectStatus(), properties.write().rejectStatus(), properties.retryAfter());
+    }
+
+    /**
+     * Create the filter with explicit limits, for tests.
+     */
+    ConcurrencyLimitFilter(AdaptiveConcurrencyLimit readLimit, AdaptiveConcurrencyLimit writeLimit,
+                           int readRejectStatus, int writeRejectStatus, Duration retryAfter) {
+        for (int status : new int[]{readRejectStatus, writeRejectStatus}) {
+            if (status != HttpStatus.SERVICE_UNAVAILABLE.value() && status != HttpStatus.TOO_MANY_REQUESTS.value()) {
+                throw new IllegalArgumentException("Concurrency limit reject status must be 503 or 429");
+            }
+        }
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+        this.readRejectStatus = readRejectStatus;
+        this.writeRejectStatus = writeRejectStatus;
+        this.retryAfterSeconds = Long.toString(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+    }
+
+    /**
+     * The limit applied to reads.
+     */
+    public AdaptiveConcurrencyLimit readLimit() {
+        return readLimit;
+    }
+
+    /**
+     * The limit applied to writes.
+     */
+    public AdaptiveConcurrencyLimit writeLimit() {
+        return writeLimit;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        return !(path.equals(PATH_PREFIX) || path.startsWith(PATH_PREFIX + "/"))
+                || UNLIMITED_PATHS.stream().anyMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean read = isRead(request);
+        AdaptiveConcurrencyLimit limit = read ? readLimit : writeLimit;
+        if (!limit.tryAcquire()) {
+            reject(response, read ? readRejectStatus : writeRejectStatus);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean released = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // The permit is held until the asynchronous response completes
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limit, start, response));
+                released = true;
+            }
+        } finally {
+            if (!released) {
+                limit.release(System.nanoTime() - start, isDropped(response));
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response, int status) throws IOException {
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(REJECTED_BODY.length);
+        response.getOutputStream().write(REJECTED_BODY);
+    }
+
+    /**
+     * Whether a request is a read: bulk lookups are posted, but only read.
+     */
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)
+                || (HttpMethod.POST.matches(method) && path(request).equals(LOOKUP_PATH));
+    }
+
+    /**
+     * A 503 from the application means it ran out of capacity downstream, such as database connections.
+     */
+    private static boolean isDropped(HttpServletResponse response) {
+        return response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static AdaptiveConcurrencyLimit limit(ConcurrencyLimitProperties.Limit limit,
+                                                  ConcurrencyLimitProperties properties) {
+        return new AdaptiveConcurrencyLimit(limit.initial(), limit.min(), limit.max(), properties.tolerance(),
+                properties.window().toNanos());
+    }
+
+    /**
+     * Returns the permit of an asynchronous request once, when it completes, fails or times out.
+     */
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimit limit;
+        private final long start;
+        private final HttpServletResponse response;
+        private boolean released;
+
+        ReleaseOnCompletion(AdaptiveConcurrencyLimit limit, long start, HttpServletResponse response) {
+            this.limit = limit;
+            this.start = start;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private synchronized void release(boolean timedOut) {
+            if (!released) {
+                released = true;
+                limit.release(System.nanoTime() - start, timedOut || isDropped(response));
+            }
+        }
+    }
+}
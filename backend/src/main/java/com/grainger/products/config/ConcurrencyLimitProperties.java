@@ -0,0 +1,41 @@
+package com.grainger.products.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Adaptive concurrency limits for the product API, bound from
+ * {@code products.concurrency-limit} in application.yml. Limiting is only
+ * active when {@code products.concurrency-limit.enabled} is true.
+ *
+ * @param read       the limit for reads: GET and HEAD requests, and bulk lookups
+ * @param write      the limit for every other request
+ * @param tolerance  how far latency may rise above its baseline before a limit shrinks
+ * @param window     the shortest sampling window for latency
+ * @param retryAfter the Retry-After sent with shed requests
+ */
+@ConfigurationProperties("products.concurrency-limit")
+public record ConcurrencyLimitProperties(Limit read,
+                                         Limit write,
+                                         @DefaultValue("1.5") double tolerance,
+                                         @DefaultValue("1s") Duration window,
+                                         @DefaultValue("1s") Duration retryAfter) {
+
+    public ConcurrencyLimitProperties {
+        read = read == null ? new Limit(20, 4, 200, 503) : read;
+        write = write == null ? new Limit(10, 2, 50, 429) : write;
+    }
+
+    /**
+     * Bounds for one limit, and the status of requests it sheds.
+     *
+     * @param initial      the limit before latency has been observed
+     * @param min          the lowest the limit goes
+     * @param max          the highest the limit goes
+     * @param rejectStatus the HTTP status of shed requests, 503 or 429
+     */
+    public record Limit(int initial, int min, int max, int rejectStatus) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.grainger.products.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache configuration.
+ * Creates the JCache regions used by Hibernate on a local Caffeine provider,
+ * sized from application.yml, and hands the cache manager to Hibernate.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class HibernateCacheConfig {
+
+    /**
+     * Create the JCache manager holding the second-level cache regions.
+     * The provider keeps one manager per URI, so each application context
+     * asks for a URI of its own, named after the context id: contexts in the
+     * same JVM (tests, benchmark harnesses) get separate regions, and closing
+     * one context does not close the manager of another.
+     *
+     * @param properties         the region sizing
+     * @param applicationContext the context the manager belongs to
+     * @return the cache manager
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties,
+                                              ApplicationContext applicationContext) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Context ids repeat across contexts built from the same configuration, so a random suffix keeps URIs unique
+        String contextId = URLEncoder.encode(String.valueOf(applicationContext.getId()), StandardCharsets.UTF_8);
+        URI uri = URI.create("products-second-level-cache:" + contextId + "/" + UUID.randomUUID());
+        CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+
+        properties.regions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.maximumSize()));
+            if (region.ttl() != null) {
+                configuration.setExpireAfterWrite(OptionalLong.of(region.ttl().toNanos()));
+            }
+            configuration.setStatisticsEnabled(true);
+            if (cacheManager.getCache(name) == null) {
+                cacheManager.createCache(name, configuration);
+            }
+        });
+        return cacheManager;
+    }
+
+    /**
+     * Point Hibernate at the configured cache manager instead of creating its own.
+     *
+     * @param hibernateCacheManager the cache manager holding the regions
+     * @return the customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
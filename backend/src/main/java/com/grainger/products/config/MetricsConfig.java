@@ -0,0 +1,103 @@
+package com.grainger.products.config;
+
+import com.grainger.products.service.ProductCache;
+import com.grainger.products.service.ProductLookupBatcher;
+import com.grainger.products.service.ProductIngestService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Application metrics not covered by Spring Boot's auto-configuration.
+ * HTTP, connection pool and Hibernate metrics are bound by Spring Boot;
+ * this adds the in-process product cache, the lookup batcher, the ingestion queue
+ * and the concurrency limits.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Name of the cache tag on the product cache metrics.
+     */
+    public static final String PRODUCT_CACHE_NAME = "products.byId";
+
+    /**
+     * Bind hit, miss, eviction and size metrics for the by-id product cache.
+     *
+     * @param productCache the product cache
+     * @return the binder
+     */
+    @Bean
+    public MeterBinder productCacheMetrics(ProductCache productCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, productCache.nativeCache(), PRODUCT_CACHE_NAME);
+    }
+
+    /**
+     * Count ids requested through the lookup batcher and the queries it ran, when it is enabled.
+     * Their ratio is the average number of ids resolved per query.
+     *
+     * @param lookupBatcher the lookup batcher, if enabled
+     * @return the binder
+     */
+    @Bean
+    public MeterBinder productLookupMetrics(ObjectProvider<ProductLookupBatcher> lookupBatcher) {
+        return registry -> lookupBatcher.ifAvailable(batcher -> {
+            FunctionCounter.builder("products.lookup.coalesced.requests", batcher, ProductLookupBatcher::requestCount)
+                    .description("Product ids requested through the lookup batcher")
+                    .register(registry);
+            FunctionCounter.builder("products.lookup.coalesced.queries", batcher, ProductLookupBatcher::queryCount)
+                    .description("Queries run by the lookup batcher")
+                    .register(registry);
+        });
+    }
+
+    /**
+     * Report the depth of the ingestion queue, when it is enabled.
+     * A depth that stays near products.ingest.capacity means writers are being turned away.
+     *
+     * @param ingestService the ingestion queue, if enabled
+     * @return the binder
+     */
+    @Bean
+    public MeterBinder productIngestMetrics(ObjectProvider<ProductIngestService> ingestService) {
+        return registry -> ingestService.ifAvailable(service ->
+                Gauge.builder("products.ingest.queued", service, ProductIngestService::queuedCount)
+                        .description("Products accepted for asynchronous creation and not yet written")
+                        .register(registry));
+    }
+
+    /**
+     * Report the adaptive concurrency limits, requests in flight and requests shed, per kind, when limiting is enabled.
+     * A limit that falls while latency holds steady means the database has slowed down.
+     *
+     * @param limitFilter the concurrency limit filter, if enabled
+     * @return the binder
+     */
+    @Bean
+    public MeterBinder concurrencyLimitMetrics(ObjectProvider<ConcurrencyLimitFilter> limitFilter) {
+        return registry -> limitFilter.ifAvailable(filter ->
+                Map.of("read", filter.readLimit(), "write", filter.writeLimit()).forEach((kind, limit) -> {
+                    Tags tags = Tags.of("kind", kind);
+                    Gauge.builder("products.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit)
+                            .description("Requests allowed in flight")
+                            .tags(tags)
+                            .register(registry);
+                    Gauge.builder("products.concurrency.in-flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                            .description("Requests holding a permit")
+                            .tags(tags)
+                            .register(registry);
+                    FunctionCounter.builder("products.concurrency.rejected", limit,
+                                    AdaptiveConcurrencyLimit::rejectedCount)
+                            .description("Requests shed because the limit was reached")
+                            .tags(tags)
+                            .register(registry);
+                }));
+    }
+}
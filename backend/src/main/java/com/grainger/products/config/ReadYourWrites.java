@@ -0,0 +1,137 @@
+package com.grainger.products.config;
+
+import com.grainger.products.service.ProductDeletedEvent;
+import com.grainger.products.service.ProductsCreatedEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Read-your-writes stickiness for replica routing.
+ * <p>
+ * When a request's write commits, the client receives a cookie holding the
+ * time until which its reads must see the primary; requests carrying an
+ * unexpired cookie are pinned to the primary for their whole duration, and
+ * so is the rest of the writing request. The window should cover the
+ * replicas' usual replication lag; a zero window disables stickiness.
+ * Clients that do not keep cookies can echo the cookie header themselves.
+ */
+public class ReadYourWrites extends OncePerRequestFilter {
+
+    /**
+     * Cookie holding the epoch millisecond until which the client reads from the primary.
+     */
+    public static final String COOKIE_NAME = "products-read-primary-until";
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final Duration window;
+    private final Clock clock;
+
+    /**
+     * Create the filter.
+     *
+     * @param window how long a client's reads stay on the primary after it writes
+     */
+    public ReadYourWrites(Duration window) {
+        this(window, Clock.systemUTC());
+    }
+
+    /**
+     * Create the filter with an explicit clock, for tests.
+     */
+    ReadYourWrites(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    /**
+     * Whether reads on the current thread must go to the primary.
+     *
+     * @return true while handling a request pinned to the primary
+     */
+    static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return window.isZero();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (pinnedUntil(request) > clock.millis()) {
+            PINNED.set(Boolean.TRUE);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    /**
+     * Pin the client after products were created.
+     *
+     * @param event the creation event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        pinCurrentClient();
+    }
+
+    /**
+     * Pin the client after a product was deleted.
+     *
+     * @param event the deletion event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        pinCurrentClient();
+    }
+
+    /**
+     * Writes outside a request, such as from background work, pin nobody.
+     */
+    private void pinCurrentClient() {
+        if (window.isZero() || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)
+                || attributes.getResponse() == null) {
+            return;
+        }
+        PINNED.set(Boolean.TRUE);
+        Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(clock.millis() + window.toMillis()));
+        cookie.setMaxAge((int) Math.max(1, (window.toMillis() + 999) / 1000));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        attributes.getResponse().addCookie(cookie);
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0L;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException ex) {
+                    return 0L;
+                }
+            }
+        }
+        return 0L;
+    }
+}
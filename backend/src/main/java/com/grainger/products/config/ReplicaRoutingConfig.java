@@ -0,0 +1,109 @@
+package com.grainger.products.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-replica routing, enabled with {@code products.datasource.routing.enabled}.
+ * Replaces the auto-configured pool with one pool for the primary
+ * ({@code spring.datasource}) and one per replica, behind a
+ * {@link ReplicaRoutingDataSource}. Every pool takes its settings from
+ * {@code spring.datasource.hikari}; replica pools are read-only.
+ */
+@Configuration
+@ConditionalOnProperty(name = "products.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReplicaRoutingConfig {
+
+    /**
+     * Create the primary and replica pools and the router over them.
+     *
+     * @param dataSourceProperties the primary's connection settings
+     * @param properties           the replicas and routing settings
+     * @param environment          source of the shared pool settings
+     * @param meterRegistry        registry for pool metrics, if metrics are enabled
+     * @return the routing data source
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReplicaRoutingProperties properties,
+                                                             Environment environment,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        configurePool(primary, "primary", binder, registry);
+
+        List<ReplicaRoutingDataSource.NamedDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.replicas().size(); i++) {
+            ReplicaRoutingProperties.Replica replica = properties.replicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setJdbcUrl(replica.url());
+            pool.setUsername(replica.username());
+            pool.setPassword(replica.password());
+            configurePool(pool, "replica-" + (i + 1), binder, registry);
+            pool.setReadOnly(true);
+            replicas.add(new ReplicaRoutingDataSource.NamedDataSource(pool.getPoolName(), pool));
+        }
+
+        ReplicaRoutingDataSource routing =
+                new ReplicaRoutingDataSource(primary, replicas, properties.healthCheckInterval());
+        if (registry != null) {
+            Gauge.builder("products.datasource.replicas.healthy", routing, ReplicaRoutingDataSource::healthyReplicaCount)
+                    .description("Replicas currently taking read-only transactions")
+                    .register(registry);
+        }
+        return routing;
+    }
+
+    /**
+     * The application's DataSource. Defers fetching a connection until the
+     * first statement, by which time the transaction's read-only flag is known.
+     *
+     * @param replicaRoutingDataSource the router
+     * @return the data source used by JPA and Flyway
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Pin clients to the primary for a while after they write; inactive when the window is zero.
+     *
+     * @param properties the routing settings
+     * @return the read-your-writes filter
+     */
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaRoutingProperties properties) {
+        return new ReadYourWrites(properties.readYourWrites());
+    }
+
+    private static void configurePool(HikariDataSource pool, String name, Binder binder, MeterRegistry registry) {
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        if (registry != null) {
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.grainger.products.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource sending read-only transactions to replicas and everything else
+ * to the primary.
+ * <p>
+ * Replicas are used round-robin. A replica that fails to hand out a
+ * connection is marked down and the next one is tried; when none is up,
+ * reads fall back to the primary. A background probe marks replicas up or
+ * down again every health check interval. Requests pinned by
+ * {@link ReadYourWrites} read from the primary.
+ * <p>
+ * The routing decision reads the transaction's read-only flag, which is only
+ * set once the transaction has begun, so this must sit behind a
+ * LazyConnectionDataSourceProxy that defers fetching the connection until
+ * the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    /**
+     * Create the routing data source and start probing the replicas.
+     *
+     * @param primary             the primary, used for writes and as the fallback for reads
+     * @param replicas            the replicas, by name
+     * @param healthCheckInterval how often each replica is probed
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<NamedDataSource> replicas, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        for (NamedDataSource replica : replicas) {
+            this.replicas.add(new Replica(replica.name(), replica.dataSource()));
+        }
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!this.replicas.isEmpty()) {
+            healthChecker.scheduleWithFixedDelay(this::checkHealth,
+                    healthCheckInterval.toMillis(), healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (routeToReplica()) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (replica.up) {
+                    try {
+                        return connect(replica.dataSource, username, password);
+                    } catch (SQLException ex) {
+                        markDown(replica, ex);
+                    }
+                }
+            }
+        }
+        return connect(primary, username, password);
+    }
+
+    /**
+     * The number of replicas currently taking reads.
+     *
+     * @return the healthy replica count
+     */
+    public int healthyReplicaCount() {
+        int count = 0;
+        for (Replica replica : replicas) {
+            if (replica.up) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Whether a read-only transaction on the current thread may be served by a replica,
+     * and so may not see writes the primary has already committed.
+     *
+     * @return true if a replica is up and the current request is not pinned to the primary
+     */
+    public boolean mayReadFromReplica() {
+        return !ReadYourWrites.isPinned() && healthyReplicaCount() > 0;
+    }
+
+    /**
+     * Whether reads on the current thread are pinned to the primary by a recent write.
+     *
+     * @return true while handling a request pinned by {@link ReadYourWrites}
+     */
+    public boolean isPinnedToPrimary() {
+        return !replicas.isEmpty() && ReadYourWrites.isPinned();
+    }
+
+    /**
+     * Probe every replica once, marking it up or down.
+     */
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    if (!replica.up) {
+                        log.info("Replica {} is back up", replica.name);
+                        replica.up = true;
+                    }
+                } else {
+                    markDown(replica, null);
+                }
+            } catch (SQLException ex) {
+                markDown(replica, ex);
+            }
+        }
+    }
+
+    /**
+     * Stop probing and close the primary and replica pools.
+     */
+    @Override
+    public void close() throws IOException {
+        healthChecker.shutdownNow();
+        closeIfPossible(primary);
+        for (Replica replica : replicas) {
+            closeIfPossible(replica.dataSource);
+        }
+    }
+
+    private boolean routeToReplica() {
+        return !replicas.isEmpty()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWrites.isPinned();
+    }
+
+    private static Connection connect(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+    }
+
+    private static void markDown(Replica replica, SQLException cause) {
+        if (replica.up) {
+            log.warn("Replica {} is down, reads fail over to the remaining replicas or the primary", replica.name, cause);
+            replica.up = false;
+        }
+    }
+
+    private static void closeIfPossible(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * A replica data source with a name for logging.
+     *
+     * @param name       the replica name
+     * @param dataSource the replica's pool
+     */
+    public record NamedDataSource(String name, DataSource dataSource) {
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean up = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.grainger.products.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas and routing settings, bound from
+ * {@code products.datasource.routing} in application.yml. Routing is only
+ * active when {@code products.datasource.routing.enabled} is true.
+ *
+ * @param replicas            the replica databases read-only transactions are spread over
+ * @param healthCheckInterval how often each replica is probed
+ * @param readYourWrites      how long a client's reads stay on the primary after it writes, or zero to disable
+ */
+@ConfigurationProperties("products.datasource.routing")
+public record ReplicaRoutingProperties(List<Replica> replicas,
+                                       @DefaultValue("5s") Duration healthCheckInterval,
+                                       @DefaultValue("0s") Duration readYourWrites) {
+
+    public ReplicaRoutingProperties {
+        replicas = replicas == null ? List.of() : replicas;
+    }
+
+    /**
+     * Connection settings for one replica. Pool settings are shared with
+     * the primary ({@code spring.datasource.hikari}).
+     *
+     * @param url      the JDBC URL
+     * @param username the user name
+     * @param password the password
+     */
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.grainger.products.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sizing of the Hibernate second-level cache regions, bound from
+ * {@code products.second-level-cache} in application.yml.
+ *
+ * @param regions settings per region name
+ */
+@ConfigurationProperties("products.second-level-cache")
+public record SecondLevelCacheProperties(Map<String, Region> regions) {
+
+    public SecondLevelCacheProperties {
+        regions = regions == null ? Map.of() : regions;
+    }
+
+    /**
+     * Settings for a single cache region.
+     *
+     * @param maximumSize the maximum number of entries in the region
+     * @param ttl         how long entries live after being written, or null to never expire
+     */
+    public record Region(@DefaultValue("10000") long maximumSize, Duration ttl) {
+    }
+}
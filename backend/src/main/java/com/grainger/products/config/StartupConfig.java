@@ -0,0 +1,149 @@
+package com.grainger.products.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.MigrationVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Startup-time settings for the startup profile (application-startup.yml).
+ * <p>
+ * Beans only needed for the API documentation are created on first use
+ * instead of at startup, and Flyway only migrates when the database is behind
+ * the migrations on the classpath. Checking that takes one query on the
+ * schema history table, where a full Flyway run scans, validates and locks
+ * it on every start.
+ */
+@Configuration
+@Profile("startup")
+public class StartupConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupConfig.class);
+
+    /**
+     * Bean classes, or prefixes of them, created lazily: springdoc and the OpenAPI description.
+     */
+    static final List<String> LAZY_BEAN_CLASSES = List.of("org.springdoc.", OpenApiConfig.class.getName());
+
+    /**
+     * Mark documentation beans, and beans declared by documentation configuration, lazy.
+     * With AOT processing this runs at build time and the flag is compiled in.
+     *
+     * @return the post-processor
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyDocumentationBeans() {
+        return beanFactory -> {
+            int marked = 0;
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String className = declaringClassName(beanFactory, definition);
+                if (className != null && LAZY_BEAN_CLASSES.stream().anyMatch(className::startsWith)) {
+                    definition.setLazyInit(true);
+                    marked++;
+                }
+            }
+            log.debug("Marked {} documentation beans lazy", marked);
+        };
+    }
+
+    /**
+     * Skip Flyway when the schema history already holds the newest classpath migration.
+     *
+     * @return the migration strategy
+     */
+    @Bean
+    public FlywayMigrationStrategy skipCurrentSchemaMigration() {
+        return flyway -> {
+            Optional<MigrationVersion> available = newestMigration(flyway);
+            Optional<MigrationVersion> applied = newestApplied(flyway);
+            if (available.isPresent() && applied.isPresent() && applied.get().compareTo(available.get()) >= 0) {
+                log.info("Schema is at version {}, skipping Flyway", applied.get());
+                return;
+            }
+            flyway.migrate();
+        };
+    }
+
+    /**
+     * The class a bean is created from: its own class, or the configuration class declaring its factory method.
+     */
+    private static String declaringClassName(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        if (definition.getBeanClassName() != null) {
+            return definition.getBeanClassName();
+        }
+        String factoryBean = definition.getFactoryBeanName();
+        if (factoryBean != null && beanFactory.containsBeanDefinition(factoryBean)) {
+            return beanFactory.getBeanDefinition(factoryBean).getBeanClassName();
+        }
+        return null;
+    }
+
+    /**
+     * The newest versioned SQL migration in the classpath locations, or empty if any location
+     * is not on the classpath and cannot be listed cheaply.
+     */
+    private static Optional<MigrationVersion> newestMigration(Flyway flyway) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        String prefix = flyway.getConfiguration().getSqlMigrationPrefix();
+        String separator = flyway.getConfiguration().getSqlMigrationSeparator();
+        MigrationVersion newest = null;
+        try {
+            for (Location location : flyway.getConfiguration().getLocations()) {
+                if (!location.isClassPath()) {
+                    return Optional.empty();
+                }
+                for (String suffix : flyway.getConfiguration().getSqlMigrationSuffixes()) {
+                    for (Resource resource : resolver.getResources(
+                            "classpath*:" + location.getPath() + "/" + prefix + "*" + separator + "*" + suffix)) {
+                        String file = resource.getFilename();
+                        String version = file.substring(prefix.length(), file.indexOf(separator)).replace('_', '.');
+                        MigrationVersion candidate = MigrationVersion.fromVersion(version);
+                        if (newest == null || candidate.compareTo(newest) > 0) {
+                            newest = candidate;
+                        }
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot list migrations", ex);
+        }
+        return Optional.ofNullable(newest);
+    }
+
+    /**
+     * The newest successfully applied version in the schema history, or empty if there is no history table yet.
+     */
+    private static Optional<MigrationVersion> newestApplied(Flyway flyway) {
+        String schema = flyway.getConfiguration().getDefaultSchema();
+        String table = schema != null
+                ? schema + "." + flyway.getConfiguration().getTable()
+                : flyway.getConfiguration().getTable();
+        try {
+            return new JdbcTemplate(flyway.getConfiguration().getDataSource())
+                    .queryForList("SELECT version FROM " + table + " WHERE success AND version IS NOT NULL", String.class)
+                    .stream()
+                    .map(MigrationVersion::fromVersion)
+                    .max(MigrationVersion::compareTo);
+        } catch (DataAccessException ex) {
+            return Optional.empty();
+        }
+    }
+}
@@ -23,6 +23,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:3000")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Next-Cursor", "Link", "ETag", "Last-Modified", "Idempotent-Replayed", "Location")
                 .allowCredentials(true);
     }
 }
@@ -1,7 +1,13 @@
 package com.grainger.products.controller;
 
+import com.grainger.products.service.IdempotencyKeyReusedException;
+import com.grainger.products.service.IngestQueueFullException;
+import com.grainger.products.service.IngestShuttingDownException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -28,6 +34,67 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * Handle an idempotency key reused with a different request.
+     *
+     * @param ex the exception
+     * @return Error response with 422 Unprocessable Entity status
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Map<String, String>> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
+
+    /**
+     * Handle a full ingestion queue.
+     * The request was not accepted, so the client may retry once the queue has drained.
+     *
+     * @param ex the exception
+     * @return Error response with 429 Too Many Requests status
+     */
+    @ExceptionHandler(IngestQueueFullException.class)
+    public ResponseEntity<Map<String, String>> handleIngestQueueFull(IngestQueueFullException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    /**
+     * Handle an ingestion request arriving while the instance shuts down.
+     * The request was not accepted, so the client may retry, reaching another instance.
+     *
+     * @param ex the exception
+     * @return Error response with 503 Service Unavailable status
+     */
+    @ExceptionHandler(IngestShuttingDownException.class)
+    public ResponseEntity<Map<String, String>> handleIngestShuttingDown(IngestShuttingDownException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    /**
+     * Handle failure to obtain a database connection within the pool's connection timeout.
+     * The request was not processed, so the client may retry.
+     *
+     * @param ex the exception
+     * @return Error response with 503 Service Unavailable status
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<Map<String, String>> handleConnectionUnavailable(Exception ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Service temporarily unavailable, please retry");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
     /**
      * Handle generic exceptions.
      *
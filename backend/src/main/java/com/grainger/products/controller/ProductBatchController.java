@@ -0,0 +1,112 @@
+package com.grainger.products.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductBatchResult;
+import com.grainger.products.service.ProductBatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * REST Controller for bulk product creation.
+ * Accepts a JSON array or newline-delimited JSON and parses it incrementally,
+ * so large supplier feeds are never held in memory as a whole.
+ */
+@RestController
+@RequestMapping("/api/products/batch")
+@Tag(name = "Products", description = "Product management API")
+public class ProductBatchController {
+
+    private final ProductBatchService productBatchService;
+    private final ObjectReader productReader;
+
+    /**
+     * Constructor injection for the batch dependencies.
+     *
+     * @param productBatchService the product batch service
+     * @param objectMapper        the application object mapper
+     */
+    public ProductBatchController(ProductBatchService productBatchService, ObjectMapper objectMapper) {
+        this.productBatchService = productBatchService;
+        this.productReader = objectMapper.readerFor(Product.class);
+    }
+
+    /**
+     * Create many products in one request.
+     *
+     * @param body the request body: a JSON array or one product per line
+     * @return Per-item results in request order
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Create products in bulk",
+            description = "Creates products from a JSON array or NDJSON body and returns a result per item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Malformed request body")
+    })
+    public ResponseEntity<ProductBatchResult> createProducts(InputStream body) throws IOException {
+        // A top-level JSON array is unwrapped, so both formats yield one product per element
+        try (MappingIterator<Product> products = productReader.readValues(body)) {
+            ProductBatchResult result = productBatchService.createProducts(new MalformedInputGuard(products));
+            return ResponseEntity.ok(result);
+        }
+    }
+
+    /**
+     * Turns JSON parse failures while iterating into IllegalArgumentException,
+     * which the global handler maps to 400 Bad Request.
+     */
+    private static final class MalformedInputGuard implements Iterator<Product> {
+
+        private final MappingIterator<Product> delegate;
+        private int index;
+
+        MalformedInputGuard(MappingIterator<Product> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return delegate.hasNext();
+            } catch (RuntimeException ex) {
+                throw translate(ex);
+            }
+        }
+
+        @Override
+        public Product next() {
+            try {
+                Product product = delegate.next();
+                index++;
+                return product;
+            } catch (RuntimeException ex) {
+                throw translate(ex);
+            }
+        }
+
+        // MappingIterator wraps mapping errors and parse errors differently
+        private RuntimeException translate(RuntimeException ex) {
+            if (ex instanceof RuntimeJsonMappingException || ex.getCause() instanceof JsonProcessingException) {
+                return new IllegalArgumentException("Malformed product at index " + index, ex);
+            }
+            return ex;
+        }
+    }
+}
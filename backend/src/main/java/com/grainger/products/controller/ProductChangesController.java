@@ -0,0 +1,92 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.model.ProductChanges;
+import com.grainger.products.service.ProductChangeBroadcaster;
+import com.grainger.products.service.ProductChangeService;
+import com.grainger.products.service.ProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST Controller for the product change feed.
+ * Clients keep a local copy of the catalog in sync by polling for changes
+ * after a watermark, or by subscribing to a stream of them, instead of
+ * re-reading every page.
+ */
+@RestController
+@RequestMapping("/api/products/changes")
+@Tag(name = "Products", description = "Product management API")
+public class ProductChangesController {
+
+    private final ProductChangeService changeService;
+    private final ProductChangeBroadcaster broadcaster;
+
+    /**
+     * Constructor injection for the change feed services.
+     *
+     * @param changeService the change feed
+     * @param broadcaster   the live change stream
+     */
+    public ProductChangesController(ProductChangeService changeService, ProductChangeBroadcaster broadcaster) {
+        this.changeService = changeService;
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Get the changes after a watermark.
+     * Poll again with the returned nextToken; while hasMore is true further
+     * changes are available immediately.
+     *
+     * @param since the watermark from the previous response, omitted for a full sync
+     * @param limit the maximum number of changes to return
+     * @return the upserted products, deleted ids and the next watermark
+     */
+    @GetMapping
+    @Operation(summary = "Get product changes",
+            description = "Retrieves products created, updated or deleted after a watermark")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes after the watermark"),
+            @ApiResponse(responseCode = "400", description = "Invalid watermark or page size")
+    })
+    public ResponseEntity<ProductChanges> getChanges(
+            @Parameter(description = "Watermark from the previous response")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Page size (1-" + ProductService.MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(changeService.getChanges(since, limit));
+    }
+
+    /**
+     * Subscribe to changes as Server-Sent Events.
+     * A reconnecting client resumes from its Last-Event-ID header; an explicit
+     * since parameter takes precedence.
+     *
+     * @param since       the watermark to resume from, omitted for live changes only
+     * @param lastEventId the id of the last event received before a reconnect
+     * @return the event stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream product changes",
+            description = "Streams upsert and delete events; a resync event means the client must catch up by polling")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "400", description = "Invalid watermark")
+    })
+    public SseEmitter streamChanges(
+            @Parameter(description = "Watermark to resume from")
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return broadcaster.subscribe(since != null ? since : lastEventId);
+    }
+}
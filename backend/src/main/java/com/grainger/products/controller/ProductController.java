@@ -1,17 +1,28 @@
 package com.grainger.products.controller;
 
 import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductField;
+import com.grainger.products.model.ProductPageVersion;
+import com.grainger.products.model.ProductVersion;
+import com.grainger.products.model.ProductView;
+import com.grainger.products.model.ProductViewPage;
+import com.grainger.products.service.ProductIdempotencyService;
 import com.grainger.products.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST Controller for Product operations.
@@ -22,63 +33,171 @@ import java.util.Optional;
 @Tag(name = "Products", description = "Product management API")
 public class ProductController {
 
+    /**
+     * Response header carrying the opaque cursor for the next page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Request header making POST /api/products safe to retry.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Response header marking a creation answered from an earlier request with the same key.
+     */
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final ProductService productService;
+    private final ProductIdempotencyService idempotencyService;
 
     /**
-     * Constructor injection for ProductService.
+     * Constructor injection for the product services.
      *
-     * @param productService the product service
+     * @param productService     the product service
+     * @param idempotencyService deduplicates retried creations
      */
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductIdempotencyService idempotencyService) {
         this.productService = productService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
-     * Get all products.
+     * Get a page of products.
+     * The cursor for the next page is returned in the X-Next-Cursor header
+     * and as a Link header with rel="next"; both are absent on the last page.
+     * Conditional requests are answered from the page's ids and timestamps
+     * alone, returning 304 when the page is unchanged. Products are read as
+     * views, without hydrating entities, and can be reduced to selected fields.
      *
-     * @return List of all products
+     * @param cursor  opaque cursor from the previous page, omitted for the first page
+     * @param limit   the maximum number of products to return
+     * @param fields  comma-separated fields to return, such as "id,name"; omitted for all
+     * @param request the current request, for conditional request handling
+     * @return List of products in the requested page, or null once a 304 has been prepared
      */
     @GetMapping
-    @Operation(summary = "Get all products", description = "Retrieves a list of all products")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list of products")
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    @Operation(summary = "Get products", description = "Retrieves a page of products ordered by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page of products"),
+            @ApiResponse(responseCode = "304", description = "Page unchanged since the client's copy"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, page size or field")
+    })
+    public ResponseEntity<List<ProductView>> getAllProducts(
+            @Parameter(description = "Opaque cursor from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-" + ProductService.MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int limit,
+            @Parameter(description = "Comma-separated fields to return (id, name, createdAt, updatedAt)")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        if (ProductValidators.isPageConditional(request)) {
+            ProductPageVersion current = productService.getProductPageVersion(cursor, limit);
+            if (ProductValidators.checkNotModified(request, current, selected)) {
+                return null;
+            }
+        }
+
+        ProductViewPage page = productService.getProductViewPage(cursor, limit);
+        ResponseEntity.BodyBuilder response =
+                ProductValidators.withValidators(ResponseEntity.ok(), ProductPageVersion.of(page), selected);
+        if (page.hasNext()) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .replaceQueryParam("limit", limit)
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.items().stream().map(view -> view.select(selected)).toList());
     }
 
     /**
      * Get a product by ID.
+     * Conditional requests are answered from the product's version alone,
+     * without loading or serializing it, returning 304 when it is unchanged.
      *
-     * @param id the product ID
-     * @return The product if found, 404 otherwise
+     * @param id      the product ID
+     * @param request the current request, for conditional request handling
+     * @return The product if found, 404 otherwise, or null once a 304 has been prepared
      */
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieves a specific product by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Product found"),
+            @ApiResponse(responseCode = "304", description = "Product unchanged since the client's copy"),
             @ApiResponse(responseCode = "404", description = "Product not found")
     })
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<Product> getProductById(@PathVariable Long id, WebRequest request) {
+        if (ProductValidators.isConditional(request)) {
+            Optional<ProductVersion> current = productService.getProductVersion(id);
+            if (current.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (ProductValidators.checkNotModified(request, current.get())) {
+                return null;
+            }
+        }
+
         Optional<Product> product = productService.getProductById(id);
-        return product.map(ResponseEntity::ok)
+        return product.map(p -> ProductValidators.withValidators(ResponseEntity.ok(), ProductVersion.of(p)).body(p))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
      * Create a new product.
+     * With an Idempotency-Key header, retries of the same request return the
+     * product created by the first one instead of inserting it again.
      *
-     * @param product the product to create
+     * @param product        the product to create
+     * @param idempotencyKey optional key identifying the request across retries
      * @return The created product with HTTP 201 status
      */
     @PostMapping
     @Operation(summary = "Create a new product", description = "Creates a new product with the provided data")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Product created successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid product data")
+            @ApiResponse(responseCode = "201", description = "Product created, or replayed for a repeated Idempotency-Key"),
+            @ApiResponse(responseCode = "400", description = "Invalid product data or idempotency key"),
+            @ApiResponse(responseCode = "404", description = "Replayed product has since been deleted"),
+            @ApiResponse(responseCode = "422", description = "Idempotency key already used with a different product")
+    })
+    public ResponseEntity<Product> createProduct(
+            @RequestBody Product product,
+            @Parameter(description = "Key identifying this request across retries")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            Product createdProduct = productService.createProduct(product);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
+        }
+
+        ProductIdempotencyService.IdempotentCreation creation =
+                idempotencyService.createProduct(idempotencyKey, product);
+        if (creation.product() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, Boolean.toString(creation.replayed()))
+                .body(creation.product());
+    }
+
+    /**
+     * Delete a product.
+     * The deletion is recorded so that change feed clients learn about it.
+     *
+     * @param id the product ID
+     * @return 204 if the product was deleted, 404 if it did not exist
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a product", description = "Deletes a product and records it in the change feed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Product deleted"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
     })
-    public ResponseEntity<Product> createProduct(@RequestBody Product product) {
-        Product createdProduct = productService.createProduct(product);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
+    public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
+        return productService.deleteProduct(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
     }
 
 }
@@ -0,0 +1,138 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.service.ProductExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * REST Controller for bulk catalog export.
+ * Streams the full product catalog as newline-delimited JSON. The export
+ * runs as an async task with its own timeout, so other async requests keep
+ * the default one.
+ */
+@RestController
+@RequestMapping("/api/products/export")
+@Tag(name = "Products", description = "Product management API")
+public class ProductExportController {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ProductExportService productExportService;
+    private final long timeoutMillis;
+
+    /**
+     * Constructor injection for ProductExportService.
+     *
+     * @param productExportService the product export service
+     * @param timeout              how long an export may stream before it is cut off
+     */
+    public ProductExportController(ProductExportService productExportService,
+                                   @Value("${products.export.timeout:30m}") Duration timeout) {
+        this.productExportService = productExportService;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Export all products as newline-delimited JSON.
+     * The response is gzip-compressed when the client accepts gzip with a non-zero q-value.
+     *
+     * @param acceptEncoding the Accept-Encoding request header
+     * @param response       the response the NDJSON body is written to
+     * @return the task streaming one product per line
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all products", description = "Streams every product as newline-delimited JSON")
+    @ApiResponse(responseCode = "200", description = "Catalog export stream")
+    public WebAsyncTask<Void> exportProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.ndjson\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return new WebAsyncTask<>(timeoutMillis, () -> {
+            OutputStream out = response.getOutputStream();
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                productExportService.exportNdjson(gzipOut);
+                gzipOut.finish();
+            } else {
+                productExportService.exportNdjson(out);
+            }
+            out.flush();
+            return null;
+        });
+    }
+
+    /**
+     * Whether an Accept-Encoding header accepts gzip: gzip or x-gzip is listed
+     * with a q-value above zero or, if neither is listed, * is. A coding with
+     * q=0 is refused, and one whose q-value cannot be parsed is ignored.
+     *
+     * @param acceptEncoding the header value, or null if absent
+     * @return true if the response may be gzip-compressed
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            Double q = qValue(parts);
+            if (q == null) {
+                continue;
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (coding.equals("*")) {
+                any = q;
+            }
+        }
+        Double accepted = gzip != null ? gzip : any;
+        return accepted != null && accepted > 0;
+    }
+
+    /**
+     * The q-value among the parameters of an Accept-Encoding entry, 1 if it has none.
+     *
+     * @param parts the entry split at semicolons: the coding, then its parameters
+     * @return the q-value, or null if it is not a number between 0 and 1
+     */
+    private static Double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    double q = Double.parseDouble(parameter.substring(2).trim());
+                    return q >= 0 && q <= 1 ? q : null;
+                } catch (NumberFormatException ex) {
+                    return null;
+                }
+            }
+        }
+        return 1.0;
+    }
+}
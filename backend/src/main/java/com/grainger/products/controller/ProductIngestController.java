@@ -0,0 +1,91 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductIngestStatus;
+import com.grainger.products.service.ProductIngestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * REST Controller for asynchronous product creation.
+ * Products are acknowledged with 202 Accepted as soon as they are queued and
+ * written in batches in the background; clients follow the Location header to
+ * track them. Enabled with products.ingest.enabled=true.
+ */
+@RestController
+@RequestMapping("/api/products/ingest")
+@Tag(name = "Products", description = "Product management API")
+@ConditionalOnProperty(name = "products.ingest.enabled", havingValue = "true")
+public class ProductIngestController {
+
+    private final ProductIngestService ingestService;
+
+    /**
+     * Constructor injection for ProductIngestService.
+     *
+     * @param ingestService the ingestion queue
+     */
+    public ProductIngestController(ProductIngestService ingestService) {
+        this.ingestService = ingestService;
+    }
+
+    /**
+     * Queue products for creation.
+     *
+     * @param products the products to create
+     * @return the request status with its tracking id, and its URL in the Location header
+     */
+    @PostMapping
+    @Operation(summary = "Queue products for creation",
+            description = "Validates and queues products, returning a tracking id before they are written")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Products queued"),
+            @ApiResponse(responseCode = "400", description = "Invalid product data"),
+            @ApiResponse(responseCode = "429", description = "Queue full, retry later"),
+            @ApiResponse(responseCode = "503", description = "Shutting down, retry on another instance")
+    })
+    public ResponseEntity<ProductIngestStatus> ingestProducts(@RequestBody List<Product> products) {
+        ProductIngestStatus status = ingestService.submit(products);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(status.id())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+    /**
+     * Get the status of queued products.
+     *
+     * @param id the tracking id returned when the products were queued
+     * @return the request status if known, 404 otherwise
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Get ingestion status",
+            description = "Retrieves how many queued products have been created or failed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Status found"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired tracking id")
+    })
+    public ResponseEntity<ProductIngestStatus> getStatus(
+            @Parameter(description = "Tracking id", required = true)
+            @PathVariable String id) {
+        return ingestService.getStatus(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,62 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.model.ProductField;
+import com.grainger.products.model.ProductViewLookupResult;
+import com.grainger.products.service.ProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * REST Controller for resolving many product ids in one request.
+ * Replaces N calls to GET /api/products/{id} with one round trip and one query.
+ */
+@RestController
+@RequestMapping("/api/products/lookup")
+@Tag(name = "Products", description = "Product management API")
+public class ProductLookupController {
+
+    private final ProductService productService;
+
+    /**
+     * Constructor injection for ProductService.
+     *
+     * @param productService the product service
+     */
+    public ProductLookupController(ProductService productService) {
+        this.productService = productService;
+    }
+
+    /**
+     * Look up products by id.
+     *
+     * @param ids    the product IDs, as a JSON array
+     * @param fields comma-separated fields to return, such as "id,name"; omitted for all
+     * @return the products found in request order, and the ids not found
+     */
+    @PostMapping
+    @Operation(summary = "Look up products by id",
+            description = "Resolves up to " + ProductService.MAX_LOOKUP_IDS + " ids with a single query")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products found, in request order, and missing ids"),
+            @ApiResponse(responseCode = "400", description = "Too many ids, a null id, or an unknown field")
+    })
+    public ResponseEntity<ProductViewLookupResult> lookupProducts(
+            @RequestBody List<Long> ids,
+            @Parameter(description = "Comma-separated fields to return (id, name, createdAt, updatedAt)")
+            @RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        return ResponseEntity.ok(ProductViewLookupResult.of(productService.lookupProducts(ids), selected));
+    }
+}
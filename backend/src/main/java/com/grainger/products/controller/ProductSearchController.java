@@ -0,0 +1,72 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.service.ProductSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * REST Controller for product name search.
+ */
+@RestController
+@RequestMapping("/api/products/search")
+@Tag(name = "Products", description = "Product management API")
+public class ProductSearchController {
+
+    private final ProductSearchService productSearchService;
+
+    /**
+     * Constructor injection for ProductSearchService.
+     *
+     * @param productSearchService the product search service
+     */
+    public ProductSearchController(ProductSearchService productSearchService) {
+        this.productSearchService = productSearchService;
+    }
+
+    /**
+     * Search products by partial or misspelled name.
+     * A Link header with rel="next" is returned when the page is full,
+     * unless the next page would reach past MAX_RESULT_DEPTH and be rejected.
+     *
+     * @param q    the search text
+     * @param page the zero-based page number
+     * @param size the page size
+     * @return List of matching products, best matches first
+     */
+    @GetMapping
+    @Operation(summary = "Search products", description = "Ranked search over product names")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching products, best first"),
+            @ApiResponse(responseCode = "400", description = "Invalid query or paging")
+    })
+    public ResponseEntity<List<Product>> searchProducts(
+            @Parameter(description = "Search text") @RequestParam String q,
+            @Parameter(description = "Zero-based page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (1-" + ProductSearchService.MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "20") int size) {
+        List<Product> products = productSearchService.searchProducts(q, page, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        boolean nextWithinDepth = (long) (page + 1) * size + size <= ProductSearchService.MAX_RESULT_DEPTH;
+        if (products.size() == size && nextWithinDepth) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", page + 1)
+                    .replaceQueryParam("size", size)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(products);
+    }
+}
@@ -0,0 +1,64 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.model.ProductSuggestion;
+import com.grainger.products.service.ProductNameIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller for product name typeahead.
+ * Answers from the in-memory name index without touching the database;
+ * with products.suggest.enabled=false there is no index and every request
+ * gets 404.
+ */
+@RestController
+@RequestMapping("/api/products/suggest")
+@Tag(name = "Products", description = "Product management API")
+public class ProductSuggestController {
+
+    private final ProductNameIndex productNameIndex;
+
+    /**
+     * Constructor injection for ProductNameIndex.
+     *
+     * @param productNameIndex the product name index, if suggestions are enabled
+     */
+    public ProductSuggestController(ObjectProvider<ProductNameIndex> productNameIndex) {
+        this.productNameIndex = productNameIndex.getIfAvailable();
+    }
+
+    /**
+     * Suggest products whose name starts with the given prefix.
+     *
+     * @param prefix the typed prefix
+     * @param limit  the maximum number of suggestions
+     * @return List of suggestions in alphabetical order, or 404 if suggestions are disabled
+     */
+    @GetMapping
+    @Operation(summary = "Suggest products", description = "Typeahead suggestions by name prefix, case-insensitive")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions in alphabetical order"),
+            @ApiResponse(responseCode = "400", description = "Invalid prefix or limit"),
+            @ApiResponse(responseCode = "404", description = "Suggestions are disabled")
+    })
+    public ResponseEntity<List<ProductSuggestion>> suggest(
+            @Parameter(description = "Name prefix") @RequestParam String prefix,
+            @Parameter(description = "Maximum suggestions (1-" + ProductNameIndex.MAX_LIMIT + ")")
+            @RequestParam(defaultValue = "10") int limit) {
+        if (productNameIndex == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(productNameIndex.suggest(prefix, limit));
+    }
+}
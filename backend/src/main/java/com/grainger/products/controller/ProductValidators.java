@@ -0,0 +1,171 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.model.ProductField;
+import com.grainger.products.model.ProductPageVersion;
+import com.grainger.products.model.ProductVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * ETag and Last-Modified validators for product responses.
+ * A product's ETag is derived from its id and updatedAt; a page's from the
+ * ids and updatedAt of its items and whether a next page exists, so any
+ * change to the page's content or membership changes it. A page reduced to
+ * selected fields is a different representation and gets a different ETag.
+ * Pages carry no Last-Modified: their newest updatedAt does not move when a
+ * product leaves the page, so If-Modified-Since could not tell it changed.
+ * Timestamps are compared at microsecond precision, the precision the
+ * database keeps.
+ * <p>
+ * ETags are weak: the same version is served as JSON, CBOR or Smile, gzipped
+ * or not, and Tomcat does not compress responses carrying a strong ETag.
+ * Responses vary by Accept so shared caches keep the encodings apart.
+ */
+final class ProductValidators {
+
+    /**
+     * Bytes of the page digest kept in the ETag.
+     */
+    private static final int PAGE_DIGEST_BYTES = 16;
+
+    private ProductValidators() {
+    }
+
+    /**
+     * Whether the request carries a validator that could produce a 304 for a product.
+     *
+     * @param request the current request
+     * @return true if If-None-Match or If-Modified-Since is present
+     */
+    static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * Whether the request carries a validator that could produce a 304 for a page.
+     *
+     * @param request the current request
+     * @return true if If-None-Match is present
+     */
+    static boolean isPageConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+
+    /**
+     * Check the request's validators against a product version.
+     * If-None-Match takes precedence over If-Modified-Since.
+     *
+     * @param request the current request
+     * @param version the current version of the product
+     * @return true if the client's copy is current and a 304 has been prepared
+     */
+    static boolean checkNotModified(WebRequest request, ProductVersion version) {
+        return request.checkNotModified(etag(version), lastModifiedMillis(version.updatedAt()));
+    }
+
+    /**
+     * Check the request's If-None-Match against a page version; If-Modified-Since is ignored.
+     *
+     * @param request the current request
+     * @param version the current version of the page
+     * @param fields  the fields selected for the response
+     * @return true if the client's copy is current and a 304 has been prepared
+     */
+    static boolean checkNotModified(WebRequest request, ProductPageVersion version, Set<ProductField> fields) {
+        return request.checkNotModified(etag(version, fields), -1);
+    }
+
+    /**
+     * Add the validators for a product to a response.
+     *
+     * @param response the response being built
+     * @param version  the version of the product in the body
+     * @return the response builder
+     */
+    static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder response, ProductVersion version) {
+        return withValidators(response, etag(version), version.updatedAt());
+    }
+
+    /**
+     * Add the validator for a page, its ETag, to a response.
+     *
+     * @param response the response being built
+     * @param version  the version of the page in the body
+     * @param fields   the fields selected for the body
+     * @return the response builder
+     */
+    static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder response, ProductPageVersion version,
+                                                     Set<ProductField> fields) {
+        return withValidators(response, etag(version, fields), null);
+    }
+
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder response,
+                                                             String etag, LocalDateTime lastModified) {
+        response.cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).eTag(etag);
+        if (lastModified != null) {
+            response.lastModified(toInstant(lastModified));
+        }
+        return response;
+    }
+
+    private static String etag(ProductVersion version) {
+        if (version.updatedAt() == null) {
+            return null;
+        }
+        return "W/\"" + version.id() + "-" + Long.toHexString(epochMicros(version.updatedAt())) + "\"";
+    }
+
+    private static String etag(ProductPageVersion version, Set<ProductField> fields) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES);
+        for (ProductVersion item : version.items()) {
+            buffer.clear();
+            buffer.putLong(item.id());
+            buffer.putLong(item.updatedAt() == null ? 0L : epochMicros(item.updatedAt()));
+            digest.update(buffer.array());
+        }
+        digest.update((byte) (version.hasNext() ? 1 : 0));
+        if (fields.size() != ProductField.ALL.size()) {
+            for (ProductField field : fields) {
+                digest.update((byte) (field.ordinal() + 2));
+            }
+        }
+        byte[] hash = digest.digest();
+        return "W/\"p-" + HexFormat.of().formatHex(hash, 0, PAGE_DIGEST_BYTES) + "\"";
+    }
+
+    private static long lastModifiedMillis(LocalDateTime updatedAt) {
+        return updatedAt == null ? -1 : toInstant(updatedAt).toEpochMilli();
+    }
+
+    /**
+     * Timestamps are stored as local date-times in UTC.
+     */
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC);
+    }
+
+    private static long epochMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
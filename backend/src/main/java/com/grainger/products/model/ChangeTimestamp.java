@@ -0,0 +1,29 @@
+package com.grainger.products.model;
+
+import org.hibernate.annotations.ValueGenerationType;
+import org.hibernate.generator.EventType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stamps a LocalDateTime property with the change feed's clock: the database
+ * server's clock in UTC on PostgreSQL, the JVM's clock in UTC elsewhere.
+ * Every instance stamps from the same clock, so changes are ordered the same
+ * way whichever instance made them, and UTC has no hour that repeats when
+ * daylight saving time ends. See {@link ChangeTimestampGenerator}.
+ */
+@ValueGenerationType(generatedBy = ChangeTimestampGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ChangeTimestamp {
+
+    /**
+     * The events on which the property is stamped.
+     *
+     * @return insert, update, or both
+     */
+    EventType[] event() default {EventType.INSERT, EventType.UPDATE};
+}
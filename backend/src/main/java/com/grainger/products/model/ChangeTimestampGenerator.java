@@ -0,0 +1,94 @@
+package com.grainger.products.model;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Member;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+/**
+ * Generates {@link ChangeTimestamp} values.
+ * <p>
+ * On PostgreSQL the stamp is the database's statement time in UTC, read
+ * together with the transaction's id. Taking the id registers the transaction
+ * as a writer in pg_stat_activity from the moment of the stamp, so change
+ * feed readers can hold back everything at or after the start of the oldest
+ * open writer (see {@code PostgresProductChangeClock}) instead of relying on
+ * transactions to commit quickly. The stamp is read once per transaction
+ * and shared by all of its changes. Other databases, such as H2 in tests,
+ * use the JVM's clock in UTC. Values are truncated to microseconds, the
+ * precision the database keeps, so stamped entities equal their stored rows.
+ */
+public class ChangeTimestampGenerator implements BeforeExecutionGenerator {
+
+    private static final String STAMP_SQL = "SELECT statement_timestamp() AT TIME ZONE 'UTC', txid_current()";
+
+    private final EnumSet<EventType> eventTypes;
+
+    /**
+     * Create the generator for an annotated property; called by Hibernate.
+     *
+     * @param annotation the property's annotation
+     * @param member     the annotated field or getter
+     * @param context    the generator creation context
+     */
+    public ChangeTimestampGenerator(ChangeTimestamp annotation, Member member, GeneratorCreationContext context) {
+        this.eventTypes = EnumSet.copyOf(Arrays.asList(annotation.event()));
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return eventTypes;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        if (!(session.getJdbcServices().getDialect() instanceof PostgreSQLDialect)) {
+            return LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+        }
+        LocalDateTime stamp = (LocalDateTime) TransactionSynchronizationManager.getResource(ChangeTimestampGenerator.class);
+        if (stamp == null) {
+            stamp = readDatabaseClock(session);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.bindResource(ChangeTimestampGenerator.class, stamp);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(ChangeTimestampGenerator.class);
+                    }
+                });
+            }
+        }
+        return stamp;
+    }
+
+    /**
+     * Read the statement time on the transaction's own connection, which also assigns the transaction its id.
+     * Plain JDBC, so that Hibernate does not flush the session first.
+     */
+    private static LocalDateTime readDatabaseClock(SharedSessionContractImplementor session) {
+        Connection connection = session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection();
+        try (PreparedStatement statement = connection.prepareStatement(STAMP_SQL);
+             ResultSet result = statement.executeQuery()) {
+            result.next();
+            return result.getObject(1, LocalDateTime.class);
+        } catch (SQLException ex) {
+            throw session.getJdbcServices().getSqlExceptionHelper()
+                    .convert(ex, "Cannot read the database clock", STAMP_SQL);
+        }
+    }
+}
@@ -2,19 +2,36 @@ package com.grainger.products.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.generator.EventType;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 /**
  * Product entity representing a product in the system.
  * Currently only contains a name field as per MVP requirements.
+ * On PostgreSQL the table is range-partitioned on id (see V6 migration).
+ * Timestamps are in UTC, stamped from the change feed's clock.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_updated_at_id", columnList = "updated_at, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
 public class Product {
 
+    /**
+     * Second-level cache region holding Product entities.
+     */
+    public static final String CACHE_REGION = "product";
+
+    /**
+     * Ids come from a pooled sequence (see V2 migration) rather than an
+     * identity column, so Hibernate can batch inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_id_seq")
+    @SequenceGenerator(name = "products_id_seq", sequenceName = "products_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Product name is required")
@@ -22,9 +39,14 @@ public class Product {
     private String name;
 
     @Column(name = "created_at", nullable = false, updatable = false)
+    @ChangeTimestamp(event = EventType.INSERT)
     private LocalDateTime createdAt;
 
+    /**
+     * The product's position in the change feed, together with its id.
+     */
     @Column(name = "updated_at", nullable = false)
+    @ChangeTimestamp
     private LocalDateTime updatedAt;
 
     /**
@@ -42,23 +64,6 @@ public class Product {
         this.name = name;
     }
 
-    /**
-     * JPA lifecycle callback to set timestamps before persisting.
-     */
-    @PrePersist
-    protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
-    }
-
-    /**
-     * JPA lifecycle callback to update timestamp before updating.
-     */
-    @PreUpdate
-    protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
-    }
-
     // Getters and Setters
 
     public Long getId() {
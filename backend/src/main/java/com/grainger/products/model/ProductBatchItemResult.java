@@ -0,0 +1,34 @@
+package com.grainger.products.model;
+
+/**
+ * Outcome of a single item in a batch product creation request.
+ *
+ * @param index  the position of the item in the request, starting at 0
+ * @param status whether the item was created, rejected by validation or by the database, or failed to
+ *               insert for a transient reason and may be submitted again
+ * @param id     the generated product id, or null if the item was not created
+ * @param error  the reason the item was not created, or null if it was
+ */
+public record ProductBatchItemResult(int index, Status status, Long id, String error) {
+
+    /**
+     * Possible outcomes for a batch item.
+     */
+    public enum Status {
+        CREATED,
+        REJECTED,
+        FAILED
+    }
+
+    public static ProductBatchItemResult created(int index, Long id) {
+        return new ProductBatchItemResult(index, Status.CREATED, id, null);
+    }
+
+    public static ProductBatchItemResult rejected(int index, String error) {
+        return new ProductBatchItemResult(index, Status.REJECTED, null, error);
+    }
+
+    public static ProductBatchItemResult failed(int index, String error) {
+        return new ProductBatchItemResult(index, Status.FAILED, null, error);
+    }
+}
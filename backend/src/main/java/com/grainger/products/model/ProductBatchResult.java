@@ -0,0 +1,13 @@
+package com.grainger.products.model;
+
+import java.util.List;
+
+/**
+ * Summary and per-item results of a batch product creation request.
+ *
+ * @param created  the number of products created
+ * @param rejected the number of items that were not created
+ * @param items    the result for every item, in request order
+ */
+public record ProductBatchResult(int created, int rejected, List<ProductBatchItemResult> items) {
+}
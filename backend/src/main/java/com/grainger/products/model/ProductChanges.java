@@ -0,0 +1,16 @@
+package com.grainger.products.model;
+
+import java.util.List;
+
+/**
+ * A batch of changes from the product change feed.
+ * Apply the upserts before the deletions: a product created and then deleted
+ * within the same batch appears in both.
+ *
+ * @param upserts    products created or updated, in change order
+ * @param deletedIds ids of products deleted, in change order
+ * @param nextToken  watermark to pass as since on the next request
+ * @param hasMore    whether further changes are available right away
+ */
+public record ProductChanges(List<Product> upserts, List<Long> deletedIds, String nextToken, boolean hasMore) {
+}
@@ -0,0 +1,62 @@
+package com.grainger.products.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A product field a client can select with the fields request parameter.
+ */
+public enum ProductField {
+    ID("id"),
+    NAME("name"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    /**
+     * Every field; the selection when the client does not ask for one.
+     */
+    public static final Set<ProductField> ALL = Collections.unmodifiableSet(EnumSet.allOf(ProductField.class));
+
+    private final String property;
+
+    ProductField(String property) {
+        this.property = property;
+    }
+
+    /**
+     * The JSON property name of the field.
+     *
+     * @return the property name
+     */
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Parse a comma-separated list of JSON property names, such as "id,name".
+     *
+     * @param fields the requested fields, or null for all of them
+     * @return the selected fields
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    public static Set<ProductField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<ProductField> selected = EnumSet.noneOf(ProductField.class);
+        for (String name : fields.split(",")) {
+            selected.add(fromProperty(name.strip()));
+        }
+        return selected.size() == ALL.size() ? ALL : Collections.unmodifiableSet(selected);
+    }
+
+    private static ProductField fromProperty(String name) {
+        for (ProductField field : values()) {
+            if (field.property.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name);
+    }
+}
@@ -0,0 +1,105 @@
+package com.grainger.products.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Idempotency key of a product creation, and the product it created.
+ * New keys are always inserted, never merged, so a key another instance
+ * recorded first fails with a primary key violation instead of being
+ * overwritten.
+ */
+@Entity
+@Table(name = "product_idempotency_keys",
+        indexes = @Index(name = "idx_product_idempotency_keys_created_at", columnList = "created_at"))
+public class ProductIdempotencyKey implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Transient
+    private boolean isNew;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public ProductIdempotencyKey() {
+    }
+
+    /**
+     * Constructor for recording a key.
+     *
+     * @param idempotencyKey the key sent by the client
+     * @param fingerprint    the hash of the request payload
+     * @param productId      the id of the created product
+     * @param createdAt      when the key was first used
+     */
+    public ProductIdempotencyKey(String idempotencyKey, String fingerprint, Long productId, LocalDateTime createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.fingerprint = fingerprint;
+        this.productId = productId;
+        this.createdAt = createdAt;
+        this.isNew = true;
+    }
+
+    /**
+     * JPA lifecycle callback marking loaded and saved keys as existing.
+     */
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProductIdempotencyKey that = (ProductIdempotencyKey) o;
+        return Objects.equals(idempotencyKey, that.idempotencyKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idempotencyKey);
+    }
+}
@@ -0,0 +1,25 @@
+package com.grainger.products.model;
+
+import java.util.List;
+
+/**
+ * Progress of an asynchronous product ingestion request.
+ *
+ * @param id       the tracking id returned when the request was accepted
+ * @param state    whether items are still waiting to be written
+ * @param accepted the number of items accepted into the queue
+ * @param created  the number of products created so far
+ * @param failed   the number of items that could not be created
+ * @param items    the result for every item written so far, in request order
+ */
+public record ProductIngestStatus(String id, State state, int accepted, int created, int failed,
+                                  List<ProductBatchItemResult> items) {
+
+    /**
+     * Possible states of an ingestion request.
+     */
+    public enum State {
+        PENDING,
+        COMPLETED
+    }
+}
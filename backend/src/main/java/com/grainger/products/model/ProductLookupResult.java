@@ -0,0 +1,12 @@
+package com.grainger.products.model;
+
+import java.util.List;
+
+/**
+ * Result of a bulk product lookup by id.
+ *
+ * @param products the products found, in the order their ids were requested
+ * @param missing  the requested ids with no product, in request order
+ */
+public record ProductLookupResult(List<Product> products, List<Long> missing) {
+}
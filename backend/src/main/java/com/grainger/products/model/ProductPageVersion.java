@@ -0,0 +1,23 @@
+package com.grainger.products.model;
+
+import java.util.List;
+
+/**
+ * Versions of the products on a page, and whether another page follows.
+ * Identifies the page's content without loading the products.
+ *
+ * @param items   the versions of the products on the page, in page order
+ * @param hasNext whether there is a next page
+ */
+public record ProductPageVersion(List<ProductVersion> items, boolean hasNext) {
+
+    /**
+     * The version of a page of views.
+     *
+     * @param page the page
+     * @return its version
+     */
+    public static ProductPageVersion of(ProductViewPage page) {
+        return new ProductPageVersion(page.items().stream().map(ProductVersion::of).toList(), page.hasNext());
+    }
+}
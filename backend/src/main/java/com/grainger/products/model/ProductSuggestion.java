@@ -0,0 +1,10 @@
+package com.grainger.products.model;
+
+/**
+ * A typeahead suggestion for a product name.
+ *
+ * @param id   the product id
+ * @param name the product name
+ */
+public record ProductSuggestion(long id, String name) {
+}
@@ -0,0 +1,60 @@
+package com.grainger.products.model;
+
+import jakarta.persistence.*;
+import org.hibernate.generator.EventType;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Record of a deleted product, kept so change feed consumers learn about the deletion.
+ * The deletion time is in UTC, stamped from the change feed's clock.
+ */
+@Entity
+@Table(name = "product_tombstones",
+        indexes = @Index(name = "idx_product_tombstones_deleted_at_id", columnList = "deleted_at, product_id"))
+public class ProductTombstone {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "deleted_at", nullable = false)
+    @ChangeTimestamp(event = EventType.INSERT)
+    private LocalDateTime deletedAt;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public ProductTombstone() {
+    }
+
+    /**
+     * Constructor for recording a deletion; the deletion time is stamped on insert.
+     *
+     * @param productId the id of the deleted product
+     */
+    public ProductTombstone(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProductTombstone that = (ProductTombstone) o;
+        return Objects.equals(productId, that.productId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(productId);
+    }
+}
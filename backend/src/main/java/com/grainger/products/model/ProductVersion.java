@@ -0,0 +1,33 @@
+package com.grainger.products.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Identity and last modification time of a product, without its content.
+ * Enough to answer conditional requests without loading the entity.
+ *
+ * @param id        the product ID
+ * @param updatedAt when the product was last modified
+ */
+public record ProductVersion(Long id, LocalDateTime updatedAt) {
+
+    /**
+     * The version of a loaded product.
+     *
+     * @param product the product
+     * @return its version
+     */
+    public static ProductVersion of(Product product) {
+        return new ProductVersion(product.getId(), product.getUpdatedAt());
+    }
+
+    /**
+     * The version of a product view.
+     *
+     * @param view the view, holding at least id and updatedAt
+     * @return its version
+     */
+    public static ProductVersion of(ProductView view) {
+        return new ProductVersion(view.id(), view.updatedAt());
+    }
+}
@@ -0,0 +1,48 @@
+package com.grainger.products.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Read-only copy of a product's columns, serialized exactly like the entity.
+ * Read by a constructor projection, so list reads skip building managed
+ * entities, registering them in the persistence context and caching them.
+ * Fields left out by a field selection are null and omitted from the JSON.
+ *
+ * @param id        the product ID
+ * @param name      the product name
+ * @param createdAt when the product was created
+ * @param updatedAt when the product was last modified
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductView(Long id, String name, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    /**
+     * The view of a loaded product.
+     *
+     * @param product the product
+     * @return its view
+     */
+    public static ProductView of(Product product) {
+        return new ProductView(product.getId(), product.getName(), product.getCreatedAt(), product.getUpdatedAt());
+    }
+
+    /**
+     * This view reduced to the selected fields.
+     *
+     * @param fields the fields to keep
+     * @return a view holding only the selected fields
+     */
+    public ProductView select(Set<ProductField> fields) {
+        if (fields.size() == ProductField.ALL.size()) {
+            return this;
+        }
+        return new ProductView(
+                fields.contains(ProductField.ID) ? id : null,
+                fields.contains(ProductField.NAME) ? name : null,
+                fields.contains(ProductField.CREATED_AT) ? createdAt : null,
+                fields.contains(ProductField.UPDATED_AT) ? updatedAt : null);
+    }
+}
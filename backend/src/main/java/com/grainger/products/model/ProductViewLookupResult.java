@@ -0,0 +1,27 @@
+package com.grainger.products.model;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Result of a bulk product lookup by id, reduced to the selected fields.
+ *
+ * @param products the products found, in the order their ids were requested
+ * @param missing  the requested ids with no product, in request order
+ */
+public record ProductViewLookupResult(List<ProductView> products, List<Long> missing) {
+
+    /**
+     * Reduce a lookup result to the selected fields.
+     *
+     * @param result the lookup result
+     * @param fields the fields to keep
+     * @return the reduced result
+     */
+    public static ProductViewLookupResult of(ProductLookupResult result, Set<ProductField> fields) {
+        List<ProductView> products = result.products().stream()
+                .map(product -> ProductView.of(product).select(fields))
+                .toList();
+        return new ProductViewLookupResult(products, result.missing());
+    }
+}
@@ -0,0 +1,21 @@
+package com.grainger.products.model;
+
+import java.util.List;
+
+/**
+ * A single keyset-paginated page of product views.
+ *
+ * @param items      the products in this page, ordered by id
+ * @param nextCursor opaque cursor for the next page, or null if this is the last page
+ */
+public record ProductViewPage(List<ProductView> items, String nextCursor) {
+
+    /**
+     * Whether another page follows this one.
+     *
+     * @return true if a next cursor is available
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
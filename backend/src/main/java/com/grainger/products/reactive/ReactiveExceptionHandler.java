@@ -0,0 +1,32 @@
+package com.grainger.products.reactive;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exception handler for the reactive controllers.
+ * Returns the same error bodies as GlobalExceptionHandler.
+ */
+@RestControllerAdvice
+@Profile(ReactiveProductsApplication.PROFILE)
+public class ReactiveExceptionHandler {
+
+    /**
+     * Handle IllegalArgumentException (validation errors).
+     *
+     * @param ex the exception
+     * @return Error response with 400 Bad Request status
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+}
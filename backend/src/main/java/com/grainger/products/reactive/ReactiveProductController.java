@@ -0,0 +1,82 @@
+package com.grainger.products.reactive;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.service.ProductService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive REST controller for Product operations.
+ * Mirrors ProductController's routes on WebFlux.
+ */
+@RestController
+@RequestMapping("/api/products")
+@Profile(ReactiveProductsApplication.PROFILE)
+public class ReactiveProductController {
+
+    private final ReactiveProductService productService;
+
+    /**
+     * Constructor injection for ReactiveProductService.
+     *
+     * @param productService the reactive product service
+     */
+    public ReactiveProductController(ReactiveProductService productService) {
+        this.productService = productService;
+    }
+
+    /**
+     * Get a page of products in id order.
+     *
+     * @param afterId return products with an id greater than this, 0 for the first page
+     * @param limit   the maximum number of products to return
+     * @return the page of products
+     */
+    @GetMapping
+    public Flux<Product> getProducts(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int limit) {
+        return productService.getProductPage(afterId, limit);
+    }
+
+    /**
+     * Stream every product as newline-delimited JSON.
+     * Rows are read from the database only as fast as the client consumes them.
+     *
+     * @return all products
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Product> streamProducts() {
+        return productService.streamAllProducts();
+    }
+
+    /**
+     * Get a single product by ID.
+     *
+     * @param id the product ID
+     * @return the product if found, 404 otherwise
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Product>> getProductById(@PathVariable long id) {
+        return productService.getProductById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Create a new product.
+     *
+     * @param product the product to create
+     * @return the created product with 201 status
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Product>> createProduct(@RequestBody Product product) {
+        return productService.createProduct(product)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+}
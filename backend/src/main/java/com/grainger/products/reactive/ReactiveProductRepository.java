@@ -0,0 +1,118 @@
+package com.grainger.products.reactive;
+
+import com.grainger.products.model.Product;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Non-blocking access to the products table over R2DBC.
+ * Rows are mapped by hand onto the shared Product model, whose JPA mapping
+ * R2DBC does not read.
+ */
+@Repository
+@Profile(ReactiveProductsApplication.PROFILE)
+public class ReactiveProductRepository {
+
+    private static final String COLUMNS = "id, name, created_at, updated_at";
+
+    /**
+     * Rows fetched per round trip when streaming the whole table.
+     */
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Constructor injection for the R2DBC client.
+     *
+     * @param databaseClient the database client
+     */
+    public ReactiveProductRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Find a product by id.
+     *
+     * @param id the product ID
+     * @return the product, or empty if not found
+     */
+    public Mono<Product> findById(long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+
+    /**
+     * Find the products with an id greater than the given one, in id order.
+     *
+     * @param afterId exclusive lower bound on the id
+     * @param limit   the maximum number of products returned
+     * @return the products
+     */
+    public Flux<Product> findPageAfter(long afterId, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products WHERE id > :afterId ORDER BY id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    /**
+     * Stream every product in id order.
+     * Rows are requested from the database as the subscriber consumes them.
+     *
+     * @return the products
+     */
+    public Flux<Product> streamAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products ORDER BY id")
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    /**
+     * Insert a new product, assigning its id and timestamps (in UTC, from this JVM's clock).
+     * The id is the value drawn from products_id_seq itself; the JPA path
+     * uses the block of ids below each value it draws, so the two never collide.
+     *
+     * @param product the product to insert
+     * @return the inserted product
+     */
+    public Mono<Product> insert(Product product) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+        return databaseClient.sql("SELECT nextval('products_id_seq')")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> databaseClient.sql(
+                                "INSERT INTO products (" + COLUMNS + ") VALUES (:id, :name, :createdAt, :updatedAt)")
+                        .bind("id", id)
+                        .bind("name", product.getName())
+                        .bind("createdAt", now)
+                        .bind("updatedAt", now)
+                        .then()
+                        .then(Mono.fromSupplier(() -> {
+                            product.setId(id);
+                            product.setCreatedAt(now);
+                            product.setUpdatedAt(now);
+                            return product;
+                        })));
+    }
+
+    private static Product toProduct(Readable row) {
+        Product product = new Product(row.get("name", String.class));
+        product.setId(row.get("id", Long.class));
+        product.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        product.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return product;
+    }
+}
@@ -0,0 +1,79 @@
+package com.grainger.products.reactive;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.service.ProductService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of ProductService.
+ * Applies the same validation rules and page size limits.
+ */
+@Service
+@Profile(ReactiveProductsApplication.PROFILE)
+public class ReactiveProductService {
+
+    private final ReactiveProductRepository productRepository;
+
+    /**
+     * Constructor injection for the reactive repository.
+     *
+     * @param productRepository the reactive product repository
+     */
+    public ReactiveProductService(ReactiveProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Retrieve a page of products after the given id, in id order.
+     *
+     * @param afterId exclusive lower bound on the id, 0 for the first page
+     * @param limit   the maximum number of products to return
+     * @return the page of products
+     */
+    public Flux<Product> getProductPage(long afterId, int limit) {
+        if (limit < 1 || limit > ProductService.MAX_PAGE_SIZE) {
+            return Flux.error(new IllegalArgumentException(
+                    "Page size must be between 1 and " + ProductService.MAX_PAGE_SIZE));
+        }
+        if (afterId < 0) {
+            return Flux.error(new IllegalArgumentException("afterId cannot be negative"));
+        }
+        return productRepository.findPageAfter(afterId, limit);
+    }
+
+    /**
+     * Stream every product in id order, at the pace the subscriber consumes them.
+     *
+     * @return all products
+     */
+    public Flux<Product> streamAllProducts() {
+        return productRepository.streamAll();
+    }
+
+    /**
+     * Retrieve a single product by ID.
+     *
+     * @param id the product ID
+     * @return the product, or empty if not found
+     */
+    public Mono<Product> getProductById(long id) {
+        return productRepository.findById(id);
+    }
+
+    /**
+     * Create a new product.
+     *
+     * @param product the product to create
+     * @return the saved product with generated ID
+     */
+    public Mono<Product> createProduct(Product product) {
+        return Mono.fromCallable(() -> {
+                    ProductService.validateProduct(product);
+                    return product;
+                })
+                .flatMap(productRepository::insert);
+    }
+}
@@ -0,0 +1,34 @@
+package com.grainger.products.reactive;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Entry point for the reactive (WebFlux + R2DBC) variant of the product API.
+ * Scans only this package, so none of the servlet/JPA beans are created, and
+ * runs with the reactive profile (application-reactive.yml).
+ * Every bean in this package is limited to the reactive profile so the
+ * servlet application, which scans the whole tree, ignores them.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@ComponentScan
+@Profile(ReactiveProductsApplication.PROFILE)
+public class ReactiveProductsApplication {
+
+    /**
+     * Profile that activates the reactive variant.
+     */
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveProductsApplication.class)
+                .profiles(PROFILE)
+                .web(WebApplicationType.REACTIVE)
+                .run(args);
+    }
+}
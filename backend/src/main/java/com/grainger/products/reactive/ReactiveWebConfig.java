@@ -0,0 +1,30 @@
+package com.grainger.products.reactive;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * WebFlux configuration for the reactive variant.
+ * Applies the same CORS rules as WebConfig.
+ */
+@Configuration
+@Profile(ReactiveProductsApplication.PROFILE)
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    /**
+     * Configure CORS mappings.
+     * Allows requests from the frontend running on localhost:3000.
+     *
+     * @param registry the CORS registry
+     */
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/api/**")
+                .allowedOrigins("http://localhost:3000")
+                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                .allowedHeaders("*")
+                .allowCredentials(true);
+    }
+}
@@ -0,0 +1,29 @@
+package com.grainger.products.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Portable change clock for databases without the PostgreSQL server clock and
+ * activity views, such as H2: the JVM's clock in UTC, the clock changes are
+ * stamped from there too. Open transactions cannot be seen, so the horizon is
+ * the current time and only the change feed's safety lag covers changes that
+ * commit late. Meant for tests and local development.
+ */
+@Repository
+@ConditionalOnProperty(name = "products.changes.clock", havingValue = "jvm")
+public class JvmProductChangeClock implements ProductChangeClock {
+
+    @Override
+    public LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+
+    @Override
+    public LocalDateTime horizon() {
+        return now();
+    }
+}
@@ -0,0 +1,55 @@
+package com.grainger.products.repository;
+
+import com.grainger.products.model.Product;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Portable product search for databases without pg_trgm, such as H2.
+ * Matches case-insensitive substrings only (no typo tolerance) and ranks
+ * exact matches first, then prefix matches, then shorter names.
+ * Without a trigram index this scans the table, so it is meant for tests
+ * and local development.
+ */
+@Repository
+@ConditionalOnProperty(name = "products.search.strategy", havingValue = "like")
+public class LikeProductSearch implements ProductSearch {
+
+    private static final String SEARCH_JPQL = """
+            SELECT p FROM Product p
+            WHERE LOWER(p.name) LIKE :pattern ESCAPE '!'
+            ORDER BY CASE
+                WHEN LOWER(p.name) = :exact THEN 0
+                WHEN LOWER(p.name) LIKE :prefix ESCAPE '!' THEN 1
+                ELSE 2
+            END, LENGTH(p.name), p.id
+            """;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructor injection for EntityManager.
+     *
+     * @param entityManager the shared entity manager
+     */
+    public LikeProductSearch(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Product> search(String query, int offset, int limit) {
+        String normalized = query.toLowerCase(Locale.ROOT);
+        String escaped = ProductSearch.escapeLike(normalized);
+        return entityManager.createQuery(SEARCH_JPQL, Product.class)
+                .setParameter("pattern", "%" + escaped + "%")
+                .setParameter("exact", normalized)
+                .setParameter("prefix", escaped + "%")
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
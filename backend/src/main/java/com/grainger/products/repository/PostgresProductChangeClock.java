@@ -0,0 +1,60 @@
+package com.grainger.products.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * PostgreSQL change clock: the server's statement time, and a horizon just
+ * before the start of the oldest transaction that has written anything.
+ * Changes are stamped with the statement time of the transaction's first
+ * change, in the same statement that assigns the transaction its id, so a
+ * transaction that may still commit a change is visible in pg_stat_activity
+ * from before its stamp. Readers therefore lag behind long transactions
+ * instead of the writers being bounded in time. Sessions of other roles only
+ * show their transactions to roles with pg_read_all_stats, so every instance
+ * must connect as the same role or be granted it.
+ */
+@Repository
+@ConditionalOnProperty(name = "products.changes.clock", havingValue = "database", matchIfMissing = true)
+public class PostgresProductChangeClock implements ProductChangeClock {
+
+    private static final String NOW_SQL = "SELECT statement_timestamp() AT TIME ZONE 'UTC'";
+
+    private static final String HORIZON_SQL = """
+            SELECT statement_timestamp() AT TIME ZONE 'UTC',
+                   (SELECT MIN(xact_start) FROM pg_stat_activity
+                    WHERE backend_xid IS NOT NULL AND datname = current_database()) AT TIME ZONE 'UTC'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor injection for JdbcTemplate.
+     *
+     * @param jdbcTemplate the JDBC template
+     */
+    public PostgresProductChangeClock(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public LocalDateTime now() {
+        return Objects.requireNonNull(jdbcTemplate.queryForObject(NOW_SQL, LocalDateTime.class));
+    }
+
+    @Override
+    public LocalDateTime horizon() {
+        return Objects.requireNonNull(jdbcTemplate.queryForObject(HORIZON_SQL, (rs, row) -> {
+            LocalDateTime now = rs.getObject(1, LocalDateTime.class);
+            LocalDateTime oldestWriter = rs.getObject(2, LocalDateTime.class);
+            // Changes stamped at the oldest writer's start may still commit
+            return oldestWriter == null || oldestWriter.isAfter(now) ? now
+                    : oldestWriter.minus(1, ChronoUnit.MICROS);
+        }));
+    }
+}
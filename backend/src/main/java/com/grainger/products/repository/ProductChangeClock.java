@@ -0,0 +1,29 @@
+package com.grainger.products.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * The clock change feed readers measure against; products and tombstones are
+ * stamped from the same clock (see {@code ChangeTimestamp}). All times are in UTC.
+ * The implementation is chosen with {@code products.changes.clock}:
+ * {@code database} reads the PostgreSQL server's clock and activity, {@code jvm}
+ * is a portable fallback for databases without them, such as H2 in tests.
+ */
+public interface ProductChangeClock {
+
+    /**
+     * The current time on the clock changes are stamped from.
+     *
+     * @return the current time
+     */
+    LocalDateTime now();
+
+    /**
+     * The latest change time at or before which no open transaction can still
+     * commit a change. Changes up to it can be read without skipping any that
+     * commit later; a transaction that stays open holds it back.
+     *
+     * @return the horizon, never after {@link #now()}
+     */
+    LocalDateTime horizon();
+}
@@ -0,0 +1,29 @@
+package com.grainger.products.repository;
+
+import com.grainger.products.model.ProductIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for ProductIdempotencyKey entity.
+ */
+@Repository
+public interface ProductIdempotencyKeyRepository extends JpaRepository<ProductIdempotencyKey, String> {
+
+    /**
+     * Delete the keys first used before a cutoff, in one statement using the created_at index.
+     *
+     * @param cutoff the earliest creation time kept
+     * @return the number of keys deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProductIdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,265 @@
+package com.grainger.products.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PostgreSQL partitions of the products table, which V6 range-partitions on id.
+ * Lists them from the system catalog, creates new ones and archives old ones
+ * by detaching them and moving them to an archive schema. Archived rows are
+ * not deleted; they are recorded as product tombstones for change feed
+ * consumers. Maintenance runs under an advisory lock, so only one instance
+ * at a time changes partitions. PostgreSQL only; used by
+ * ProductPartitionMaintenance.
+ */
+@Repository
+@ConditionalOnProperty(name = "products.partitions.enabled", havingValue = "true")
+public class ProductPartitions {
+
+    /**
+     * Partitions are named after their lower bound: products_p10000000 holds ids from 10,000,000.
+     */
+    static final String NAME_PREFIX = "products_p";
+
+    private static final Pattern BOUND = Pattern.compile(
+            "FOR VALUES FROM \\('?(MINVALUE|-?\\d+)'?\\) TO \\('?(MAXVALUE|-?\\d+)'?\\)");
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private static final String MAINTENANCE_LOCK_SQL =
+            "SELECT pg_try_advisory_xact_lock(hashtext('product_partition_maintenance'))";
+
+    private static final String LIST_SQL = """
+            SELECT c.relname, pg_get_expr(c.relpartbound, c.oid)
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'products'::regclass
+            """;
+
+    private static final String UNRECORDED_ARCHIVES_SQL = """
+            SELECT c.relname
+            FROM pg_class c
+            JOIN pg_namespace n ON n.oid = c.relnamespace
+            WHERE n.nspname = ? AND c.relkind = 'r' AND c.relname LIKE 'products!_p%' ESCAPE '!'
+            AND obj_description(c.oid, 'pg_class') IS NULL
+            ORDER BY c.relname
+            """;
+
+    /**
+     * Ids tombstoned per statement, so each insert commits quickly and holds the change feed's horizon back briefly.
+     */
+    private static final long TOMBSTONE_CHUNK = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    /**
+     * Constructor injection for JdbcTemplate and the transaction manager.
+     *
+     * @param jdbcTemplate       the JDBC template
+     * @param transactionManager the transaction manager, for archiving
+     */
+    public ProductPartitions(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * A partition and its id range.
+     *
+     * @param name the table name
+     * @param from the lowest id it holds, or null for MINVALUE
+     * @param to   the id it holds up to (exclusive), or null for MAXVALUE
+     */
+    public record Partition(String name, Long from, Long to) {
+    }
+
+    /**
+     * Run maintenance while holding the maintenance lock, unless another
+     * instance holds it. The lock is a transaction-level advisory lock, taken
+     * in a transaction of its own on a connection of its own: that
+     * transaction writes nothing, so it does not hold back the change feed,
+     * and ends when the run does, or when the instance dies, releasing the
+     * lock. The run's statements use other connections and commit as they go.
+     *
+     * @param run the maintenance run
+     * @param <T> the run's result
+     * @return the result, or empty if another instance is running maintenance
+     */
+    public <T> Optional<T> withMaintenanceLock(Supplier<T> run) {
+        return jdbcTemplate.execute((ConnectionCallback<Optional<T>>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                return tryLock(connection) ? Optional.of(run.get()) : Optional.empty();
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+    }
+
+    /**
+     * List the partitions of the products table, ordered by id range.
+     * A default partition, if one was added by hand, is not listed.
+     *
+     * @return the range partitions
+     */
+    public List<Partition> list() {
+        return jdbcTemplate.query(LIST_SQL, (rs, row) -> parse(rs.getString(1), rs.getString(2)))
+                .stream()
+                .flatMap(Optional::stream)
+                .sorted((a, b) -> Long.compare(a.from() == null ? Long.MIN_VALUE : a.from(),
+                        b.from() == null ? Long.MIN_VALUE : b.from()))
+                .toList();
+    }
+
+    /**
+     * The newest value drawn from the product id sequence; instances may still hold ids up to one block above it.
+     *
+     * @return the sequence's last value
+     */
+    public long sequenceValue() {
+        return Objects.requireNonNull(
+                jdbcTemplate.queryForObject("SELECT last_value FROM products_id_seq", Long.class));
+    }
+
+    /**
+     * Create a partition for an id range.
+     *
+     * @param from the lowest id of the partition
+     * @param to   the id the partition holds up to (exclusive)
+     * @return the new partition
+     */
+    public Partition create(long from, long to) {
+        Partition partition = new Partition(NAME_PREFIX + from, from, to);
+        jdbcTemplate.execute("CREATE TABLE " + partition.name() + " PARTITION OF products FOR VALUES FROM ("
+                + from + ") TO (" + to + ")");
+        return partition;
+    }
+
+    /**
+     * The newest updatedAt in a partition, read from its (updated_at, id) index.
+     *
+     * @param name the partition
+     * @return the time its most recently changed product changed, or empty if it holds no products
+     */
+    public Optional<LocalDateTime> lastUpdated(String name) {
+        Timestamp lastUpdated = jdbcTemplate.queryForObject(
+                "SELECT MAX(updated_at) FROM " + identifier(name), Timestamp.class);
+        return Optional.ofNullable(lastUpdated).map(Timestamp::toLocalDateTime);
+    }
+
+    /**
+     * Detach a partition and move it to the archive schema, unless it holds a
+     * product updated after the cutoff: rows updated since the partition was
+     * chosen are not archived with their change. Takes an exclusive lock on the
+     * products table until the commit, which follows at once.
+     *
+     * @param name   the partition
+     * @param schema the archive schema, created if missing
+     * @param cutoff the newest updatedAt the partition may hold
+     * @return true if the partition was archived, false if it was updated after the cutoff and left attached
+     */
+    public boolean archive(String name, String schema, LocalDateTime cutoff) {
+        return Boolean.TRUE.equals(transaction.execute(status -> {
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + identifier(schema));
+            jdbcTemplate.execute("ALTER TABLE products DETACH PARTITION " + identifier(name));
+            Optional<LocalDateTime> lastUpdated = lastUpdated(name);
+            if (lastUpdated.isPresent() && lastUpdated.get().isAfter(cutoff)) {
+                status.setRollbackOnly();
+                return false;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + name + " SET SCHEMA " + schema);
+            return true;
+        }));
+    }
+
+    /**
+     * Archived partitions whose products have not all been tombstoned yet,
+     * because the maintenance run archiving them was interrupted.
+     *
+     * @param schema the archive schema
+     * @return the names of the partitions
+     */
+    public List<String> unrecordedArchives(String schema) {
+        return jdbcTemplate.queryForList(UNRECORDED_ARCHIVES_SQL, String.class, identifier(schema));
+    }
+
+    /**
+     * Write a tombstone for every product of an archived partition, in short
+     * transactions, then mark the partition as recorded with a table comment.
+     * Tombstones already written are kept, so an interrupted run can be repeated.
+     *
+     * @param schema the archive schema
+     * @param name   the archived partition
+     * @return the number of tombstones written
+     */
+    public long recordArchived(String schema, String name) {
+        String table = identifier(schema) + "." + identifier(name);
+        Long[] range = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM " + table,
+                (rs, row) -> new Long[]{(Long) rs.getObject(1), (Long) rs.getObject(2)});
+        long written = 0;
+        if (range != null && range[0] != null) {
+            for (long from = range[0]; from <= range[1]; from += TOMBSTONE_CHUNK) {
+                written += jdbcTemplate.update("INSERT INTO product_tombstones (product_id, deleted_at) "
+                                + "SELECT id, statement_timestamp() AT TIME ZONE 'UTC' FROM " + table
+                                + " WHERE id >= ? AND id < ? ON CONFLICT (product_id) DO NOTHING",
+                        from, from + TOMBSTONE_CHUNK);
+            }
+        }
+        jdbcTemplate.execute("COMMENT ON TABLE " + table + " IS 'Archived product partition, tombstones written'");
+        return written;
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet locked = statement.executeQuery(MAINTENANCE_LOCK_SQL)) {
+            return locked.next() && locked.getBoolean(1);
+        }
+    }
+
+    /**
+     * Parse a partition bound expression as printed by pg_get_expr.
+     *
+     * @param name  the partition
+     * @param bound e.g. FOR VALUES FROM (MINVALUE) TO ('10000000')
+     * @return the partition, or empty for a default partition or any other bound
+     */
+    static Optional<Partition> parse(String name, String bound) {
+        Matcher matcher = BOUND.matcher(bound);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        Long from = matcher.group(1).equals("MINVALUE") ? null : Long.valueOf(matcher.group(1));
+        Long to = matcher.group(2).equals("MAXVALUE") ? null : Long.valueOf(matcher.group(2));
+        return Optional.of(new Partition(name, from, to));
+    }
+
+    /**
+     * Table and schema names are concatenated into DDL, so only plain lower-case identifiers are accepted.
+     */
+    static String identifier(String name) {
+        if (!IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Not a plain identifier: " + name);
+        }
+        return name;
+    }
+}
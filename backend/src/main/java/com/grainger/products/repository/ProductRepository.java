@@ -1,31 +1,128 @@
 package com.grainger.products.repository;
 
 import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductVersion;
+import com.grainger.products.model.ProductView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Product entity.
  * Spring Data JPA will automatically provide implementations for basic CRUD operations.
+ * <p>
+ * On PostgreSQL the products table is range-partitioned on id (V6). Queries
+ * constrained on id, such as findById, findAllById and the keyset pages,
+ * only read the partitions holding those ids, also as prepared statements,
+ * and queries ordered by id read the partitions in order without a sort.
+ * Queries on other columns probe every partition's index.
  */
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    /**
+     * Second-level cache region holding the results of cacheable product queries.
+     */
+    String QUERY_CACHE_REGION = "product-queries";
+
     /**
      * Find a product by its exact name.
+     * Results are kept in the query cache until the products table changes.
      *
      * @param name the product name
      * @return Optional containing the product if found
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
     Optional<Product> findByName(String name);
 
     /**
      * Find all products ordered by creation date (newest first).
+     * Results are kept in the query cache until the products table changes.
      *
      * @return List of products ordered by createdAt descending
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
     List<Product> findAllByOrderByCreatedAtDesc();
+
+    /**
+     * Find the page after the given id as read-only views, ordered by id.
+     * Seeks on the primary key index instead of using OFFSET, so the cost
+     * of a page does not grow with how deep the client has paged. Selected
+     * through a constructor expression so no entities are materialized or cached.
+     *
+     * @param id    the last id of the previous page (exclusive)
+     * @param limit the maximum number of views to return
+     * @return List of views of products with an id greater than the given id
+     */
+    List<ProductView> findViewsByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Find the version of a product without loading the entity.
+     *
+     * @param id the product ID
+     * @return Optional containing the product's id and updatedAt if found
+     */
+    Optional<ProductVersion> findVersionById(Long id);
+
+    /**
+     * Find the versions of the products on the page after the given id, ordered by id.
+     * Same rows as findViewsByIdGreaterThanOrderByIdAsc, reading only id and updatedAt.
+     *
+     * @param id    the last id of the previous page (exclusive)
+     * @param limit the maximum number of versions to return
+     * @return List of versions of products with an id greater than the given id
+     */
+    List<ProductVersion> findVersionsByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Find products created or updated after a (updatedAt, id) watermark, up to a time bound,
+     * ordered by updatedAt then id. Served by the (updated_at, id) index.
+     *
+     * @param updatedAt the watermark time (exclusive together with id)
+     * @param id        the watermark id
+     * @param until     the latest updatedAt to include
+     * @param page      the maximum number of products to return
+     * @return List of products changed after the watermark
+     */
+    @Query("SELECT p FROM Product p "
+            + "WHERE (p.updatedAt > :updatedAt OR (p.updatedAt = :updatedAt AND p.id > :id)) "
+            + "AND p.updatedAt <= :until "
+            + "ORDER BY p.updatedAt, p.id")
+    List<Product> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                   @Param("id") Long id,
+                                   @Param("until") LocalDateTime until,
+                                   Pageable page);
+
+    /**
+     * Stream all products ordered by id from a server-side JDBC cursor.
+     * Rows are fetched in batches and loaded read-only, so no dirty-checking
+     * snapshots are kept, and they bypass the second-level cache so a full
+     * scan does not flush it. Must be called inside a transaction and the
+     * stream must be closed by the caller.
+     *
+     * @return Stream of all products ordered by id
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Product> streamAllByOrderByIdAsc();
 }
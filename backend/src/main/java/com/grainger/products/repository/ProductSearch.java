@@ -0,0 +1,34 @@
+package com.grainger.products.repository;
+
+import com.grainger.products.model.Product;
+
+import java.util.List;
+
+/**
+ * Ranked product name search.
+ * The implementation is chosen with {@code products.search.strategy}:
+ * {@code trigram} uses the PostgreSQL pg_trgm index, {@code like} is a
+ * portable fallback for databases without it, such as H2 in tests.
+ */
+public interface ProductSearch {
+
+    /**
+     * Find products whose name matches the query, best matches first.
+     *
+     * @param query  the search text, already trimmed and non-empty
+     * @param offset the number of ranked results to skip
+     * @param limit  the maximum number of results to return
+     * @return List of matching products in rank order
+     */
+    List<Product> search(String query, int offset, int limit);
+
+    /**
+     * Escape LIKE wildcards in user input so they match literally.
+     *
+     * @param text the raw search text
+     * @return the text with '!', '%' and '_' escaped using '!'
+     */
+    static String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
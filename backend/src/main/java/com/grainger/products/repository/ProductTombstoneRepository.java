@@ -0,0 +1,37 @@
+package com.grainger.products.repository;
+
+import com.grainger.products.model.ProductTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for ProductTombstone entity.
+ */
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+    /**
+     * Find tombstones recorded after a (deletedAt, productId) watermark, up to a time bound,
+     * ordered by deletedAt then productId.
+     *
+     * @param deletedAt the watermark time (exclusive together with productId)
+     * @param productId the watermark id
+     * @param until     the latest deletedAt to include
+     * @param page      the maximum number of tombstones to return
+     * @return List of tombstones after the watermark
+     */
+    @Query("SELECT t FROM ProductTombstone t "
+            + "WHERE (t.deletedAt > :deletedAt OR (t.deletedAt = :deletedAt AND t.productId > :productId)) "
+            + "AND t.deletedAt <= :until "
+            + "ORDER BY t.deletedAt, t.productId")
+    List<ProductTombstone> findDeletedAfter(@Param("deletedAt") LocalDateTime deletedAt,
+                                            @Param("productId") Long productId,
+                                            @Param("until") LocalDateTime until,
+                                            Pageable page);
+}
@@ -0,0 +1,46 @@
+package com.grainger.products.repository;
+
+import com.grainger.products.model.Product;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * PostgreSQL product search backed by the pg_trgm GIN index from V3.
+ * Matches substrings (ILIKE) and misspellings (word similarity) and ranks
+ * by how closely the query matches a word sequence in the name.
+ */
+@Repository
+@ConditionalOnProperty(name = "products.search.strategy", havingValue = "trigram", matchIfMissing = true)
+public class TrigramProductSearch implements ProductSearch {
+
+    private static final String SEARCH_SQL = """
+            SELECT p.* FROM products p
+            WHERE p.name ILIKE :pattern ESCAPE '!' OR :query <% p.name
+            ORDER BY word_similarity(:query, p.name) DESC, similarity(:query, p.name) DESC, p.id
+            """;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructor injection for EntityManager.
+     *
+     * @param entityManager the shared entity manager
+     */
+    public TrigramProductSearch(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Product> search(String query, int offset, int limit) {
+        return entityManager.createNativeQuery(SEARCH_SQL, Product.class)
+                .setParameter("query", query)
+                .setParameter("pattern", "%" + ProductSearch.escapeLike(query) + "%")
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
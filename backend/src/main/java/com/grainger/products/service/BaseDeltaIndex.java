@@ -0,0 +1,252 @@
+package com.grainger.products.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+/**
+ * A large immutable base segment, a small delta segment for rows added since
+ * the last merge, and the ids deleted since then; the structure behind the
+ * in-memory catalog and the name index.
+ * <p>
+ * Writers build new segments and publish them through a volatile field, so
+ * readers take one consistent {@link #state()} without locking. A delta row
+ * shadows the base row with the same id, and deleted ids hide rows in both.
+ * When the delta or the deleted ids grow too large they are folded into a
+ * new base on a background thread, off the writer's path. A load replaces
+ * the base: changes applied while it ran are folded into the loaded base,
+ * and nothing is folded into the old base meanwhile, since it is discarded.
+ *
+ * @param <S> the segment type
+ */
+final class BaseDeltaIndex<S extends BaseDeltaIndex.Segment<S>> {
+
+    private static final Logger log = LoggerFactory.getLogger(BaseDeltaIndex.class);
+
+    private static final int DELTA_MERGE_THRESHOLD = 4096;
+
+    private static final int DELETED_MERGE_THRESHOLD = 1024;
+
+    private final String description;
+    private final ExecutorService merger;
+
+    private volatile State<S> state;
+
+    // Guarded by this: loads running, and whether a merge is waiting for the merger
+    private int loads;
+    private boolean mergeScheduled;
+
+    /**
+     * Create an empty, not yet loaded index.
+     *
+     * @param empty       the empty segment
+     * @param description what the index holds, for thread names and log messages, e.g. "product catalog"
+     */
+    BaseDeltaIndex(S empty, String description) {
+        this.description = description;
+        this.state = new State<>(empty, empty, DeletedIds.EMPTY, false);
+        String threadName = description.replace(' ', '-') + "-merge";
+        this.merger = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The current segments, consistent with each other.
+     *
+     * @return the state
+     */
+    State<S> state() {
+        return state;
+    }
+
+    /**
+     * Number of rows, counting a row shadowed by the delta twice until it is merged.
+     *
+     * @return the row count
+     */
+    int size() {
+        State<S> current = state;
+        return current.base().size() + current.delta().size() - current.deleted().size();
+    }
+
+    /**
+     * Approximate heap used by the segments.
+     *
+     * @return the size in bytes
+     */
+    long heapBytes() {
+        State<S> current = state;
+        return current.base().heapBytes() + current.delta().heapBytes();
+    }
+
+    /**
+     * Replace the base with a loaded segment. Rows added and ids deleted while
+     * the loader ran are folded into it; the loaded rows are the older ones.
+     *
+     * @param loader   reads the new base
+     * @param complete whether the loaded base holds every row, so the index can serve reads
+     */
+    void load(Supplier<S> loader, boolean complete) {
+        synchronized (this) {
+            loads++;
+        }
+        try {
+            S loaded = loader.get();
+            State<S> folding;
+            synchronized (this) {
+                folding = state;
+            }
+            S base = folding.delta().size() == 0 && folding.deleted().isEmpty() ? loaded
+                    : loaded.merge(folding.delta(), folding.deleted()::contains);
+            synchronized (this) {
+                state = new State<>(base, state.delta().minus(folding.delta()),
+                        state.deleted().minus(folding.deleted()), state.loaded() || complete);
+            }
+        } finally {
+            synchronized (this) {
+                loads--;
+                scheduleMerge();
+            }
+        }
+    }
+
+    /**
+     * Start serving reads once the base has caught up.
+     */
+    synchronized void markLoaded() {
+        state = new State<>(state.base(), state.delta(), state.deleted(), true);
+        scheduleMerge();
+    }
+
+    /**
+     * Merge rows into the delta, replacing rows with the same ids.
+     *
+     * @param added the new rows
+     */
+    synchronized void add(S added) {
+        state = new State<>(state.base(), state.delta().merge(added, id -> false), state.deleted(), state.loaded());
+        scheduleMerge();
+    }
+
+    /**
+     * Hide a deleted id from reads.
+     *
+     * @param id the deleted id
+     */
+    synchronized void remove(long id) {
+        state = new State<>(state.base(), state.delta(), state.deleted().with(id), state.loaded());
+        scheduleMerge();
+    }
+
+    /**
+     * Fold the delta and the deleted ids into a new base. The merge itself runs without the lock;
+     * changes applied meanwhile stay in the delta and deleted ids on top of the new base. The result
+     * is discarded if a load replaced the base or is still running; the changes then stay on top of the loaded base.
+     */
+    void merge() {
+        State<S> folding;
+        synchronized (this) {
+            folding = state;
+        }
+        S merged = folding.base().merge(folding.delta(), folding.deleted()::contains);
+        synchronized (this) {
+            mergeScheduled = false;
+            if (loads == 0 && state.base() == folding.base()) {
+                state = new State<>(merged, state.delta().minus(folding.delta()),
+                        state.deleted().minus(folding.deleted()), state.loaded());
+            }
+            scheduleMerge();
+        }
+    }
+
+    /**
+     * Stop the background merger.
+     */
+    void shutdown() {
+        merger.shutdownNow();
+    }
+
+    /**
+     * Hand a merge to the background merger if the delta or the deleted ids have grown too large,
+     * unless one is already waiting or a load that would replace the base is running. Caller holds the lock.
+     */
+    private void scheduleMerge() {
+        State<S> current = state;
+        if (mergeScheduled || loads > 0 || !current.loaded()
+                || (current.delta().size() <= DELTA_MERGE_THRESHOLD
+                && current.deleted().size() <= DELETED_MERGE_THRESHOLD)) {
+            return;
+        }
+        try {
+            merger.execute(this::mergeQuietly);
+            mergeScheduled = true;
+        } catch (RejectedExecutionException ex) {
+            // Shutting down: the delta keeps serving reads until the end
+        }
+    }
+
+    private void mergeQuietly() {
+        try {
+            merge();
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                mergeScheduled = false;
+            }
+            log.warn("Cannot merge {} changes into its base", description, ex);
+        }
+    }
+
+    /**
+     * An immutable run of rows keyed by id.
+     *
+     * @param <S> the segment type itself
+     */
+    interface Segment<S> {
+
+        /**
+         * Number of rows.
+         *
+         * @return the row count
+         */
+        int size();
+
+        /**
+         * Approximate heap used by the segment.
+         *
+         * @return the size in bytes
+         */
+        long heapBytes();
+
+        /**
+         * Merge this segment with a newer one into a new segment. Where both hold an id, the newer row wins.
+         *
+         * @param newer the segment to merge in
+         * @param drop  ids to leave out of the result, e.g. deleted ones
+         * @return the merged segment
+         */
+        S merge(S newer, LongPredicate drop);
+
+        /**
+         * The rows of this segment that another one does not already hold unchanged,
+         * e.g. a delta without the rows folded into a base.
+         *
+         * @param folded the segment whose rows to leave out
+         * @return the remaining rows
+         */
+        S minus(S folded);
+    }
+
+    /**
+     * The segments: base and delta, deleted ids still present in them, and whether the base has been fully loaded.
+     */
+    record State<S>(S base, S delta, DeletedIds deleted, boolean loaded) {
+    }
+}
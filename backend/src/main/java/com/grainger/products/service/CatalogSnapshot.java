@@ -0,0 +1,512 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable, column-oriented copy of a set of products.
+ * <p>
+ * Rows are ordered by id. Ids and timestamps are primitive columns, and all
+ * names live UTF-8 encoded in one byte column addressed by offsets, so a row
+ * costs its name bytes plus about 40 bytes instead of an entity object graph.
+ * An open-addressing hash table maps ids to rows, and a permutation of the
+ * rows sorted by name answers exact-name lookups by binary search.
+ * <p>
+ * Columns are NIO buffers: snapshots built in memory wrap heap arrays, and
+ * {@link CatalogSnapshotFile} maps them straight from a file, index included.
+ * <p>
+ * Timestamps are kept as microseconds since the epoch, the precision the
+ * database stores, so products read from a snapshot compare equal to the same
+ * products read back from the database. Ids must be positive.
+ */
+final class CatalogSnapshot implements BaseDeltaIndex.Segment<CatalogSnapshot> {
+
+    static final CatalogSnapshot EMPTY = new Builder(0).build();
+
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final Columns columns;
+    private final int size;
+
+    /**
+     * The buffers behind a snapshot; absolute reads only, positions are never moved.
+     *
+     * @param ids       the product ids, ascending
+     * @param createdAt creation times in epoch microseconds, parallel to ids
+     * @param updatedAt update times in epoch microseconds, parallel to ids
+     * @param slotIds   the id in each hash table slot, zero for an empty slot
+     * @param offsets   the start of each row's name in names, plus the end of the last
+     * @param byName    rows ordered by name bytes, then id
+     * @param slotRows  the row for each hash table slot
+     * @param names     all names, UTF-8 encoded back to back
+     */
+    record Columns(LongBuffer ids, LongBuffer createdAt, LongBuffer updatedAt, LongBuffer slotIds,
+                   IntBuffer offsets, IntBuffer byName, IntBuffer slotRows, ByteBuffer names) {
+    }
+
+    /**
+     * Wrap columns already ordered by id and build the indexes over them.
+     *
+     * @param ids       the product ids, ascending
+     * @param createdAt creation times in epoch microseconds, parallel to ids
+     * @param updatedAt update times in epoch microseconds, parallel to ids
+     * @param names     all names, UTF-8 encoded back to back
+     * @param offsets   the start of each row's name in names, plus the end of the last
+     */
+    CatalogSnapshot(long[] ids, long[] createdAt, long[] updatedAt, byte[] names, int[] offsets) {
+        this(ids, createdAt, updatedAt, names, offsets, sortByName(names, offsets));
+    }
+
+    /**
+     * Wrap columns already ordered by id, with their name order already known, and build the id index.
+     */
+    private CatalogSnapshot(long[] ids, long[] createdAt, long[] updatedAt, byte[] names, int[] offsets, int[] byName) {
+        int capacity = Integer.highestOneBit(Math.max(2, ids.length * 2 - 1)) << 1;
+        long[] slotIds = new long[capacity];
+        int[] slotRows = new int[capacity];
+        for (int row = 0; row < ids.length; row++) {
+            int slot = slot(ids[row], capacity);
+            while (slotIds[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slotIds[slot] = ids[row];
+            slotRows[slot] = row;
+        }
+        this.columns = new Columns(LongBuffer.wrap(ids), LongBuffer.wrap(createdAt), LongBuffer.wrap(updatedAt),
+                LongBuffer.wrap(slotIds), IntBuffer.wrap(offsets), IntBuffer.wrap(byName),
+                IntBuffer.wrap(slotRows), ByteBuffer.wrap(names));
+        this.size = ids.length;
+    }
+
+    /**
+     * Wrap columns and indexes written by a previous snapshot, e.g. mapped from a file.
+     *
+     * @param columns the snapshot buffers
+     */
+    CatalogSnapshot(Columns columns) {
+        this.columns = columns;
+        this.size = columns.ids().limit();
+    }
+
+    /**
+     * Build a snapshot from products in any order.
+     *
+     * @param products the products, with their ids
+     * @return the snapshot
+     */
+    static CatalogSnapshot of(List<Product> products) {
+        Builder builder = new Builder(products.size());
+        for (Product product : products) {
+            builder.add(product);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Merge this snapshot with a newer one into a new snapshot in memory.
+     * Where both hold the same id, the newer row wins. The name order is
+     * merged from the two snapshots' name orders rather than sorted again.
+     *
+     * @param newer the snapshot to merge in
+     * @param drop  ids to leave out of the result, e.g. deleted products
+     * @return the merged snapshot
+     */
+    @Override
+    public CatalogSnapshot merge(CatalogSnapshot newer, LongPredicate drop) {
+        Builder merged = new Builder(size() + newer.size());
+        int[] thisRows = new int[size()];
+        int[] newerRows = new int[newer.size()];
+        Arrays.fill(thisRows, -1);
+        Arrays.fill(newerRows, -1);
+        int i = 0;
+        int j = 0;
+        while (i < size() || j < newer.size()) {
+            boolean takeThis = j >= newer.size() || (i < size() && id(i) < newer.id(j));
+            if (!takeThis && i < size() && id(i) == newer.id(j)) {
+                i++;
+            }
+            CatalogSnapshot source = takeThis ? this : newer;
+            int row = takeThis ? i++ : j++;
+            if (!drop.test(source.id(row))) {
+                (takeThis ? thisRows : newerRows)[row] = merged.count;
+                merged.add(source, row);
+            }
+        }
+        return merged.build(columns.byName(), thisRows, newer.columns.byName(), newerRows);
+    }
+
+    /**
+     * The rows of this snapshot that another snapshot does not already hold
+     * with the same update time, e.g. a delta without the rows folded into a base.
+     *
+     * @param folded the snapshot whose rows to leave out
+     * @return the remaining rows
+     */
+    @Override
+    public CatalogSnapshot minus(CatalogSnapshot folded) {
+        return EMPTY.merge(this, id -> {
+            int row = folded.indexOf(id);
+            return row >= 0 && folded.updatedAtMicros(row) == updatedAtMicros(indexOf(id));
+        });
+    }
+
+    /**
+     * The buffers behind this snapshot, for writing it out.
+     */
+    Columns columns() {
+        return columns;
+    }
+
+    /**
+     * Number of rows in the snapshot.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    long id(int row) {
+        return columns.ids().get(row);
+    }
+
+    long updatedAtMicros(int row) {
+        return columns.updatedAt().get(row);
+    }
+
+    /**
+     * The row holding an id.
+     *
+     * @param id the product ID
+     * @return the row, or -1 if the id is not in the snapshot
+     */
+    int indexOf(long id) {
+        LongBuffer slotIds = columns.slotIds();
+        int capacity = slotIds.limit();
+        int slot = slot(id, capacity);
+        long candidate;
+        while ((candidate = slotIds.get(slot)) != 0) {
+            if (candidate == id) {
+                return columns.slotRows().get(slot);
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * The first row whose id is greater than the given id.
+     *
+     * @param id the id to start after
+     * @return the row, or size() if every id is smaller or equal
+     */
+    int firstAfter(long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (id(mid) <= id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The rows whose name equals the given name exactly, in id order.
+     *
+     * @param name the product name
+     * @return the matching rows, possibly empty
+     */
+    int[] rowsNamed(String name) {
+        byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        IntBuffer byName = columns.byName();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareName(byName.get(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while (end < size && compareName(byName.get(end), key) == 0) {
+            end++;
+        }
+        int[] rows = new int[end - low];
+        byName.get(low, rows);
+        return rows;
+    }
+
+    /**
+     * Materialize a row as a new, detached product.
+     *
+     * @param row the row
+     * @return the product
+     */
+    Product product(int row) {
+        Product product = new Product(name(row));
+        product.setId(id(row));
+        product.setCreatedAt(fromMicros(columns.createdAt().get(row)));
+        product.setUpdatedAt(fromMicros(columns.updatedAt().get(row)));
+        return product;
+    }
+
+    String name(int row) {
+        int from = columns.offsets().get(row);
+        int length = columns.offsets().get(row + 1) - from;
+        ByteBuffer names = columns.names();
+        if (names.hasArray()) {
+            return new String(names.array(), names.arrayOffset() + from, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        names.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Approximate heap used by this snapshot's columns, including array headers.
+     * Mapped columns live outside the heap and are not counted.
+     *
+     * @return the size in bytes
+     */
+    @Override
+    public long heapBytes() {
+        return heapBytes(columns.ids(), 8) + heapBytes(columns.createdAt(), 8) + heapBytes(columns.updatedAt(), 8)
+                + heapBytes(columns.slotIds(), 8) + heapBytes(columns.offsets(), 4) + heapBytes(columns.byName(), 4)
+                + heapBytes(columns.slotRows(), 4) + heapBytes(columns.names(), 1);
+    }
+
+    private int compareName(int row, byte[] key) {
+        ByteBuffer names = columns.names();
+        int from = columns.offsets().get(row);
+        int length = columns.offsets().get(row + 1) - from;
+        int common = Math.min(length, key.length);
+        for (int k = 0; k < common; k++) {
+            int diff = Byte.toUnsignedInt(names.get(from + k)) - Byte.toUnsignedInt(key[k]);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - key.length;
+    }
+
+    private static int slot(long id, int capacity) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (capacity - 1);
+    }
+
+    private static int[] sortByName(byte[] names, int[] offsets) {
+        Integer[] order = new Integer[offsets.length - 1];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // Rows are in id order and the sort is stable, so equal names stay in id order
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(
+                names, offsets[a], offsets[a + 1], names, offsets[b], offsets[b + 1]));
+        int[] sorted = new int[order.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = order[i];
+        }
+        return sorted;
+    }
+
+    /**
+     * Merge two name orders whose rows were copied into new columns, skipping rows that were not copied.
+     * Both inputs are sorted by name and then id, and ids keep their relative order in the new columns,
+     * so a linear merge that breaks name ties by new row gives the same order as a full sort.
+     *
+     * @param names    the new name column
+     * @param offsets  the new name offsets
+     * @param first    the first name order, in its own rows
+     * @param toFirst  the new row of each of the first snapshot's rows, or -1 if it was not copied
+     * @param second   the second name order, in its own rows
+     * @param toSecond the new row of each of the second snapshot's rows, or -1 if it was not copied
+     */
+    private static int[] mergeByName(byte[] names, int[] offsets, IntBuffer first, int[] toFirst,
+                                     IntBuffer second, int[] toSecond) {
+        int[] sorted = new int[offsets.length - 1];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        int a = -1;
+        int b = -1;
+        while (true) {
+            while (a < 0 && i < first.limit()) {
+                a = toFirst[first.get(i++)];
+            }
+            while (b < 0 && j < second.limit()) {
+                b = toSecond[second.get(j++)];
+            }
+            if (a < 0 && b < 0) {
+                return sorted;
+            }
+            boolean takeFirst = b < 0;
+            if (a >= 0 && b >= 0) {
+                int diff = Arrays.compareUnsigned(names, offsets[a], offsets[a + 1], names, offsets[b], offsets[b + 1]);
+                takeFirst = diff < 0 || (diff == 0 && a < b);
+            }
+            if (takeFirst) {
+                sorted[count++] = a;
+                a = -1;
+            } else {
+                sorted[count++] = b;
+                b = -1;
+            }
+        }
+    }
+
+    static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIMESTAMP;
+        }
+        // Rounded to the nearest microsecond, as the JDBC driver does when writing
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + (time.getNano() + 500) / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        if (micros == NO_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static long heapBytes(Buffer buffer, int elementBytes) {
+        // 16-byte array header, padded to 8-byte alignment
+        return buffer.isDirect() ? 0 : (16 + (long) elementBytes * buffer.capacity() + 7) & ~7L;
+    }
+
+    /**
+     * Collects rows into growable columns; rows may be added in any id order.
+     */
+    static final class Builder {
+
+        private long[] ids;
+        private long[] createdAt;
+        private long[] updatedAt;
+        private byte[] names;
+        private int[] offsets;
+        private int count;
+        private int position;
+        private boolean sorted = true;
+
+        Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            ids = new long[capacity];
+            createdAt = new long[capacity];
+            updatedAt = new long[capacity];
+            names = new byte[capacity * 16];
+            offsets = new int[capacity + 1];
+        }
+
+        /**
+         * Add a product as a row.
+         *
+         * @param product the product, with its id
+         * @return this builder
+         * @throws IllegalArgumentException if the product has no positive id
+         */
+        Builder add(Product product) {
+            if (product.getId() == null || product.getId() <= 0) {
+                throw new IllegalArgumentException("Catalog rows need a positive id");
+            }
+            byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+            grow(name.length);
+            System.arraycopy(name, 0, names, position, name.length);
+            return append(product.getId(), name.length,
+                    toMicros(product.getCreatedAt()), toMicros(product.getUpdatedAt()));
+        }
+
+        private Builder add(CatalogSnapshot source, int row) {
+            Columns columns = source.columns;
+            int from = columns.offsets().get(row);
+            int length = columns.offsets().get(row + 1) - from;
+            grow(length);
+            columns.names().get(from, names, position, length);
+            return append(columns.ids().get(row), length, columns.createdAt().get(row), columns.updatedAt().get(row));
+        }
+
+        private void grow(int nameLength) {
+            if (count == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                createdAt = Arrays.copyOf(createdAt, capacity);
+                updatedAt = Arrays.copyOf(updatedAt, capacity);
+                offsets = Arrays.copyOf(offsets, capacity + 1);
+            }
+            if ((long) position + nameLength > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Catalog names exceed 2 GB");
+            }
+            if (position + nameLength > names.length) {
+                names = Arrays.copyOf(names, (int) Math.min(Integer.MAX_VALUE - 8,
+                        Math.max(2L * names.length, (long) position + nameLength)));
+            }
+        }
+
+        /**
+         * Complete a row whose name bytes were already copied to the current position.
+         */
+        private Builder append(long id, int nameLength, long created, long updated) {
+            sorted &= count == 0 || ids[count - 1] < id;
+            ids[count] = id;
+            createdAt[count] = created;
+            updatedAt[count] = updated;
+            offsets[count] = position;
+            position += nameLength;
+            count++;
+            return this;
+        }
+
+        /**
+         * Build the snapshot, sorting the rows by id if they were added out of order.
+         *
+         * @return the snapshot
+         */
+        CatalogSnapshot build() {
+            offsets[count] = position;
+            if (!sorted) {
+                Integer[] order = new Integer[count];
+                for (int i = 0; i < count; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, (a, b) -> Long.compare(ids[a], ids[b]));
+                Builder inOrder = new Builder(count);
+                for (Integer row : order) {
+                    int length = offsets[row + 1] - offsets[row];
+                    inOrder.grow(length);
+                    System.arraycopy(names, offsets[row], inOrder.names, inOrder.position, length);
+                    inOrder.append(ids[row], length, createdAt[row], updatedAt[row]);
+                }
+                return inOrder.build();
+            }
+            return new CatalogSnapshot(Arrays.copyOf(ids, count), Arrays.copyOf(createdAt, count),
+                    Arrays.copyOf(updatedAt, count), Arrays.copyOf(names, position), Arrays.copyOf(offsets, count + 1));
+        }
+
+        /**
+         * Build the snapshot from rows added in id order out of two snapshots, merging their name orders.
+         */
+        private CatalogSnapshot build(IntBuffer first, int[] toFirst, IntBuffer second, int[] toSecond) {
+            offsets[count] = position;
+            byte[] namesCopy = Arrays.copyOf(names, position);
+            int[] offsetsCopy = Arrays.copyOf(offsets, count + 1);
+            return new CatalogSnapshot(Arrays.copyOf(ids, count), Arrays.copyOf(createdAt, count),
+                    Arrays.copyOf(updatedAt, count), namesCopy, offsetsCopy,
+                    mergeByName(namesCopy, offsetsCopy, first, toFirst, second, toSecond));
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.grainger.products.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary file holding a {@link CatalogSnapshot}, so a restart can map the
+ * catalog instead of reading every product from the database.
+ * <p>
+ * The file is a fixed little-endian header followed by the snapshot columns
+ * and indexes exactly as they are laid out in memory: the long columns first,
+ * then the int columns, then the name bytes, so every section stays aligned
+ * without padding. The header records the format version, the section sizes,
+ * the newest change held (the watermark to catch up from) and CRC32C checksums
+ * of itself and of the body. Reading maps the file read-only and wraps the
+ * sections as buffers; nothing is copied onto the heap. A missing, truncated,
+ * corrupt or older-format file is reported as absent, and the caller falls
+ * back to a full load.
+ * <p>
+ * Files are written to a temporary sibling, forced to disk and moved into
+ * place atomically, so a crash while writing leaves the previous file intact.
+ */
+final class CatalogSnapshotFile {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotFile.class);
+
+    static final int MAGIC = 0x47504353; // "GPCS"
+    static final int VERSION = 2; // 2: watermarks in UTC
+
+    /**
+     * magic, version, rowCount, nameBytes, slotCount, watermark micros and id,
+     * written-at millis and body CRC, zero padding, then the header CRC in the
+     * last four bytes; 64 bytes keep the long sections that follow aligned.
+     */
+    static final int HEADER_BYTES = 64;
+
+    private static final int HEADER_CRC_OFFSET = HEADER_BYTES - Integer.BYTES;
+
+    private static final int WRITE_CHUNK_BYTES = 1 << 20;
+
+    private CatalogSnapshotFile() {
+    }
+
+    /**
+     * A snapshot read back from a file, and the newest change it holds.
+     *
+     * @param snapshot  the snapshot, backed by the mapped file
+     * @param watermark the (updated-at, id) position of the newest row, or the origin for an empty snapshot
+     */
+    record Loaded(CatalogSnapshot snapshot, ProductChangeToken.Position watermark) {
+    }
+
+    /**
+     * Write a snapshot, replacing any previous file atomically.
+     * The watermark is the newest (updated-at, id) position among the rows.
+     *
+     * @param path     the snapshot file
+     * @param snapshot the snapshot to write
+     * @return the number of bytes written
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    static long write(Path path, CatalogSnapshot snapshot) {
+        CatalogSnapshot.Columns columns = snapshot.columns();
+        long watermarkMicros = Long.MIN_VALUE;
+        long watermarkId = 0;
+        for (int row = 0; row < snapshot.size(); row++) {
+            long updated = snapshot.updatedAtMicros(row);
+            if (updated > watermarkMicros || (updated == watermarkMicros && snapshot.id(row) > watermarkId)) {
+                watermarkMicros = updated;
+                watermarkId = snapshot.id(row);
+            }
+        }
+        if (watermarkMicros == Long.MIN_VALUE) {
+            watermarkMicros = CatalogSnapshot.toMicros(ProductChangeToken.ORIGIN.at());
+            watermarkId = ProductChangeToken.ORIGIN.id();
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            CRC32C bodyCrc = new CRC32C();
+            long bytes = HEADER_BYTES;
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.position(HEADER_BYTES);
+                ByteBuffer chunk = ByteBuffer.allocateDirect(WRITE_CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                for (LongBuffer column : new LongBuffer[]{columns.ids(), columns.createdAt(), columns.updatedAt(),
+                        columns.slotIds()}) {
+                    for (int i = 0; i < column.limit(); i++) {
+                        if (chunk.remaining() < Long.BYTES) {
+                            bytes += flush(out, chunk, bodyCrc);
+                        }
+                        chunk.putLong(column.get(i));
+                    }
+                }
+                for (IntBuffer column : new IntBuffer[]{columns.offsets(), columns.byName(), columns.slotRows()}) {
+                    for (int i = 0; i < column.limit(); i++) {
+                        if (chunk.remaining() < Integer.BYTES) {
+                            bytes += flush(out, chunk, bodyCrc);
+                        }
+                        chunk.putInt(column.get(i));
+                    }
+                }
+                ByteBuffer names = columns.names().duplicate().clear();
+                while (names.hasRemaining()) {
+                    if (!chunk.hasRemaining()) {
+                        bytes += flush(out, chunk, bodyCrc);
+                    }
+                    int length = Math.min(chunk.remaining(), names.remaining());
+                    chunk.put(chunk.position(), names, names.position(), length);
+                    chunk.position(chunk.position() + length);
+                    names.position(names.position() + length);
+                }
+                bytes += flush(out, chunk, bodyCrc);
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                        .putInt(MAGIC)
+                        .putInt(VERSION)
+                        .putInt(snapshot.size())
+                        .putInt(columns.names().limit())
+                        .putInt(columns.slotIds().limit())
+                        .putLong(watermarkMicros)
+                        .putLong(watermarkId)
+                        .putLong(System.currentTimeMillis())
+                        .putInt((int) bodyCrc.getValue());
+                CRC32C headerCrc = new CRC32C();
+                headerCrc.update(header.array(), 0, HEADER_CRC_OFFSET);
+                header.putInt(HEADER_CRC_OFFSET, (int) headerCrc.getValue()).clear();
+                out.position(0);
+                while (header.hasRemaining()) {
+                    out.write(header);
+                }
+                out.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return bytes;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write catalog snapshot " + path, ex);
+        }
+    }
+
+    /**
+     * Map a snapshot file and verify it.
+     *
+     * @param path the snapshot file
+     * @return the mapped snapshot and its watermark, or empty if the file is missing or not usable
+     */
+    static Optional<Loaded> read(Path path) {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileBytes = in.size();
+            if (fileBytes < HEADER_BYTES) {
+                return rejected(path, "truncated header");
+            }
+            if (fileBytes > Integer.MAX_VALUE) {
+                return rejected(path, "larger than 2 GB");
+            }
+            // The mapping stays valid after the channel is closed, and after the file is replaced
+            MappedByteBuffer file = in.map(FileChannel.MapMode.READ_ONLY, 0, fileBytes);
+            file.order(ByteOrder.LITTLE_ENDIAN);
+
+            CRC32C headerCrc = new CRC32C();
+            headerCrc.update(file.slice(0, HEADER_CRC_OFFSET));
+            if (file.getInt(0) != MAGIC || file.getInt(HEADER_CRC_OFFSET) != (int) headerCrc.getValue()) {
+                return rejected(path, "bad header");
+            }
+            if (file.getInt(4) != VERSION) {
+                return rejected(path, "format version " + file.getInt(4));
+            }
+            int rows = file.getInt(8);
+            int nameBytes = file.getInt(12);
+            int slots = file.getInt(16);
+            ProductChangeToken.Position watermark = new ProductChangeToken.Position(
+                    CatalogSnapshot.fromMicros(file.getLong(20)), file.getLong(28));
+            int bodyChecksum = file.getInt(44);
+
+            long expected = HEADER_BYTES + Long.BYTES * (3L * rows + slots)
+                    + Integer.BYTES * ((rows + 1L) + rows + slots) + nameBytes;
+            if (rows < 0 || nameBytes < 0 || slots < 0 || fileBytes != expected) {
+                return rejected(path, "size mismatch");
+            }
+            CRC32C bodyCrc = new CRC32C();
+            bodyCrc.update(file.slice(HEADER_BYTES, (int) (fileBytes - HEADER_BYTES)));
+            if ((int) bodyCrc.getValue() != bodyChecksum) {
+                return rejected(path, "body checksum mismatch");
+            }
+
+            Sections sections = new Sections(file, HEADER_BYTES);
+            CatalogSnapshot.Columns columns = new CatalogSnapshot.Columns(
+                    sections.longs(rows), sections.longs(rows), sections.longs(rows), sections.longs(slots),
+                    sections.ints(rows + 1), sections.ints(rows), sections.ints(slots), sections.bytes(nameBytes));
+            return Optional.of(new Loaded(new CatalogSnapshot(columns), watermark));
+        } catch (NoSuchFileException ex) {
+            return Optional.empty();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Cannot read catalog snapshot {}", path, ex);
+            return Optional.empty();
+        }
+    }
+
+    private static long flush(FileChannel out, ByteBuffer chunk, CRC32C crc) throws IOException {
+        chunk.flip();
+        crc.update(chunk.duplicate());
+        long written = chunk.remaining();
+        while (chunk.hasRemaining()) {
+            out.write(chunk);
+        }
+        chunk.clear();
+        return written;
+    }
+
+    private static Optional<Loaded> rejected(Path path, String reason) {
+        log.warn("Ignoring catalog snapshot {}: {}", path, reason);
+        return Optional.empty();
+    }
+
+    /**
+     * Cuts consecutive sections out of the mapped file.
+     */
+    private static final class Sections {
+
+        private final MappedByteBuffer file;
+        private int position;
+
+        Sections(MappedByteBuffer file, int position) {
+            this.file = file;
+            this.position = position;
+        }
+
+        LongBuffer longs(int count) {
+            return next(count, Long.BYTES).asLongBuffer();
+        }
+
+        IntBuffer ints(int count) {
+            return next(count, Integer.BYTES).asIntBuffer();
+        }
+
+        ByteBuffer bytes(int count) {
+            return next(count, 1);
+        }
+
+        private ByteBuffer next(int count, int elementBytes) {
+            int length = Math.multiplyExact(count, elementBytes);
+            ByteBuffer section = file.slice(position, length).order(ByteOrder.LITTLE_ENDIAN);
+            position += length;
+            return section;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the change feed to an in-memory view on a fixed tick, from a
+ * watermark up to where the feed is readable, so the view sees changes made
+ * by other instances or straight in the database, archived partitions
+ * included. The watermark is unset until the view has loaded, and nothing
+ * is applied until then.
+ */
+final class ChangeFeedTail {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedTail.class);
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final ProductChangeService changeService;
+    private final Target target;
+    private final String description;
+    private final ScheduledExecutorService tailer;
+
+    // Guarded by this: the change feed position up to which every change has been applied, null until loaded
+    private ProductChangeToken.Position watermark;
+
+    /**
+     * Start tailing; nothing is applied until a watermark is set.
+     *
+     * @param changeService the change feed
+     * @param target        the view to apply changes to
+     * @param description   what the view holds, for thread names and log messages, e.g. "product catalog"
+     * @param interval      how often the feed is read
+     */
+    ChangeFeedTail(ProductChangeService changeService, Target target, String description, Duration interval) {
+        this.changeService = changeService;
+        this.target = target;
+        this.description = description;
+        this.tailer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, description.replace(' ', '-') + "-tail");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        this.tailer.scheduleWithFixedDelay(this::tailQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Where the feed is readable now. Every change before it has committed, so a load that starts
+     * afterwards sees it; pass it to {@link #loadedUpTo} once the load has finished.
+     *
+     * @return the readable position
+     */
+    ProductChangeToken.Position readable() {
+        return new ProductChangeToken.Position(changeService.readableUntil(), Long.MAX_VALUE);
+    }
+
+    /**
+     * Continue from a load that saw every change up to a position, unless the watermark is already past it.
+     *
+     * @param position the position from {@link #readable()} before the load started
+     */
+    synchronized void loadedUpTo(ProductChangeToken.Position position) {
+        if (watermark == null || watermark.compareTo(position) < 0) {
+            watermark = position;
+        }
+    }
+
+    /**
+     * Apply every change after a position, e.g. the watermark of a snapshot file, and continue from there.
+     *
+     * @param position the position to start after
+     * @return the number of changes applied
+     */
+    synchronized int tailFrom(ProductChangeToken.Position position) {
+        watermark = position;
+        return tail();
+    }
+
+    /**
+     * Apply every change after the watermark, up to where the change feed is readable, and move the watermark on.
+     * Changes are idempotent, so applying one that was also applied from a local event is harmless.
+     *
+     * @return the number of changes applied
+     */
+    synchronized int tail() {
+        if (watermark == null) {
+            return 0;
+        }
+        LocalDateTime until = changeService.readableUntil();
+        int applied = 0;
+        ProductChangeService.ChangeBatch batch;
+        do {
+            batch = changeService.changesAfter(watermark, until, PAGE_SIZE);
+            apply(batch.changes());
+            if (!batch.changes().isEmpty()) {
+                watermark = batch.changes().get(batch.changes().size() - 1).position();
+            }
+            applied += batch.changes().size();
+        } while (batch.hasMore());
+        return applied;
+    }
+
+    /**
+     * Stop tailing.
+     */
+    void shutdown() {
+        tailer.shutdownNow();
+    }
+
+    private void apply(List<ProductChangeService.Change> changes) {
+        List<Product> upserts = new ArrayList<>();
+        for (ProductChangeService.Change change : changes) {
+            if (change.product() != null) {
+                upserts.add(change.product());
+            } else {
+                // Apply earlier upserts first, so a product created and deleted since the watermark stays deleted
+                if (!upserts.isEmpty()) {
+                    target.upsert(upserts);
+                    upserts = new ArrayList<>();
+                }
+                target.delete(change.position().id());
+            }
+        }
+        if (!upserts.isEmpty()) {
+            target.upsert(upserts);
+        }
+    }
+
+    private void tailQuietly() {
+        try {
+            tail();
+        } catch (RuntimeException ex) {
+            // Retried on the next tick from the same watermark
+            log.warn("Cannot apply product changes from the change feed to the {}", description, ex);
+        }
+    }
+
+    /**
+     * The view changes are applied to.
+     */
+    interface Target {
+
+        /**
+         * Add or replace products.
+         *
+         * @param products the created or updated products, in feed order
+         */
+        void upsert(List<Product> products);
+
+        /**
+         * Remove a deleted or archived product.
+         *
+         * @param id the product id
+         */
+        void delete(long id);
+    }
+}
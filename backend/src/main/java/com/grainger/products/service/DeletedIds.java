@@ -0,0 +1,192 @@
+package com.grainger.products.service;
+
+/**
+ * Immutable set of deleted product ids, stored as a bitmap split into a trie
+ * of small pages.
+ * <p>
+ * Adding an id copies only the pages on its path and shares the rest with
+ * the previous set, so recording a deletion costs a few hundred bytes
+ * however many ids are already held, and lookups never box. Ids are
+ * allocated from a sequence, so deleted ids cluster and most pages stay
+ * absent. Removing the ids of an older version of the same set only visits
+ * the pages that differ from it.
+ */
+final class DeletedIds {
+
+    static final DeletedIds EMPTY = new DeletedIds(null, 0, 0);
+
+    private static final int LEAF_BITS = 10;
+    private static final int LEAF_WORDS = (1 << LEAF_BITS) / Long.SIZE;
+    private static final int BRANCH_BITS = 5;
+    private static final int BRANCH_WIDTH = 1 << BRANCH_BITS;
+
+    // A long[] leaf of LEAF_WORDS words when levels is 0, otherwise an Object[] branch of BRANCH_WIDTH children
+    private final Object root;
+    private final int levels;
+    private final int size;
+
+    private DeletedIds(Object root, int levels, int size) {
+        this.root = root;
+        this.levels = levels;
+        this.size = size;
+    }
+
+    /**
+     * Number of ids in the set.
+     */
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Whether an id is in the set.
+     *
+     * @param id the product id
+     * @return true if the id was added
+     */
+    boolean contains(long id) {
+        if (root == null || !fits(id, levels)) {
+            return false;
+        }
+        Object node = root;
+        for (int level = levels; level > 0; level--) {
+            node = ((Object[]) node)[index(id, level)];
+            if (node == null) {
+                return false;
+            }
+        }
+        int bit = (int) id & ((1 << LEAF_BITS) - 1);
+        return (((long[]) node)[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * A set holding this set's ids and one more.
+     *
+     * @param id the product id, not negative
+     * @return the new set, or this set if it already holds the id
+     */
+    DeletedIds with(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Product ids are not negative: " + id);
+        }
+        if (contains(id)) {
+            return this;
+        }
+        Object top = root;
+        int height = levels;
+        while (!fits(id, height)) {
+            if (top != null) {
+                Object[] grown = new Object[BRANCH_WIDTH];
+                grown[0] = top;
+                top = grown;
+            }
+            height++;
+        }
+        return new DeletedIds(set(top, height, id), height, size + 1);
+    }
+
+    /**
+     * A set holding this set's ids that are not in another.
+     *
+     * @param other the ids to leave out, usually an earlier version of this set
+     * @return the remaining ids
+     */
+    DeletedIds minus(DeletedIds other) {
+        if (other.root == null || root == null) {
+            return this;
+        }
+        Object subtrahend = other.root;
+        for (int height = other.levels; height < levels; height++) {
+            Object[] grown = new Object[BRANCH_WIDTH];
+            grown[0] = subtrahend;
+            subtrahend = grown;
+        }
+        for (int height = other.levels; height > levels && subtrahend != null; height--) {
+            subtrahend = ((Object[]) subtrahend)[0];
+        }
+        Object remaining = subtract(root, subtrahend, levels);
+        return remaining == null ? EMPTY : new DeletedIds(remaining, levels, count(remaining, levels));
+    }
+
+    private static boolean fits(long id, int levels) {
+        int bits = LEAF_BITS + levels * BRANCH_BITS;
+        return id >= 0 && (bits >= Long.SIZE - 1 || id >>> bits == 0);
+    }
+
+    private static int index(long id, int level) {
+        return (int) (id >>> (LEAF_BITS + (level - 1) * BRANCH_BITS)) & (BRANCH_WIDTH - 1);
+    }
+
+    /**
+     * Copy the path to an id's page, setting its bit.
+     */
+    private static Object set(Object node, int level, long id) {
+        if (level == 0) {
+            long[] leaf = node == null ? new long[LEAF_WORDS] : ((long[]) node).clone();
+            int bit = (int) id & ((1 << LEAF_BITS) - 1);
+            leaf[bit >>> 6] |= 1L << bit;
+            return leaf;
+        }
+        Object[] branch = node == null ? new Object[BRANCH_WIDTH] : ((Object[]) node).clone();
+        int index = index(id, level);
+        branch[index] = set(branch[index], level - 1, id);
+        return branch;
+    }
+
+    /**
+     * The bits of node not set in other, or null if none remain. Shared pages are skipped without being read.
+     */
+    private static Object subtract(Object node, Object other, int level) {
+        if (node == null || node == other) {
+            return null;
+        }
+        if (other == null) {
+            return node;
+        }
+        if (level == 0) {
+            long[] words = (long[]) node;
+            long[] otherWords = (long[]) other;
+            long[] remaining = new long[LEAF_WORDS];
+            boolean any = false;
+            for (int i = 0; i < LEAF_WORDS; i++) {
+                remaining[i] = words[i] & ~otherWords[i];
+                any |= remaining[i] != 0;
+            }
+            return any ? remaining : null;
+        }
+        Object[] children = (Object[]) node;
+        Object[] otherChildren = (Object[]) other;
+        Object[] remaining = null;
+        for (int i = 0; i < BRANCH_WIDTH; i++) {
+            Object child = subtract(children[i], otherChildren[i], level - 1);
+            if (child != null) {
+                if (remaining == null) {
+                    remaining = new Object[BRANCH_WIDTH];
+                }
+                remaining[i] = child;
+            }
+        }
+        return remaining;
+    }
+
+    private static int count(Object node, int level) {
+        if (node == null) {
+            return 0;
+        }
+        int count = 0;
+        if (level == 0) {
+            for (long word : (long[]) node) {
+                count += Long.bitCount(word);
+            }
+        } else {
+            for (Object child : (Object[]) node) {
+                count += count(child, level - 1);
+            }
+        }
+        return count;
+    }
+}
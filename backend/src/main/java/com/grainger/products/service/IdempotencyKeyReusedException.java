@@ -0,0 +1,16 @@
+package com.grainger.products.service;
+
+/**
+ * Thrown when an idempotency key is sent again with a different request payload.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    /**
+     * Create the exception.
+     *
+     * @param key the reused key
+     */
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency key " + key + " was already used with a different request");
+    }
+}
@@ -0,0 +1,18 @@
+package com.grainger.products.service;
+
+/**
+ * Thrown when the asynchronous ingestion queue has no room for a request.
+ * The request was not accepted, so the client may retry later.
+ */
+public class IngestQueueFullException extends RuntimeException {
+
+    /**
+     * Create the exception.
+     *
+     * @param requested the number of items in the rejected request
+     * @param available the number of items the queue could still take
+     */
+    public IngestQueueFullException(int requested, int available) {
+        super("Ingestion queue is full: " + requested + " items requested, room for " + available);
+    }
+}
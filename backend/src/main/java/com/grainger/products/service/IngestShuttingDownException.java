@@ -0,0 +1,17 @@
+package com.grainger.products.service;
+
+/**
+ * Thrown when a request reaches the asynchronous ingestion queue after shutdown has begun.
+ * The request was not accepted, so the client may retry against another instance.
+ */
+public class IngestShuttingDownException extends RuntimeException {
+
+    /**
+     * Create the exception.
+     *
+     * @param requested the number of items in the rejected request
+     */
+    public IngestShuttingDownException(int requested) {
+        super("Ingestion queue is shutting down: " + requested + " items not accepted");
+    }
+}
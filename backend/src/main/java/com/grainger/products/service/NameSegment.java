@@ -0,0 +1,266 @@
+package com.grainger.products.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable, sorted run of (name, id) entries stored in primitive arrays.
+ * All names live UTF-8 encoded in one byte array addressed by offsets, so an
+ * entry costs its name bytes plus 12 bytes instead of a String object graph.
+ * <p>
+ * Entries are ordered by name with ASCII letters folded to lower case, then
+ * by id, which keeps every name with a given prefix in one contiguous range.
+ * Case folding only covers ASCII; other characters compare as-is.
+ * Looking up an id sorts a copy of the ids on first use, which only small
+ * segments such as a delta need.
+ */
+final class NameSegment implements BaseDeltaIndex.Segment<NameSegment> {
+
+    static final NameSegment EMPTY = new NameSegment(new byte[0], new int[]{0}, new long[0]);
+
+    private final byte[] names;
+    private final int[] offsets;
+    private final long[] ids;
+
+    // Copy of ids in ascending order, built on first lookup; racing builds are equal
+    private volatile long[] sortedIds;
+
+    private NameSegment(byte[] names, int[] offsets, long[] ids) {
+        this.names = names;
+        this.offsets = offsets;
+        this.ids = ids;
+    }
+
+    /**
+     * Build a segment from unsorted entries.
+     *
+     * @param ids   the product ids
+     * @param names the product names, parallel to ids
+     * @param count the number of entries to take from the arrays
+     * @return the sorted segment
+     */
+    static NameSegment of(long[] ids, String[] names, int count) {
+        byte[][] encoded = new byte[count][];
+        Integer[] order = new Integer[count];
+        long totalBytes = 0;
+        for (int i = 0; i < count; i++) {
+            encoded[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            order[i] = i;
+            totalBytes += encoded[i].length;
+        }
+        if (totalBytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Name index segment exceeds 2 GB");
+        }
+        Arrays.sort(order, (a, b) -> {
+            int byName = compare(encoded[a], 0, encoded[a].length, encoded[b], 0, encoded[b].length);
+            return byName != 0 ? byName : Long.compare(ids[a], ids[b]);
+        });
+
+        byte[] blob = new byte[(int) totalBytes];
+        int[] offsets = new int[count + 1];
+        long[] sortedIds = new long[count];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            byte[] name = encoded[order[i]];
+            System.arraycopy(name, 0, blob, position, name.length);
+            offsets[i] = position;
+            sortedIds[i] = ids[order[i]];
+            position += name.length;
+        }
+        offsets[count] = position;
+        return new NameSegment(blob, offsets, sortedIds);
+    }
+
+    /**
+     * Merge this segment with a newer one into a new segment.
+     * Where both hold an id, the newer entry wins.
+     *
+     * @param newer the segment to merge in
+     * @param drop  ids to leave out of the result, e.g. deleted products
+     * @return the merged segment
+     */
+    @Override
+    public NameSegment merge(NameSegment newer, LongPredicate drop) {
+        boolean overlap = size() > 0 && newer.size() > 0;
+        return merge(newer, i -> drop.test(ids[i]) || (overlap && newer.containsId(ids[i])),
+                j -> drop.test(newer.ids[j]));
+    }
+
+    /**
+     * The entries of this segment that another does not already hold with the same name,
+     * e.g. a delta without the entries folded into a base.
+     *
+     * @param folded the segment whose entries to leave out
+     * @return the remaining entries
+     */
+    @Override
+    public NameSegment minus(NameSegment folded) {
+        if (folded.size() == 0) {
+            return this;
+        }
+        Map<Long, Integer> foldedRows = new HashMap<>();
+        for (int j = 0; j < folded.size(); j++) {
+            foldedRows.put(folded.ids[j], j);
+        }
+        return merge(EMPTY, i -> {
+            Integer j = foldedRows.get(ids[i]);
+            return j != null && Arrays.equals(names, offsets[i], offsets[i + 1],
+                    folded.names, folded.offsets[j], folded.offsets[j + 1]);
+        }, j -> false);
+    }
+
+    /**
+     * Whether the segment holds an entry for an id.
+     *
+     * @param id the product id
+     * @return true if an entry has the id
+     */
+    boolean containsId(long id) {
+        long[] sorted = sortedIds;
+        if (sorted == null) {
+            sorted = ids.clone();
+            Arrays.sort(sorted);
+            sortedIds = sorted;
+        }
+        return Arrays.binarySearch(sorted, id) >= 0;
+    }
+
+    /**
+     * Merge two segments, leaving out the entries, by index, that the predicates exclude.
+     */
+    private NameSegment merge(NameSegment other, IntPredicate excludeThis, IntPredicate excludeOther) {
+        int maxSize = size() + other.size();
+        byte[] blob = new byte[names.length + other.names.length];
+        int[] mergedOffsets = new int[maxSize + 1];
+        long[] mergedIds = new long[maxSize];
+
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        int position = 0;
+        while (i < size() || j < other.size()) {
+            if (i < size() && excludeThis.test(i)) {
+                i++;
+                continue;
+            }
+            if (j < other.size() && excludeOther.test(j)) {
+                j++;
+                continue;
+            }
+            boolean takeThis = j >= other.size() || (i < size() && compareEntries(this, i, other, j) <= 0);
+            NameSegment source = takeThis ? this : other;
+            int index = takeThis ? i++ : j++;
+            int length = source.offsets[index + 1] - source.offsets[index];
+            System.arraycopy(source.names, source.offsets[index], blob, position, length);
+            mergedOffsets[count] = position;
+            mergedIds[count] = source.ids[index];
+            position += length;
+            count++;
+        }
+        mergedOffsets[count] = position;
+
+        if (count == maxSize) {
+            return new NameSegment(blob, mergedOffsets, mergedIds);
+        }
+        return new NameSegment(Arrays.copyOf(blob, position), Arrays.copyOf(mergedOffsets, count + 1),
+                Arrays.copyOf(mergedIds, count));
+    }
+
+    /**
+     * Number of entries in the segment.
+     */
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    long id(int index) {
+        return ids[index];
+    }
+
+    String name(int index) {
+        return new String(names, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Index of the first entry whose name sorts at or after the prefix.
+     *
+     * @param prefix the UTF-8 encoded prefix
+     * @return the insertion point for the prefix
+     */
+    int lowerBound(byte[] prefix) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(names, offsets[mid], offsets[mid + 1], prefix, 0, prefix.length) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Whether the entry's name starts with the prefix, ignoring ASCII case.
+     *
+     * @param index  the entry index
+     * @param prefix the UTF-8 encoded prefix
+     * @return true if the name starts with the prefix
+     */
+    boolean startsWith(int index, byte[] prefix) {
+        int from = offsets[index];
+        if (offsets[index + 1] - from < prefix.length) {
+            return false;
+        }
+        for (int k = 0; k < prefix.length; k++) {
+            if (fold(names[from + k]) != fold(prefix[k])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Approximate heap used by this segment's arrays, including array headers.
+     *
+     * @return the size in bytes
+     */
+    @Override
+    public long heapBytes() {
+        return arrayBytes(names.length) + arrayBytes(4L * offsets.length) + arrayBytes(8L * ids.length);
+    }
+
+    /**
+     * Order two entries, possibly from different segments, by folded name then id.
+     */
+    static int compareEntries(NameSegment a, int i, NameSegment b, int j) {
+        int byName = compare(a.names, a.offsets[i], a.offsets[i + 1], b.names, b.offsets[j], b.offsets[j + 1]);
+        return byName != 0 ? byName : Long.compare(a.ids[i], b.ids[j]);
+    }
+
+    private static int compare(byte[] a, int aFrom, int aTo, byte[] b, int bFrom, int bTo) {
+        int length = Math.min(aTo - aFrom, bTo - bFrom);
+        for (int k = 0; k < length; k++) {
+            int diff = fold(a[aFrom + k]) - fold(b[bFrom + k]);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return (aTo - aFrom) - (bTo - bFrom);
+    }
+
+    private static int fold(byte value) {
+        return value >= 'A' && value <= 'Z' ? value + ('a' - 'A') : value & 0xFF;
+    }
+
+    private static long arrayBytes(long payload) {
+        // 16-byte array header, padded to 8-byte alignment
+        return (16 + payload + 7) & ~7L;
+    }
+}
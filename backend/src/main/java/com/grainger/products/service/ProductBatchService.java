@@ -0,0 +1,194 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductBatchItemResult;
+import com.grainger.products.model.ProductBatchResult;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Service for creating products in bulk.
+ * Items are validated with the same rules as {@link ProductService} and
+ * inserted in fixed-size chunks, one transaction per chunk, so Hibernate can
+ * send them as JDBC batches and memory stays bounded for large feeds.
+ */
+@Service
+public class ProductBatchService {
+
+    private static final String CACHE_STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    /**
+     * SQLSTATE classes of failures that may pass: connection exceptions, transaction
+     * rollbacks (deadlocks, serialization failures), insufficient resources and
+     * operator intervention (server shutting down, query cancelled).
+     */
+    private static final List<String> TRANSIENT_SQL_STATES = List.of("08", "40", "53", "57");
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    /**
+     * Constructor injection for the batch dependencies.
+     *
+     * @param entityManager      the shared entity manager
+     * @param transactionManager the transaction manager used for each chunk
+     * @param eventPublisher     publishes product change events
+     * @param chunkSize          the number of items inserted per transaction
+     */
+    public ProductBatchService(EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${products.batch.chunk-size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Batch chunk size must be positive");
+        }
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Create products from the given items.
+     * Items that fail validation are rejected individually. If a chunk fails
+     * to insert, its items are inserted one by one, so only the items the
+     * database refuses are rejected; earlier chunks stay committed. A chunk
+     * that fails for a transient reason, such as a lost connection, is
+     * reported as failed as a whole, and may be submitted again.
+     *
+     * @param products the items to create, read lazily
+     * @return per-item results in input order
+     */
+    public ProductBatchResult createProducts(Iterator<Product> products) {
+        List<ProductBatchItemResult> results = new ArrayList<>();
+        List<Product> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+
+        int index = 0;
+        while (products.hasNext()) {
+            Product product = products.next();
+            try {
+                ProductService.validateProduct(product);
+                // Ids are always generated; a client-supplied id would make persist fail
+                product.setId(null);
+                chunk.add(product);
+                chunkIndexes.add(index);
+            } catch (IllegalArgumentException ex) {
+                results.add(ProductBatchItemResult.rejected(index, ex.getMessage()));
+            }
+            index++;
+
+            if (chunk.size() == chunkSize) {
+                results.addAll(insertChunk(chunk, chunkIndexes));
+                chunk.clear();
+                chunkIndexes.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(insertChunk(chunk, chunkIndexes));
+        }
+
+        results.sort(Comparator.comparingInt(ProductBatchItemResult::index));
+        int created = (int) results.stream()
+                .filter(result -> result.status() == ProductBatchItemResult.Status.CREATED)
+                .count();
+        return new ProductBatchResult(created, results.size() - created, results);
+    }
+
+    /**
+     * Insert one chunk in its own transaction and clear the persistence context afterwards.
+     * When the chunk fails, each of its items is retried in a transaction of
+     * its own, unless the failure is transient.
+     *
+     * @param chunk   the validated products to insert
+     * @param indexes the request index of each product
+     * @return the result for each product in the chunk
+     */
+    private List<ProductBatchItemResult> insertChunk(List<Product> chunk, List<Integer> indexes) {
+        List<ProductBatchItemResult> results = new ArrayList<>(chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Bulk loads should not push everything else out of the second-level cache
+                entityManager.setProperty(CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+                for (Product product : chunk) {
+                    entityManager.persist(product);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                eventPublisher.publishEvent(new ProductsCreatedEvent(List.copyOf(chunk)));
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(ProductBatchItemResult.created(indexes.get(i), chunk.get(i).getId()));
+            }
+        } catch (DataAccessException | PersistenceException | TransactionException ex) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            if (isTransient(ex)) {
+                // Inserting the rows separately would only wait out the same outage once per row
+                for (Integer index : indexes) {
+                    results.add(ProductBatchItemResult.failed(index, "Insert failed: " + cause));
+                }
+                return results;
+            }
+            if (chunk.size() > 1) {
+                // One refused row fails the whole JDBC batch; find it by inserting the rows separately
+                for (int i = 0; i < chunk.size(); i++) {
+                    Product product = chunk.get(i);
+                    product.setId(null);
+                    results.addAll(insertChunk(List.of(product), List.of(indexes.get(i))));
+                }
+                return results;
+            }
+            results.add(ProductBatchItemResult.rejected(indexes.get(0), "Insert refused: " + cause));
+        }
+        return results;
+    }
+
+    /**
+     * Whether a failure may pass if the same insert is tried again later:
+     * a lost or unavailable connection, a timeout, a deadlock or serialization
+     * failure, or a server short of resources or shutting down.
+     *
+     * @param ex the failure
+     * @return true if retrying may succeed, false if the insert itself is refused
+     */
+    static boolean isTransient(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof TransactionTimedOutException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (cause instanceof SQLException sql && sql.getSQLState() != null
+                    && TRANSIENT_SQL_STATES.stream().anyMatch(sql.getSQLState()::startsWith)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,280 @@
+package com.grainger.products.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.grainger.products.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of products by id.
+ * Lookups for ids that do not exist are cached too, for a shorter time, so
+ * repeated requests for missing ids do not reach the database. Concurrent
+ * misses for the same id are collapsed into a single load.
+ * <p>
+ * Lookups loaded outside the cache's atomic load are only added if no
+ * invalidation of their id happened since the load started, tracked by a
+ * generation counter per stripe of ids. Otherwise a lookup that read the
+ * database before a create committed could cache the new id as missing
+ * after the create had invalidated it.
+ * <p>
+ * Loads that may be served by a lagging read replica should not cache the
+ * ids they miss: the replica may not have applied a create yet, and the id
+ * would stay missing for everyone until the negative TTL ran out.
+ */
+@Component
+public class ProductCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Long, Optional<Product>> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * Create the cache from configuration.
+     *
+     * @param maximumSize the maximum number of entries kept
+     * @param ttl         how long a found product is kept
+     * @param negativeTtl how long a missing id is kept
+     */
+    @Autowired
+    public ProductCache(@Value("${products.cache.maximum-size:100000}") long maximumSize,
+                        @Value("${products.cache.ttl:10m}") Duration ttl,
+                        @Value("${products.cache.negative-ttl:30s}") Duration negativeTtl) {
+        this(maximumSize, ttl, negativeTtl, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create the cache with an explicit clock and maintenance executor, for tests.
+     */
+    ProductCache(long maximumSize, Duration ttl, Duration negativeTtl, Ticker ticker, Executor executor) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new FoundOrMissingExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Return the cached lookup for an id, loading it on a miss.
+     *
+     * @param id     the product ID
+     * @param loader loads the product from the database on a miss
+     * @return Optional containing the product if found, empty otherwise
+     */
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Return the cached lookup for an id, loading it on a miss, and cache the load only if it found the product.
+     * For loads that may read a lagging replica, which can report an id the primary already has as missing.
+     *
+     * @param id     the product ID
+     * @param loader loads the product from the database on a miss
+     * @return Optional containing the product if found, empty otherwise
+     */
+    public Optional<Product> getFound(Long id, Function<Long, Optional<Product>> loader) {
+        // Caffeine caches nothing when the loader returns null
+        Optional<Product> lookup = cache.get(id, key -> {
+            Optional<Product> loaded = loader.apply(key);
+            return loaded.isPresent() ? loaded : null;
+        });
+        return lookup != null ? lookup : Optional.empty();
+    }
+
+    /**
+     * Return the cached lookup for an id without loading it.
+     *
+     * @param id the product ID
+     * @return the cached lookup, found or empty, or null if the id is not cached
+     */
+    public Optional<Product> peek(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * The invalidation generation of an id, to be read before loading it outside the cache.
+     *
+     * @param id the product ID
+     * @return the generation to pass to {@link #putIfCurrent}
+     */
+    public long generation(Long id) {
+        return generations.get(stripe(id));
+    }
+
+    /**
+     * Cache a lookup made outside the cache, unless one was cached for the id meanwhile
+     * or the id was invalidated since the lookup started.
+     *
+     * @param id         the product ID
+     * @param value      the lookup, found or empty
+     * @param generation the id's generation read before the lookup started
+     * @return the lookup now cached for the id, or the given one if it was not cached
+     */
+    public Optional<Product> putIfCurrent(Long id, Optional<Product> value, long generation) {
+        // Invalidation bumps the generation before removing the entry under the same key lock,
+        // so a stale lookup is either refused here or removed right after
+        Optional<Product> cached = cache.asMap().compute(id, (key, existing) ->
+                existing != null ? existing : generation(key) == generation ? value : null);
+        return cached != null ? cached : value;
+    }
+
+    /**
+     * Return the cached lookups for several ids, loading all misses with one call.
+     * The loaded lookups are cached only for ids not invalidated while loading.
+     *
+     * @param ids    the product IDs
+     * @param loader loads the missing ids; must return an entry, found or empty, for every id it is given
+     * @return the lookup for every requested id
+     */
+    public Map<Long, Optional<Product>> getAll(Iterable<Long> ids,
+                                               Function<Set<? extends Long>, Map<Long, Optional<Product>>> loader) {
+        return getAll(ids, loader, true);
+    }
+
+    /**
+     * Return the cached lookups for several ids, loading all misses with one call,
+     * and optionally caching only the ids the load found.
+     *
+     * @param ids          the product IDs
+     * @param loader       loads the missing ids; must return an entry, found or empty, for every id it is given
+     * @param cacheMissing whether ids the load did not find are cached as missing
+     * @return the lookup for every requested id
+     */
+    public Map<Long, Optional<Product>> getAll(Iterable<Long> ids,
+                                               Function<Set<? extends Long>, Map<Long, Optional<Product>>> loader,
+                                               boolean cacheMissing) {
+        Map<Long, Optional<Product>> lookups = new LinkedHashMap<>(cache.getAllPresent(ids));
+        Map<Long, Long> missing = new LinkedHashMap<>();
+        for (Long id : ids) {
+            if (!lookups.containsKey(id)) {
+                missing.put(id, generation(id));
+            }
+        }
+        if (missing.isEmpty()) {
+            return lookups;
+        }
+        Map<Long, Optional<Product>> loaded = loader.apply(new LinkedHashSet<>(missing.keySet()));
+        missing.forEach((id, generation) -> {
+            Optional<Product> lookup = loaded.get(id);
+            lookups.put(id, lookup.isPresent() || cacheMissing ? putIfCurrent(id, lookup, generation) : lookup);
+        });
+        return lookups;
+    }
+
+    /**
+     * Drop the cached lookup for an id, found or missing, and refuse lookups of it already under way.
+     *
+     * @param id the product ID
+     */
+    public void invalidate(Long id) {
+        generations.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+    }
+
+    /**
+     * Drop every cached lookup, and refuse lookups already under way.
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    /**
+     * Hit, miss and eviction counters since startup.
+     *
+     * @return a snapshot of the cache statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * The number of entries currently cached (approximate).
+     *
+     * @return the estimated entry count
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * The underlying Caffeine cache, for binding metrics.
+     *
+     * @return the native cache
+     */
+    public Cache<Long, Optional<Product>> nativeCache() {
+        return cache;
+    }
+
+    /**
+     * Forget negative entries for newly created ids once the insert has committed.
+     * Runs immediately when the event is published outside a transaction.
+     *
+     * @param event the creation event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        for (Product product : event.products()) {
+            invalidate(product.getId());
+        }
+    }
+
+    /**
+     * Forget a deleted product once the deletion has committed.
+     *
+     * @param event the deletion event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        invalidate(event.productId());
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (GENERATION_STRIPES - 1);
+    }
+
+    /**
+     * Expires found products after the regular TTL and missing ids after the negative TTL.
+     * Reads do not extend an entry's lifetime.
+     */
+    private record FoundOrMissingExpiry(long ttlNanos, long negativeTtlNanos)
+            implements Expiry<Long, Optional<Product>> {
+
+        @Override
+        public long expireAfterCreate(Long key, Optional<Product> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Optional<Product> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Optional<Product> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
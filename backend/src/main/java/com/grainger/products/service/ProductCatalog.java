@@ -0,0 +1,351 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Read-only, in-memory copy of the whole product catalog.
+ * <p>
+ * The catalog is a {@link BaseDeltaIndex} of {@link CatalogSnapshot}s: a
+ * large base loaded from the database once the application is ready, a small
+ * delta for products created since, and the ids deleted since, folded into
+ * the base in the background. Readers never lock. Until the load has
+ * finished {@link #isLoaded()} is false and callers should read from the
+ * database.
+ * <p>
+ * Creations and deletions made through this instance are applied as their
+ * transactions commit. Every other change, from other instances or written
+ * to the database directly, is applied by tailing the change feed from the
+ * catalog's watermark on a fixed tick, so it shows up once the feed makes it
+ * readable, a little over the feed's safety lag after it was made.
+ * <p>
+ * With a snapshot path configured the catalog is also written to a
+ * {@link CatalogSnapshotFile} periodically and at shutdown. On the next start
+ * that file is memory-mapped as the base, and only changes newer than its
+ * watermark are read from the change feed, so a warm restart does not reload
+ * every product. The mapped base stays off the heap until the first merge.
+ * Enabled with products.catalog.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "products.catalog.enabled", havingValue = "true")
+public class ProductCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalog.class);
+
+    private final ProductRepository productRepository;
+    private final ProductChangeService changeService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path snapshotPath;
+    private final ScheduledExecutorService snapshotWriter;
+    private final BaseDeltaIndex<CatalogSnapshot> index = new BaseDeltaIndex<>(CatalogSnapshot.EMPTY, "product catalog");
+    private final ChangeFeedTail feed;
+
+    /**
+     * Constructor injection for the catalog dependencies.
+     *
+     * @param productRepository  the product repository, used to load the catalog
+     * @param changeService      the change feed, tailed for changes made elsewhere
+     * @param entityManager      the shared entity manager, used to detach loaded rows
+     * @param transactionManager the transaction manager for the initial load
+     * @param snapshotPath       the snapshot file, or empty to always load from the database
+     * @param snapshotInterval   how often the snapshot file is rewritten
+     * @param tailInterval       how often the change feed is tailed
+     */
+    public ProductCatalog(ProductRepository productRepository,
+                          ProductChangeService changeService,
+                          EntityManager entityManager,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${products.catalog.snapshot.path:}") String snapshotPath,
+                          @Value("${products.catalog.snapshot.interval:10m}") Duration snapshotInterval,
+                          @Value("${products.catalog.tail-interval:1s}") Duration tailInterval) {
+        this.productRepository = productRepository;
+        this.changeService = changeService;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        if (this.snapshotPath != null) {
+            this.snapshotWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "product-catalog-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = snapshotInterval.toMillis();
+            this.snapshotWriter.scheduleWithFixedDelay(this::writeSnapshotQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            this.snapshotWriter = null;
+        }
+        this.feed = new ChangeFeedTail(changeService, new ChangeFeedTail.Target() {
+            @Override
+            public void upsert(List<Product> products) {
+                index.add(CatalogSnapshot.of(products));
+            }
+
+            @Override
+            public void delete(long id) {
+                index.remove(id);
+            }
+        }, "product catalog", tailInterval);
+    }
+
+    /**
+     * Load the catalog once the application is ready: from the snapshot file
+     * plus the changes since it was written when there is a usable one, and
+     * otherwise from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Optional<CatalogSnapshotFile.Loaded> file = snapshotPath == null
+                ? Optional.empty()
+                : CatalogSnapshotFile.read(snapshotPath);
+        if (file.isEmpty()) {
+            rebuild();
+            return;
+        }
+        long start = System.nanoTime();
+        index.load(() -> file.get().snapshot(), false);
+        // Moved back by the safety lag, so changes that committed late are not missed
+        int changes = feed.tailFrom(changeService.replayPosition(file.get().watermark()));
+        index.markLoaded();
+        log.info("Product catalog mapped {} products from {} and applied {} changes in {} ms", size(),
+                snapshotPath, changes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Load every product from the database into a new base snapshot.
+     * Products created while loading are kept; if they were also read from
+     * the database, the delta copy wins. Products deleted while loading stay
+     * hidden. Both are folded into the loaded base once the load has finished.
+     * Tailing continues from where the feed was readable when the load began.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        ProductChangeToken.Position readable = feed.readable();
+        index.load(() -> readOnlyTransaction.execute(status -> loadAll()), true);
+        feed.loadedUpTo(readable);
+        log.info("Product catalog loaded {} products ({} KB) in {} ms", size(), heapBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Write the current catalog to the snapshot file, replacing the previous one.
+     *
+     * @return true if a file was written; false if no path is configured or the catalog is not loaded yet
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public boolean writeSnapshot() {
+        BaseDeltaIndex.State<CatalogSnapshot> current = index.state();
+        if (snapshotPath == null || !current.loaded()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        CatalogSnapshot merged = current.base().merge(current.delta(), current.deleted()::contains);
+        long bytes = CatalogSnapshotFile.write(snapshotPath, merged);
+        log.info("Product catalog snapshot of {} products ({} KB) written to {} in {} ms", merged.size(),
+                bytes / 1024, snapshotPath, (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Stop tailing, the background merger and the periodic writer, and write a last snapshot,
+     * so the next start only catches up on little.
+     */
+    @PreDestroy
+    public void shutdown() {
+        feed.shutdown();
+        index.shutdown();
+        if (snapshotWriter != null) {
+            snapshotWriter.shutdownNow();
+            writeSnapshotQuietly();
+        }
+    }
+
+    /**
+     * Add newly created products once their insert has committed.
+     *
+     * @param event the creation event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        index.add(CatalogSnapshot.of(event.products()));
+    }
+
+    /**
+     * Remove a deleted product once the deletion has committed.
+     *
+     * @param event the deletion event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        index.remove(event.productId());
+    }
+
+    /**
+     * Whether the initial load has finished and reads can be served from the catalog.
+     *
+     * @return true once the catalog holds every product
+     */
+    public boolean isLoaded() {
+        return index.state().loaded();
+    }
+
+    /**
+     * Get a product by id.
+     *
+     * @param id the product ID
+     * @return Optional containing a new copy of the product if found, empty otherwise
+     */
+    public Optional<Product> get(long id) {
+        BaseDeltaIndex.State<CatalogSnapshot> current = index.state();
+        if (current.deleted().contains(id)) {
+            return Optional.empty();
+        }
+        int row = current.delta().indexOf(id);
+        if (row >= 0) {
+            return Optional.of(current.delta().product(row));
+        }
+        row = current.base().indexOf(id);
+        return row >= 0 ? Optional.of(current.base().product(row)) : Optional.empty();
+    }
+
+    /**
+     * Get every product, ordered by id.
+     *
+     * @return List of new copies of all products
+     */
+    public List<Product> getAll() {
+        return after(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the products after an id, ordered by id; the same rows as a keyset page query.
+     *
+     * @param afterId the id to start after (exclusive)
+     * @param limit   the maximum number of products to return
+     * @return List of new copies of the products
+     */
+    public List<Product> after(long afterId, int limit) {
+        BaseDeltaIndex.State<CatalogSnapshot> current = index.state();
+        CatalogSnapshot base = current.base();
+        CatalogSnapshot delta = current.delta();
+        DeletedIds deleted = current.deleted();
+        List<Product> products = new ArrayList<>(Math.min(limit, base.size() + delta.size()));
+        int i = base.firstAfter(afterId);
+        int j = delta.firstAfter(afterId);
+        while (products.size() < limit && (i < base.size() || j < delta.size())) {
+            boolean fromBase = j >= delta.size() || (i < base.size() && base.id(i) < delta.id(j));
+            if (!fromBase && i < base.size() && base.id(i) == delta.id(j)) {
+                i++;
+            }
+            CatalogSnapshot source = fromBase ? base : delta;
+            int row = fromBase ? i++ : j++;
+            if (deleted.isEmpty() || !deleted.contains(source.id(row))) {
+                products.add(source.product(row));
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Find a product by its exact name.
+     *
+     * @param name the product name
+     * @return Optional containing a new copy of the product if found
+     * @throws IncorrectResultSizeDataAccessException if several products have the name, as the database query would
+     */
+    public Optional<Product> findByName(String name) {
+        BaseDeltaIndex.State<CatalogSnapshot> current = index.state();
+        List<Product> matches = new ArrayList<>(1);
+        for (CatalogSnapshot snapshot : List.of(current.delta(), current.base())) {
+            for (int row : snapshot.rowsNamed(name)) {
+                long id = snapshot.id(row);
+                boolean shadowed = snapshot == current.base() && current.delta().indexOf(id) >= 0;
+                if (!shadowed && !current.deleted().contains(id)) {
+                    matches.add(snapshot.product(row));
+                }
+            }
+        }
+        if (matches.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, matches.size());
+        }
+        return matches.stream().findFirst();
+    }
+
+    /**
+     * Number of products in the catalog.
+     *
+     * @return the product count
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Approximate heap used by the catalog arrays.
+     *
+     * @return the size in bytes
+     */
+    public long heapBytes() {
+        return index.heapBytes();
+    }
+
+    /**
+     * Fold the delta and the deleted ids into a new base now.
+     */
+    void merge() {
+        index.merge();
+    }
+
+    /**
+     * Apply the changes made elsewhere since the last tail now.
+     *
+     * @return the number of changes applied
+     */
+    int tail() {
+        return feed.tail();
+    }
+
+    private void writeSnapshotQuietly() {
+        try {
+            writeSnapshot();
+        } catch (RuntimeException ex) {
+            log.warn("Cannot write product catalog snapshot to {}", snapshotPath, ex);
+        }
+    }
+
+    private CatalogSnapshot loadAll() {
+        CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder(1024);
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                builder.add(product);
+                entityManager.detach(product);
+            }
+        }
+        return builder.build();
+    }
+}
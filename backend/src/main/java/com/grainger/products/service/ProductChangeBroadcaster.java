@@ -0,0 +1,398 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes product changes to Server-Sent Events subscribers as they commit.
+ * <p>
+ * While anyone is subscribed, a poller tails the change feed on a fixed tick
+ * and queues each new change for every subscriber, so changes committed by
+ * any instance, or written to the database directly, are pushed, in feed
+ * order and no earlier than the feed makes them readable. One read per tick
+ * serves every subscriber.
+ * <p>
+ * Each subscriber has its own bounded queue, drained by a sender thread of
+ * its own while it has events waiting, so a slow client or a long replay
+ * never holds up heartbeats or events for the others. A subscriber resuming
+ * from a watermark is registered first and then replayed the changes after
+ * it (moved back by the safety lag); polled events queued meanwhile follow
+ * the replay, skipping those the replay already sent, so nothing in between
+ * is lost. Each event's id is its watermark, so a reconnecting client's
+ * Last-Event-ID resumes where it left off. Replays longer than the
+ * configured maximum, and subscribers that fall so far behind that their
+ * queue fills up, end with a resync event; the client should catch up through
+ * GET /api/products/changes and reconnect.
+ */
+@Component
+public class ProductChangeBroadcaster {
+
+    /**
+     * Event name for a created or updated product; the data is the product.
+     */
+    public static final String UPSERT_EVENT = "upsert";
+
+    /**
+     * Event name for a deleted product; the data holds its id.
+     */
+    public static final String DELETE_EVENT = "delete";
+
+    /**
+     * Event name telling the client to catch up through the change feed; the data holds the watermark.
+     */
+    public static final String RESYNC_EVENT = "resync";
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeBroadcaster.class);
+
+    private static final int REPLAY_PAGE_SIZE = 500;
+
+    private static final Event HEARTBEAT = new Event(SseEmitter.event().comment("keep-alive").build(), null);
+
+    private final ProductChangeService changeService;
+    private final long timeoutMillis;
+    private final int maxReplay;
+    private final int queueCapacity;
+    private final ScheduledExecutorService heartbeats;
+    private final ScheduledExecutorService poller;
+    private final ExecutorService senders;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    /**
+     * The last change polled, null while nobody is subscribed. Guarded by the broadcaster, together with
+     * registering subscribers and queueing polled changes, so a new subscriber starts exactly where
+     * the poller's next events begin.
+     */
+    private ProductChangeToken.Position polled;
+
+    /**
+     * Create the broadcaster from configuration.
+     *
+     * @param changeService the change feed, tailed for live events and read for replays
+     * @param timeout       how long a subscription stays open before the client must reconnect
+     * @param heartbeat     how often an idle stream receives a keep-alive comment
+     * @param pollInterval  how often the change feed is polled while anyone is subscribed
+     * @param maxReplay     the most changes replayed to a resuming subscriber
+     * @param queueCapacity the most events waiting for one subscriber before it is told to resync
+     */
+    public ProductChangeBroadcaster(ProductChangeService changeService,
+                                    @Value("${products.changes.stream.timeout:30m}") Duration timeout,
+                                    @Value("${products.changes.stream.heartbeat:15s}") Duration heartbeat,
+                                    @Value("${products.changes.stream.poll-interval:1s}") Duration pollInterval,
+                                    @Value("${products.changes.stream.max-replay:10000}") int maxReplay,
+                                    @Value("${products.changes.stream.queue-capacity:1000}") int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("products.changes.stream.queue-capacity must be at least 1");
+        }
+        this.changeService = changeService;
+        this.timeoutMillis = timeout.toMillis();
+        this.maxReplay = maxReplay;
+        this.queueCapacity = queueCapacity;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-change-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-change-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "product-change-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats.scheduleAtFixedRate(() -> broadcast(HEARTBEAT),
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        this.poller.scheduleWithFixedDelay(this::pollSafely,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a subscription, replaying the changes after a watermark first if one is given.
+     *
+     * @param since the watermark to resume from, or null for live changes only
+     * @return the emitter to return from the controller
+     * @throws IllegalArgumentException if the watermark is invalid
+     */
+    public SseEmitter subscribe(String since) {
+        return subscribe(since, new SseEmitter(timeoutMillis));
+    }
+
+    /**
+     * Open a subscription on a given emitter, for tests.
+     */
+    SseEmitter subscribe(String since, SseEmitter emitter) {
+        ProductChangeToken.Position replayFrom = since == null ? null : changeService.replayPosition(since);
+        Subscriber subscriber;
+        synchronized (this) {
+            if (polled == null) {
+                // Everything readable now counts as seen; live events start after it
+                polled = new ProductChangeToken.Position(changeService.readableUntil(), Long.MAX_VALUE);
+            }
+            // Without a watermark, the client has seen everything before the next polled event
+            subscriber = new Subscriber(emitter, replayFrom, replayFrom != null ? replayFrom : polled);
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+
+        subscriber.schedule();
+        return emitter;
+    }
+
+    /**
+     * Queue every change that became readable since the last poll for every subscriber.
+     * Does nothing while nobody is subscribed, and starts over from the then-readable
+     * changes when the next client subscribes.
+     */
+    void poll() {
+        ProductChangeToken.Position from;
+        synchronized (this) {
+            if (subscribers.isEmpty()) {
+                polled = null;
+                return;
+            }
+            from = polled;
+        }
+        LocalDateTime until = changeService.readableUntil();
+        ProductChangeService.ChangeBatch batch;
+        do {
+            batch = changeService.changesAfter(from, until, REPLAY_PAGE_SIZE);
+            synchronized (this) {
+                for (ProductChangeService.Change change : batch.changes()) {
+                    broadcast(toEvent(change));
+                    from = change.position();
+                }
+                polled = from;
+            }
+        } while (batch.hasMore());
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException ex) {
+            // Retried on the next tick from the same position
+            log.warn("Polling the product change feed failed", ex);
+        }
+    }
+
+    /**
+     * The number of open subscriptions, including those still being replayed.
+     *
+     * @return the subscriber count
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Close every subscription and stop dispatching.
+     */
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        poller.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Queue one event for every subscriber. The event is rendered once and shared.
+     */
+    private void broadcast(Event event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Replay changes after a position to one subscriber, on its sender thread.
+     *
+     * @return true if the replay completed and the subscriber should go live
+     */
+    private boolean replay(Subscriber subscriber, ProductChangeToken.Position from) {
+        LocalDateTime until = changeService.readableUntil();
+        ProductChangeToken.Position position = from;
+        int replayed = 0;
+        ProductChangeService.ChangeBatch batch;
+        do {
+            if (replayed >= maxReplay) {
+                subscriber.resync(position);
+                return false;
+            }
+            batch = changeService.changesAfter(position, until, Math.min(REPLAY_PAGE_SIZE, maxReplay - replayed));
+            for (ProductChangeService.Change change : batch.changes()) {
+                if (!subscriber.send(toEvent(change))) {
+                    return false;
+                }
+                position = change.position();
+                replayed++;
+            }
+        } while (batch.hasMore());
+        return true;
+    }
+
+    private static Event toEvent(ProductChangeService.Change change) {
+        return change.product() != null ? upsert(change.product()) : delete(change.position().id(), change.position().at());
+    }
+
+    private static Event upsert(Product product) {
+        ProductChangeToken.Position position = new ProductChangeToken.Position(product.getUpdatedAt(), product.getId());
+        return new Event(SseEmitter.event().name(UPSERT_EVENT).id(ProductChangeToken.encode(position))
+                .data(product, MediaType.APPLICATION_JSON).build(), position);
+    }
+
+    private static Event delete(long productId, LocalDateTime deletedAt) {
+        ProductChangeToken.Position position = new ProductChangeToken.Position(deletedAt, productId);
+        return new Event(SseEmitter.event().name(DELETE_EVENT).id(ProductChangeToken.encode(position))
+                .data(Map.of("id", productId), MediaType.APPLICATION_JSON).build(), position);
+    }
+
+    /**
+     * A rendered event and the change position it carries, null for a heartbeat.
+     */
+    private record Event(Set<DataWithMediaType> data, ProductChangeToken.Position position) {
+    }
+
+    /**
+     * One subscription: its queue of events not yet sent and, while it has any, a sender task draining it.
+     * Queue and flags are guarded by the subscriber; the last sent position is only used by the sender.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayDeque<Event> queue = new ArrayDeque<>();
+        private ProductChangeToken.Position replayFrom;
+        private ProductChangeToken.Position sent;
+        private boolean sending;
+        private boolean overflowed;
+
+        Subscriber(SseEmitter emitter, ProductChangeToken.Position replayFrom, ProductChangeToken.Position start) {
+            this.emitter = emitter;
+            this.replayFrom = replayFrom;
+            this.sent = start;
+        }
+
+        /**
+         * Queue an event without blocking. A full queue is dropped and the subscriber told to resync instead.
+         */
+        synchronized void offer(Event event) {
+            if (overflowed) {
+                return;
+            }
+            if (queue.size() >= queueCapacity) {
+                queue.clear();
+                overflowed = true;
+                subscribers.remove(this);
+            } else {
+                queue.add(event);
+            }
+            schedule();
+        }
+
+        /**
+         * Start a sender task unless one is already running.
+         */
+        synchronized void schedule() {
+            if (sending) {
+                return;
+            }
+            try {
+                senders.execute(this::drain);
+                sending = true;
+            } catch (RejectedExecutionException ex) {
+                // Shutting down: the emitter is completed by shutdown()
+            }
+        }
+
+        /**
+         * Replay if the subscription resumes from a watermark, then send queued events until the queue is empty.
+         */
+        private void drain() {
+            if (replayFrom != null) {
+                ProductChangeToken.Position from = replayFrom;
+                replayFrom = null;
+                if (!replay(this, from)) {
+                    subscribers.remove(this);
+                    return;
+                }
+            }
+            while (true) {
+                Event next;
+                synchronized (this) {
+                    if (overflowed) {
+                        queue.clear();
+                    }
+                    next = queue.poll();
+                    if (next == null) {
+                        sending = false;
+                        if (!overflowed) {
+                            return;
+                        }
+                    }
+                }
+                if (next == null) {
+                    resync(sent);
+                    return;
+                }
+                if (next.position() != null && next.position().compareTo(sent) <= 0) {
+                    continue; // Already sent by the replay
+                }
+                if (!send(next)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Tell the client to catch up through the change feed from a position, and close the stream.
+         */
+        void resync(ProductChangeToken.Position position) {
+            send(new Event(SseEmitter.event().name(RESYNC_EVENT)
+                    .data(Map.of("since", ProductChangeToken.encode(position)), MediaType.APPLICATION_JSON)
+                    .build(), null));
+            emitter.complete();
+        }
+
+        boolean send(Event event) {
+            try {
+                emitter.send(event.data());
+                if (event.position() != null) {
+                    sent = event.position();
+                }
+                return true;
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away or the emitter already completed
+                subscribers.remove(this);
+                emitter.completeWithError(ex);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductChanges;
+import com.grainger.products.model.ProductTombstone;
+import com.grainger.products.repository.ProductChangeClock;
+import com.grainger.products.repository.ProductRepository;
+import com.grainger.products.repository.ProductTombstoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the product change feed: products created or updated, and products
+ * deleted, after a client's watermark, in (change time, id) order.
+ * <p>
+ * Change times are assigned before commit, so a transaction can commit a
+ * change older than one already visible. Changes are therefore only read up
+ * to the {@link ProductChangeClock#horizon() horizon} of the clock they are
+ * stamped from, which stays behind every transaction that could still commit
+ * an older change, so a watermark never skips a change. Readers lag behind a
+ * slow transaction rather than the transaction being refused. The safety lag
+ * holds changes back a little further, for the moment between a stamp being
+ * read and its transaction becoming visible as a writer.
+ * <p>
+ * Transactions here are deliberately not read-only, so that replica routing
+ * keeps them on the primary: a replica lagging further behind than the
+ * safety lag would let a watermark move past changes it has not replayed
+ * yet, and clients would skip them for good. The catalog's catch-up and the
+ * live stream's replays read through this service for the same reason.
+ */
+@Service
+@Transactional(readOnly = false)
+public class ProductChangeService {
+
+    private final ProductRepository productRepository;
+    private final ProductTombstoneRepository tombstoneRepository;
+    private final ProductChangeClock clock;
+    private final Duration safetyLag;
+
+    /**
+     * Create the service from configuration.
+     *
+     * @param productRepository   the product repository
+     * @param tombstoneRepository the tombstone repository
+     * @param clock               the clock changes are stamped from
+     * @param safetyLag           how far behind the clock's horizon the feed stays
+     */
+    public ProductChangeService(ProductRepository productRepository,
+                                ProductTombstoneRepository tombstoneRepository,
+                                ProductChangeClock clock,
+                                @Value("${products.changes.safety-lag:5s}") Duration safetyLag) {
+        this.productRepository = productRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.clock = clock;
+        this.safetyLag = safetyLag;
+    }
+
+    /**
+     * Retrieve the changes after a watermark, up to the safety lag.
+     *
+     * @param since the watermark token from the previous response, or null to start from the beginning
+     * @param limit the maximum number of changes to return
+     * @return the changes and the watermark to continue from
+     * @throws IllegalArgumentException if the token or limit is invalid
+     */
+    public ProductChanges getChanges(String since, int limit) {
+        if (limit < 1 || limit > ProductService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + ProductService.MAX_PAGE_SIZE);
+        }
+        ProductChangeToken.Position from = ProductChangeToken.decode(since);
+        return toProductChanges(from, changesAfter(from, readableUntil(), limit));
+    }
+
+    /**
+     * The latest change time that can be read without skipping a change that commits later.
+     *
+     * @return the clock's horizon, moved back by the safety lag
+     */
+    LocalDateTime readableUntil() {
+        return clock.horizon().minus(safetyLag);
+    }
+
+    /**
+     * Decode a watermark and move it back by the safety lag, so that replaying
+     * from it also covers changes that committed late.
+     *
+     * @param since the watermark token, or null for the beginning
+     * @return the position to replay after
+     * @throws IllegalArgumentException if the token is invalid
+     */
+    ProductChangeToken.Position replayPosition(String since) {
+        return replayPosition(ProductChangeToken.decode(since));
+    }
+
+    /**
+     * Move a position back by the safety lag, so that replaying from it also covers changes that committed late.
+     *
+     * @param from the position of the last change seen
+     * @return the position to replay after
+     */
+    ProductChangeToken.Position replayPosition(ProductChangeToken.Position from) {
+        if (from.equals(ProductChangeToken.ORIGIN)) {
+            return from;
+        }
+        LocalDateTime at = from.at().minus(safetyLag);
+        return at.isAfter(ProductChangeToken.ORIGIN.at()) ? new ProductChangeToken.Position(at, 0L)
+                : ProductChangeToken.ORIGIN;
+    }
+
+    /**
+     * Read changes after a position, up to a time bound, merging products and tombstones.
+     *
+     * @param from  the position to read after
+     * @param until the latest change time to include
+     * @param limit the maximum number of changes
+     * @return the changes in (change time, id) order
+     */
+    ChangeBatch changesAfter(ProductChangeToken.Position from, LocalDateTime until, int limit) {
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Product> products = productRepository.findChangedAfter(from.at(), from.id(), until, page);
+        List<ProductTombstone> tombstones = tombstoneRepository.findDeletedAfter(from.at(), from.id(), until, page);
+
+        List<Change> changes = new ArrayList<>(Math.min(limit, products.size() + tombstones.size()));
+        int p = 0;
+        int t = 0;
+        while (changes.size() < limit && (p < products.size() || t < tombstones.size())) {
+            Change product = p < products.size() ? Change.upsert(products.get(p)) : null;
+            Change tombstone = t < tombstones.size() ? Change.delete(tombstones.get(t)) : null;
+            if (tombstone == null || (product != null && product.position().compareTo(tombstone.position()) <= 0)) {
+                changes.add(product);
+                p++;
+            } else {
+                changes.add(tombstone);
+                t++;
+            }
+        }
+        return new ChangeBatch(changes, p < products.size() || t < tombstones.size());
+    }
+
+    private static ProductChanges toProductChanges(ProductChangeToken.Position from, ChangeBatch batch) {
+        List<Product> upserts = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        ProductChangeToken.Position last = from;
+        for (Change change : batch.changes()) {
+            if (change.product() != null) {
+                upserts.add(change.product());
+            } else {
+                deletedIds.add(change.position().id());
+            }
+            last = change.position();
+        }
+        return new ProductChanges(upserts, deletedIds, ProductChangeToken.encode(last), batch.hasMore());
+    }
+
+    /**
+     * One change: an upsert carries the product, a deletion only its position.
+     *
+     * @param position the change time and product id
+     * @param product  the product for an upsert, null for a deletion
+     */
+    record Change(ProductChangeToken.Position position, Product product) {
+
+        static Change upsert(Product product) {
+            return new Change(new ProductChangeToken.Position(product.getUpdatedAt(), product.getId()), product);
+        }
+
+        static Change delete(ProductTombstone tombstone) {
+            return new Change(new ProductChangeToken.Position(tombstone.getDeletedAt(), tombstone.getProductId()), null);
+        }
+    }
+
+    /**
+     * Changes read in one query round, and whether more follow.
+     *
+     * @param changes the changes in (change time, id) order
+     * @param hasMore whether further changes are available
+     */
+    record ChangeBatch(List<Change> changes, boolean hasMore) {
+    }
+}
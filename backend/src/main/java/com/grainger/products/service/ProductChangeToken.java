@@ -0,0 +1,90 @@
+package com.grainger.products.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque watermark tokens of the change feed.
+ * A watermark is a position in (timestamp, id) order: the change time and id
+ * of the last change a client has seen. Like ProductCursor, the encoding is
+ * versioned and clients must treat it as opaque. Version 2 holds UTC change
+ * times; version 1 tokens, from when changes were stamped in the server's
+ * zone, are still accepted and converted.
+ */
+final class ProductChangeToken {
+
+    /**
+     * Position before every change.
+     */
+    static final Position ORIGIN = new Position(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private static final String PREFIX = "v2:";
+
+    private static final String LOCAL_TIME_PREFIX = "v1:";
+
+    private ProductChangeToken() {
+    }
+
+    /**
+     * Encode a position into a watermark token.
+     *
+     * @param position the position of the last change seen
+     * @return the opaque watermark token
+     */
+    static String encode(Position position) {
+        byte[] raw = (PREFIX + position.at() + "/" + position.id()).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Decode a watermark token, or return the origin for a missing token.
+     *
+     * @param token the opaque watermark token, or null
+     * @return the position to read changes after
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static Position decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return ORIGIN;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('/');
+            boolean localTime = raw.startsWith(LOCAL_TIME_PREFIX);
+            if (!(raw.startsWith(PREFIX) || localTime) || separator < 0) {
+                throw new IllegalArgumentException("Invalid change token");
+            }
+            LocalDateTime at = LocalDateTime.parse(raw.substring(PREFIX.length(), separator));
+            if (localTime) {
+                at = at.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+            }
+            long id = Long.parseLong(raw.substring(separator + 1));
+            if (id < 0) {
+                throw new IllegalArgumentException("Invalid change token");
+            }
+            return new Position(at, id);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            // Covers Base64, NumberFormatException and date parsing
+            throw new IllegalArgumentException("Invalid change token", ex);
+        }
+    }
+
+    /**
+     * A position in the change feed.
+     *
+     * @param at the change time
+     * @param id the product id
+     */
+    record Position(LocalDateTime at, long id) implements Comparable<Position> {
+
+        @Override
+        public int compareTo(Position other) {
+            int byTime = at.compareTo(other.at);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.grainger.products.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursor tokens used for keyset pagination.
+ * Clients must treat the token as opaque; the encoding is versioned so the
+ * seek key can change later without breaking cursors in flight.
+ */
+final class ProductCursor {
+
+    private static final String PREFIX = "v1:";
+
+    private ProductCursor() {
+    }
+
+    /**
+     * Encode the last id of a page into a cursor token.
+     *
+     * @param lastId the id of the last product in the page
+     * @return the opaque cursor token
+     */
+    static String encode(long lastId) {
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Decode a cursor token back into the id to seek after.
+     *
+     * @param cursor the opaque cursor token
+     * @return the id to seek after
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    static long decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            long id = Long.parseLong(raw.substring(PREFIX.length()));
+            if (id < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return id;
+        } catch (IllegalArgumentException ex) {
+            // Covers both Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
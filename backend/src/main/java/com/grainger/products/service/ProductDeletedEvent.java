@@ -0,0 +1,13 @@
+package com.grainger.products.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a product is deleted.
+ * Listeners use it to drop the product from caches and indexes once the deletion has committed.
+ *
+ * @param productId the id of the deleted product
+ * @param deletedAt when the product was deleted
+ */
+public record ProductDeletedEvent(long productId, LocalDateTime deletedAt) {
+}
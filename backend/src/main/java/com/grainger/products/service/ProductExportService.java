@@ -0,0 +1,79 @@
+package com.grainger.products.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.grainger.products.model.Product;
+import com.grainger.products.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service for bulk export of the product catalog.
+ * Streams products from a database cursor straight to an output stream so
+ * memory stays bounded regardless of table size.
+ */
+@Service
+public class ProductExportService {
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter productWriter;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor injection for the export dependencies.
+     *
+     * @param productRepository the product repository
+     * @param entityManager     the shared entity manager, used to detach exported rows
+     * @param objectMapper      the application object mapper
+     */
+    public ProductExportService(ProductRepository productRepository,
+                                EntityManager entityManager,
+                                ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.productWriter = objectMapper.writerFor(Product.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Write every product as newline-delimited JSON, ordered by id.
+     * Each product is detached from the persistence context once written,
+     * so the context does not grow with the number of rows exported.
+     * The output stream is flushed but not closed.
+     *
+     * @param out the stream to write to
+     * @return the number of products written
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // One value per line; the newline is written explicitly below
+            generator.setRootValueSeparator(null);
+
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                productWriter.writeValue(generator, product);
+                generator.writeRaw('\n');
+                entityManager.detach(product);
+                count++;
+            }
+            generator.flush();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,327 @@
+package com.grainger.products.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductIdempotencyKey;
+import com.grainger.products.repository.ProductIdempotencyKeyRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Idempotent product creation for clients that retry.
+ * <p>
+ * The first request with a given Idempotency-Key creates the product; later
+ * requests with the same key and payload get the same product back without
+ * inserting again, and requests reusing the key with a different payload are
+ * rejected. Concurrent requests with the same key are collapsed onto the
+ * first one through a map of in-flight futures: the first request runs the
+ * insert on its own thread and the others wait for its result, so different
+ * keys never contend. A failed attempt is forgotten so that it can be retried.
+ * <p>
+ * Keys are kept in a bounded, expiring in-memory map holding only the
+ * payload fingerprint and the created product's id; a replay looks the
+ * product up again, so it sees later changes and a product deleted since is
+ * reported as null, as with the database store. With the database store each
+ * key is also inserted alongside its product in one transaction, so retries
+ * reaching another instance, or arriving after a restart, are deduplicated as
+ * well; expired keys are purged from the table periodically.
+ */
+@Service
+public class ProductIdempotencyService {
+
+    /**
+     * Longest idempotency key accepted.
+     */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIdempotencyService.class);
+
+    private final ProductService productService;
+    private final ProductIdempotencyKeyRepository keyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean databaseStore;
+    private final Duration ttl;
+    private final Duration purgeInterval;
+    private final Clock clock;
+    private final Cache<String, CompletableFuture<Entry>> inFlight;
+    private final ScheduledExecutorService purger;
+
+    /**
+     * Create the service from configuration.
+     *
+     * @param productService     creates the products
+     * @param keyRepository      the database key store
+     * @param transactionManager runs the product and key inserts in one transaction
+     * @param store              memory, or database to also persist keys
+     * @param maximumSize        the maximum number of keys kept in memory
+     * @param ttl                how long a key is remembered
+     * @param purgeInterval      how often expired keys are deleted from the database store
+     */
+    @Autowired
+    public ProductIdempotencyService(ProductService productService,
+                                     ProductIdempotencyKeyRepository keyRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${products.idempotency.store:memory}") String store,
+                                     @Value("${products.idempotency.maximum-size:100000}") long maximumSize,
+                                     @Value("${products.idempotency.ttl:24h}") Duration ttl,
+                                     @Value("${products.idempotency.purge-interval:1h}") Duration purgeInterval) {
+        this(productService, keyRepository, new TransactionTemplate(transactionManager),
+                store, maximumSize, ttl, purgeInterval, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Create the service with an explicit clock, for tests.
+     */
+    ProductIdempotencyService(ProductService productService,
+                              ProductIdempotencyKeyRepository keyRepository,
+                              TransactionTemplate transactionTemplate,
+                              String store,
+                              long maximumSize,
+                              Duration ttl,
+                              Duration purgeInterval,
+                              Clock clock) {
+        if (!"memory".equals(store) && !"database".equals(store)) {
+            throw new IllegalArgumentException("products.idempotency.store must be memory or database");
+        }
+        if (purgeInterval.isNegative() || purgeInterval.isZero()) {
+            throw new IllegalArgumentException("products.idempotency.purge-interval must be positive");
+        }
+        this.productService = productService;
+        this.keyRepository = keyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.databaseStore = "database".equals(store);
+        this.ttl = ttl;
+        this.purgeInterval = purgeInterval;
+        this.clock = clock;
+        this.inFlight = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-idempotency-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start purging expired keys periodically once the application is ready, if they are kept in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (databaseStore) {
+            purger.scheduleWithFixedDelay(this::purgeQuietly,
+                    purgeInterval.toMillis(), purgeInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stop purging expired keys.
+     */
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+
+    /**
+     * Delete the keys that have expired from the database store, a range scan of its created_at index.
+     *
+     * @return the number of keys deleted
+     */
+    public int purgeExpired() {
+        if (!databaseStore) {
+            return 0;
+        }
+        return keyRepository.deleteCreatedBefore(LocalDateTime.now(clock).minus(ttl));
+    }
+
+    /**
+     * Create a product at most once per idempotency key.
+     *
+     * @param key     the client's idempotency key
+     * @param product the product to create
+     * @return the product created by the first request with this key, and whether this request replayed it
+     * @throws IllegalArgumentException      if the key or product is invalid
+     * @throws IdempotencyKeyReusedException if the key was used with a different product
+     */
+    public IdempotentCreation createProduct(String key, Product product) {
+        validateKey(key);
+        ProductService.validateProduct(product);
+        String fingerprint = fingerprint(product);
+
+        while (true) {
+            CompletableFuture<Entry> pending = new CompletableFuture<>();
+            CompletableFuture<Entry> existing = inFlight.asMap().putIfAbsent(key, pending);
+            if (existing == null) {
+                return firstAttempt(key, fingerprint, product, pending);
+            }
+            try {
+                return replay(key, fingerprint, existing.join());
+            } catch (CompletionException | CancellationException ex) {
+                // The first attempt failed and has been forgotten; try again
+            }
+        }
+    }
+
+    private IdempotentCreation firstAttempt(String key, String fingerprint, Product product,
+                                            CompletableFuture<Entry> pending) {
+        Attempt attempt;
+        try {
+            attempt = attempt(key, fingerprint, product);
+        } catch (RuntimeException ex) {
+            inFlight.asMap().remove(key, pending);
+            pending.completeExceptionally(ex);
+            throw ex;
+        }
+        pending.complete(attempt.entry());
+        return attempt.created()
+                ? new IdempotentCreation(attempt.product(), false)
+                : replay(key, fingerprint, attempt.entry());
+    }
+
+    /**
+     * Create the product, unless the database store already holds the key.
+     */
+    private Attempt attempt(String key, String fingerprint, Product product) {
+        if (!databaseStore) {
+            return Attempt.created(fingerprint, productService.createProduct(product));
+        }
+        Optional<Entry> stored = findStored(key);
+        if (stored.isPresent()) {
+            return new Attempt(stored.get(), null);
+        }
+        try {
+            return Attempt.created(fingerprint, insertWithKey(key, fingerprint, product));
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance recorded the key first
+            return new Attempt(findStored(key).orElseThrow(() -> ex), null);
+        }
+    }
+
+    /**
+     * Answer a repeated request with the product as it is now, null if it has since been deleted.
+     */
+    private IdempotentCreation replay(String key, String fingerprint, Entry entry) {
+        if (!entry.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        return new IdempotentCreation(productService.getProductById(entry.productId()).orElse(null), true);
+    }
+
+    /**
+     * Insert the product and its key in one transaction, replacing an expired key.
+     */
+    private Product insertWithKey(String key, String fingerprint, Product product) {
+        return transactionTemplate.execute(status -> {
+            Optional<ProductIdempotencyKey> existing = keyRepository.findById(key);
+            if (existing.isPresent()) {
+                if (!isExpired(existing.get())) {
+                    throw new DuplicateKeyException("Idempotency key " + key + " was recorded concurrently");
+                }
+                keyRepository.delete(existing.get());
+                keyRepository.flush();
+            }
+            Product saved = productService.createProduct(product);
+            keyRepository.saveAndFlush(
+                    new ProductIdempotencyKey(key, fingerprint, saved.getId(), LocalDateTime.now(clock)));
+            return saved;
+        });
+    }
+
+    /**
+     * Find an unexpired key in the database.
+     */
+    private Optional<Entry> findStored(String key) {
+        return keyRepository.findById(key)
+                .filter(stored -> !isExpired(stored))
+                .map(stored -> new Entry(stored.getFingerprint(), stored.getProductId()));
+    }
+
+    private void purgeQuietly() {
+        try {
+            int purged = purgeExpired();
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Purging expired idempotency keys failed", ex);
+        }
+    }
+
+    private boolean isExpired(ProductIdempotencyKey stored) {
+        return !stored.getCreatedAt().isAfter(LocalDateTime.now(clock).minus(ttl));
+    }
+
+    private static void validateKey(String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * Hash of the request payload. Covers every client-supplied field of Product.
+     */
+    private static String fingerprint(Product product) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(product.getName().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Outcome of an idempotent creation.
+     *
+     * @param product  the product created by the first request with the key, or null if it has since been deleted
+     * @param replayed whether this request was answered from an earlier one
+     */
+    public record IdempotentCreation(Product product, boolean replayed) {
+    }
+
+    /**
+     * What the first request with a key sent, and the id of the product it created.
+     */
+    private record Entry(String fingerprint, long productId) {
+    }
+
+    /**
+     * The entry for a key, and the product if this attempt created it.
+     */
+    private record Attempt(Entry entry, Product product) {
+
+        static Attempt created(String fingerprint, Product product) {
+            return new Attempt(new Entry(fingerprint, product.getId()), product);
+        }
+
+        boolean created() {
+            return product != null;
+        }
+    }
+}
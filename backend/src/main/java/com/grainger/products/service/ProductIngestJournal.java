@@ -0,0 +1,265 @@
+package com.grainger.products.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grainger.products.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only local journal for the asynchronous ingestion queue.
+ * <p>
+ * Each accepted request is written as one JSON line and forced to disk before
+ * the request is acknowledged; after the worker has written a batch, a line per
+ * request records how many of its items are done. Items of one request are
+ * always written in order, so that count is enough to know which remain. On
+ * startup the journal is read back line by line, the remaining items are
+ * returned for re-queueing and the file is rewritten to hold only them. The
+ * journal is emptied whenever the queue drains; under a queue that never
+ * drains, the caller compacts it to the unfinished requests once it has
+ * doubled in size since the last compaction, so it stays proportional to the
+ * queue. Not thread-safe; the caller serializes access.
+ */
+class ProductIngestJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIngestJournal.class);
+
+    private static final String SUBMITTED = "submitted";
+    private static final String DONE = "done";
+
+    private static final long DEFAULT_COMPACT_THRESHOLD = 8L * 1024 * 1024;
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final long compactThreshold;
+    private FileChannel channel;
+    private long size;
+    private long compactAt;
+
+    /**
+     * A request with items still to be written.
+     *
+     * @param id       the tracking id
+     * @param total    the number of items in the original request
+     * @param done     the number of items already written
+     * @param products the items still to be written, in request order
+     */
+    record Pending(String id, int total, int done, List<Product> products) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private record Line(String type, String id, Integer total, Integer done, List<Product> products) {
+    }
+
+    /**
+     * Open the journal, creating the file and its directory if needed.
+     *
+     * @param path         the journal file
+     * @param objectMapper the mapper used to write products
+     */
+    ProductIngestJournal(Path path, ObjectMapper objectMapper) {
+        this(path, objectMapper, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    /**
+     * Open the journal with an explicit compaction threshold, for tests.
+     */
+    ProductIngestJournal(Path path, ObjectMapper objectMapper, long compactThreshold) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.compactThreshold = compactThreshold;
+        this.compactAt = compactThreshold;
+    }
+
+    /**
+     * Read back the requests left unfinished by the previous run and compact the file to them.
+     * Must be called once before anything is appended.
+     *
+     * @return the unfinished requests, in the order they were accepted
+     */
+    List<Pending> recover() {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            List<Pending> pending = Files.exists(path) ? read() : List.of();
+            replaceWith(pending);
+            return pending;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot recover ingestion journal " + path, ex);
+        }
+    }
+
+    /**
+     * Whether the journal has grown enough since it was last emptied or compacted to be worth compacting.
+     *
+     * @return true if the caller should call {@link #compact(List)}
+     */
+    boolean shouldCompact() {
+        return size >= compactAt;
+    }
+
+    /**
+     * Rewrite the journal to hold only the unfinished requests, dropping finished ones and their done records.
+     *
+     * @param pending every request with items still to be written, and those items, in the order they were accepted
+     */
+    void compact(List<Pending> pending) {
+        try {
+            replaceWith(pending);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot compact ingestion journal " + path, ex);
+        }
+        compactAt = Math.max(compactThreshold, 2 * size);
+    }
+
+    /**
+     * Record an accepted request and force it to disk.
+     *
+     * @param id       the tracking id
+     * @param products the items of the request
+     */
+    void appendSubmitted(String id, List<Product> products) {
+        append(List.of(new Line(SUBMITTED, id, products.size(), 0, products)));
+    }
+
+    /**
+     * Record items written by the worker and force the record to disk.
+     *
+     * @param done the number of items written, per tracking id
+     */
+    void appendDone(Map<String, Integer> done) {
+        List<Line> lines = new ArrayList<>(done.size());
+        done.forEach((id, count) -> lines.add(new Line(DONE, id, null, count, null)));
+        append(lines);
+    }
+
+    /**
+     * Discard every record; called when no accepted item is left unwritten.
+     */
+    void clear() {
+        try {
+            channel.truncate(0);
+            channel.force(true);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot truncate ingestion journal " + path, ex);
+        }
+        size = 0;
+        compactAt = compactThreshold;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Replace the file with one holding only the given requests, through a temporary file so
+     * a crash leaves either the old or the new journal, and append to the new file from now on.
+     */
+    private void replaceWith(List<Pending> pending) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        long written = 0;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Pending request : pending) {
+                written += write(out, new Line(SUBMITTED, request.id(), request.total(), request.done(),
+                        request.products()));
+            }
+            out.force(true);
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        if (channel != null) {
+            channel.close();
+        }
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = written;
+    }
+
+    private void append(List<Line> lines) {
+        try {
+            for (Line line : lines) {
+                size += write(channel, line);
+            }
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write ingestion journal " + path, ex);
+        }
+    }
+
+    /**
+     * Write one line.
+     *
+     * @return the number of bytes written
+     */
+    private int write(FileChannel out, Line line) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(line);
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        return json.length + 1;
+    }
+
+    private List<Pending> read() throws IOException {
+        Map<String, Line> submitted = new LinkedHashMap<>();
+        Map<String, Integer> done = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+                if (text.isBlank()) {
+                    continue;
+                }
+                Line line;
+                try {
+                    line = objectMapper.readValue(text, Line.class);
+                } catch (JsonProcessingException ex) {
+                    // Only the last line can be torn, and it was never acknowledged
+                    log.warn("Skipping unreadable line in ingestion journal {}", path);
+                    continue;
+                }
+                if (SUBMITTED.equals(line.type())) {
+                    submitted.put(line.id(), line);
+                    done.merge(line.id(), line.done(), Integer::sum);
+                } else if (DONE.equals(line.type())) {
+                    done.merge(line.id(), line.done(), Integer::sum);
+                }
+            }
+        }
+
+        List<Pending> pending = new ArrayList<>();
+        for (Line line : submitted.values()) {
+            // A compacted record keeps only the remaining items; its done count is relative to the original request
+            int written = done.getOrDefault(line.id(), 0);
+            int skip = written - line.done();
+            List<Product> remaining = line.products().subList(Math.min(skip, line.products().size()), line.products().size());
+            if (!remaining.isEmpty()) {
+                pending.add(new Pending(line.id(), line.total(), written, List.copyOf(remaining)));
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.info("Recovered {} unfinished ingestion requests from {}", pending.size(), path);
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,367 @@
+package com.grainger.products.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductBatchItemResult;
+import com.grainger.products.model.ProductBatchResult;
+import com.grainger.products.model.ProductIngestStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind queue for product creation.
+ * <p>
+ * Accepted items wait in a bounded in-memory queue and a single worker thread
+ * drains them in batches through {@link ProductBatchService}, so many small
+ * requests share one transaction. Items are validated before they are
+ * accepted; a request that does not fit in the queue is rejected as a whole
+ * with {@link IngestQueueFullException}, and one arriving after shutdown has
+ * begun with {@link IngestShuttingDownException}. Items that fail to insert for a
+ * transient reason, such as a lost database connection, are retried with
+ * backoff before they are reported as failed; items the database refuses are
+ * reported as rejected without retrying.
+ * <p>
+ * With a journal path configured every accepted request is forced to a local
+ * journal before it is acknowledged, and unfinished requests are re-queued on
+ * the next start. Delivery is then at-least-once: items written just before a
+ * crash may be inserted again. Without a journal, items still queued when the
+ * process dies are lost; a normal shutdown drains the queue first.
+ * Enabled with products.ingest.enabled=true.
+ */
+@Service
+@ConditionalOnProperty(name = "products.ingest.enabled", havingValue = "true")
+public class ProductIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIngestService.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration SHUTDOWN_DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ProductBatchService batchService;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration retryBackoff;
+    private final ProductIngestJournal journal;
+
+    private final BlockingQueue<Item> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Cache<String, Submission> submissions;
+    private final ExecutorService worker;
+    private final Object lock = new Object();
+    private volatile boolean stopping;
+
+    /**
+     * Create the queue from configuration and start its worker.
+     *
+     * @param batchService the service performing the inserts
+     * @param objectMapper the mapper used to write the journal
+     * @param capacity     the most items waiting to be written
+     * @param batchSize    the most items written per batch
+     * @param retryBackoff the pause before the first retry of a failed batch, doubled for each further attempt
+     * @param statusTtl    how long the status of a request stays available
+     * @param journalPath  the journal file, or empty to keep the queue in memory only
+     */
+    public ProductIngestService(ProductBatchService batchService,
+                                ObjectMapper objectMapper,
+                                @Value("${products.ingest.capacity:10000}") int capacity,
+                                @Value("${products.ingest.batch-size:500}") int batchSize,
+                                @Value("${products.ingest.retry-backoff:1s}") Duration retryBackoff,
+                                @Value("${products.ingest.status-ttl:1h}") Duration statusTtl,
+                                @Value("${products.ingest.journal.path:}") String journalPath) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("products.ingest.capacity and batch-size must be at least 1");
+        }
+        this.batchService = batchService;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.retryBackoff = retryBackoff;
+        this.submissions = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .build();
+        this.journal = journalPath.isBlank() ? null : new ProductIngestJournal(Path.of(journalPath), objectMapper);
+        if (journal != null) {
+            for (ProductIngestJournal.Pending pending : journal.recover()) {
+                enqueue(new Submission(pending.id(), pending.total(), pending.done()), pending.done(), pending.products());
+            }
+        }
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-ingest-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.worker.execute(this::drain);
+    }
+
+    /**
+     * Accept products for asynchronous creation.
+     * Returns once the items are queued (and journaled, if enabled), before they are written.
+     *
+     * @param products the products to create
+     * @return the status of the request, holding its tracking id
+     * @throws IllegalArgumentException if the request is empty or any item is invalid
+     * @throws IngestQueueFullException    if the queue has no room for every item
+     * @throws IngestShuttingDownException if the service is shutting down
+     */
+    public ProductIngestStatus submit(List<Product> products) {
+        if (products == null || products.isEmpty()) {
+            throw new IllegalArgumentException("At least one product is required");
+        }
+        for (int i = 0; i < products.size(); i++) {
+            try {
+                ProductService.validateProduct(products.get(i));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Item " + i + ": " + ex.getMessage());
+            }
+        }
+
+        Submission submission = new Submission(UUID.randomUUID().toString(), products.size(), 0);
+        synchronized (lock) {
+            // Checked under the lock, so nothing is queued once the worker may have finished draining
+            if (stopping) {
+                throw new IngestShuttingDownException(products.size());
+            }
+            int available = capacity - queued.get();
+            if (products.size() > available) {
+                throw new IngestQueueFullException(products.size(), Math.max(available, 0));
+            }
+            if (journal != null) {
+                journal.appendSubmitted(submission.id, products);
+            }
+            enqueue(submission, 0, products);
+        }
+        return submission.status();
+    }
+
+    /**
+     * Get the status of an accepted request.
+     *
+     * @param id the tracking id
+     * @return the status, or empty if the id is unknown or its status has expired
+     */
+    public Optional<ProductIngestStatus> getStatus(String id) {
+        return Optional.ofNullable(submissions.getIfPresent(id)).map(Submission::status);
+    }
+
+    /**
+     * The number of accepted items not yet written.
+     *
+     * @return the queue depth
+     */
+    public int queuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Stop accepting requests and give the worker time to drain the queue.
+     */
+    @PreDestroy
+    public void shutdown() {
+        synchronized (lock) {
+            stopping = true;
+        }
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(SHUTDOWN_DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Ingestion queue not drained at shutdown, {} items left{}", queued.get(),
+                        journal != null ? " in the journal" : "");
+                worker.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            worker.shutdownNow();
+        }
+        if (journal != null) {
+            synchronized (lock) {
+                try {
+                    journal.close();
+                } catch (IOException ex) {
+                    log.warn("Cannot close ingestion journal", ex);
+                }
+            }
+        }
+    }
+
+    private void enqueue(Submission submission, int firstIndex, List<Product> products) {
+        submissions.put(submission.id, submission);
+        for (int i = 0; i < products.size(); i++) {
+            queue.add(new Item(submission, firstIndex + i, products.get(i)));
+        }
+        queued.addAndGet(products.size());
+    }
+
+    /**
+     * Worker loop: take the next batch, write it, record the outcome.
+     * Runs until shutdown has been requested and the queue is empty.
+     */
+    private void drain() {
+        List<Item> batch = new ArrayList<>(batchSize);
+        while (!(stopping && queue.isEmpty())) {
+            try {
+                Item first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                // The journal could not be written; unfinished records are replayed on the next start
+                log.error("Ingestion batch of {} items could not be journaled", batch.size(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write a batch, retrying only the items that failed for a transient reason.
+     * The batch service already inserts a failing chunk row by row, so items
+     * the database refuses come back rejected and are recorded at once.
+     */
+    private void write(List<Item> batch) throws InterruptedException {
+        List<Item> remaining = batch;
+        for (int attempt = 1; !remaining.isEmpty(); attempt++) {
+            Attempt result = insert(remaining);
+            List<Item> failed = new ArrayList<>();
+            for (ProductBatchItemResult itemResult : result.items()) {
+                Item item = remaining.get(itemResult.index());
+                if (itemResult.status() == ProductBatchItemResult.Status.FAILED && result.retryable()
+                        && attempt < MAX_ATTEMPTS) {
+                    failed.add(item);
+                } else {
+                    item.submission.record(item.index, itemResult);
+                }
+            }
+            if (!failed.isEmpty()) {
+                Thread.sleep(retryBackoff.toMillis() << (attempt - 1));
+            }
+            remaining = failed;
+        }
+
+        synchronized (lock) {
+            queued.addAndGet(-batch.size());
+            if (journal != null) {
+                Map<String, Integer> done = new LinkedHashMap<>();
+                for (Item item : batch) {
+                    done.merge(item.submission.id, 1, Integer::sum);
+                }
+                journal.appendDone(done);
+                // Submitters enqueue under the same lock, so an empty queue means nothing is left unwritten
+                if (queue.isEmpty()) {
+                    journal.clear();
+                } else if (journal.shouldCompact()) {
+                    journal.compact(unfinished());
+                }
+            }
+        }
+    }
+
+    /**
+     * The requests with items still queued, and those items. Only the worker takes items off the queue and
+     * submitters add them under the lock, so with the lock held between batches the queue holds every item
+     * not yet written. Caller holds the lock.
+     */
+    private List<ProductIngestJournal.Pending> unfinished() {
+        Map<Submission, List<Product>> remaining = new LinkedHashMap<>();
+        for (Item item : queue) {
+            remaining.computeIfAbsent(item.submission, submission -> new ArrayList<>()).add(item.product);
+        }
+        List<ProductIngestJournal.Pending> pending = new ArrayList<>(remaining.size());
+        remaining.forEach((submission, products) -> {
+            int total = submission.results.length;
+            pending.add(new ProductIngestJournal.Pending(submission.id, total, total - products.size(), products));
+        });
+        return pending;
+    }
+
+    private Attempt insert(List<Item> items) {
+        try {
+            ProductBatchResult result = batchService.createProducts(items.stream().map(Item::product).iterator());
+            return new Attempt(result.items(), true);
+        } catch (RuntimeException ex) {
+            List<ProductBatchItemResult> results = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                results.add(ProductBatchItemResult.failed(i, "Insert failed: " + ex.getMessage()));
+            }
+            return new Attempt(results, ProductBatchService.isTransient(ex));
+        }
+    }
+
+    /**
+     * The results of one attempt at a batch.
+     *
+     * @param items     the result of every item, indexed by its position in the batch
+     * @param retryable whether failed items may be tried again; false when the whole call failed for a lasting reason
+     */
+    private record Attempt(List<ProductBatchItemResult> items, boolean retryable) {
+    }
+
+    /**
+     * One queued product and its place in the request that submitted it.
+     */
+    private record Item(Submission submission, int index, Product product) {
+    }
+
+    /**
+     * Tracks the outcome of every item of one request.
+     * Items written before a restart count as done, but their results are not known.
+     */
+    private static final class Submission {
+
+        private final String id;
+        private final ProductBatchItemResult[] results;
+        private final int recovered;
+        private int created;
+        private int failed;
+
+        Submission(String id, int total, int recovered) {
+            this.id = id;
+            this.results = new ProductBatchItemResult[total];
+            this.recovered = recovered;
+        }
+
+        synchronized void record(int index, ProductBatchItemResult result) {
+            results[index] = new ProductBatchItemResult(index, result.status(), result.id(), result.error());
+            if (result.status() == ProductBatchItemResult.Status.CREATED) {
+                created++;
+            } else {
+                failed++;
+            }
+        }
+
+        synchronized ProductIngestStatus status() {
+            List<ProductBatchItemResult> items = Arrays.stream(results).filter(Objects::nonNull).toList();
+            ProductIngestStatus.State state = recovered + items.size() == results.length
+                    ? ProductIngestStatus.State.COMPLETED
+                    : ProductIngestStatus.State.PENDING;
+            return new ProductIngestStatus(id, state, results.length, created, failed, items);
+        }
+    }
+}
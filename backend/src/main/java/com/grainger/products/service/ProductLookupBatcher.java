@@ -0,0 +1,182 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coalesces concurrent single-id product loads into one IN query.
+ * The first caller to arrive opens a batch, waits for the batch window, then
+ * runs one findAllById for every id collected meanwhile and hands each caller
+ * its own result. A batch that reaches the maximum size is run at once by the
+ * caller that filled it, and so is a batch opened while no other load is in
+ * progress, since nobody is then likely to join it. No extra threads are
+ * involved, and the caller must not hold a lock others need while it waits,
+ * such as a cache's atomic load.
+ * If the query fails, every caller in the batch gets the failure.
+ * Enabled with products.lookup.coalescing.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "products.lookup.coalescing.enabled", havingValue = "true")
+public class ProductLookupBatcher {
+
+    private final ProductRepository productRepository;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+    private final AtomicInteger loading = new AtomicInteger();
+
+    private Batch open;
+
+    /**
+     * Create the batcher from configuration.
+     *
+     * @param productRepository the product repository
+     * @param window            how long the first caller waits for others to join its batch
+     * @param maxBatchSize      the most ids loaded by one query
+     */
+    public ProductLookupBatcher(ProductRepository productRepository,
+                                @Value("${products.lookup.coalescing.window:2ms}") Duration window,
+                                @Value("${products.lookup.coalescing.max-batch-size:100}") int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("products.lookup.coalescing.max-batch-size must be at least 1");
+        }
+        this.productRepository = productRepository;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Load a product by id, sharing the query with concurrent callers.
+     *
+     * @param id the product ID
+     * @return Optional containing the product if found, empty otherwise
+     */
+    public Optional<Product> load(Long id) {
+        requests.increment();
+        Batch batch;
+        CompletableFuture<Optional<Product>> result;
+        boolean leader;
+        boolean runNow;
+        synchronized (this) {
+            boolean alone = loading.incrementAndGet() == 1;
+            leader = open == null;
+            if (leader) {
+                open = new Batch();
+            }
+            batch = open;
+            result = batch.pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+            runNow = batch.pending.size() >= maxBatchSize || (leader && alone);
+            if (runNow) {
+                open = null;
+            }
+        }
+
+        try {
+            if (runNow) {
+                run(batch);
+            } else if (leader) {
+                LockSupport.parkNanos(windowNanos);
+                synchronized (this) {
+                    if (open == batch) {
+                        open = null;
+                    }
+                }
+                run(batch);
+            }
+            return join(result);
+        } finally {
+            loading.decrementAndGet();
+        }
+    }
+
+    /**
+     * The number of ids requested through the batcher since startup.
+     *
+     * @return the request count
+     */
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * The number of queries the batcher has run since startup.
+     *
+     * @return the query count
+     */
+    public long queryCount() {
+        return queries.sum();
+    }
+
+    private void run(Batch batch) {
+        if (!batch.claim()) {
+            return;
+        }
+        Map<Long, CompletableFuture<Optional<Product>>> pending;
+        synchronized (this) {
+            pending = new HashMap<>(batch.pending);
+        }
+        try {
+            queries.increment();
+            List<Product> found = productRepository.findAllById(new ArrayList<>(pending.keySet()));
+            for (Product product : found) {
+                CompletableFuture<Optional<Product>> future = pending.remove(product.getId());
+                if (future != null) {
+                    future.complete(Optional.of(product));
+                }
+            }
+            pending.values().forEach(future -> future.complete(Optional.empty()));
+        } catch (Throwable ex) {
+            pending.values().forEach(future -> future.completeExceptionally(ex));
+            throw ex;
+        }
+    }
+
+    private static Optional<Product> join(CompletableFuture<Optional<Product>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Ids waiting for the same query. Run exactly once, by whichever caller claims it first.
+     */
+    private static final class Batch {
+
+        private final Map<Long, CompletableFuture<Optional<Product>>> pending = new LinkedHashMap<>();
+        private boolean claimed;
+
+        synchronized boolean claim() {
+            if (claimed) {
+                return false;
+            }
+            claimed = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductSuggestion;
+import com.grainger.products.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over product names for typeahead suggestions.
+ * <p>
+ * The index is a {@link BaseDeltaIndex} of sorted {@link NameSegment}s: a
+ * large base loaded from the database once the application is ready, a
+ * small delta for products created since, and deleted ids filtered out at
+ * lookup time, folded into the base in the background. Lookups never lock.
+ * <p>
+ * Creations and deletions made through this instance are applied as their
+ * transactions commit; every other change, including products archived by
+ * partition maintenance on another instance, is applied by tailing the
+ * change feed, as the in-memory catalog does.
+ * <p>
+ * The startup load reads every product, so instances that do not serve
+ * suggestions can skip it with products.suggest.enabled=false.
+ */
+@Component
+@ConditionalOnProperty(name = "products.suggest.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductNameIndex {
+
+    /**
+     * Largest number of suggestions a client may request.
+     */
+    public static final int MAX_LIMIT = 50;
+
+    /**
+     * Longest accepted prefix.
+     */
+    public static final int MAX_PREFIX_LENGTH = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(ProductNameIndex.class);
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final BaseDeltaIndex<NameSegment> index = new BaseDeltaIndex<>(NameSegment.EMPTY, "product name index");
+    private final ChangeFeedTail feed;
+
+    /**
+     * Constructor injection for the index dependencies.
+     *
+     * @param productRepository  the product repository, used to load the index
+     * @param changeService      the change feed, tailed for changes made elsewhere
+     * @param entityManager      the shared entity manager, used to detach loaded rows
+     * @param transactionManager the transaction manager for the initial load
+     * @param tailInterval       how often the change feed is tailed
+     */
+    public ProductNameIndex(ProductRepository productRepository,
+                            ProductChangeService changeService,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${products.suggest.tail-interval:1s}") Duration tailInterval) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.feed = new ChangeFeedTail(changeService, new ChangeFeedTail.Target() {
+            @Override
+            public void upsert(List<Product> products) {
+                add(segment(products));
+            }
+
+            @Override
+            public void delete(long id) {
+                remove(id);
+            }
+        }, "product name index", tailInterval);
+    }
+
+    /**
+     * Load every product name from the database into a new base segment.
+     * Products created while loading are kept; if they were also read from
+     * the database, the delta copy wins. Products deleted while loading stay
+     * hidden. Both are folded into the loaded base once the load has finished.
+     * Tailing continues from where the feed was readable when the load began.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        ProductChangeToken.Position readable = feed.readable();
+        index.load(() -> readOnlyTransaction.execute(status -> load()), true);
+        feed.loadedUpTo(readable);
+        log.info("Product name index loaded {} names ({} KB) in {} ms", size(), heapBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Stop tailing and the background merger.
+     */
+    @PreDestroy
+    public void shutdown() {
+        feed.shutdown();
+        index.shutdown();
+    }
+
+    /**
+     * Add newly created products once their insert has committed.
+     *
+     * @param event the creation event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        add(segment(event.products()));
+    }
+
+    /**
+     * Remove a deleted product once the deletion has committed.
+     *
+     * @param event the deletion event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        remove(event.productId());
+    }
+
+    /**
+     * Suggest products whose name starts with the prefix, ignoring ASCII case,
+     * in alphabetical order.
+     *
+     * @param prefix the typed prefix
+     * @param limit  the maximum number of suggestions
+     * @return List of suggestions, at most limit long
+     * @throws IllegalArgumentException if the prefix or limit is invalid
+     */
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank() || prefix.length() > MAX_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("Prefix must be between 1 and " + MAX_PREFIX_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        BaseDeltaIndex.State<NameSegment> current = index.state();
+        NameSegment base = current.base();
+        NameSegment delta = current.delta();
+        DeletedIds deleted = current.deleted();
+        int i = base.lowerBound(key);
+        int j = delta.lowerBound(key);
+        boolean inBase = i < base.size() && base.startsWith(i, key);
+        boolean inDelta = j < delta.size() && delta.startsWith(j, key);
+
+        List<ProductSuggestion> suggestions = new ArrayList<>(Math.min(limit, 16));
+        while (suggestions.size() < limit && (inBase || inDelta)) {
+            if (inBase && (!inDelta || NameSegment.compareEntries(base, i, delta, j) <= 0)) {
+                long id = base.id(i);
+                boolean shadowed = delta.size() > 0 && delta.containsId(id);
+                if (!shadowed && (deleted.isEmpty() || !deleted.contains(id))) {
+                    suggestions.add(new ProductSuggestion(id, base.name(i)));
+                }
+                i++;
+                inBase = i < base.size() && base.startsWith(i, key);
+            } else {
+                if (deleted.isEmpty() || !deleted.contains(delta.id(j))) {
+                    suggestions.add(new ProductSuggestion(delta.id(j), delta.name(j)));
+                }
+                j++;
+                inDelta = j < delta.size() && delta.startsWith(j, key);
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Number of names in the index.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Approximate heap used by the index arrays.
+     *
+     * @return the size in bytes
+     */
+    public long heapBytes() {
+        return index.heapBytes();
+    }
+
+    /**
+     * Merge new entries into the delta; the delta is folded into the base in the background once it grows too large.
+     */
+    void add(NameSegment added) {
+        index.add(added);
+    }
+
+    /**
+     * Hide a deleted id from lookups; hidden ids are dropped from the segments in the background once there are many.
+     */
+    void remove(long id) {
+        index.remove(id);
+    }
+
+    /**
+     * Fold the delta and the deleted ids into a new base now.
+     */
+    void merge() {
+        index.merge();
+    }
+
+    /**
+     * Apply the changes made elsewhere since the last tail now.
+     *
+     * @return the number of changes applied
+     */
+    int tail() {
+        return feed.tail();
+    }
+
+    private static NameSegment segment(List<Product> products) {
+        long[] ids = new long[products.size()];
+        String[] names = new String[products.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = products.get(i).getId();
+            names[i] = products.get(i).getName();
+        }
+        return NameSegment.of(ids, names, ids.length);
+    }
+
+    private NameSegment load() {
+        long[] ids = new long[1024];
+        String[] names = new String[1024];
+        int count = 0;
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                    names = Arrays.copyOf(names, count * 2);
+                }
+                ids[count] = product.getId();
+                names[count] = product.getName();
+                count++;
+                entityManager.detach(product);
+            }
+        }
+        return NameSegment.of(ids, names, count);
+    }
+}
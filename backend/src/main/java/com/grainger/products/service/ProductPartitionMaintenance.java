@@ -0,0 +1,262 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.repository.ProductPartitions;
+import com.grainger.products.repository.ProductPartitions.Partition;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background maintenance of the id-range partitions of the products table (V6).
+ * <p>
+ * Each run creates partitions ahead of the product id sequence, so inserts
+ * never find their id without a partition, and, when a retention is
+ * configured, archives old partitions: those the sequence has moved a whole
+ * partition past and whose products were all last updated before the
+ * retention. Archived partitions are detached and moved to the archive
+ * schema, so their rows leave the API but are kept, and a tombstone is then
+ * written for each of their products so change feed consumers see them as
+ * deleted. The instance running maintenance then drops its cached products,
+ * its second-level cache entries and cached query results, and reloads its
+ * name index and, if it serves reads from it, the in-memory catalog. Other
+ * instances remove archived products from their name index and in-memory
+ * catalog as they tail the tombstones from the change feed, and keep them
+ * cached until the entries expire.
+ * <p>
+ * Runs once the application is ready and then at the configured interval.
+ * Every instance schedules runs, but each run holds an advisory lock and is
+ * skipped while another instance holds it, so partitions are never created
+ * or archived twice at once. PostgreSQL only; enabled with
+ * products.partitions.enabled=true.
+ */
+@Service
+@ConditionalOnProperty(name = "products.partitions.enabled", havingValue = "true")
+public class ProductPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductPartitionMaintenance.class);
+
+    /**
+     * Ids an instance may hold from the sequence beyond its last value: the allocationSize of Product.id.
+     */
+    static final long SEQUENCE_BLOCK = 50;
+
+    private final ProductPartitions partitions;
+    private final ObjectProvider<ProductCatalog> catalog;
+    private final ProductCache productCache;
+    private final ObjectProvider<ProductNameIndex> nameIndex;
+    private final EntityManagerFactory entityManagerFactory;
+    private final long partitionSize;
+    private final int premake;
+    private final Duration interval;
+    private final Duration retention;
+    private final String archiveSchema;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor injection for the partitions and the maintenance settings.
+     *
+     * @param partitions           the partitions of the products table
+     * @param catalog              the in-memory catalog, reloaded after partitions are archived, if enabled
+     * @param productCache         the by-id product cache, cleared after partitions are archived
+     * @param nameIndex            the name index, reloaded after partitions are archived, if enabled
+     * @param entityManagerFactory the persistence unit, whose second-level product region is cleared likewise
+     * @param partitionSize        the number of ids per new partition
+     * @param premake              how many partitions beyond the sequence to keep ready
+     * @param interval             how often maintenance runs
+     * @param retention            how long since their last update products are kept attached; zero never archives
+     * @param archiveSchema        the schema archived partitions are moved to
+     */
+    public ProductPartitionMaintenance(ProductPartitions partitions,
+                                       ObjectProvider<ProductCatalog> catalog,
+                                       ProductCache productCache,
+                                       ObjectProvider<ProductNameIndex> nameIndex,
+                                       EntityManagerFactory entityManagerFactory,
+                                       @Value("${products.partitions.size:10000000}") long partitionSize,
+                                       @Value("${products.partitions.premake:2}") int premake,
+                                       @Value("${products.partitions.interval:1h}") Duration interval,
+                                       @Value("${products.partitions.retention:0d}") Duration retention,
+                                       @Value("${products.partitions.archive-schema:products_archive}")
+                                       String archiveSchema) {
+        if (partitionSize <= SEQUENCE_BLOCK || premake < 1) {
+            throw new IllegalArgumentException("Partitions must span more than one id block and premake at least 1");
+        }
+        this.partitions = partitions;
+        this.catalog = catalog;
+        this.productCache = productCache;
+        this.nameIndex = nameIndex;
+        this.entityManagerFactory = entityManagerFactory;
+        this.partitionSize = partitionSize;
+        this.premake = premake;
+        this.interval = interval;
+        this.retention = retention;
+        this.archiveSchema = archiveSchema;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-partition-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The outcome of a maintenance run.
+     *
+     * @param created  the partitions created
+     * @param archived the partitions archived
+     */
+    public record Run(List<String> created, List<String> archived) {
+    }
+
+    /**
+     * Start periodic maintenance once migrations have run and the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::maintainQuietly, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop periodic maintenance; a run in progress is interrupted between statements.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Create the partitions missing ahead of the sequence, finish recording
+     * partitions archived by an interrupted run, and archive partitions past
+     * the retention; nothing, if another instance is running maintenance.
+     *
+     * @return the partitions created and archived
+     * @throws IllegalStateException if the products table has no range partitions
+     */
+    public Run maintain() {
+        return partitions.withMaintenanceLock(this::maintainLocked).orElseGet(() -> {
+            log.debug("Product partition maintenance skipped: another instance is running it");
+            return new Run(List.of(), List.of());
+        });
+    }
+
+    private Run maintainLocked() {
+        List<Partition> existing = partitions.list();
+        long sequenceValue = partitions.sequenceValue();
+
+        List<String> created = new ArrayList<>();
+        for (long[] range : missingRanges(existing, sequenceValue, partitionSize, premake)) {
+            created.add(partitions.create(range[0], range[1]).name());
+        }
+
+        List<String> unrecorded = partitions.unrecordedArchives(archiveSchema);
+        for (String name : unrecorded) {
+            record(name);
+        }
+
+        List<String> archived = new ArrayList<>();
+        if (!retention.isZero()) {
+            LocalDateTime cutoff = LocalDateTime.now(ZoneOffset.UTC).minus(retention);
+            for (Partition partition : archiveCandidates(existing, sequenceValue, partitionSize)) {
+                Optional<LocalDateTime> lastUpdated = partitions.lastUpdated(partition.name());
+                if (lastUpdated.map(cutoff::isAfter).orElse(true)
+                        && partitions.archive(partition.name(), archiveSchema, cutoff)) {
+                    archived.add(partition.name());
+                    record(partition.name());
+                }
+            }
+        }
+        if (!unrecorded.isEmpty() || !archived.isEmpty()) {
+            forgetArchived();
+        }
+
+        if (!created.isEmpty() || !archived.isEmpty()) {
+            log.info("Product partitions created: {}, archived to {}: {}", created, archiveSchema, archived);
+        }
+        return new Run(created, archived);
+    }
+
+    /**
+     * The id ranges to create so that at least {@code premake} whole partitions
+     * lie beyond the ids instances may already hold, continuing from the
+     * highest existing partition.
+     *
+     * @return {from, to} pairs in ascending order
+     * @throws IllegalStateException if there are no partitions or the highest one extends to MAXVALUE
+     */
+    static List<long[]> missingRanges(List<Partition> existing, long sequenceValue, long partitionSize,
+                                      int premake) {
+        if (existing.isEmpty()) {
+            throw new IllegalStateException("The products table has no range partitions; is V6 applied?");
+        }
+        Long upper = existing.get(existing.size() - 1).to();
+        if (upper == null) {
+            throw new IllegalStateException("The highest products partition extends to MAXVALUE");
+        }
+        long target = sequenceValue + SEQUENCE_BLOCK + premake * partitionSize;
+        List<long[]> ranges = new ArrayList<>();
+        for (long from = upper; from < target; from += partitionSize) {
+            ranges.add(new long[]{from, from + partitionSize});
+        }
+        return ranges;
+    }
+
+    /**
+     * Partitions the sequence has moved a whole partition size past, oldest
+     * first. Only their age decides whether they are archived; the newest
+     * partitions stay attached whatever their age, as instances may still
+     * insert ids from sequence blocks they drew earlier.
+     *
+     * @return the partitions that may be archived
+     */
+    static List<Partition> archiveCandidates(List<Partition> existing, long sequenceValue, long partitionSize) {
+        return existing.stream()
+                .filter(partition -> partition.to() != null && partition.to() + partitionSize <= sequenceValue)
+                .toList();
+    }
+
+    /**
+     * Stop serving archived products from memory. There is one tombstone per
+     * archived product, too many to publish a deletion event for each, so
+     * every cached product is dropped and the in-memory views are reloaded.
+     * Hibernate does not see the native DETACH PARTITION, so cached query
+     * results, which may list archived ids, are evicted along with the entities.
+     */
+    private void forgetArchived() {
+        productCache.invalidateAll();
+        Cache secondLevelCache = entityManagerFactory.getCache();
+        secondLevelCache.evict(Product.class);
+        secondLevelCache.unwrap(org.hibernate.Cache.class).evictQueryRegions();
+        nameIndex.ifAvailable(ProductNameIndex::rebuild);
+        catalog.ifAvailable(ProductCatalog::rebuild);
+    }
+
+    private void record(String name) {
+        long tombstones = partitions.recordArchived(archiveSchema, name);
+        log.info("Archived product partition {}.{}: {} tombstones written", archiveSchema, name, tombstones);
+    }
+
+    private void maintainQuietly() {
+        try {
+            maintain();
+        } catch (RuntimeException ex) {
+            log.warn("Product partition maintenance failed", ex);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.repository.ProductSearch;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Service layer for product name search.
+ * Validates search requests and pages through ranked results.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProductSearchService {
+
+    /**
+     * Largest page size a client may request.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Ranked results beyond this depth are not served; refine the query instead.
+     */
+    public static final int MAX_RESULT_DEPTH = 10_000;
+
+    /**
+     * Longest accepted search text.
+     */
+    public static final int MAX_QUERY_LENGTH = 100;
+
+    private final ProductSearch productSearch;
+
+    /**
+     * Constructor injection for ProductSearch.
+     *
+     * @param productSearch the search strategy for the configured database
+     */
+    public ProductSearchService(ProductSearch productSearch) {
+        this.productSearch = productSearch;
+    }
+
+    /**
+     * Search products by name, best matches first.
+     *
+     * @param query the search text
+     * @param page  the zero-based page number
+     * @param size  the page size
+     * @return List of matching products in rank order
+     * @throws IllegalArgumentException if the query or paging is invalid
+     */
+    public List<Product> searchProducts(String query, int page, int size) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty() || trimmed.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be between 1 and " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page < 0 || (long) page * size + size > MAX_RESULT_DEPTH) {
+            throw new IllegalArgumentException("Page must be between 0 and " + (MAX_RESULT_DEPTH / size - 1));
+        }
+        return productSearch.search(trimmed, page * size, size);
+    }
+}
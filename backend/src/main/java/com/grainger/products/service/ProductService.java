@@ -1,52 +1,250 @@
 package com.grainger.products.service;
 
+import com.grainger.products.config.ReplicaRoutingDataSource;
 import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductLookupResult;
+import com.grainger.products.model.ProductPageVersion;
+import com.grainger.products.model.ProductTombstone;
+import com.grainger.products.model.ProductVersion;
+import com.grainger.products.model.ProductView;
+import com.grainger.products.model.ProductViewPage;
 import com.grainger.products.repository.ProductRepository;
+import com.grainger.products.repository.ProductTombstoneRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service layer for Product business logic.
  * Handles validation and coordinates between controller and repository.
+ * Every public method is timed as products.service, tagged by method name.
  */
 @Service
 @Transactional
+@Timed(value = ProductService.TIMER_NAME, description = "Time spent in ProductService methods")
 public class ProductService {
 
+    /**
+     * Name of the timer recorded for each service method.
+     */
+    public static final String TIMER_NAME = "products.service";
+
+    /**
+     * Page size used when the client does not ask for one.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * Largest page size a client may request.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Largest number of ids a client may look up in one request.
+     */
+    public static final int MAX_LOOKUP_IDS = 1000;
+
+    /**
+     * Longest product name accepted, the length of the name column.
+     */
+    public static final int MAX_NAME_LENGTH = 255;
+
     private final ProductRepository productRepository;
+    private final ProductTombstoneRepository tombstoneRepository;
+    private final ProductCache productCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductLookupBatcher lookupBatcher;
+    private final ProductCatalog catalog;
+    private final ReplicaRoutingDataSource routing;
 
     /**
-     * Constructor injection for ProductRepository.
-     * Spring will automatically inject the repository bean.
+     * Constructor injection for ProductService dependencies.
+     * Spring will automatically inject the beans.
      *
-     * @param productRepository the product repository
+     * @param productRepository   the product repository
+     * @param tombstoneRepository records deletions for the change feed
+     * @param productCache        the by-id product cache
+     * @param eventPublisher      publishes product change events
+     * @param lookupBatcher       coalesces by-id cache misses into IN queries, when enabled
+     * @param catalog             serves reads from memory once loaded, when enabled
+     * @param routing             sends read-only transactions to replicas, when enabled
      */
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ProductTombstoneRepository tombstoneRepository,
+                          ProductCache productCache,
+                          ApplicationEventPublisher eventPublisher,
+                          ObjectProvider<ProductLookupBatcher> lookupBatcher,
+                          ObjectProvider<ProductCatalog> catalog,
+                          ObjectProvider<ReplicaRoutingDataSource> routing) {
         this.productRepository = productRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.productCache = productCache;
+        this.eventPublisher = eventPublisher;
+        this.lookupBatcher = lookupBatcher.getIfAvailable();
+        this.catalog = catalog.getIfAvailable();
+        this.routing = routing.getIfAvailable();
+    }
+
+    /**
+     * Retrieve a page of products as read-only views, using keyset pagination
+     * on id. One extra row is fetched to find out whether a next page exists.
+     * Read without hydrating entities, since the list endpoint only
+     * serializes the products.
+     *
+     * @param cursor opaque cursor from the previous page, or null for the first page
+     * @param limit  the maximum number of products in the page
+     * @return the requested page of product views
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ProductViewPage getProductViewPage(String cursor, int limit) {
+        validatePageSize(limit);
+        long afterId = cursor == null ? 0L : ProductCursor.decode(cursor);
+
+        ProductCatalog loaded = loadedCatalog();
+        List<ProductView> rows = loaded != null
+                ? loaded.after(afterId, limit + 1).stream().map(ProductView::of).toList()
+                : productRepository.findViewsByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return new ProductViewPage(rows, null);
+        }
+
+        List<ProductView> items = rows.subList(0, limit);
+        return new ProductViewPage(items, ProductCursor.encode(items.get(limit - 1).id()));
     }
 
     /**
-     * Retrieve all products from the database.
+     * Retrieve the versions of the products on a page without loading them.
+     * Describes the same page getProductViewPage would return for these arguments.
      *
-     * @return List of all products
+     * @param cursor opaque cursor from the previous page, or null for the first page
+     * @param limit  the maximum number of products on the page
+     * @return the versions of the products on the page
+     * @throws IllegalArgumentException if the cursor or page size is invalid
      */
-    @Transactional(readOnly = true)
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ProductPageVersion getProductPageVersion(String cursor, int limit) {
+        validatePageSize(limit);
+        long afterId = cursor == null ? 0L : ProductCursor.decode(cursor);
+
+        ProductCatalog loaded = loadedCatalog();
+        List<ProductVersion> rows = loaded != null
+                ? loaded.after(afterId, limit + 1).stream().map(ProductVersion::of).toList()
+                : productRepository.findVersionsByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return new ProductPageVersion(rows, false);
+        }
+        return new ProductPageVersion(rows.subList(0, limit), true);
+    }
+
+    /**
+     * Retrieve the version of a product without loading it.
+     * Answered from the product cache when the id is cached, otherwise by a
+     * query reading only id and updatedAt. Requests pinned to the primary
+     * skip the cache, which may hold lookups read from a lagging replica.
+     *
+     * @param id the product ID
+     * @return Optional containing the product's version if found, empty otherwise
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<ProductVersion> getProductVersion(Long id) {
+        ProductCatalog loaded = loadedCatalog();
+        if (loaded != null) {
+            return loaded.get(id).map(ProductVersion::of);
+        }
+        if (pinnedToPrimary()) {
+            return productRepository.findVersionById(id);
+        }
+        Optional<Product> cached = productCache.peek(id);
+        if (cached != null) {
+            return cached.map(ProductVersion::of);
+        }
+        return productRepository.findVersionById(id);
     }
 
     /**
      * Retrieve a product by its ID.
+     * Served from the in-memory catalog once it is loaded; otherwise from the
+     * product cache, where only misses reach the repository, through the
+     * lookup batcher when coalescing is enabled. The batcher waits for its
+     * window, so it runs outside the cache's atomic load and its result is
+     * added afterwards, unless the id was invalidated meanwhile. The
+     * transaction is not started eagerly, so cache hits never borrow a
+     * connection.
+     * <p>
+     * With replica routing, ids missing from a replica are not cached, since
+     * the replica may not have applied their create yet. Requests pinned to
+     * the primary after a write read it directly, bypassing the cache and the
+     * batcher, whose query may run on another request's replica connection.
      *
      * @param id the product ID
      * @return Optional containing the product if found, empty otherwise
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        ProductCatalog loaded = loadedCatalog();
+        if (loaded != null) {
+            return loaded.get(id);
+        }
+        if (pinnedToPrimary()) {
+            return productRepository.findById(id);
+        }
+        boolean cacheMissing = !mayReadFromReplica();
+        if (lookupBatcher == null) {
+            return cacheMissing ? productCache.get(id, productRepository::findById)
+                    : productCache.getFound(id, productRepository::findById);
+        }
+        Optional<Product> cached = productCache.peek(id);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = productCache.generation(id);
+        Optional<Product> product = lookupBatcher.load(id);
+        return product.isPresent() || cacheMissing ? productCache.putIfCurrent(id, product, generation) : product;
+    }
+
+    /**
+     * Retrieve several products by id.
+     * Cached ids are served from the product cache and the rest are loaded
+     * with a single query. Duplicate ids are returned once. Misses are cached
+     * and the cache is bypassed as for {@link #getProductById}.
+     *
+     * @param ids the product IDs
+     * @return the products found, in request order, and the ids not found
+     * @throws IllegalArgumentException if the id list is null, too long, or contains null
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ProductLookupResult lookupProducts(List<Long> ids) {
+        validateLookupIds(ids);
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        ProductCatalog loaded = loadedCatalog();
+        Map<Long, Optional<Product>> lookups;
+        if (loaded != null) {
+            lookups = loadProducts(distinctIds, loaded);
+        } else if (pinnedToPrimary()) {
+            lookups = loadProducts(distinctIds);
+        } else {
+            lookups = productCache.getAll(distinctIds, this::loadProducts, !mayReadFromReplica());
+        }
+
+        List<Product> products = new ArrayList<>(distinctIds.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinctIds) {
+            lookups.get(id).ifPresentOrElse(products::add, () -> missing.add(id));
+        }
+        return new ProductLookupResult(products, missing);
     }
 
     /**
@@ -59,16 +257,35 @@ public class ProductService {
      */
     public Product createProduct(Product product) {
         validateProduct(product);
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductsCreatedEvent(List.of(savedProduct)));
+        return savedProduct;
+    }
+
+    /**
+     * Delete a product, leaving a tombstone for change feed consumers.
+     *
+     * @param id the product ID
+     * @return true if the product existed and was deleted, false if not found
+     */
+    public boolean deleteProduct(Long id) {
+        if (!productRepository.existsById(id)) {
+            return false;
+        }
+        productRepository.deleteById(id);
+        ProductTombstone tombstone = tombstoneRepository.saveAndFlush(new ProductTombstone(id));
+        eventPublisher.publishEvent(new ProductDeletedEvent(id, tombstone.getDeletedAt()));
+        return true;
     }
 
     /**
      * Validate that a product is not null and has a valid name.
+     * Shared with the batch and reactive creation paths so all apply the same rules.
      *
      * @param product the product to validate
      * @throws IllegalArgumentException if validation fails
      */
-    private void validateProduct(Product product) {
+    public static void validateProduct(Product product) {
         if (product == null) {
             throw new IllegalArgumentException("Product cannot be null");
         }
@@ -76,14 +293,108 @@ public class ProductService {
     }
 
     /**
-     * Validate that a product name is not null, empty, or blank.
+     * Look up products for the given ids in the catalog, marking the ids not found as empty.
+     *
+     * @param ids     the product IDs
+     * @param catalog the loaded catalog
+     * @return a found or empty entry for every id
+     */
+    private static Map<Long, Optional<Product>> loadProducts(Set<Long> ids, ProductCatalog catalog) {
+        Map<Long, Optional<Product>> lookups = new HashMap<>();
+        for (Long id : ids) {
+            lookups.put(id, catalog.get(id));
+        }
+        return lookups;
+    }
+
+    /**
+     * The in-memory catalog, if it is enabled and has finished loading.
+     *
+     * @return the catalog, or null if reads must go to the database
+     */
+    private ProductCatalog loadedCatalog() {
+        return catalog != null && catalog.isLoaded() ? catalog : null;
+    }
+
+    /**
+     * Whether the current request reads from the primary because it wrote recently.
+     *
+     * @return true if replica routing is enabled and the request is pinned to the primary
+     */
+    private boolean pinnedToPrimary() {
+        return routing != null && routing.isPinnedToPrimary();
+    }
+
+    /**
+     * Whether database reads on the current thread may be answered by a replica that lags behind the primary.
+     *
+     * @return true if replica routing is enabled and a replica may serve the read
+     */
+    private boolean mayReadFromReplica() {
+        return routing != null && routing.mayReadFromReplica();
+    }
+
+    /**
+     * Load products for the given ids with one query, marking the ids not found as empty.
+     *
+     * @param ids the product IDs
+     * @return a found or empty entry for every id
+     */
+    private Map<Long, Optional<Product>> loadProducts(Set<? extends Long> ids) {
+        Map<Long, Optional<Product>> lookups = new HashMap<>();
+        for (Long id : ids) {
+            lookups.put(id, Optional.empty());
+        }
+        for (Product product : productRepository.findAllById(new ArrayList<Long>(ids))) {
+            lookups.put(product.getId(), Optional.of(product));
+        }
+        return lookups;
+    }
+
+    /**
+     * Validate the ids of a bulk lookup.
+     *
+     * @param ids the requested ids
+     * @throws IllegalArgumentException if validation fails
+     */
+    private void validateLookupIds(List<Long> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("Ids cannot be null");
+        }
+        if (ids.size() > MAX_LOOKUP_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_LOOKUP_IDS + " ids can be looked up at once");
+        }
+        for (Long id : ids) {
+            if (id == null) {
+                throw new IllegalArgumentException("Ids cannot contain null");
+            }
+        }
+    }
+
+    /**
+     * Validate that a requested page size is within the allowed range.
+     *
+     * @param limit the requested page size
+     * @throws IllegalArgumentException if validation fails
+     */
+    private void validatePageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Validate that a product name is not null, empty, or blank, and fits the name column.
      *
      * @param name the product name to validate
      * @throws IllegalArgumentException if validation fails
      */
-    private void validateProductName(String name) {
+    private static void validateProductName(String name) {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Product name cannot be null or empty");
         }
+        if (name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Product name cannot be longer than " + MAX_NAME_LENGTH + " characters");
+        }
     }
 }
@@ -0,0 +1,15 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+
+import java.util.List;
+
+/**
+ * Published when products are created.
+ * Listeners that keep derived state (caches, indexes) should use
+ * {@code @TransactionalEventListener} so they only react once the insert has committed.
+ *
+ * @param products the newly created products, with their generated ids
+ */
+public record ProductsCreatedEvent(List<Product> products) {
+}
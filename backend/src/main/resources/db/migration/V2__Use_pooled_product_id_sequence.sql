@@ -0,0 +1,8 @@
+-- Switch product id generation from IDENTITY to a pooled sequence.
+-- Hibernate cannot batch inserts into identity columns because it needs each
+-- generated id back immediately. With a sequence it reserves ids in blocks
+-- and sends the inserts as JDBC batches.
+--
+-- The increment must match allocationSize on Product.id. The column default
+-- still draws from the same sequence, so plain SQL inserts stay valid.
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
@@ -0,0 +1,7 @@
+-- Trigram index for partial and fuzzy product name search (GET /api/products/search).
+-- A GIN index over pg_trgm trigrams serves ILIKE '%term%' as well as the
+-- similarity operators, so substring search no longer scans the table.
+-- The B-tree idx_products_name is kept for exact findByName lookups.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_products_name_trgm ON products USING gin (name gin_trgm_ops);
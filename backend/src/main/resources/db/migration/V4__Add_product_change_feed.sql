@@ -0,0 +1,17 @@
+-- Change feed support (GET /api/products/changes).
+-- Changes are read in (updated_at, id) order after a client's watermark, so
+-- this index serves the seek and the ordering without a sort.
+CREATE INDEX idx_products_updated_at_id ON products (updated_at, id);
+
+-- Deleted products leave a tombstone so clients syncing through the change
+-- feed learn about the deletion. Product ids are never reused.
+CREATE TABLE product_tombstones (
+    product_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_product_tombstones_deleted_at_id ON product_tombstones (deleted_at, product_id);
+
+COMMENT ON TABLE product_tombstones IS 'Ids of deleted products, for change feed consumers';
+COMMENT ON COLUMN product_tombstones.product_id IS 'Id of the deleted product';
+COMMENT ON COLUMN product_tombstones.deleted_at IS 'Timestamp when the product was deleted';
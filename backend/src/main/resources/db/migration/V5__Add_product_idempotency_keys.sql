@@ -0,0 +1,18 @@
+-- Idempotency keys of product creations (POST /api/products with an
+-- Idempotency-Key header), used when products.idempotency.store=database.
+-- The key is inserted in the same transaction as the product, so a retry
+-- reaching another instance, or arriving after a restart, finds it.
+CREATE TABLE product_idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    fingerprint VARCHAR(64) NOT NULL,
+    product_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_product_idempotency_keys_created_at ON product_idempotency_keys (created_at);
+
+COMMENT ON TABLE product_idempotency_keys IS 'Idempotency keys of product creations';
+COMMENT ON COLUMN product_idempotency_keys.idempotency_key IS 'Key sent by the client';
+COMMENT ON COLUMN product_idempotency_keys.fingerprint IS 'SHA-256 of the request payload, to reject key reuse with a different payload';
+COMMENT ON COLUMN product_idempotency_keys.product_id IS 'Id of the product the request created';
+COMMENT ON COLUMN product_idempotency_keys.created_at IS 'Timestamp when the key was first used';
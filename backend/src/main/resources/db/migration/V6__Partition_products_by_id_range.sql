@@ -0,0 +1,58 @@
+-- Range-partition products on id.
+-- Lookups by id, IN lookups, keyset pages and the ordered catalog stream are
+-- all keyed on id, so the planner prunes them to the partitions holding those
+-- ids, and each partition is vacuumed and indexed on its own. created_at is
+-- not the key: ids come from a pooled sequence (V2) and do not follow
+-- creation time, so a lookup by id could never be pruned on it.
+--
+-- No rows are copied. The existing table becomes the first partition, for
+-- every id below a boundary past the ids handed out so far. A CHECK
+-- constraint on that range lets ATTACH skip its own validation, and the
+-- existing indexes are attached to the new parent indexes instead of being
+-- rebuilt. Partitions of 10,000,000 ids are created ahead of the sequence,
+-- and old ones archived, by ProductPartitionMaintenance (products.partitions).
+ALTER TABLE products RENAME TO products_p0;
+ALTER TABLE products_p0 RENAME CONSTRAINT products_pkey TO products_p0_pkey;
+ALTER INDEX idx_products_name RENAME TO products_p0_name_idx;
+ALTER INDEX idx_products_name_trgm RENAME TO products_p0_name_trgm_idx;
+ALTER INDEX idx_products_updated_at_id RENAME TO products_p0_updated_at_id_idx;
+
+CREATE TABLE products (
+    id BIGINT NOT NULL DEFAULT nextval('products_id_seq'),
+    name VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT products_pkey PRIMARY KEY (id)
+) PARTITION BY RANGE (id);
+
+DO $$
+DECLARE
+    boundary BIGINT;
+BEGIN
+    -- Past the highest id and the block of 50 an instance may still hold from the sequence
+    SELECT (GREATEST(COALESCE(MAX(id), 0), (SELECT last_value FROM products_id_seq) + 50) / 10000000 + 1) * 10000000
+    INTO boundary
+    FROM products_p0;
+
+    EXECUTE format('ALTER TABLE products_p0 ADD CONSTRAINT products_p0_id_range CHECK (id < %s)', boundary);
+    EXECUTE format('ALTER TABLE products ATTACH PARTITION products_p0 FOR VALUES FROM (MINVALUE) TO (%s)', boundary);
+    ALTER TABLE products_p0 DROP CONSTRAINT products_p0_id_range;
+
+    EXECUTE format('CREATE TABLE products_p%s PARTITION OF products FOR VALUES FROM (%s) TO (%s)',
+                   boundary, boundary, boundary + 10000000);
+END
+$$;
+
+-- Matching indexes of the partitions are attached, not rebuilt
+CREATE INDEX idx_products_name ON products (name);
+CREATE INDEX idx_products_name_trgm ON products USING gin (name gin_trgm_ops);
+CREATE INDEX idx_products_updated_at_id ON products (updated_at, id);
+
+-- Ids keep coming from the same sequence; it now belongs to the partitioned table
+ALTER SEQUENCE products_id_seq OWNED BY products.id;
+
+COMMENT ON TABLE products IS 'Stores product information, range-partitioned on id';
+COMMENT ON COLUMN products.id IS 'Unique identifier for the product';
+COMMENT ON COLUMN products.name IS 'Name of the product';
+COMMENT ON COLUMN products.created_at IS 'Timestamp when the product was created';
+COMMENT ON COLUMN products.updated_at IS 'Timestamp when the product was last updated';
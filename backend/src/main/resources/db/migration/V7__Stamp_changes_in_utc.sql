@@ -0,0 +1,18 @@
+-- Change times are now stamped from the database clock in UTC instead of the
+-- application server's local time. Convert existing stamps, which were written
+-- in the zone the servers ran in, assumed to be the database's own TimeZone.
+DO $$
+BEGIN
+    IF now()::timestamp <> (now() AT TIME ZONE 'UTC') THEN
+        UPDATE products
+        SET created_at = (created_at AT TIME ZONE current_setting('TimeZone')) AT TIME ZONE 'UTC',
+            updated_at = (updated_at AT TIME ZONE current_setting('TimeZone')) AT TIME ZONE 'UTC';
+        UPDATE product_tombstones
+        SET deleted_at = (deleted_at AT TIME ZONE current_setting('TimeZone')) AT TIME ZONE 'UTC';
+    END IF;
+END
+$$;
+
+COMMENT ON COLUMN products.created_at IS 'Timestamp when the product was created, in UTC';
+COMMENT ON COLUMN products.updated_at IS 'Timestamp when the product was last updated, in UTC';
+COMMENT ON COLUMN product_tombstones.deleted_at IS 'Timestamp when the product was deleted, in UTC';
@@ -0,0 +1,62 @@
+package com.grainger.products;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for seeding large product tables in benchmarks.
+ * Rows are inserted with plain JDBC batches, which is much faster than going through JPA.
+ */
+public final class BenchmarkData {
+
+    private static final int INSERT_BATCH = 10_000;
+
+    private static final String[] ADJECTIVES = {
+            "Heavy-Duty", "Stainless", "Cordless", "Industrial", "Compact", "Insulated", "Galvanized", "Portable"
+    };
+    private static final String[] NOUNS = {
+            "Drill", "Hammer", "Wrench", "Glove", "Ladder", "Valve", "Fastener", "Respirator", "Cable", "Pump"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Replace the contents of the products table with the given number of rows.
+     * Ids run from 1 to rows and the id sequence is restarted after them.
+     *
+     * @param jdbcTemplate the JDBC template for the test database
+     * @param rows         the number of products to insert
+     */
+    public static void seedProducts(JdbcTemplate jdbcTemplate, int rows) {
+        jdbcTemplate.update("DELETE FROM products");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC));
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 1; i <= rows; i++) {
+            batch.add(new Object[]{(long) i, productName(i), now, now});
+            if (batch.size() == INSERT_BATCH || i == rows) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO products (id, name, created_at, updated_at) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE products_id_seq RESTART WITH " + (rows + 1));
+    }
+
+    /**
+     * A deterministic, catalog-like product name for the given row number.
+     * Names repeat across adjective/noun combinations and differ by model number.
+     *
+     * @param i the row number
+     * @return the product name
+     */
+    public static String productName(int i) {
+        return ADJECTIVES[i % ADJECTIVES.length] + " " + NOUNS[(i / ADJECTIVES.length) % NOUNS.length]
+                + " Model " + i;
+    }
+}
@@ -0,0 +1,127 @@
+package com.grainger.products;
+
+import com.grainger.products.config.ConcurrencyLimitFilter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load-test harness for the adaptive concurrency limit: GET /api/products/{id}
+ * with a small connection pool while every statement is delayed, first by a
+ * healthy and then by a degraded database latency, with and without
+ * products.concurrency-limit.enabled.
+ * <p>
+ * Without the limit, requests queue for a connection and the latency of every
+ * request grows with the backlog; with it, the excess is shed with 503 and
+ * Retry-After while goodput and the p99 of admitted requests stay close to
+ * what the degraded database allows.
+ * Excluded from the regular test run; execute with ./gradlew benchmark.
+ * Both product caches are disabled so every request reaches the database.
+ */
+@Tag("benchmark")
+class ConcurrencyLimitLoadTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 200);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.poolSize", 10);
+    private static final long HEALTHY_MILLIS = Long.getLong("benchmark.healthyLatencyMillis", 1);
+    private static final long DEGRADED_MILLIS = Long.getLong("benchmark.degradedLatencyMillis", 20);
+
+    private final HttpLoad load = new HttpLoad();
+
+    @Test
+    void compareWithAndWithoutLimit() throws Exception {
+        System.out.printf("GET /api/products/{id}, %d requests, concurrency %d, pool %d%n",
+                REQUESTS, CONCURRENCY, POOL_SIZE);
+        for (boolean limited : new boolean[]{false, true}) {
+            AtomicLong statementDelayMillis = new AtomicLong();
+            HarnessApplication application = HarnessApplication.servlet()
+                    .profiles("test")
+                    .initializer(context -> context.getBeanFactory()
+                            .addBeanPostProcessor(new LatencyInjection(statementDelayMillis)))
+                    .embeddedDatabase("concurrency-limit-" + limited)
+                    .uncached()
+                    .pool(POOL_SIZE)
+                    .property("products.concurrency-limit.enabled", limited)
+                    .property("products.concurrency-limit.window", "200ms");
+
+            try (ConfigurableApplicationContext context = application.start()) {
+                assertThat(context.getBeanNamesForType(ConcurrencyLimitFilter.class))
+                        .as("concurrency limit filter installed").hasSize(limited ? 1 : 0);
+                BenchmarkData.seedProducts(context.getBean(JdbcTemplate.class), ROWS);
+                int port = HarnessApplication.port(context);
+                String label = limited ? "limited" : "unlimited";
+
+                statementDelayMillis.set(HEALTHY_MILLIS);
+                load.getProductsById(port, ROWS, Math.min(REQUESTS, 2_000), CONCURRENCY);
+                System.out.printf("%-9s db %3d ms: %s%n", label, HEALTHY_MILLIS,
+                        load.getProductsById(port, ROWS, REQUESTS, CONCURRENCY));
+
+                statementDelayMillis.set(DEGRADED_MILLIS);
+                System.out.printf("%-9s db %3d ms: %s%n", label, DEGRADED_MILLIS,
+                        load.getProductsById(port, ROWS, REQUESTS, CONCURRENCY));
+            }
+        }
+    }
+
+    /**
+     * Wraps the application's data source so every statement execution first sleeps for the current delay.
+     * Connections are held while sleeping, as they are while a slow database works.
+     */
+    private record LatencyInjection(AtomicLong delayMillis) implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return delayed(super.getConnection());
+                }
+            };
+        }
+
+        private Connection delayed(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (self, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        // Statement, PreparedStatement or CallableStatement, as declared by the factory method
+                        return result instanceof Statement statement ? delayed(statement, method.getReturnType()) : result;
+                    });
+        }
+
+        private Object delayed(Statement statement, Class<?> type) {
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    Thread.sleep(delayMillis.get());
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.grainger.products;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application, or its reactive variant, for the load harnesses,
+ * benchmarks and tests that need a full context on a real database.
+ * Every property is passed as a command-line argument: builder properties are
+ * only defaults, which application.yml and the active profiles would override.
+ * The server listens on a random port and SQL logging is off.
+ */
+public final class HarnessApplication {
+
+    private final SpringApplicationBuilder builder;
+    private final List<String> args = new ArrayList<>(List.of("--server.port=0", "--spring.jpa.show-sql=false"));
+
+    private HarnessApplication(Class<?> source) {
+        this.builder = new SpringApplicationBuilder(source);
+    }
+
+    /**
+     * Prepare to start the servlet application.
+     *
+     * @return the launcher
+     */
+    public static HarnessApplication servlet() {
+        return of(ProductsApplication.class);
+    }
+
+    /**
+     * Prepare to start an application class.
+     *
+     * @param source the application class
+     * @return the launcher
+     */
+    public static HarnessApplication of(Class<?> source) {
+        return new HarnessApplication(source);
+    }
+
+    /**
+     * The port the embedded web server of a started application listens on.
+     *
+     * @param context the running application context
+     * @return the server port
+     */
+    public static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    /**
+     * Activate profiles. Properties set here still win over theirs.
+     *
+     * @param profiles the profile names
+     * @return this launcher
+     */
+    public HarnessApplication profiles(String... profiles) {
+        builder.profiles(profiles);
+        return this;
+    }
+
+    /**
+     * Choose the kind of web server, or none.
+     *
+     * @param webApplicationType the web application type
+     * @return this launcher
+     */
+    public HarnessApplication web(WebApplicationType webApplicationType) {
+        builder.web(webApplicationType);
+        return this;
+    }
+
+    /**
+     * Run an initializer on the context before it is refreshed.
+     *
+     * @param initializer the initializer
+     * @return this launcher
+     */
+    public HarnessApplication initializer(ApplicationContextInitializer<ConfigurableApplicationContext> initializer) {
+        builder.initializers(initializer);
+        return this;
+    }
+
+    /**
+     * Set a property, overriding application.yml and the profiles.
+     *
+     * @param name  the property name
+     * @param value the property value
+     * @return this launcher
+     */
+    public HarnessApplication property(String name, Object value) {
+        args.add("--" + name + "=" + value);
+        return this;
+    }
+
+    /**
+     * Use a named in-memory H2 database, unless SPRING_DATASOURCE_URL selects another one.
+     *
+     * @param name the database name, unique per running context
+     * @return this launcher
+     */
+    public HarnessApplication embeddedDatabase(String name) {
+        if (System.getenv("SPRING_DATASOURCE_URL") != null) {
+            return this;
+        }
+        return property("spring.datasource.url", "jdbc:h2:mem:" + name);
+    }
+
+    /**
+     * Connect to a database.
+     *
+     * @param url      the JDBC URL
+     * @param username the user name
+     * @param password the password
+     * @return this launcher
+     */
+    public HarnessApplication datasource(String url, String username, String password) {
+        return property("spring.datasource.url", url)
+                .property("spring.datasource.username", username)
+                .property("spring.datasource.password", password);
+    }
+
+    /**
+     * Give the connection pool a fixed size.
+     *
+     * @param size the number of connections
+     * @return this launcher
+     */
+    public HarnessApplication pool(int size) {
+        return property("spring.datasource.hikari.maximum-pool-size", size)
+                .property("spring.datasource.hikari.minimum-idle", size);
+    }
+
+    /**
+     * Turn off the Hibernate second-level and query caches.
+     *
+     * @return this launcher
+     */
+    public HarnessApplication withoutSecondLevelCache() {
+        return property("spring.jpa.properties.hibernate.cache.use_second_level_cache", false)
+                .property("spring.jpa.properties.hibernate.cache.use_query_cache", false);
+    }
+
+    /**
+     * Turn off both product caches, so every lookup reaches the database.
+     *
+     * @return this launcher
+     */
+    public HarnessApplication uncached() {
+        return withoutSecondLevelCache().property("products.cache.maximum-size", 0);
+    }
+
+    /**
+     * Start the application.
+     *
+     * @return the running application context
+     */
+    public ConfigurableApplicationContext start() {
+        return builder.run(args.toArray(String[]::new));
+    }
+}
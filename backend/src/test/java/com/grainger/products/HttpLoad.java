@@ -0,0 +1,113 @@
+package com.grainger.products;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop HTTP load generator shared by the load-test harnesses.
+ * Each client runs on its own virtual thread and sends its next request
+ * as soon as the previous one completes.
+ */
+public final class HttpLoad {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    /**
+     * Send GET /api/products/{id} for random ids in [1, rows].
+     *
+     * @param port        the server port
+     * @param rows        the number of seeded products
+     * @param requests    the total number of requests
+     * @param concurrency the number of concurrent clients
+     * @return throughput, goodput, latency percentiles of admitted requests, and failed and shed counts
+     */
+    public Result getProductsById(int port, int rows, int requests, int concurrency) throws Exception {
+        long[] nanos = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> workers = new ArrayList<>(concurrency);
+            for (int w = 0; w < concurrency; w++) {
+                workers.add(clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+                        HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/api/products/" + id)).build();
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (isShed(response)) {
+                                shed.incrementAndGet();
+                                continue;
+                            }
+                            if (response.statusCode() == 200) {
+                                ok.incrementAndGet();
+                            } else {
+                                failures.incrementAndGet();
+                            }
+                        } catch (IOException ex) {
+                            failures.incrementAndGet();
+                        }
+                        nanos[admitted.getAndIncrement()] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] admittedNanos = Arrays.copyOf(nanos, admitted.get());
+        Arrays.sort(admittedNanos);
+        return new Result(requests / (elapsed / 1e9), ok.get() / (elapsed / 1e9),
+                percentile(admittedNanos, 0.50), percentile(admittedNanos, 0.99), failures.get(), shed.get());
+    }
+
+    /**
+     * Whether the server turned the request away under load, with a Retry-After.
+     */
+    private static boolean isShed(HttpResponse<Void> response) {
+        return (response.statusCode() == 503 || response.statusCode() == 429)
+                && response.headers().firstValue("Retry-After").isPresent();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.max(0, Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1))] / 1e6;
+    }
+
+    /**
+     * Outcome of one load run. Latency percentiles cover admitted requests, not those shed.
+     */
+    public record Result(double throughput, double goodput, double p50Millis, double p99Millis, int failures,
+                         int shed) {
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, goodput %.0f req/s, p50 %.2f ms, p99 %.2f ms, %d failed, %d shed",
+                    throughput, goodput, p50Millis, p99Millis, failures, shed);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.grainger.products;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductBatchResult;
+import com.grainger.products.repository.ProductRepository;
+import com.grainger.products.service.ProductBatchService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load-test harness comparing the default datasource settings with the prod
+ * profile's pool, driver and Hibernate tuning, on concurrent findById calls
+ * and on batch inserts.
+ * Excluded from the regular test run; execute with ./gradlew benchmark.
+ * The driver settings are PostgreSQL-specific, so this runs against the
+ * database from docker-compose unless -Dbenchmark.jdbcUrl (with
+ * benchmark.username and benchmark.password) points elsewhere; the products
+ * table is cleared first. Both product caches and SQL logging are off in
+ * both runs, so every call reaches the database and only the tuning differs.
+ */
+@Tag("benchmark")
+class JdbcTuningLoadTest {
+
+    private static final String JDBC_URL = System.getProperty("benchmark.jdbcUrl",
+            "jdbc:postgresql://localhost:5432/products_db");
+    private static final String USERNAME = System.getProperty("benchmark.username", "postgres");
+    private static final String PASSWORD = System.getProperty("benchmark.password", "postgres");
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 200_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 32);
+    private static final int INSERTS = Integer.getInteger("benchmark.inserts", 50_000);
+
+    @Test
+    void compareDefaultAndProdTuning() throws Exception {
+        Result baseline = run();
+        Result tuned = run("prod");
+
+        System.out.printf("findById: %d calls, %d threads; insert: %d rows through the batch service%n",
+                REQUESTS, CONCURRENCY, INSERTS);
+        System.out.println("default: " + baseline);
+        System.out.println("prod:    " + tuned);
+    }
+
+    private Result run(String... profiles) throws Exception {
+        HarnessApplication application = HarnessApplication.servlet()
+                .web(WebApplicationType.NONE)
+                .profiles(profiles)
+                .datasource(JDBC_URL, USERNAME, PASSWORD)
+                .property("spring.datasource.driver-class-name", "org.postgresql.Driver")
+                .uncached();
+
+        try (ConfigurableApplicationContext context = application.start()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            BenchmarkData.seedProducts(jdbcTemplate, ROWS);
+            ProductRepository productRepository = context.getBean(ProductRepository.class);
+
+            findById(productRepository, Math.min(REQUESTS, 10_000));
+            double reads = findById(productRepository, REQUESTS);
+            double inserts = insert(context.getBean(ProductBatchService.class));
+
+            assertThat(productRepository.count()).isEqualTo(ROWS + INSERTS);
+            return new Result(reads, inserts);
+        }
+    }
+
+    /**
+     * Run findById calls for random existing ids from a fixed number of threads.
+     *
+     * @return calls per second
+     */
+    private double findById(ProductRepository productRepository, int calls) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(CONCURRENCY);
+            for (int t = 0; t < CONCURRENCY; t++) {
+                int share = calls / CONCURRENCY + (t < calls % CONCURRENCY ? 1 : 0);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < share; i++) {
+                        long id = ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+                        assertThat(productRepository.findById(id)).isPresent();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return calls / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Insert new products through the batch creation path.
+     *
+     * @return rows per second
+     */
+    private double insert(ProductBatchService productBatchService) {
+        long start = System.nanoTime();
+        ProductBatchResult result = productBatchService.createProducts(IntStream.range(0, INSERTS)
+                .mapToObj(i -> new Product("Tuning Product " + i))
+                .iterator());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertThat(result.created()).isEqualTo(INSERTS);
+        return INSERTS / seconds;
+    }
+
+    private record Result(double readsPerSecond, double insertsPerSecond) {
+
+        @Override
+        public String toString() {
+            return String.format("findById %.0f calls/s, insert %.0f rows/s", readsPerSecond, insertsPerSecond);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.grainger.products;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup benchmark: launches the application as a separate JVM, repeatedly,
+ * and reports the time from launch to the first answered
+ * GET /api/products/{id} and the resident set size at that moment.
+ * <p>
+ * Three setups are compared: the executable boot jar with the baseline
+ * profiles, the unpacked startup image with AOT-generated bean definitions,
+ * and the same image with its AppCDS archive. Run with ./gradlew
+ * startupBenchmark, which builds all three first; the application needs its
+ * database (docker compose up). Settings come from benchmark.* system
+ * properties: benchmark.runs, benchmark.profiles, benchmark.baselineProfiles
+ * and benchmark.productId.
+ */
+public final class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("benchmark.runs", 5);
+    private static final String PROFILES = System.getProperty("benchmark.profiles", "prod,startup");
+    private static final String BASELINE_PROFILES = System.getProperty("benchmark.baselineProfiles", "prod");
+    private static final long PRODUCT_ID = Long.getLong("benchmark.productId", 1L);
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    private StartupBenchmark() {
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args the java executable, the boot jar and the startup image directory
+     */
+    public static void main(String[] args) throws Exception {
+        String java = args[0];
+        Path bootJar = Path.of(args[1]);
+        Path image = Path.of(args[2]);
+        StartupBenchmark benchmark = new StartupBenchmark();
+
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("boot jar", Path.of("."), BASELINE_PROFILES,
+                List.of(java, "-jar", bootJar.toAbsolutePath().toString())));
+        variants.add(new Variant("AOT", image, PROFILES,
+                List.of(java, "-Dspring.aot.enabled=true", "-jar", "products.jar")));
+        if (Files.exists(image.resolve("products.jsa"))) {
+            variants.add(new Variant("AOT + AppCDS", image, PROFILES,
+                    List.of(java, "-XX:SharedArchiveFile=products.jsa", "-Xlog:cds=off", "-Xlog:cds+dynamic=off",
+                            "-Dspring.aot.enabled=true", "-jar", "products.jar")));
+        } else {
+            System.out.println("No products.jsa in " + image + "; run ./gradlew startupCds to include AppCDS");
+        }
+
+        System.out.printf("Launch to first GET /api/products/%d, median of %d runs%n", PRODUCT_ID, RUNS);
+        for (Variant variant : variants) {
+            benchmark.run(variant); // Warm the OS page cache
+            long[] millis = new long[RUNS];
+            long[] rssKb = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                Sample sample = benchmark.run(variant);
+                millis[i] = sample.millis();
+                rssKb[i] = sample.rssKb();
+            }
+            Arrays.sort(millis);
+            Arrays.sort(rssKb);
+            System.out.printf("%-14s [%s] first request %5d ms (min %d, max %d), RSS %4d MB%n", variant.name(),
+                    variant.profiles(), millis[RUNS / 2], millis[0], millis[RUNS - 1], rssKb[RUNS / 2] / 1024);
+        }
+    }
+
+    private Sample run(Variant variant) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(variant.command());
+        command.add("--server.port=" + port);
+        command.add("--spring.profiles.active=" + variant.profiles());
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/products/" + PRODUCT_ID))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(variant.directory().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant.name() + " exited with " + process.exitValue());
+                }
+                if (System.nanoTime() - start > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException(variant.name() + " did not answer within " + TIMEOUT);
+                }
+                try {
+                    // Any answer, including 404 for a missing product, means the request path is up
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                    break;
+                } catch (IOException ex) {
+                    Thread.sleep(5);
+                }
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            return new Sample(millis, rssKb(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Resident set size of a process, from /proc on Linux and ps elsewhere.
+     */
+    private static long rssKb(long pid) throws IOException, InterruptedException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (Files.exists(status)) {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        }
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", Long.toString(pid)).start();
+        String output = new String(ps.getInputStream().readAllBytes()).trim();
+        ps.waitFor();
+        return output.isEmpty() ? 0 : Long.parseLong(output);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Variant(String name, Path directory, String profiles, List<String> command) {
+    }
+
+    private record Sample(long millis, long rssKb) {
+    }
+}
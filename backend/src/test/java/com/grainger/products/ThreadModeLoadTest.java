@@ -0,0 +1,53 @@
+package com.grainger.products;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Load-test harness comparing GET /api/products/{id} on platform threads
+ * and on virtual threads (the virtual-threads profile).
+ * Excluded from the regular test run; execute with ./gradlew benchmark.
+ * Both product caches are disabled so every request reaches the database.
+ * To measure against PostgreSQL, point SPRING_DATASOURCE_URL (with driver,
+ * username and password) at a migrated database.
+ */
+@Tag("benchmark")
+class ThreadModeLoadTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 50_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 500);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.poolSize", 20);
+
+    private final HttpLoad load = new HttpLoad();
+
+    @Test
+    void compareThreadModes() throws Exception {
+        HttpLoad.Result platform = run(false);
+        HttpLoad.Result virtual = run(true);
+
+        System.out.printf("GET /api/products/{id}, %d requests, concurrency %d, pool %d%n",
+                REQUESTS, CONCURRENCY, POOL_SIZE);
+        System.out.println("platform threads: " + platform);
+        System.out.println("virtual threads:  " + virtual);
+    }
+
+    private HttpLoad.Result run(boolean virtualThreads) throws Exception {
+        // The pool is the same in both modes, whatever the virtual-threads profile sets
+        HarnessApplication application = HarnessApplication.servlet()
+                .profiles(virtualThreads ? new String[]{"test", "virtual-threads"} : new String[]{"test"})
+                .embeddedDatabase("thread-mode-" + (virtualThreads ? "virtual" : "platform"))
+                .uncached()
+                .pool(POOL_SIZE);
+
+        try (ConfigurableApplicationContext context = application.start()) {
+            BenchmarkData.seedProducts(context.getBean(JdbcTemplate.class), ROWS);
+            int port = HarnessApplication.port(context);
+
+            load.getProductsById(port, ROWS, Math.min(REQUESTS, 2_000), CONCURRENCY);
+            return load.getProductsById(port, ROWS, REQUESTS, CONCURRENCY);
+        }
+    }
+}
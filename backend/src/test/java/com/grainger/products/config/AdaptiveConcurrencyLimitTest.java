@@ -0,0 +1,133 @@
+package com.grainger.products.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for AdaptiveConcurrencyLimit, driven by a manual clock.
+ */
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(1);
+
+    private long now;
+
+    @Test
+    void shouldShedRequestsBeyondTheLimit() {
+        // Given
+        AdaptiveConcurrencyLimit limit = limit(2, 1, 10);
+
+        // When & Then
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.rejectedCount()).isEqualTo(1);
+        limit.release(millis(5), false);
+        assertThat(limit.inFlight()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldGrowUpToTheMaximumWhileLatencyHolds() {
+        // Given
+        AdaptiveConcurrencyLimit limit = limit(20, 4, 60);
+
+        // When
+        int previous = limit.limit();
+        saturatedWindow(limit, 10);
+        int grown = limit.limit();
+        for (int i = 0; i < 100; i++) {
+            saturatedWindow(limit, 10);
+        }
+
+        // Then
+        assertThat(grown).isGreaterThan(previous);
+        assertThat(limit.limit()).isEqualTo(60);
+    }
+
+    @Test
+    void shouldShrinkWhenLatencyRises() {
+        // Given
+        AdaptiveConcurrencyLimit limit = limit(20, 4, 200);
+        for (int i = 0; i < 5; i++) {
+            saturatedWindow(limit, 10);
+        }
+        int before = limit.limit();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            saturatedWindow(limit, 100);
+        }
+
+        // Then
+        assertThat(limit.limit()).isLessThan(before).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void shouldNotGrowWhileDemandStaysFarBelowTheLimit() {
+        // Given
+        AdaptiveConcurrencyLimit limit = limit(20, 4, 200);
+
+        // When
+        for (int window = 0; window < 10; window++) {
+            for (int i = 0; i < 20; i++) {
+                limit.tryAcquire();
+                now += WINDOW / 20;
+                limit.release(millis(10), false);
+            }
+        }
+
+        // Then
+        assertThat(limit.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void shouldBackOffWhenRequestsAreDropped() {
+        // Given
+        AdaptiveConcurrencyLimit limit = limit(20, 4, 200);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+        }
+        now += WINDOW;
+        for (int i = 0; i < 20; i++) {
+            limit.release(millis(10), i == 0);
+        }
+
+        // Then
+        assertThat(limit.limit()).isLessThan(20);
+    }
+
+    @Test
+    void shouldRejectInconsistentBounds() {
+        assertThatThrownBy(() -> limit(50, 4, 20)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> limit(10, 0, 20)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Fill the limit, then complete every request with the same latency in one window.
+     */
+    private void saturatedWindow(AdaptiveConcurrencyLimit limit, long latencyMillis) {
+        int admitted = 0;
+        while (limit.tryAcquire()) {
+            admitted++;
+        }
+        now += WINDOW;
+        for (int i = 0; i < admitted; i++) {
+            limit.release(millis(latencyMillis), false);
+        }
+    }
+
+    private AdaptiveConcurrencyLimit limit(int initial, int min, int max) {
+        return new AdaptiveConcurrencyLimit(initial, min, max, 1.5, WINDOW, () -> now);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,93 @@
+package com.grainger.products.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.grainger.products.controller.GlobalExceptionHandler;
+import com.grainger.products.controller.ProductController;
+import com.grainger.products.model.Product;
+import com.grainger.products.service.ProductIdempotencyService;
+import com.grainger.products.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Controller tests for the CBOR and Smile encodings.
+ * Decodes each binary response and checks it holds the same document as the JSON one.
+ */
+@WebMvcTest({ProductController.class, GlobalExceptionHandler.class})
+@Import(BinaryFormatConfig.class)
+class BinaryFormatConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private ProductIdempotencyService idempotencyService;
+
+    @Test
+    void shouldEncodeProductAsCbor() throws Exception {
+        assertEncodedLikeJson(MediaType.APPLICATION_CBOR, new ObjectMapper(new CBORFactory()));
+    }
+
+    @Test
+    void shouldEncodeProductAsSmile() throws Exception {
+        assertEncodedLikeJson(BinaryFormatConfig.APPLICATION_SMILE, new ObjectMapper(new SmileFactory()));
+    }
+
+    @Test
+    void shouldDefaultToJson() throws Exception {
+        // Given
+        when(productService.getProductById(1L)).thenReturn(Optional.of(createProduct()));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/1").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private void assertEncodedLikeJson(MediaType mediaType, ObjectMapper decoder) throws Exception {
+        // Given
+        when(productService.getProductById(1L)).thenReturn(Optional.of(createProduct()));
+
+        // When
+        byte[] body = mockMvc.perform(get("/api/products/1").accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+        String json = mockMvc.perform(get("/api/products/1").accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        JsonNode decoded = decoder.readTree(body);
+        assertThat(decoded).isEqualTo(new ObjectMapper().readTree(json));
+        assertThat(decoded.get("updatedAt").asText()).isEqualTo("2024-01-15T10:30:00");
+    }
+
+    // Helper method to create a product with timestamps
+    private Product createProduct() {
+        Product product = new Product("Test Product");
+        product.setId(1L);
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 15, 10, 30));
+        product.setUpdatedAt(LocalDateTime.of(2024, 1, 15, 10, 30));
+        return product;
+    }
+}
@@ -0,0 +1,89 @@
+package com.grainger.products.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ConcurrencyLimitFilter.
+ */
+class ConcurrencyLimitFilterTest {
+
+    private final AdaptiveConcurrencyLimit readLimit = new AdaptiveConcurrencyLimit(1, 1, 1, 1.5, 1_000_000_000L);
+    private final AdaptiveConcurrencyLimit writeLimit = new AdaptiveConcurrencyLimit(1, 1, 1, 1.5, 1_000_000_000L);
+    private final ConcurrencyLimitFilter filter =
+            new ConcurrencyLimitFilter(readLimit, writeLimit, 503, 429, Duration.ofSeconds(2));
+
+    @Test
+    void shouldAdmitAndReleaseWithinTheLimit() throws Exception {
+        // Given
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request("GET", "/api/products/1"), response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(readLimit.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldShedReadsWith503WhenTheReadLimitIsReached() throws Exception {
+        // Given
+        readLimit.tryAcquire();
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request("GET", "/api/products/1"), response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("\"error\"");
+        assertThat(readLimit.rejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldShedWritesWith429WithoutTouchingTheReadLimit() throws Exception {
+        // Given
+        writeLimit.tryAcquire();
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        MockHttpServletResponse read = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request("POST", "/api/products"), write, new MockFilterChain());
+        filter.doFilter(request("POST", "/api/products/lookup"), read, new MockFilterChain());
+
+        // Then
+        assertThat(write.getStatus()).isEqualTo(429);
+        assertThat(read.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldNotLimitStreamsOrOtherPaths() throws Exception {
+        // Given
+        readLimit.tryAcquire();
+
+        // When & Then
+        for (String path : new String[]{"/api/products/changes/stream", "/api/products/export", "/actuator/health"}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request("GET", path), response, new MockFilterChain());
+            assertThat(response.getStatus()).as(path).isEqualTo(200);
+        }
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRequestURI(path);
+        return request;
+    }
+}
@@ -0,0 +1,44 @@
+package com.grainger.products.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for HibernateCacheConfig.
+ */
+class HibernateCacheConfigTest {
+
+    private final SecondLevelCacheProperties properties = new SecondLevelCacheProperties(
+            Map.of("product", new SecondLevelCacheProperties.Region(100, Duration.ofMinutes(1))));
+
+    @Test
+    void shouldGiveEachContextItsOwnCacheManager() {
+        // Given two contexts with the same id, as built from the same configuration
+        CacheManager first = new HibernateCacheConfig().hibernateCacheManager(properties, context("products"));
+        CacheManager second = new HibernateCacheConfig().hibernateCacheManager(properties, context("products"));
+        first.getCache("product").put("key", "value");
+
+        // When
+        first.close();
+
+        // Then
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getURI()).isNotEqualTo(first.getURI());
+        assertThat(second.getURI().toString()).startsWith("products-second-level-cache:products/");
+        assertThat(second.isClosed()).isFalse();
+        assertThat(second.getCache("product").get("key")).isNull();
+        second.close();
+    }
+
+    private static GenericApplicationContext context(String id) {
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.setId(id);
+        return context;
+    }
+}
@@ -0,0 +1,72 @@
+package com.grainger.products.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the Prometheus scrape endpoint.
+ * Exercises the API, then checks the expected metric families are exposed.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldExposeRequestServicePoolHibernateAndCacheMetrics() throws Exception {
+        // Given
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Metered Product\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/products/{id}", 999999))
+                .andExpect(status().isNotFound());
+
+        // When
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket")
+                .contains("uri=\"/api/products/{id}\"")
+                .contains("products_service_seconds_count")
+                .contains("method=\"getProductById\"")
+                .contains("hikaricp_connections_active")
+                .contains("hikaricp_connections_pending")
+                .contains("hibernate_query_executions_total")
+                .contains("hibernate_entities_loads_total")
+                .contains("cache_gets_total{application=\"products\",cache=\"products.byId\"");
+    }
+
+    @Test
+    void shouldNotTagRequestsWithRawIds() throws Exception {
+        // Given
+        mockMvc.perform(get("/api/products/{id}", 123456)).andExpect(status().isNotFound());
+
+        // When
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertThat(scrape).doesNotContain("uri=\"/api/products/123456\"");
+    }
+}
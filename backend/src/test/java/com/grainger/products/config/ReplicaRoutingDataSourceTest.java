@@ -0,0 +1,164 @@
+package com.grainger.products.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ReplicaRoutingDataSource.
+ * Separate in-memory H2 databases stand in for the primary and the replicas;
+ * each holds a single row naming it, so a query shows where it was routed.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica1;
+    private DataSource replica2;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        primary = node("primary");
+        replica1 = node("replica1");
+        replica2 = node("replica2");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        routing.close();
+    }
+
+    @Test
+    void shouldSendReadWriteTransactionsToPrimary() {
+        // Given
+        route(replica1, replica2);
+
+        // When & Then
+        assertThat(readNode(false)).isEqualTo("primary");
+    }
+
+    @Test
+    void shouldSpreadReadOnlyTransactionsOverReplicas() {
+        // Given
+        route(replica1, replica2);
+
+        // When
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(readNode(true));
+        }
+
+        // Then
+        assertThat(nodes).containsExactly("replica1", "replica2", "replica1", "replica2");
+    }
+
+    @Test
+    void shouldFailOverToNextReplicaThenPrimary() throws SQLException {
+        // Given
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("Connection refused"));
+        route(down, replica1);
+
+        // When & Then
+        assertThat(readNode(true)).isEqualTo("replica1");
+        assertThat(routing.healthyReplicaCount()).isEqualTo(1);
+
+        route(down, down);
+        assertThat(readNode(true)).isEqualTo("primary");
+        assertThat(routing.healthyReplicaCount()).isZero();
+    }
+
+    @Test
+    void shouldMarkReplicaUpAgainOnceHealthCheckPasses() throws SQLException {
+        // Given
+        DataSource flaky = mock(DataSource.class);
+        when(flaky.getConnection())
+                .thenThrow(new SQLException("Connection refused"))
+                .thenAnswer(invocation -> replica1.getConnection());
+        route(flaky);
+        assertThat(readNode(true)).isEqualTo("primary");
+
+        // When
+        routing.checkHealth();
+
+        // Then
+        assertThat(routing.healthyReplicaCount()).isEqualTo(1);
+        assertThat(readNode(true)).isEqualTo("replica1");
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhilePinnedByRecentWrite() throws Exception {
+        // Given
+        route(replica1);
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofSeconds(2));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setCookies(new Cookie(ReadYourWrites.COOKIE_NAME, Long.toString(System.currentTimeMillis() + 60_000)));
+        AtomicReference<String> node = new AtomicReference<>();
+        AtomicReference<Boolean> pinned = new AtomicReference<>();
+
+        // When
+        readYourWrites.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            node.set(readNode(true));
+            pinned.set(routing.isPinnedToPrimary() && !routing.mayReadFromReplica());
+        });
+
+        // Then
+        assertThat(node.get()).isEqualTo("primary");
+        assertThat(pinned.get()).isTrue();
+        assertThat(readNode(true)).isEqualTo("replica1");
+        assertThat(routing.mayReadFromReplica()).isTrue();
+    }
+
+    private void route(DataSource... replicas) {
+        if (routing != null) {
+            try {
+                routing.close();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        List<ReplicaRoutingDataSource.NamedDataSource> named = new ArrayList<>();
+        for (int i = 0; i < replicas.length; i++) {
+            named.add(new ReplicaRoutingDataSource.NamedDataSource("replica-" + (i + 1), replicas[i]));
+        }
+        routing = new ReplicaRoutingDataSource(primary, named, Duration.ofHours(1));
+    }
+
+    // Run a transaction the way the service layer does and report which database answered
+    private String readNode(boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    // Helper method to create an in-memory database holding its own name
+    private static DataSource node(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(32))");
+        jdbc.execute("DELETE FROM node");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
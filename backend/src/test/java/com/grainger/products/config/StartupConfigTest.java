@@ -0,0 +1,109 @@
+package com.grainger.products.config;
+
+import com.grainger.products.service.ProductService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StartupConfig.
+ */
+class StartupConfigTest {
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:startup-config;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final FlywayMigrationStrategy strategy = new StartupConfig().skipCurrentSchemaMigration();
+    private final Flyway flyway = mock(Flyway.class);
+
+    @BeforeEach
+    void setUp() {
+        when(flyway.getConfiguration()).thenReturn(Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS flyway_schema_history");
+    }
+
+    @Test
+    void shouldMarkOnlyDocumentationBeansLazy() {
+        // Given
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("openApiConfig", new RootBeanDefinition(OpenApiConfig.class));
+        RootBeanDefinition openApi = new RootBeanDefinition();
+        openApi.setFactoryBeanName("openApiConfig");
+        openApi.setFactoryMethodName("productOpenAPI");
+        beanFactory.registerBeanDefinition("productOpenAPI", openApi);
+        GenericBeanDefinition springdoc = new GenericBeanDefinition();
+        springdoc.setBeanClassName("org.springdoc.webmvc.api.OpenApiWebMvcResource");
+        beanFactory.registerBeanDefinition("openApiResource", springdoc);
+        beanFactory.registerBeanDefinition("productService", new RootBeanDefinition(ProductService.class));
+
+        // When
+        StartupConfig.lazyDocumentationBeans().postProcessBeanFactory(beanFactory);
+
+        // Then
+        assertThat(beanFactory.getBeanDefinition("openApiConfig").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("productOpenAPI").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("openApiResource").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("productService").isLazyInit()).isFalse();
+    }
+
+    @Test
+    void shouldSkipFlywayWhenSchemaIsCurrent() {
+        // Given
+        createHistory("1", "999");
+
+        // When
+        strategy.migrate(flyway);
+
+        // Then
+        verify(flyway, never()).migrate();
+    }
+
+    @Test
+    void shouldMigrateWhenSchemaIsBehind() {
+        // Given
+        createHistory("1");
+
+        // When
+        strategy.migrate(flyway);
+
+        // Then
+        verify(flyway).migrate();
+    }
+
+    @Test
+    void shouldMigrateWhenThereIsNoHistory() {
+        // When
+        strategy.migrate(flyway);
+
+        // Then
+        verify(flyway).migrate();
+    }
+
+    private void createHistory(String... versions) {
+        jdbcTemplate.execute("CREATE TABLE flyway_schema_history (installed_rank INT, version VARCHAR(50), success BOOLEAN)");
+        for (int i = 0; i < versions.length; i++) {
+            jdbcTemplate.update("INSERT INTO flyway_schema_history VALUES (?, ?, TRUE)", i + 1, versions[i]);
+        }
+        // A failed attempt at a newer version does not count
+        jdbcTemplate.update("INSERT INTO flyway_schema_history VALUES (?, '1000', FALSE)", versions.length + 1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductBatchItemResult;
+import com.grainger.products.model.ProductBatchResult;
+import com.grainger.products.service.ProductBatchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Controller tests for ProductBatchController using MockMvc.
+ * The mocked service drains the parsed items so the tests can check what was read.
+ */
+@WebMvcTest({ProductBatchController.class, GlobalExceptionHandler.class})
+class ProductBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductBatchService productBatchService;
+
+    @Test
+    void shouldCreateProductsFromJsonArray() throws Exception {
+        // Given
+        List<Product> received = stubBatch();
+
+        // When & Then
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"Product 1\"}, {\"name\": \"Product 2\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].status", is("CREATED")));
+
+        assertThat(received).extracting(Product::getName).containsExactly("Product 1", "Product 2");
+    }
+
+    @Test
+    void shouldCreateProductsFromNdjson() throws Exception {
+        // Given
+        List<Product> received = stubBatch();
+
+        // When & Then
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\": \"Product 1\"}\n{\"name\": \"Product 2\"}\n{\"name\": \"Product 3\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(3)));
+
+        assertThat(received).extracting(Product::getName).containsExactly("Product 1", "Product 2", "Product 3");
+    }
+
+    @Test
+    void shouldReturn400WhenBodyIsMalformed() throws Exception {
+        // Given
+        stubBatch();
+
+        // When & Then
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\": \"Product 1\"}\n{\"name\": \n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Malformed product at index 1")));
+    }
+
+    // Helper method that makes the mocked service drain the iterator and report every item as created
+    private List<Product> stubBatch() {
+        List<Product> received = new ArrayList<>();
+        when(productBatchService.createProducts(any())).thenAnswer(invocation -> {
+            Iterator<Product> products = invocation.getArgument(0);
+            List<ProductBatchItemResult> items = new ArrayList<>();
+            while (products.hasNext()) {
+                received.add(products.next());
+                items.add(ProductBatchItemResult.created(items.size(), (long) items.size() + 1));
+            }
+            return new ProductBatchResult(items.size(), 0, items);
+        });
+        return received;
+    }
+}
@@ -0,0 +1,80 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductChanges;
+import com.grainger.products.service.ProductChangeBroadcaster;
+import com.grainger.products.service.ProductChangeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Controller tests for ProductChangesController using MockMvc.
+ */
+@WebMvcTest({ProductChangesController.class, GlobalExceptionHandler.class})
+class ProductChangesControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductChangeService changeService;
+
+    @MockBean
+    private ProductChangeBroadcaster broadcaster;
+
+    @Test
+    void shouldGetChanges() throws Exception {
+        // Given
+        Product product = new Product("Test Product");
+        product.setId(1L);
+        when(changeService.getChanges("abc", 100))
+                .thenReturn(new ProductChanges(List.of(product), List.of(2L), "def", false));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/changes").param("since", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upserts[0].id", is(1)))
+                .andExpect(jsonPath("$.deletedIds[0]", is(2)))
+                .andExpect(jsonPath("$.nextToken", is("def")))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
+    @Test
+    void shouldReturn400WhenTokenIsInvalid() throws Exception {
+        // Given
+        when(changeService.getChanges("bad", 100))
+                .thenThrow(new IllegalArgumentException("Invalid change token"));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/changes").param("since", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid change token")));
+    }
+
+    @Test
+    void shouldResumeStreamFromLastEventId() throws Exception {
+        // Given
+        when(broadcaster.subscribe("abc")).thenReturn(new SseEmitter());
+
+        // When & Then
+        mockMvc.perform(get("/api/products/changes/stream")
+                        .header("Last-Event-ID", "abc")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(broadcaster).subscribe("abc");
+    }
+}
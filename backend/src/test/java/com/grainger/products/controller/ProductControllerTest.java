@@ -2,6 +2,12 @@ package com.grainger.products.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductPageVersion;
+import com.grainger.products.model.ProductVersion;
+import com.grainger.products.model.ProductView;
+import com.grainger.products.model.ProductViewPage;
+import com.grainger.products.service.IdempotencyKeyReusedException;
+import com.grainger.products.service.ProductIdempotencyService;
 import com.grainger.products.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,7 +15,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -40,6 +48,9 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductIdempotencyService idempotencyService;
+
     // Tests for GET /api/products
 
     @Test
@@ -49,25 +60,26 @@ class ProductControllerTest {
         Product product2 = createProduct(2L, "Product 2");
         List<Product> products = Arrays.asList(product1, product2);
 
-        when(productService.getAllProducts()).thenReturn(products);
+        when(productService.getProductViewPage(null, 100)).thenReturn(viewPage(products, null));
 
         // When & Then
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(ProductController.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].name", is("Product 1")))
                 .andExpect(jsonPath("$[1].id", is(2)))
                 .andExpect(jsonPath("$[1].name", is("Product 2")));
 
-        verify(productService, times(1)).getAllProducts();
+        verify(productService, times(1)).getProductViewPage(null, 100);
     }
 
     @Test
     void shouldReturnEmptyListWhenNoProducts() throws Exception {
         // Given
-        when(productService.getAllProducts()).thenReturn(Arrays.asList());
+        when(productService.getProductViewPage(null, 100)).thenReturn(viewPage(Arrays.asList(), null));
 
         // When & Then
         mockMvc.perform(get("/api/products"))
@@ -75,7 +87,128 @@ class ProductControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(0)));
 
-        verify(productService, times(1)).getAllProducts();
+        verify(productService, times(1)).getProductViewPage(null, 100);
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenMorePagesExist() throws Exception {
+        // Given
+        List<Product> products = Arrays.asList(createProduct(3L, "Product 3"), createProduct(4L, "Product 4"));
+        when(productService.getProductViewPage("abc", 2)).thenReturn(viewPage(products, "def"));
+
+        // When & Then
+        mockMvc.perform(get("/api/products").param("cursor", "abc").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ProductController.NEXT_CURSOR_HEADER, "def"))
+                .andExpect(header().string("Link", containsString("cursor=def")))
+                .andExpect(header().string("Link", containsString("rel=\"next\"")))
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        verify(productService, times(1)).getProductViewPage("abc", 2);
+    }
+
+    @Test
+    void shouldReturn400WhenPageRequestIsInvalid() throws Exception {
+        // Given
+        when(productService.getProductViewPage(null, 5000))
+                .thenThrow(new IllegalArgumentException("Page size must be between 1 and 1000"));
+
+        // When & Then
+        mockMvc.perform(get("/api/products").param("limit", "5000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Page size must be between 1 and 1000")));
+    }
+
+    @Test
+    void shouldReturnOnlySelectedFields() throws Exception {
+        // Given
+        when(productService.getProductViewPage(null, 100))
+                .thenReturn(viewPage(List.of(createProduct(1L, "Product 1")), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/products").param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].name", is("Product 1")))
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist())
+                .andExpect(jsonPath("$[0].updatedAt").doesNotExist());
+    }
+
+    @Test
+    void shouldReturn400WhenFieldIsUnknown() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/products").param("fields", "id,price"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Unknown field: price")));
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void shouldVaryPageETagBySelectedFields() throws Exception {
+        // Given
+        when(productService.getProductViewPage(null, 100))
+                .thenReturn(viewPage(List.of(createProduct(1L, "Product 1")), null));
+
+        String full = mockMvc.perform(get("/api/products"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/products").param("fields", "id").header("If-None-Match", full))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(full)));
+    }
+
+    @Test
+    void shouldReturn304WhenPageIsUnchanged() throws Exception {
+        // Given
+        ProductViewPage page = viewPage(List.of(createProduct(1L, "Product 1")), null);
+        when(productService.getProductViewPage(null, 100)).thenReturn(page);
+        when(productService.getProductPageVersion(null, 100)).thenReturn(ProductPageVersion.of(page));
+        String etag = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/products").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        verify(productService, times(1)).getProductViewPage(null, 100);
+    }
+
+    @Test
+    void shouldIgnoreIfModifiedSinceForPages() throws Exception {
+        // Given
+        when(productService.getProductViewPage(null, 100))
+                .thenReturn(viewPage(List.of(createProduct(1L, "Product 1")), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/products").header("If-Modified-Since", "Fri, 01 Jan 2100 00:00:00 GMT"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(productService, never()).getProductPageVersion(null, 100);
+    }
+
+    @Test
+    void shouldReturnPageWhenItChangedSinceETag() throws Exception {
+        // Given
+        ProductViewPage before = viewPage(List.of(createProduct(1L, "Product 1")), null);
+        ProductViewPage after = viewPage(
+                List.of(createProduct(1L, "Product 1"), createProduct(2L, "Product 2")), null);
+        when(productService.getProductViewPage(null, 100)).thenReturn(before, after);
+        when(productService.getProductPageVersion(null, 100)).thenReturn(ProductPageVersion.of(after));
+        String etag = mockMvc.perform(get("/api/products"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/products").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$", hasSize(2)));
     }
 
     // Tests for GET /api/products/{id}
@@ -108,6 +241,86 @@ class ProductControllerTest {
         verify(productService, times(1)).getProductById(999L);
     }
 
+    @Test
+    void shouldReturn503WhenNoDatabaseConnectionIsAvailable() throws Exception {
+        // Given
+        when(productService.getProductById(1L))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available, request timed out"));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error", is("Service temporarily unavailable, please retry")));
+    }
+
+    @Test
+    void shouldReturnValidatorsWithProduct() throws Exception {
+        // Given
+        when(productService.getProductById(1L)).thenReturn(Optional.of(createProduct(1L, "Test Product")));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("W/\"1-")))
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void shouldReturn304WithoutLoadingProductWhenETagMatches() throws Exception {
+        // Given
+        Product product = createProduct(1L, "Test Product");
+        when(productService.getProductById(1L)).thenReturn(Optional.of(product));
+        when(productService.getProductVersion(1L)).thenReturn(Optional.of(ProductVersion.of(product)));
+        String etag = mockMvc.perform(get("/api/products/1"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(productService, times(1)).getProductById(1L);
+    }
+
+    @Test
+    void shouldReturn304WhenNotModifiedSince() throws Exception {
+        // Given
+        Product product = createProduct(1L, "Test Product");
+        when(productService.getProductVersion(1L)).thenReturn(Optional.of(ProductVersion.of(product)));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/1").header("If-Modified-Since", "Fri, 01 Jan 2100 00:00:00 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(productService, never()).getProductById(1L);
+    }
+
+    @Test
+    void shouldReturnProductWhenETagIsStale() throws Exception {
+        // Given
+        Product product = createProduct(1L, "Test Product");
+        when(productService.getProductById(1L)).thenReturn(Optional.of(product));
+        when(productService.getProductVersion(1L)).thenReturn(Optional.of(ProductVersion.of(product)));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", "\"1-0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Test Product")));
+    }
+
+    @Test
+    void shouldReturn404ForConditionalRequestOfMissingProduct() throws Exception {
+        // Given
+        when(productService.getProductVersion(999L)).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/products/999").header("If-None-Match", "\"999-1\""))
+                .andExpect(status().isNotFound());
+    }
+
     // Tests for POST /api/products
 
     @Test
@@ -130,6 +343,40 @@ class ProductControllerTest {
         verify(productService, times(1)).createProduct(any(Product.class));
     }
 
+    @Test
+    void shouldReplayCreationWithSameIdempotencyKey() throws Exception {
+        // Given
+        Product savedProduct = createProduct(1L, "New Product");
+        when(idempotencyService.createProduct(eq("key-1"), any(Product.class)))
+                .thenReturn(new ProductIdempotencyService.IdempotentCreation(savedProduct, true));
+
+        // When & Then
+        mockMvc.perform(post("/api/products")
+                        .header(ProductController.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"New Product\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(ProductController.IDEMPOTENT_REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id", is(1)));
+
+        verify(productService, never()).createProduct(any(Product.class));
+    }
+
+    @Test
+    void shouldReturn422WhenIdempotencyKeyIsReused() throws Exception {
+        // Given
+        when(idempotencyService.createProduct(eq("key-1"), any(Product.class)))
+                .thenThrow(new IdempotencyKeyReusedException("key-1"));
+
+        // When & Then
+        mockMvc.perform(post("/api/products")
+                        .header(ProductController.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Other Product\"}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error", containsString("key-1")));
+    }
+
     @Test
     void shouldReturn400WhenCreatingProductWithInvalidData() throws Exception {
         // Given
@@ -163,10 +410,40 @@ class ProductControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    // Tests for DELETE /api/products/{id}
+
+    @Test
+    void shouldDeleteProduct() throws Exception {
+        // Given
+        when(productService.deleteProduct(1L)).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(delete("/api/products/1"))
+                .andExpect(status().isNoContent());
+
+        verify(productService, times(1)).deleteProduct(1L);
+    }
+
+    @Test
+    void shouldReturn404WhenDeletingMissingProduct() throws Exception {
+        // Given
+        when(productService.deleteProduct(999L)).thenReturn(false);
+
+        // When & Then
+        mockMvc.perform(delete("/api/products/999"))
+                .andExpect(status().isNotFound());
+    }
+
+    // Helper method to build a page of views over products
+    private ProductViewPage viewPage(List<Product> products, String nextCursor) {
+        return new ProductViewPage(products.stream().map(ProductView::of).toList(), nextCursor);
+    }
+
     // Helper method to create a product with ID
     private Product createProduct(Long id, String name) {
         Product product = new Product(name);
         product.setId(id);
+        product.setUpdatedAt(LocalDateTime.of(2024, 1, 15, 10, 30));
         return product;
     }
 }
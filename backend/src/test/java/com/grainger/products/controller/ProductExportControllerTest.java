@@ -0,0 +1,143 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.service.ProductExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Controller tests for ProductExportController using MockMvc.
+ * The streaming body runs asynchronously, so each test dispatches the async result.
+ */
+@WebMvcTest(value = {ProductExportController.class, GlobalExceptionHandler.class},
+        properties = "products.export.timeout=5m")
+class ProductExportControllerTest {
+
+    private static final String NDJSON = "{\"id\":1,\"name\":\"Product 1\"}\n{\"id\":2,\"name\":\"Product 2\"}\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductExportService productExportService;
+
+    @Test
+    void shouldStreamProductsAsNdjson() throws Exception {
+        // Given
+        stubExport();
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(NDJSON));
+
+        verify(productExportService, times(1)).exportNdjson(any(OutputStream.class));
+    }
+
+    @Test
+    void shouldGzipExportWhenClientAcceptsIt() throws Exception {
+        // Given
+        stubExport();
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/products/export")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        MvcResult dispatched = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        byte[] compressed = dispatched.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(NDJSON);
+        }
+    }
+
+    @Test
+    void shouldNotGzipExportWhenClientRefusesIt() throws Exception {
+        // Given
+        stubExport();
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/products/export")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(NDJSON));
+    }
+
+    @Test
+    void shouldHonourQValuesWhenNegotiatingGzip() {
+        // When & Then
+        assertThat(ProductExportController.acceptsGzip("gzip")).isTrue();
+        assertThat(ProductExportController.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(ProductExportController.acceptsGzip("x-gzip")).isTrue();
+        assertThat(ProductExportController.acceptsGzip("*")).isTrue();
+        assertThat(ProductExportController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ProductExportController.acceptsGzip("gzip; q=0.000, *")).isFalse();
+        assertThat(ProductExportController.acceptsGzip("*;q=0")).isFalse();
+        assertThat(ProductExportController.acceptsGzip("gzip;q=high")).isFalse();
+        assertThat(ProductExportController.acceptsGzip("deflate, br")).isFalse();
+        assertThat(ProductExportController.acceptsGzip("")).isFalse();
+        assertThat(ProductExportController.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void shouldUseExportTimeoutForTheStream() throws Exception {
+        // Given
+        stubExport();
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(5).toMillis());
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
+    // Helper method to make the mocked service write a fixed NDJSON body
+    private void stubExport() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write(NDJSON.getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(productExportService).exportNdjson(any(OutputStream.class));
+    }
+}
@@ -0,0 +1,118 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.model.ProductIngestStatus;
+import com.grainger.products.service.IngestQueueFullException;
+import com.grainger.products.service.IngestShuttingDownException;
+import com.grainger.products.service.ProductIngestService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Controller tests for ProductIngestController using MockMvc.
+ */
+@WebMvcTest(value = {ProductIngestController.class, GlobalExceptionHandler.class},
+        properties = "products.ingest.enabled=true")
+class ProductIngestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductIngestService ingestService;
+
+    @Test
+    void shouldAcceptProductsWithTrackingLocation() throws Exception {
+        // Given
+        when(ingestService.submit(anyList())).thenReturn(
+                new ProductIngestStatus("abc", ProductIngestStatus.State.PENDING, 2, 0, 0, List.of()));
+
+        // When & Then
+        mockMvc.perform(post("/api/products/ingest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"Product 1\"}, {\"name\": \"Product 2\"}]"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", endsWith("/api/products/ingest/abc")))
+                .andExpect(jsonPath("$.id", is("abc")))
+                .andExpect(jsonPath("$.state", is("PENDING")))
+                .andExpect(jsonPath("$.accepted", is(2)));
+    }
+
+    @Test
+    void shouldReturn429WhenQueueIsFull() throws Exception {
+        // Given
+        when(ingestService.submit(anyList())).thenThrow(new IngestQueueFullException(1, 0));
+
+        // When & Then
+        mockMvc.perform(post("/api/products/ingest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"Product 1\"}]"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error", containsString("full")));
+    }
+
+    @Test
+    void shouldReturn503WhenShuttingDown() throws Exception {
+        // Given
+        when(ingestService.submit(anyList())).thenThrow(new IngestShuttingDownException(1));
+
+        // When & Then
+        mockMvc.perform(post("/api/products/ingest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"Product 1\"}]"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error", containsString("shutting down")));
+    }
+
+    @Test
+    void shouldReturn400WhenItemIsInvalid() throws Exception {
+        // Given
+        when(ingestService.submit(anyList()))
+                .thenThrow(new IllegalArgumentException("Item 0: Product name cannot be null or empty"));
+
+        // When & Then
+        mockMvc.perform(post("/api/products/ingest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Item 0: Product name cannot be null or empty")));
+    }
+
+    @Test
+    void shouldGetStatus() throws Exception {
+        // Given
+        when(ingestService.getStatus("abc")).thenReturn(Optional.of(
+                new ProductIngestStatus("abc", ProductIngestStatus.State.COMPLETED, 1, 1, 0, List.of())));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/ingest/abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("COMPLETED")))
+                .andExpect(jsonPath("$.created", is(1)));
+    }
+
+    @Test
+    void shouldReturn404WhenTrackingIdIsUnknown() throws Exception {
+        // Given
+        when(ingestService.getStatus("missing")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/products/ingest/missing"))
+                .andExpect(status().isNotFound());
+    }
+}
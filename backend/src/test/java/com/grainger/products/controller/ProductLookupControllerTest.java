@@ -0,0 +1,83 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductLookupResult;
+import com.grainger.products.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Controller tests for ProductLookupController using MockMvc.
+ */
+@WebMvcTest({ProductLookupController.class, GlobalExceptionHandler.class})
+class ProductLookupControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @Test
+    void shouldLookupProducts() throws Exception {
+        // Given
+        Product product = new Product("Test Product");
+        product.setId(2L);
+        when(productService.lookupProducts(List.of(2L, 99L)))
+                .thenReturn(new ProductLookupResult(List.of(product), List.of(99L)));
+
+        // When & Then
+        mockMvc.perform(post("/api/products/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[2, 99]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].id", is(2)))
+                .andExpect(jsonPath("$.products[0].name", is("Test Product")))
+                .andExpect(jsonPath("$.missing[0]", is(99)));
+    }
+
+    @Test
+    void shouldReturn400WhenLookupIsInvalid() throws Exception {
+        // Given
+        when(productService.lookupProducts(anyList()))
+                .thenThrow(new IllegalArgumentException("At most 1000 ids can be looked up at once"));
+
+        // When & Then
+        mockMvc.perform(post("/api/products/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("At most 1000 ids can be looked up at once")));
+    }
+
+    @Test
+    void shouldReturnOnlySelectedFields() throws Exception {
+        // Given
+        Product product = new Product("Test Product");
+        product.setId(2L);
+        when(productService.lookupProducts(List.of(2L)))
+                .thenReturn(new ProductLookupResult(List.of(product), List.of()));
+
+        // When & Then
+        mockMvc.perform(post("/api/products/lookup")
+                        .param("fields", "id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].id", is(2)))
+                .andExpect(jsonPath("$.products[0].name").doesNotExist());
+    }
+}
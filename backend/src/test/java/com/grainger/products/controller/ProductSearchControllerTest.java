@@ -0,0 +1,84 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.service.ProductSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Controller tests for ProductSearchController using MockMvc.
+ */
+@WebMvcTest({ProductSearchController.class, GlobalExceptionHandler.class})
+class ProductSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductSearchService productSearchService;
+
+    @Test
+    void shouldReturnRankedResultsWithNextLinkWhenPageIsFull() throws Exception {
+        // Given
+        when(productSearchService.searchProducts("drill", 0, 2))
+                .thenReturn(List.of(new Product("Drill"), new Product("Drill Bits")));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/search").param("q", "drill").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name", is("Drill")))
+                .andExpect(header().string("Link", containsString("page=1")));
+    }
+
+    @Test
+    void shouldOmitNextLinkOnLastPage() throws Exception {
+        // Given
+        when(productSearchService.searchProducts("drill", 0, 20)).thenReturn(List.of(new Product("Drill")));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/search").param("q", "drill"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    void shouldOmitNextLinkAtMaxResultDepth() throws Exception {
+        // Given
+        int size = 100;
+        int lastPage = ProductSearchService.MAX_RESULT_DEPTH / size - 1;
+        List<Product> fullPage = Collections.nCopies(size, new Product("Drill"));
+        when(productSearchService.searchProducts("drill", lastPage, size)).thenReturn(fullPage);
+
+        // When & Then
+        mockMvc.perform(get("/api/products/search").param("q", "drill")
+                        .param("page", String.valueOf(lastPage)).param("size", String.valueOf(size)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(size)))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    void shouldReturn400WhenQueryIsInvalid() throws Exception {
+        // Given
+        when(productSearchService.searchProducts(" ", 0, 20))
+                .thenThrow(new IllegalArgumentException("Search query must be between 1 and 100 characters"));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/search").param("q", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Search query must be between 1 and 100 characters")));
+    }
+}
@@ -0,0 +1,71 @@
+package com.grainger.products.controller;
+
+import com.grainger.products.model.ProductSuggestion;
+import com.grainger.products.service.ProductNameIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Controller tests for ProductSuggestController using MockMvc.
+ */
+@WebMvcTest({ProductSuggestController.class, GlobalExceptionHandler.class})
+class ProductSuggestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductNameIndex productNameIndex;
+
+    @Test
+    void shouldReturnSuggestions() throws Exception {
+        // Given
+        when(productNameIndex.suggest("dri", 10)).thenReturn(List.of(new ProductSuggestion(1L, "Drill")));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/suggest").param("prefix", "dri"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].name", is("Drill")));
+    }
+
+    @Test
+    void shouldReturn400WhenLimitIsInvalid() throws Exception {
+        // Given
+        when(productNameIndex.suggest("dri", 500))
+                .thenThrow(new IllegalArgumentException("Limit must be between 1 and 50"));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/suggest").param("prefix", "dri").param("limit", "500"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Limit must be between 1 and 50")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReturn404WhenSuggestionsAreDisabled() {
+        // Given
+        ProductSuggestController controller = new ProductSuggestController(mock(ObjectProvider.class));
+
+        // When
+        ResponseEntity<List<ProductSuggestion>> response = controller.suggest("dri", 10);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
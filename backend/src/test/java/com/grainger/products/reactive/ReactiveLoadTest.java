@@ -0,0 +1,77 @@
+package com.grainger.products.reactive;
+
+import com.grainger.products.BenchmarkData;
+import com.grainger.products.HarnessApplication;
+import com.grainger.products.HttpLoad;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.Arrays;
+
+/**
+ * Load-test harness comparing GET /api/products/{id} on the servlet/JPA stack
+ * and the reactive WebFlux/R2DBC stack as client concurrency grows.
+ * Excluded from the regular test run; execute with ./gradlew benchmark.
+ * Both run on embedded H2; the servlet product caches are disabled so every
+ * request reaches the database on both stacks.
+ */
+@Tag("benchmark")
+class ReactiveLoadTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 30_000);
+    private static final int[] CONCURRENCY = Arrays.stream(
+                    System.getProperty("benchmark.concurrency", "50,500,2000").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+
+    private final HttpLoad load = new HttpLoad();
+
+    @Test
+    void compareServletAndReactiveStacks() throws Exception {
+        try (ConfigurableApplicationContext servlet = startServlet();
+             ConfigurableApplicationContext reactive = startReactive()) {
+            for (int concurrency : CONCURRENCY) {
+                HttpLoad.Result servletResult = measure(servlet, concurrency);
+                HttpLoad.Result reactiveResult = measure(reactive, concurrency);
+                System.out.printf("GET /api/products/{id}, %d requests, concurrency %d%n", REQUESTS, concurrency);
+                System.out.println("  servlet/JPA:    " + servletResult);
+                System.out.println("  webflux/R2DBC:  " + reactiveResult);
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startServlet() {
+        ConfigurableApplicationContext context = HarnessApplication.servlet()
+                .profiles("test")
+                .property("spring.datasource.url", "jdbc:h2:mem:load-servlet")
+                .uncached()
+                .start();
+        BenchmarkData.seedProducts(context.getBean(JdbcTemplate.class), ROWS);
+        return context;
+    }
+
+    private ConfigurableApplicationContext startReactive() {
+        ConfigurableApplicationContext context = HarnessApplication.of(ReactiveProductsApplication.class)
+                .profiles(ReactiveProductsApplication.PROFILE, "test")
+                .web(WebApplicationType.REACTIVE)
+                .property("spring.r2dbc.url", "r2dbc:h2:mem:///load-reactive?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+                .start();
+        DatabaseClient databaseClient = context.getBean(DatabaseClient.class);
+        databaseClient.sql("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                + "created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL)").then().block();
+        databaseClient.sql("INSERT INTO products SELECT X, 'Benchmark Product ' || X, NOW(), NOW() "
+                + "FROM SYSTEM_RANGE(1, " + ROWS + ")").then().block();
+        return context;
+    }
+
+    private HttpLoad.Result measure(ConfigurableApplicationContext context, int concurrency) throws Exception {
+        int port = HarnessApplication.port(context);
+        load.getProductsById(port, ROWS, Math.min(REQUESTS, 2_000), concurrency);
+        return load.getProductsById(port, ROWS, REQUESTS, concurrency);
+    }
+}
@@ -0,0 +1,150 @@
+package com.grainger.products.reactive;
+
+import com.grainger.products.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Integration tests for the reactive product API on WebFlux and R2DBC H2.
+ * The schema mirrors the Flyway migrations and is created through R2DBC.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles({ReactiveProductsApplication.PROFILE, "test"})
+class ReactiveProductControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("CREATE TABLE IF NOT EXISTS products (id BIGINT PRIMARY KEY, "
+                + "name VARCHAR(255) NOT NULL, created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL)").then().block();
+        databaseClient.sql("CREATE SEQUENCE IF NOT EXISTS products_id_seq START WITH 1 INCREMENT BY 50").then().block();
+        databaseClient.sql("DELETE FROM products").then().block();
+    }
+
+    @Test
+    void shouldCreateAndGetProductById() {
+        // Given
+        Product created = webTestClient.post().uri("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\": \"Reactive Product\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Product.class)
+                .returnResult().getResponseBody();
+
+        // When & Then
+        webTestClient.get().uri("/api/products/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(created.getId())
+                .jsonPath("$.name").isEqualTo("Reactive Product")
+                .jsonPath("$.createdAt").exists();
+    }
+
+    @Test
+    void shouldReturn404WhenProductNotFound() {
+        // When & Then
+        webTestClient.get().uri("/api/products/{id}", 999)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldReturn400WhenCreatingProductWithBlankName() {
+        // When & Then
+        webTestClient.post().uri("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\": \"   \"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").value(is("Product name cannot be null or empty"));
+    }
+
+    @Test
+    void shouldPageProductsInIdOrder() {
+        // Given
+        long first = insert("Product A");
+        long second = insert("Product B");
+        long third = insert("Product C");
+
+        // When & Then
+        webTestClient.get().uri("/api/products?afterId={afterId}&limit=2", first)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].id").isEqualTo(second)
+                .jsonPath("$[1].id").isEqualTo(third);
+    }
+
+    @Test
+    void shouldReturn400WhenPageSizeIsOutOfRange() {
+        // When & Then
+        webTestClient.get().uri("/api/products?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").value(is("Page size must be between 1 and 1000"));
+    }
+
+    @Test
+    void shouldStreamAllProductsAsNdjson() {
+        // Given
+        insert("Product A");
+        insert("Product B");
+
+        // When
+        Flux<Product> products = webTestClient.get().uri("/api/products/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Product.class)
+                .getResponseBody();
+
+        // Then
+        StepVerifier.create(products.map(Product::getName))
+                .expectNext("Product A", "Product B")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldOnlyReadRowsTheSubscriberRequests() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            insert("Product " + i);
+        }
+
+        // When & Then
+        StepVerifier.create(productRepository.streamAll(), 2)
+                .expectNextCount(2)
+                .thenRequest(1)
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+    }
+
+    private long insert(String name) {
+        return productRepository.insert(new Product(name)).block().getId();
+    }
+}
@@ -0,0 +1,89 @@
+package com.grainger.products.repository;
+
+import com.grainger.products.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the portable LIKE-based product search.
+ * Uses @DataJpaTest which provides an in-memory H2 database for testing.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(LikeProductSearch.class)
+class LikeProductSearchTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LikeProductSearch productSearch;
+
+    @Test
+    void shouldRankExactThenPrefixThenSubstringMatches() {
+        // Given
+        entityManager.persist(new Product("Cordless Drill Kit"));
+        entityManager.persist(new Product("Drill"));
+        entityManager.persist(new Product("Drill Bits Set"));
+        entityManager.persist(new Product("Hammer"));
+        entityManager.flush();
+
+        // When
+        List<Product> results = productSearch.search("drill", 0, 10);
+
+        // Then
+        assertThat(results).extracting(Product::getName)
+                .containsExactly("Drill", "Drill Bits Set", "Cordless Drill Kit");
+    }
+
+    @Test
+    void shouldMatchCaseInsensitively() {
+        // Given
+        entityManager.persistAndFlush(new Product("Safety GLOVES"));
+
+        // When
+        List<Product> results = productSearch.search("Gloves", 0, 10);
+
+        // Then
+        assertThat(results).extracting(Product::getName).containsExactly("Safety GLOVES");
+    }
+
+    @Test
+    void shouldTreatWildcardsLiterally() {
+        // Given
+        entityManager.persist(new Product("100% Cotton Rag"));
+        entityManager.persist(new Product("1000 Cotton Rags"));
+        entityManager.flush();
+
+        // When
+        List<Product> results = productSearch.search("100%", 0, 10);
+
+        // Then
+        assertThat(results).extracting(Product::getName).containsExactly("100% Cotton Rag");
+    }
+
+    @Test
+    void shouldPageThroughRankedResults() {
+        // Given
+        for (int i = 1; i <= 5; i++) {
+            entityManager.persist(new Product("Valve " + i));
+        }
+        entityManager.flush();
+
+        // When
+        List<Product> firstPage = productSearch.search("valve", 0, 2);
+        List<Product> lastPage = productSearch.search("valve", 4, 2);
+
+        // Then
+        assertThat(firstPage).extracting(Product::getName).containsExactly("Valve 1", "Valve 2");
+        assertThat(lastPage).extracting(Product::getName).containsExactly("Valve 5");
+    }
+}
@@ -0,0 +1,263 @@
+package com.grainger.products.repository;
+
+import com.grainger.products.HarnessApplication;
+import com.grainger.products.model.Product;
+import com.grainger.products.repository.ProductPartitions.Partition;
+import com.grainger.products.service.ProductCache;
+import com.grainger.products.service.ProductPartitionMaintenance;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests of the V6 partitioning migration, partition pruning and
+ * ProductPartitionMaintenance against PostgreSQL; H2 cannot partition tables.
+ * Each test migrates a fresh schema to V5, adds products, then applies V6.
+ * Excluded from the regular test run; execute with ./gradlew postgresTest,
+ * against the database from docker-compose unless -Dpostgres.jdbcUrl (with
+ * postgres.username and postgres.password) points elsewhere. Maintenance
+ * takes its lock on a connection of its own, so it runs over a data source
+ * opening a connection per use rather than the test's single connection.
+ */
+@Tag("postgres")
+class ProductPartitioningPostgresTest {
+
+    private static final String JDBC_URL = System.getProperty("postgres.jdbcUrl",
+            "jdbc:postgresql://localhost:5432/products_db");
+    private static final String USERNAME = System.getProperty("postgres.username", "postgres");
+    private static final String PASSWORD = System.getProperty("postgres.password", "postgres");
+    private static final int ROWS = 1_000;
+    private static final long FIRST_BOUNDARY = 10_000_000L;
+
+    private final String schema = "partitioning_test_" + ThreadLocalRandom.current().nextInt(1_000_000);
+    private final String archiveSchema = schema + "_archive";
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Flyway.configure()
+                .dataSource(JDBC_URL, USERNAME, PASSWORD)
+                .schemas(schema)
+                .locations("classpath:db/migration")
+                .target("5")
+                .load()
+                .migrate();
+
+        dataSource = new SingleConnectionDataSource(schemaUrl(), USERNAME, PASSWORD, true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO products (id, name, created_at, updated_at) "
+                + "SELECT x, 'Product ' || x, NOW(), NOW() FROM generate_series(1, ?) AS x", ROWS);
+        jdbcTemplate.queryForObject("SELECT setval('products_id_seq', ?)", Long.class, (long) ROWS);
+
+        Flyway.configure()
+                .dataSource(JDBC_URL, USERNAME, PASSWORD)
+                .schemas(schema)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + archiveSchema + " CASCADE");
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+        dataSource.destroy();
+    }
+
+    @Test
+    void shouldPartitionExistingRowsInPlace() {
+        // When
+        List<Partition> partitions = partitions().list();
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT relkind FROM pg_class WHERE oid = 'products'::regclass", String.class)).isEqualTo("p");
+        assertThat(partitions).containsExactly(
+                new Partition("products_p0", null, FIRST_BOUNDARY),
+                new Partition("products_p" + FIRST_BOUNDARY, FIRST_BOUNDARY, 2 * FIRST_BOUNDARY));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class)).isEqualTo(ROWS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products_p0", Long.class)).isEqualTo(ROWS);
+    }
+
+    @Test
+    void shouldKeepIdSequenceAndPrimaryKey() {
+        // When
+        Long id = jdbcTemplate.queryForObject("INSERT INTO products (name) VALUES ('New') RETURNING id", Long.class);
+
+        // Then
+        assertThat(id).isGreaterThan((long) ROWS);
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO products (id, name) VALUES (?, 'Duplicate')", id))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT pg_get_serial_sequence('products', 'id')", String.class)).endsWith("products_id_seq");
+    }
+
+    @Test
+    void shouldPruneQueriesOnId() {
+        // Given
+        jdbcTemplate.update("INSERT INTO products (id, name) VALUES (?, 'Later')", FIRST_BOUNDARY + 1);
+
+        // Then
+        assertThat(plan("SELECT * FROM products WHERE id = 5"))
+                .contains("products_p0").doesNotContain("products_p" + FIRST_BOUNDARY);
+        assertThat(plan("SELECT * FROM products WHERE id IN (5, 6, 7)"))
+                .contains("products_p0").doesNotContain("products_p" + FIRST_BOUNDARY);
+        assertThat(plan("SELECT * FROM products WHERE id > " + FIRST_BOUNDARY + " ORDER BY id LIMIT 10"))
+                .contains("products_p" + FIRST_BOUNDARY).doesNotContain("products_p0");
+    }
+
+    @Test
+    void shouldPrunePreparedStatementsAtExecution() {
+        // Given
+        jdbcTemplate.execute("SET plan_cache_mode = force_generic_plan");
+        jdbcTemplate.execute("PREPARE find_product(bigint) AS SELECT * FROM products WHERE id = $1");
+
+        // When
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF) EXECUTE find_product(5)", String.class));
+
+        // Then
+        assertThat(plan).contains("Subplans Removed: 1");
+    }
+
+    @Test
+    void shouldCreatePartitionsAheadOfTheSequence() {
+        // Given
+        jdbcTemplate.queryForObject("SELECT setval('products_id_seq', ?)", Long.class, 2 * FIRST_BOUNDARY - 1_000);
+
+        // When
+        ProductPartitionMaintenance.Run run = maintenance(Duration.ZERO).maintain();
+
+        // Then
+        assertThat(run.created()).containsExactly("products_p20000000", "products_p21000000");
+        Long id = jdbcTemplate.queryForObject("SELECT nextval('products_id_seq')", Long.class);
+        jdbcTemplate.update("INSERT INTO products (id, name) VALUES (?, 'Next')", id + 1_000);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products_p20000000", Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldArchiveOldPartitionsWithTombstones() {
+        // Given
+        jdbcTemplate.update("UPDATE products SET updated_at = ?", Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusDays(60)));
+        jdbcTemplate.queryForObject("SELECT setval('products_id_seq', ?)", Long.class, 2 * FIRST_BOUNDARY - 1_000);
+
+        // When
+        ProductPartitionMaintenance.Run run = maintenance(Duration.ofDays(30)).maintain();
+
+        // Then
+        assertThat(run.archived()).containsExactly("products_p0");
+        assertThat(partitions().list()).extracting(Partition::name).doesNotContain("products_p0");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + archiveSchema + ".products_p0", Long.class)).isEqualTo(ROWS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_tombstones", Long.class))
+                .isEqualTo(ROWS);
+        assertThat(partitions().unrecordedArchives(archiveSchema)).isEmpty();
+    }
+
+    @Test
+    void shouldLeaveRecentlyUpdatedPartitionsAttached() {
+        // Given
+        jdbcTemplate.queryForObject("SELECT setval('products_id_seq', ?)", Long.class, 2 * FIRST_BOUNDARY - 1_000);
+
+        // When
+        ProductPartitionMaintenance.Run run = maintenance(Duration.ofDays(30)).maintain();
+
+        // Then
+        assertThat(run.archived()).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class)).isEqualTo(ROWS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_tombstones", Long.class)).isZero();
+    }
+
+    @Test
+    void shouldSkipRunWhileAnotherInstanceHoldsTheLock() {
+        // Given
+        jdbcTemplate.queryForObject("SELECT setval('products_id_seq', ?)", Long.class, 2 * FIRST_BOUNDARY - 1_000);
+
+        // When
+        ProductPartitionMaintenance.Run run = new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+                .execute(status -> {
+                    jdbcTemplate.queryForObject(
+                            "SELECT pg_try_advisory_xact_lock(hashtext('product_partition_maintenance'))", Boolean.class);
+                    return maintenance(Duration.ZERO).maintain();
+                });
+
+        // Then
+        assertThat(run.created()).isEmpty();
+        assertThat(partitions().list()).hasSize(2);
+        assertThat(maintenance(Duration.ZERO).maintain().created()).hasSize(2);
+    }
+
+    @Test
+    void shouldValidateAndServePartitionedSchema() {
+        // Given
+        HarnessApplication application = HarnessApplication.servlet()
+                .web(WebApplicationType.NONE)
+                .datasource(schemaUrl(), USERNAME, PASSWORD)
+                .property("spring.flyway.schemas", schema)
+                .property("products.partitions.enabled", true);
+
+        // When
+        try (ConfigurableApplicationContext context = application.start()) {
+            ProductRepository repository = context.getBean(ProductRepository.class);
+            Product created = repository.saveAndFlush(new Product("Created"));
+
+            // Then
+            assertThat(context.getBean(JdbcTemplate.class).queryForObject("SELECT current_schema()", String.class))
+                    .isEqualTo(schema);
+            assertThat(repository.findById(5L)).map(Product::getName).contains("Product 5");
+            assertThat(repository.findById(created.getId())).isPresent();
+            assertThat(context.getBean(ProductPartitionMaintenance.class).maintain().created()).isEmpty();
+        }
+    }
+
+    private String plan(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN (COSTS OFF) " + sql, String.class));
+    }
+
+    private ProductPartitions partitions() {
+        DriverManagerDataSource connections = new DriverManagerDataSource(schemaUrl(), USERNAME, PASSWORD);
+        return new ProductPartitions(new JdbcTemplate(connections), new DataSourceTransactionManager(connections));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProductPartitionMaintenance maintenance(Duration retention) {
+        return new ProductPartitionMaintenance(partitions(), mock(ObjectProvider.class), mock(ProductCache.class),
+                mock(ObjectProvider.class), mock(EntityManagerFactory.class, RETURNS_DEEP_STUBS), 1_000_000, 2,
+                Duration.ofHours(1), retention, archiveSchema);
+    }
+
+    /**
+     * The URL with the test schema first on the search path; pg_trgm may live in public.
+     */
+    private String schemaUrl() {
+        return JDBC_URL + (JDBC_URL.contains("?") ? "&" : "?") + "currentSchema=" + schema + ",public";
+    }
+}
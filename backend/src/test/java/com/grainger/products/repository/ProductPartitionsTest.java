@@ -0,0 +1,38 @@
+package com.grainger.products.repository;
+
+import com.grainger.products.repository.ProductPartitions.Partition;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the parts of ProductPartitions that do not need PostgreSQL;
+ * see ProductPartitioningPostgresTest for the rest.
+ */
+class ProductPartitionsTest {
+
+    @Test
+    void shouldParseRangeBounds() {
+        assertThat(ProductPartitions.parse("products_p0", "FOR VALUES FROM (MINVALUE) TO ('10000000')"))
+                .contains(new Partition("products_p0", null, 10_000_000L));
+        assertThat(ProductPartitions.parse("products_p10000000", "FOR VALUES FROM (10000000) TO (20000000)"))
+                .contains(new Partition("products_p10000000", 10_000_000L, 20_000_000L));
+        assertThat(ProductPartitions.parse("products_last", "FOR VALUES FROM ('20000000') TO (MAXVALUE)"))
+                .contains(new Partition("products_last", 20_000_000L, null));
+    }
+
+    @Test
+    void shouldSkipDefaultPartition() {
+        assertThat(ProductPartitions.parse("products_default", "DEFAULT")).isEmpty();
+    }
+
+    @Test
+    void shouldRejectIdentifiersNeedingQuotes() {
+        assertThat(ProductPartitions.identifier("products_archive")).isEqualTo("products_archive");
+        assertThatThrownBy(() -> ProductPartitions.identifier("archive; DROP TABLE products"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ProductPartitions.identifier("Archive"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
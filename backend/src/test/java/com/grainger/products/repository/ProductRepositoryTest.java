@@ -1,11 +1,15 @@
 package com.grainger.products.repository;
 
 import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductVersion;
+import com.grainger.products.model.ProductView;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -148,4 +152,67 @@ class ProductRepositoryTest {
         assertThat(products.get(2).getName()).isEqualTo("First Product");  // Oldest last
     }
 
+    @Test
+    void shouldFindNextPageAfterIdOrderedById() {
+        // Given
+        Product product1 = entityManager.persist(new Product("Product 1"));
+        Product product2 = entityManager.persist(new Product("Product 2"));
+        Product product3 = entityManager.persist(new Product("Product 3"));
+        entityManager.flush();
+
+        // When
+        List<ProductView> firstPage = productRepository.findViewsByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+        List<ProductView> secondPage = productRepository.findViewsByIdGreaterThanOrderByIdAsc(product2.getId(), Limit.of(2));
+
+        // Then
+        assertThat(firstPage).containsExactly(ProductView.of(product1), ProductView.of(product2));
+        assertThat(secondPage).containsExactly(ProductView.of(product3));
+    }
+
+    @Test
+    void shouldFindVersionById() {
+        // Given
+        Product product = entityManager.persistAndFlush(new Product("Test Product"));
+
+        // When
+        Optional<ProductVersion> version = productRepository.findVersionById(product.getId());
+
+        // Then
+        assertThat(version).contains(new ProductVersion(product.getId(), product.getUpdatedAt()));
+        assertThat(productRepository.findVersionById(999L)).isEmpty();
+    }
+
+    @Test
+    void shouldFindVersionsOfNextPageAfterId() {
+        // Given
+        Product product1 = entityManager.persist(new Product("Product 1"));
+        Product product2 = entityManager.persist(new Product("Product 2"));
+        entityManager.persist(new Product("Product 3"));
+        entityManager.flush();
+
+        // When
+        List<ProductVersion> versions = productRepository.findVersionsByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+
+        // Then
+        assertThat(versions).containsExactly(ProductVersion.of(product1), ProductVersion.of(product2));
+    }
+
+    @Test
+    void shouldFindViewsOfNextPageWithoutManagingEntities() {
+        // Given
+        Product product1 = entityManager.persist(new Product("Product 1"));
+        Product product2 = entityManager.persist(new Product("Product 2"));
+        entityManager.persist(new Product("Product 3"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<ProductView> views = productRepository.findViewsByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+
+        // Then
+        assertThat(views).containsExactly(ProductView.of(product1), ProductView.of(product2));
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount())
+                .isZero();
+    }
+
 }
@@ -0,0 +1,121 @@
+package com.grainger.products.repository;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the Hibernate second-level and query cache.
+ * Counts the SQL statements Hibernate prepares to show which reads reach the database.
+ * No test-managed transaction is used, so every repository call runs in its own session.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+class ProductSecondLevelCacheTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldServeRepeatedFindByIdFromEntityCache() {
+        // Given
+        Product product = productRepository.save(new Product("Cached Product"));
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        // When
+        productRepository.findById(product.getId());
+        long afterFirstRead = statistics.getPrepareStatementCount();
+        productRepository.findById(product.getId());
+
+        // Then
+        assertThat(afterFirstRead).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(afterFirstRead);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeRepeatedFindByNameFromQueryCache() {
+        // Given
+        productRepository.save(new Product("Unique Product"));
+        statistics.clear();
+
+        // When
+        productRepository.findByName("Unique Product");
+        long afterFirstQuery = statistics.getPrepareStatementCount();
+        productRepository.findByName("Unique Product");
+
+        // Then
+        assertThat(afterFirstQuery).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(afterFirstQuery);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeRepeatedOrderedListFromQueryCache() {
+        // Given
+        productRepository.save(new Product("Product 1"));
+        productRepository.save(new Product("Product 2"));
+        statistics.clear();
+
+        // When
+        productRepository.findAllByOrderByCreatedAtDesc();
+        long afterFirstQuery = statistics.getPrepareStatementCount();
+        List<Product> products = productRepository.findAllByOrderByCreatedAtDesc();
+
+        // Then
+        assertThat(products).hasSize(2);
+        assertThat(afterFirstQuery).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(afterFirstQuery);
+    }
+
+    @Test
+    void shouldInvalidateQueryResultsButKeepEntitiesWhenProductIsCreated() {
+        // Given
+        Product existing = productRepository.save(new Product("Existing Product"));
+        productRepository.findAllByOrderByCreatedAtDesc();
+        productRepository.findById(existing.getId());
+
+        // When
+        productService.createProduct(new Product("New Product"));
+        statistics.clear();
+        List<Product> products = productRepository.findAllByOrderByCreatedAtDesc();
+        long afterListQuery = statistics.getPrepareStatementCount();
+        productRepository.findById(existing.getId());
+
+        // Then: the stale list was re-queried, the unrelated entity was not
+        assertThat(products).extracting(Product::getName).contains("New Product");
+        assertThat(afterListQuery).isEqualTo(1);
+        assertThat(statistics.getQueryCachePutCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(afterListQuery);
+    }
+}
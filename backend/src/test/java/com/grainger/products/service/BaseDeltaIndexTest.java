@@ -0,0 +1,89 @@
+package com.grainger.products.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for BaseDeltaIndex, over name segments.
+ */
+class BaseDeltaIndexTest {
+
+    private final BaseDeltaIndex<NameSegment> index = new BaseDeltaIndex<>(NameSegment.EMPTY, "test index");
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void shouldFoldChangesAppliedWhileLoadingIntoLoadedBase() {
+        // Given
+        index.add(segment(1, "Stale name"));
+        index.remove(2);
+
+        // When
+        index.load(() -> {
+            index.add(segment(4, "Added while loading"));
+            index.remove(3);
+            return segment(1, "Loaded", 2, "Deleted before load", 3, "Deleted while loading");
+        }, true);
+
+        // Then
+        BaseDeltaIndex.State<NameSegment> state = index.state();
+        assertThat(state.loaded()).isTrue();
+        assertThat(state.delta().size()).isZero();
+        assertThat(state.deleted().isEmpty()).isTrue();
+        assertThat(state.base().size()).isEqualTo(2);
+        assertThat(state.base().containsId(1)).isTrue();
+        assertThat(state.base().containsId(4)).isTrue();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReplaceRowsWithSameIdWhenAdding() {
+        // Given
+        index.load(() -> segment(1, "Old"), true);
+
+        // When
+        index.add(segment(1, "Renamed"));
+        index.add(segment(1, "Renamed again"));
+        index.merge();
+
+        // Then
+        NameSegment base = index.state().base();
+        assertThat(base.size()).isEqualTo(1);
+        assertThat(base.name(0)).isEqualTo("Renamed again");
+        assertThat(index.state().delta().size()).isZero();
+    }
+
+    @Test
+    void shouldDiscardMergeFinishedWhileLoading() {
+        // Given
+        index.load(() -> segment(1, "Loaded"), true);
+        LongStream.rangeClosed(10, 20).forEach(index::remove);
+
+        // When
+        index.load(() -> {
+            index.merge();
+            return segment(1, "Reloaded");
+        }, true);
+
+        // Then
+        assertThat(index.state().base().name(0)).isEqualTo("Reloaded");
+        assertThat(index.state().deleted().isEmpty()).isTrue();
+    }
+
+    private static NameSegment segment(Object... idsAndNames) {
+        long[] ids = new long[idsAndNames.length / 2];
+        String[] names = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ((Number) idsAndNames[2 * i]).longValue();
+            names[i] = (String) idsAndNames[2 * i + 1];
+        }
+        return NameSegment.of(ids, names, ids.length);
+    }
+}
@@ -0,0 +1,117 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CatalogSnapshotFile.
+ */
+class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldMapWhatWasWritten() {
+        // Given
+        Path path = directory.resolve("catalog.snap");
+        CatalogSnapshot written = CatalogSnapshot.of(List.of(
+                product(3, "Wrench", 5), product(1, "Drill", 9), product(2, "S\u00e4geblatt", 9)));
+
+        // When
+        CatalogSnapshotFile.write(path, written);
+        CatalogSnapshotFile.Loaded loaded = CatalogSnapshotFile.read(path).orElseThrow();
+
+        // Then
+        CatalogSnapshot snapshot = loaded.snapshot();
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.heapBytes()).isZero();
+        for (int row = 0; row < written.size(); row++) {
+            assertThat(snapshot.product(row)).usingRecursiveComparison().isEqualTo(written.product(row));
+        }
+        assertThat(snapshot.product(snapshot.indexOf(2)).getName()).isEqualTo("S\u00e4geblatt");
+        assertThat(snapshot.rowsNamed("Drill")).containsExactly(0);
+        assertThat(snapshot.indexOf(4)).isEqualTo(-1);
+        assertThat(loaded.watermark()).isEqualTo(new ProductChangeToken.Position(at(9), 2L));
+    }
+
+    @Test
+    void shouldMergeMappedSnapshotsOntoTheHeap() {
+        // Given
+        Path path = directory.resolve("catalog.snap");
+        CatalogSnapshotFile.write(path, CatalogSnapshot.of(IntStream.rangeClosed(1, 1000)
+                .mapToObj(i -> product(i, "Product " + i, i)).toList()));
+        CatalogSnapshot mapped = CatalogSnapshotFile.read(path).orElseThrow().snapshot();
+
+        // When
+        CatalogSnapshot merged = mapped.merge(CatalogSnapshot.of(List.of(product(1001, "Added", 1001))), id -> id == 500);
+
+        // Then
+        assertThat(merged.size()).isEqualTo(1000);
+        assertThat(merged.heapBytes()).isPositive();
+        assertThat(merged.indexOf(500)).isEqualTo(-1);
+        assertThat(merged.product(merged.indexOf(999)).getName()).isEqualTo("Product 999");
+        assertThat(merged.product(merged.indexOf(1001)).getName()).isEqualTo("Added");
+    }
+
+    @Test
+    void shouldWriteAnEmptySnapshotWithTheOriginAsWatermark() {
+        // Given
+        Path path = directory.resolve("catalog.snap");
+
+        // When
+        CatalogSnapshotFile.write(path, CatalogSnapshot.EMPTY);
+
+        // Then
+        CatalogSnapshotFile.Loaded loaded = CatalogSnapshotFile.read(path).orElseThrow();
+        assertThat(loaded.snapshot().size()).isZero();
+        assertThat(loaded.watermark()).isEqualTo(ProductChangeToken.ORIGIN);
+    }
+
+    @Test
+    void shouldIgnoreMissingTruncatedOrCorruptFiles() throws IOException {
+        // Given
+        Path path = directory.resolve("catalog.snap");
+        CatalogSnapshotFile.write(path, CatalogSnapshot.of(List.of(product(1, "Drill", 1), product(2, "Saw", 2))));
+        Path truncated = Files.copy(path, directory.resolve("truncated.snap"));
+        try (FileChannel channel = FileChannel.open(truncated, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        Path corrupt = Files.copy(path, directory.resolve("corrupt.snap"));
+        try (FileChannel channel = FileChannel.open(corrupt, StandardOpenOption.WRITE)) {
+            // Flip a byte in the names section
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), channel.size() - 1);
+        }
+
+        // When & Then
+        assertThat(CatalogSnapshotFile.read(directory.resolve("missing.snap"))).isEmpty();
+        assertThat(CatalogSnapshotFile.read(truncated)).isEmpty();
+        assertThat(CatalogSnapshotFile.read(corrupt)).isEmpty();
+        assertThat(CatalogSnapshotFile.read(path)).isPresent();
+    }
+
+    private static Product product(long id, String name, int minute) {
+        Product product = new Product(name);
+        product.setId(id);
+        product.setCreatedAt(at(0));
+        product.setUpdatedAt(at(minute));
+        return product;
+    }
+
+    private static LocalDateTime at(int minute) {
+        return LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(minute);
+    }
+}
@@ -0,0 +1,148 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for CatalogSnapshot.
+ */
+class CatalogSnapshotTest {
+
+    @Test
+    void shouldFindRowsByIdRegardlessOfInsertionOrder() {
+        // Given
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product(30, "Saw"), product(10, "Drill"), product(20, "Ladder")));
+
+        // When & Then
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.id(0)).isEqualTo(10);
+        assertThat(snapshot.product(snapshot.indexOf(20)).getName()).isEqualTo("Ladder");
+        assertThat(snapshot.indexOf(40)).isEqualTo(-1);
+        assertThat(snapshot.firstAfter(10)).isEqualTo(1);
+        assertThat(snapshot.firstAfter(30)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldFindRowsByExactName() {
+        // Given
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(
+                product(1, "Drill"), product(2, "drill"), product(3, "Drill"), product(4, "Drill Bit")));
+
+        // When
+        int[] rows = snapshot.rowsNamed("Drill");
+
+        // Then
+        assertThat(rows).hasSize(2);
+        assertThat(snapshot.id(rows[0])).isEqualTo(1);
+        assertThat(snapshot.id(rows[1])).isEqualTo(3);
+        assertThat(snapshot.rowsNamed("Dril")).isEmpty();
+    }
+
+    @Test
+    void shouldPreferNewerRowsAndDropExcludedIdsWhenMerging() {
+        // Given
+        CatalogSnapshot base = CatalogSnapshot.of(List.of(product(1, "Drill"), product(2, "Saw"), product(3, "Wrench")));
+        CatalogSnapshot newer = CatalogSnapshot.of(List.of(product(2, "Hand Saw"), product(4, "Glove")));
+
+        // When
+        CatalogSnapshot merged = base.merge(newer, id -> id == 3);
+
+        // Then
+        assertThat(IntStream.range(0, merged.size()).mapToObj(merged::name))
+                .containsExactly("Drill", "Hand Saw", "Glove");
+        assertThat(merged.indexOf(3)).isEqualTo(-1);
+        assertThat(merged.rowsNamed("Saw")).isEmpty();
+    }
+
+    @Test
+    void shouldKeepNameOrderWhenMerging() {
+        // Given
+        CatalogSnapshot base = CatalogSnapshot.of(List.of(
+                product(1, "Saw"), product(3, "Drill"), product(5, "Saw"), product(7, "Wrench")));
+        CatalogSnapshot newer = CatalogSnapshot.of(List.of(product(2, "Saw"), product(4, "Anvil"), product(6, "Saw")));
+
+        // When
+        CatalogSnapshot merged = base.merge(newer, id -> id == 5);
+
+        // Then
+        assertThat(IntStream.of(merged.rowsNamed("Saw")).mapToLong(merged::id)).containsExactly(1L, 2L, 6L);
+        assertThat(IntStream.of(merged.rowsNamed("Anvil")).mapToLong(merged::id)).containsExactly(4L);
+        assertThat(IntStream.of(merged.rowsNamed("Wrench")).mapToLong(merged::id)).containsExactly(7L);
+        assertThat(merged.columns().byName().array()).isEqualTo(CatalogSnapshot.of(List.of(
+                product(1, "Saw"), product(2, "Saw"), product(3, "Drill"), product(4, "Anvil"),
+                product(6, "Saw"), product(7, "Wrench"))).columns().byName().array());
+    }
+
+    @Test
+    void shouldLeaveOutRowsAlreadyFolded() {
+        // Given
+        CatalogSnapshot folded = CatalogSnapshot.of(List.of(product(1, "Drill"), product(2, "Saw")));
+        Product updated = product(2, "Hand Saw");
+        updated.setUpdatedAt(LocalDateTime.of(2024, 2, 1, 0, 0));
+        CatalogSnapshot delta = CatalogSnapshot.of(List.of(product(1, "Drill"), updated, product(3, "Glove")));
+
+        // When
+        CatalogSnapshot remaining = delta.minus(folded);
+
+        // Then
+        assertThat(IntStream.range(0, remaining.size()).mapToObj(remaining::name))
+                .containsExactly("Hand Saw", "Glove");
+    }
+
+    @Test
+    void shouldKeepTimestampsAtMicrosecondPrecision() {
+        // Given
+        Product product = product(1, "Drill");
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_456_789));
+        product.setUpdatedAt(null);
+
+        // When
+        Product copy = CatalogSnapshot.of(List.of(product)).product(0);
+
+        // Then
+        assertThat(copy.getCreatedAt()).isEqualTo(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_457_000));
+        assertThat(copy.getUpdatedAt()).isNull();
+        assertThat(copy).isNotSameAs(product);
+    }
+
+    @Test
+    void shouldHoldManyRows() {
+        // Given
+        List<Product> products = IntStream.rangeClosed(1, 10_000)
+                .mapToObj(i -> product(i * 7L, "Product " + i))
+                .toList();
+
+        // When
+        CatalogSnapshot snapshot = CatalogSnapshot.of(products);
+
+        // Then
+        assertThat(snapshot.size()).isEqualTo(10_000);
+        assertThat(snapshot.product(snapshot.indexOf(7L * 5_000)).getName()).isEqualTo("Product 5000");
+        assertThat(snapshot.rowsNamed("Product 9999")).hasSize(1);
+    }
+
+    @Test
+    void shouldRejectProductWithoutId() {
+        // Given
+        CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder(1);
+
+        // When & Then
+        assertThatThrownBy(() -> builder.add(new Product("Drill")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Product product(long id, String name) {
+        Product product = new Product(name);
+        product.setId(id);
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        product.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        return product;
+    }
+}
@@ -0,0 +1,107 @@
+package com.grainger.products.service;
+
+import com.grainger.products.BenchmarkData;
+import com.grainger.products.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares catalog time-to-ready for a cold start, loading every product from
+ * the database, with a warm start mapping the snapshot file and catching up on
+ * the products created since it was written.
+ * Excluded from the regular test run; execute with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class CatalogWarmRestartBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int CHANGES = Integer.getInteger("benchmark.changes", 1_000);
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductChangeService changeService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void timeToReady() throws Exception {
+        BenchmarkData.seedProducts(jdbcTemplate, ROWS);
+        // Age the seeded rows past the change feed's safety lag, as in a catalog that was written a while ago
+        jdbcTemplate.update("UPDATE products SET updated_at = ?", Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusHours(1)));
+        Path path = directory.resolve("catalog.snap");
+        ProductCatalog writer = catalog(path);
+        writer.rebuild();
+        writer.writeSnapshot();
+        writer.shutdown();
+
+        // Changed after the snapshot, but longer ago than the safety lag, so the catch-up can read them
+        Timestamp changedAt = Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1));
+        List<Object[]> created = new ArrayList<>(CHANGES);
+        for (int i = 1; i <= CHANGES; i++) {
+            created.add(new Object[]{(long) ROWS + i, BenchmarkData.productName(ROWS + i), changedAt, changedAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, created_at, updated_at) VALUES (?, ?, ?, ?)", created);
+        System.out.printf("snapshot file: %d rows, %d MB%n", ROWS, Files.size(path) >> 20);
+
+        for (int round = 0; round < 3; round++) {
+            report("cold: full load from database", () -> {
+                ProductCatalog catalog = catalog(null);
+                catalog.load();
+                return catalog;
+            });
+            report("warm: mapped snapshot + " + CHANGES + " changes", () -> {
+                ProductCatalog catalog = catalog(path);
+                catalog.load();
+                return catalog;
+            });
+        }
+    }
+
+    private ProductCatalog catalog(Path path) {
+        return new ProductCatalog(productRepository, changeService, entityManager, transactionManager,
+                path == null ? "" : path.toString(), Duration.ofHours(1), Duration.ofHours(1));
+    }
+
+    private static void report(String label, Supplier<ProductCatalog> start) {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long begin = System.nanoTime();
+        ProductCatalog catalog = start.get();
+        long millis = (System.nanoTime() - begin) / 1_000_000;
+        System.out.printf("%s: %d products ready in %d ms, catalog heap %d KB, heap growth %d MB%n",
+                label, catalog.size(), millis, catalog.heapBytes() / 1024,
+                (runtime.totalMemory() - runtime.freeMemory() - heapBefore) >> 20);
+    }
+}
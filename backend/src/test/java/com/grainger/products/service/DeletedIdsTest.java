@@ -0,0 +1,79 @@
+package com.grainger.products.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for DeletedIds.
+ */
+class DeletedIdsTest {
+
+    @Test
+    void shouldHoldAddedIdsAndLeaveEarlierVersionsUnchanged() {
+        // Given
+        DeletedIds before = DeletedIds.EMPTY.with(7).with(1_000_000);
+
+        // When
+        DeletedIds after = before.with(7).with(Long.MAX_VALUE).with(0);
+
+        // Then
+        assertThat(after.size()).isEqualTo(4);
+        assertThat(after.contains(7)).isTrue();
+        assertThat(after.contains(1_000_000)).isTrue();
+        assertThat(after.contains(Long.MAX_VALUE)).isTrue();
+        assertThat(after.contains(0)).isTrue();
+        assertThat(after.contains(8)).isFalse();
+        assertThat(before.size()).isEqualTo(2);
+        assertThat(before.contains(Long.MAX_VALUE)).isFalse();
+        assertThat(before.contains(0)).isFalse();
+    }
+
+    @Test
+    void shouldRemoveIdsOfAnEarlierVersion() {
+        // Given
+        DeletedIds earlier = ids(1, 5_000);
+        DeletedIds later = earlier;
+        for (long id = 4_000; id <= 6_000; id++) {
+            later = later.with(id);
+        }
+
+        // When
+        DeletedIds added = later.minus(earlier);
+
+        // Then
+        assertThat(added.size()).isEqualTo(1_000);
+        assertThat(added.contains(5_000)).isFalse();
+        assertThat(added.contains(5_001)).isTrue();
+        assertThat(added.contains(6_000)).isTrue();
+        assertThat(earlier.minus(later).isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldRemoveIdsOfAnUnrelatedSet() {
+        // When
+        DeletedIds remaining = ids(1, 100).minus(ids(50, 100_000));
+
+        // Then
+        assertThat(remaining.size()).isEqualTo(49);
+        assertThat(remaining.contains(49)).isTrue();
+        assertThat(remaining.contains(50)).isFalse();
+    }
+
+    @Test
+    void shouldRejectNegativeIds() {
+        // When & Then
+        assertThatThrownBy(() -> DeletedIds.EMPTY.with(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(DeletedIds.EMPTY.with(1).contains(-1)).isFalse();
+    }
+
+    private static DeletedIds ids(long from, long to) {
+        DeletedIds ids = DeletedIds.EMPTY;
+        for (long id = from; id <= to; id++) {
+            ids = ids.with(id);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,67 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductBatchResult;
+import com.grainger.products.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput of the batch creation path against the single-insert path.
+ * Excluded from the regular test run; execute with ./gradlew benchmark.
+ * The row count can be changed with -Dbenchmark.rows=N.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class ProductBatchBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 50_000);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBatchService productBatchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void insertThroughput() {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            productService.createProduct(new Product("Single Product " + i));
+        }
+        report("single", start);
+
+        productRepository.deleteAllInBatch();
+
+        start = System.nanoTime();
+        ProductBatchResult result = productBatchService.createProducts(IntStream.range(0, ROWS)
+                .mapToObj(i -> new Product("Batch Product " + i))
+                .iterator());
+        report("batch", start);
+
+        assertThat(result.created()).isEqualTo(ROWS);
+        assertThat(productRepository.count()).isEqualTo(ROWS);
+    }
+
+    private void report(String label, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("insert[%s]: %d rows in %.2fs = %.0f rows/s%n", label, ROWS, seconds, ROWS / seconds);
+    }
+}
@@ -0,0 +1,126 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductBatchItemResult;
+import com.grainger.products.model.ProductBatchItemResult.Status;
+import com.grainger.products.model.ProductBatchResult;
+import com.grainger.products.repository.ProductRepository;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for ProductBatchService.
+ * Runs without a test-managed transaction so each chunk really commits.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ProductBatchService.class)
+@TestPropertySource(properties = "products.batch.chunk-size=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductBatchServiceTest {
+
+    @Autowired
+    private ProductBatchService productBatchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void shouldCreateValidItemsAndRejectInvalidOnes() {
+        // Given
+        Product withBlankName = new Product("   ");
+
+        // When
+        ProductBatchResult result = productBatchService.createProducts(Arrays.asList(
+                new Product("Product 1"), withBlankName, new Product("Product 2"),
+                new Product("Product 3"), null).iterator());
+
+        // Then
+        assertThat(result.created()).isEqualTo(3);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.items()).extracting(ProductBatchItemResult::index).containsExactly(0, 1, 2, 3, 4);
+        assertThat(result.items()).extracting(ProductBatchItemResult::status)
+                .containsExactly(Status.CREATED, Status.REJECTED, Status.CREATED, Status.CREATED, Status.REJECTED);
+        assertThat(result.items().get(1).error()).isEqualTo("Product name cannot be null or empty");
+        assertThat(result.items().get(4).error()).isEqualTo("Product cannot be null");
+        assertThat(result.items().get(0).id()).isNotNull();
+        assertThat(productRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRejectNamesLongerThanTheColumnWithoutFailingTheChunk() {
+        // Given
+        Product tooLong = new Product("x".repeat(ProductService.MAX_NAME_LENGTH + 1));
+
+        // When
+        ProductBatchResult result = productBatchService.createProducts(Arrays.asList(
+                new Product("Product 1"), tooLong, new Product("x".repeat(ProductService.MAX_NAME_LENGTH))).iterator());
+
+        // Then
+        assertThat(result.items()).extracting(ProductBatchItemResult::status)
+                .containsExactly(Status.CREATED, Status.REJECTED, Status.CREATED);
+        assertThat(result.items().get(1).error()).isEqualTo("Product name cannot be longer than 255 characters");
+        assertThat(productRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldIgnoreClientSuppliedIds() {
+        // Given
+        Product product = new Product("Product 1");
+        product.setId(12345L);
+
+        // When
+        ProductBatchResult result = productBatchService.createProducts(Collections.singletonList(product).iterator());
+
+        // Then
+        assertThat(result.created()).isEqualTo(1);
+        Long id = result.items().get(0).id();
+        assertThat(productRepository.findById(id)).isPresent();
+        assertThat(productRepository.findById(12345L)).isEmpty();
+    }
+
+    @Test
+    void shouldTellTransientFailuresFromRefusedInserts() {
+        assertThat(ProductBatchService.isTransient(new PersistenceException(
+                new SQLException("Connection refused", "08001")))).isTrue();
+        assertThat(ProductBatchService.isTransient(new PersistenceException(
+                new SQLException("could not serialize access", "40001")))).isTrue();
+        assertThat(ProductBatchService.isTransient(new CannotCreateTransactionException("No connection"))).isTrue();
+        assertThat(ProductBatchService.isTransient(new QueryTimeoutException("Timed out"))).isTrue();
+        assertThat(ProductBatchService.isTransient(new PersistenceException(
+                new SQLException("duplicate key value", "23505")))).isFalse();
+        assertThat(ProductBatchService.isTransient(new IllegalStateException("Unexpected"))).isFalse();
+    }
+
+    @Test
+    void shouldReturnEmptyResultForEmptyInput() {
+        // When
+        ProductBatchResult result = productBatchService.createProducts(Collections.emptyIterator());
+
+        // Then
+        assertThat(result.created()).isZero();
+        assertThat(result.rejected()).isZero();
+        assertThat(result.items()).isEmpty();
+    }
+}
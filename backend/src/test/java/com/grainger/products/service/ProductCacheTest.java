@@ -0,0 +1,196 @@
+package com.grainger.products.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.grainger.products.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ProductCache.
+ * Uses a manual clock and a same-thread executor so expiry and eviction are deterministic.
+ */
+class ProductCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        Ticker ticker = nanos::get;
+        productCache = new ProductCache(2, Duration.ofMinutes(10), Duration.ofSeconds(30), ticker, Runnable::run);
+    }
+
+    @Test
+    void shouldLoadOnMissAndServeHitsFromCache() {
+        // When
+        productCache.get(1L, loader());
+        Optional<Product> result = productCache.get(1L, loader());
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(productCache.stats().missCount()).isEqualTo(1);
+        assertThat(productCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldExpireMissingIdsBeforeFoundProducts() {
+        // Given
+        productCache.get(1L, loader());
+        productCache.get(404L, loader());
+
+        // When
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        productCache.get(1L, loader());
+        productCache.get(404L, loader());
+
+        // Then: only the negative entry was reloaded
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldExpireFoundProductsAfterTtl() {
+        // Given
+        productCache.get(1L, loader());
+
+        // When
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+        productCache.get(1L, loader());
+
+        // Then
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictWhenFull() {
+        // When
+        productCache.get(1L, loader());
+        productCache.get(2L, loader());
+        productCache.get(3L, loader());
+        productCache.nativeCache().cleanUp();
+
+        // Then
+        assertThat(productCache.size()).isEqualTo(2);
+        assertThat(productCache.stats().evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldInvalidateNegativeEntryWhenProductIsCreated() {
+        // Given
+        productCache.get(404L, loader());
+        Product created = new Product("Created Later");
+        created.setId(404L);
+
+        // When
+        productCache.onProductsCreated(new ProductsCreatedEvent(List.of(created)));
+        productCache.get(404L, loader());
+
+        // Then
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCacheLookupMadeOutsideTheCacheWhenNotInvalidated() {
+        // Given
+        long generation = productCache.generation(404L);
+
+        // When
+        productCache.putIfCurrent(404L, Optional.empty(), generation);
+        productCache.get(404L, loader());
+
+        // Then
+        assertThat(loads.get()).isZero();
+    }
+
+    @Test
+    void shouldNotCacheLookupInvalidatedWhileLoading() {
+        // Given
+        long generation = productCache.generation(404L);
+        Product created = new Product("Created Meanwhile");
+        created.setId(404L);
+
+        // When
+        productCache.onProductsCreated(new ProductsCreatedEvent(List.of(created)));
+        Optional<Product> result = productCache.putIfCurrent(404L, Optional.empty(), generation);
+
+        // Then
+        assertThat(result).isEmpty();
+        assertThat(productCache.peek(404L)).isNull();
+    }
+
+    @Test
+    void shouldNotCacheBulkLookupInvalidatedWhileLoading() {
+        // Given
+        Product created = new Product("Created Meanwhile");
+        created.setId(404L);
+
+        // When
+        Map<Long, Optional<Product>> result = productCache.getAll(List.of(1L, 404L), ids -> {
+            productCache.onProductsCreated(new ProductsCreatedEvent(List.of(created)));
+            Map<Long, Optional<Product>> loaded = new HashMap<>();
+            ids.forEach(id -> loaded.put(id, loader().apply(id)));
+            return loaded;
+        });
+
+        // Then
+        assertThat(result).containsOnlyKeys(1L, 404L);
+        assertThat(result.get(404L)).isEmpty();
+        assertThat(productCache.peek(1L)).isPresent();
+        assertThat(productCache.peek(404L)).isNull();
+    }
+
+    @Test
+    void shouldCacheOnlyFoundProductsWhenMissesMayBeStale() {
+        // When
+        Optional<Product> missing = productCache.getFound(404L, loader());
+        productCache.getFound(404L, loader());
+        productCache.getFound(1L, loader());
+        productCache.getFound(1L, loader());
+
+        // Then: the missing id was loaded twice, the found one once
+        assertThat(missing).isEmpty();
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(productCache.peek(404L)).isNull();
+    }
+
+    @Test
+    void shouldNotCacheBulkLookupMissesWhenAskedTo() {
+        // When
+        Map<Long, Optional<Product>> result = productCache.getAll(List.of(1L, 404L), ids -> {
+            Map<Long, Optional<Product>> loaded = new HashMap<>();
+            ids.forEach(id -> loaded.put(id, loader().apply(id)));
+            return loaded;
+        }, false);
+
+        // Then
+        assertThat(result.get(404L)).isEmpty();
+        assertThat(productCache.peek(1L)).isPresent();
+        assertThat(productCache.peek(404L)).isNull();
+    }
+
+    // Loader that finds every id except 404 and counts its calls
+    private Function<Long, Optional<Product>> loader() {
+        return id -> {
+            loads.incrementAndGet();
+            if (id == 404L) {
+                return Optional.empty();
+            }
+            Product product = new Product("Product " + id);
+            product.setId(id);
+            return Optional.of(product);
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductView;
+import com.grainger.products.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that reads served from the in-memory catalog match the database.
+ * Products reach the catalog both through the startup load and through
+ * creation and deletion events, and from the change feed for writes made by
+ * another instance; every read is compared with the same read through the
+ * repository. The second-level cache is off so repository reads come from the
+ * database, and without a safety lag the feed returns changes as soon as they
+ * commit.
+ */
+@SpringBootTest(properties = {
+        "products.catalog.enabled=true",
+        "products.changes.safety-lag=0s",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+class ProductCatalogConsistencyTest {
+
+    @Autowired
+    private ProductCatalog catalog;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM product_tombstones");
+        // Rows saved through the repository publish no events, so only the load can pick them up
+        productRepository.saveAll(IntStream.range(0, 50).mapToObj(i -> new Product("Loaded " + i)).toList());
+        catalog.rebuild();
+    }
+
+    @Test
+    void shouldServeTheSameProductsAsTheDatabase() {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            productService.createProduct(new Product("Created " + i));
+        }
+        productService.deleteProduct(productRepository.findByName("Loaded 7").orElseThrow().getId());
+        productService.deleteProduct(productRepository.findByName("Created 3").orElseThrow().getId());
+
+        // When
+        List<ProductView> fromCatalog = productService.getProductViewPage(null, ProductService.MAX_PAGE_SIZE).items();
+        List<Product> fromDatabase = productRepository.findAll().stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .toList();
+
+        // Then
+        assertThat(catalog.isLoaded()).isTrue();
+        assertThat(fromCatalog).hasSize(68);
+        assertThat(fromCatalog).isEqualTo(fromDatabase.stream().map(ProductView::of).toList());
+        for (Product expected : fromDatabase) {
+            assertThat(productService.getProductById(expected.getId())).get()
+                    .usingRecursiveComparison().isEqualTo(expected);
+            assertThat(catalog.findByName(expected.getName())).get()
+                    .usingRecursiveComparison().isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void shouldNotFindDeletedOrMissingProducts() {
+        // Given
+        Product created = productService.createProduct(new Product("Short-lived"));
+        productService.deleteProduct(created.getId());
+
+        // When & Then
+        assertThat(productService.getProductById(created.getId())).isEmpty();
+        assertThat(catalog.findByName("Short-lived")).isEmpty();
+        assertThat(productService.getProductById(Long.MAX_VALUE)).isEmpty();
+        assertThat(productRepository.findById(created.getId())).isEmpty();
+    }
+
+    @Test
+    void shouldCatchUpWithChangesMadeByAnotherInstance() {
+        // Given
+        Product renamed = productRepository.findByName("Loaded 3").orElseThrow();
+        Product deleted = productRepository.findByName("Loaded 9").orElseThrow();
+        // The other instance writes straight to the database, so this one sees no events
+        Timestamp changedAt = Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC));
+        for (int i = 0; i < 10; i++) {
+            jdbcTemplate.update("INSERT INTO products (id, name, created_at, updated_at) VALUES (?, ?, ?, ?)",
+                    1_000_000L + i, "Written elsewhere " + i, changedAt, changedAt);
+        }
+        jdbcTemplate.update("UPDATE products SET name = ?, updated_at = ? WHERE id = ?",
+                "Renamed elsewhere", changedAt, renamed.getId());
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", deleted.getId());
+        jdbcTemplate.update("INSERT INTO product_tombstones (product_id, deleted_at) VALUES (?, ?)",
+                deleted.getId(), changedAt);
+
+        // When
+        catalog.tail();
+
+        // Then
+        List<Product> fromDatabase = productRepository.findAll().stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .toList();
+        assertThat(fromDatabase).hasSize(59);
+        assertThat(catalog.getAll()).usingRecursiveComparison().isEqualTo(fromDatabase);
+        assertThat(catalog.get(deleted.getId())).isEmpty();
+        assertThat(catalog.get(renamed.getId())).get()
+                .extracting(Product::getName).isEqualTo("Renamed elsewhere");
+    }
+
+    @Test
+    void shouldPageLikeTheDatabase() {
+        // Given
+        productService.createProduct(new Product("Paged"));
+
+        // When
+        List<Long> fromCatalog = productService.getProductViewPage(null, ProductService.MAX_PAGE_SIZE).items().stream()
+                .map(ProductView::id)
+                .toList();
+        List<Long> fromDatabase = productRepository.findAll().stream()
+                .map(Product::getId)
+                .sorted()
+                .toList();
+
+        // Then
+        assertThat(fromCatalog).isEqualTo(fromDatabase);
+    }
+}
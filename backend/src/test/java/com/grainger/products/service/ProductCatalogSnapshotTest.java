@@ -0,0 +1,112 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a catalog started from a snapshot file catches up with changes
+ * made after the file was written. The catalogs are created by the test, so
+ * they see no creation or deletion events and only the change feed can bring
+ * them up to date. Without a safety lag, changes are readable from the feed
+ * as soon as they commit.
+ */
+@SpringBootTest(properties = {
+        "products.changes.safety-lag=0s",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+class ProductCatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductChangeService changeService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void shouldCatchUpFromSnapshotFile() {
+        // Given
+        productRepository.deleteAllInBatch();
+        productRepository.saveAll(IntStream.range(0, 50).mapToObj(i -> new Product("Snapshot " + i)).toList());
+        Path path = directory.resolve("catalog.snap");
+        ProductCatalog before = catalog(path);
+        before.load();
+        assertThat(before.writeSnapshot()).isTrue();
+        before.shutdown();
+
+        productService.createProduct(new Product("After snapshot"));
+        productService.deleteProduct(productRepository.findByName("Snapshot 7").orElseThrow().getId());
+        Product shortLived = productService.createProduct(new Product("Short-lived"));
+        productService.deleteProduct(shortLived.getId());
+
+        // When
+        ProductCatalog after = catalog(path);
+        after.load();
+
+        // Then
+        List<Product> fromDatabase = productRepository.findAll().stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .toList();
+        assertThat(after.isLoaded()).isTrue();
+        assertThat(after.getAll()).hasSize(50).usingRecursiveComparison().isEqualTo(fromDatabase);
+        assertThat(after.findByName("Snapshot 7")).isEmpty();
+        assertThat(after.findByName("Short-lived")).isEmpty();
+        assertThat(after.findByName("After snapshot")).isPresent();
+        after.shutdown();
+    }
+
+    @Test
+    void shouldLoadFromDatabaseWithoutUsableSnapshotFile() throws Exception {
+        // Given
+        productRepository.deleteAllInBatch();
+        productRepository.saveAll(List.of(new Product("Drill"), new Product("Saw")));
+        Path path = directory.resolve("catalog.snap");
+        Files.writeString(path, "not a snapshot");
+
+        // When
+        ProductCatalog catalog = catalog(path);
+        catalog.load();
+
+        // Then
+        assertThat(catalog.isLoaded()).isTrue();
+        assertThat(catalog.size()).isEqualTo(2);
+        catalog.shutdown();
+        assertThat(CatalogSnapshotFile.read(path)).isPresent();
+    }
+
+    private ProductCatalog catalog(Path path) {
+        return new ProductCatalog(productRepository, changeService, entityManager, transactionManager,
+                path.toString(), Duration.ofHours(1), Duration.ofHours(1));
+    }
+}
@@ -0,0 +1,117 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ProductCatalog. The repository is a mock, so a test decides
+ * which rows a load reads and which changes commit while it is running.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductChangeService changeService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new ProductCatalog(productRepository, changeService, entityManager, transactionManager,
+                "", Duration.ofHours(1), Duration.ofHours(1));
+        when(changeService.readableUntil()).thenReturn(LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalog.shutdown();
+    }
+
+    @Test
+    void shouldKeepChangesCommittedDuringRebuild() {
+        // Given
+        List<Product> stored = products(1, 2_000);
+        when(productRepository.streamAllByOrderByIdAsc()).thenReturn(stored.stream());
+        catalog.rebuild();
+        when(productRepository.streamAllByOrderByIdAsc()).thenAnswer(invocation -> {
+            // Enough changes to fold the delta and the deleted ids, all committed after the load's snapshot
+            for (long from = 2_001; from <= 7_000; from += 100) {
+                catalog.onProductsCreated(new ProductsCreatedEvent(products(from, from + 99)));
+            }
+            LongStream.rangeClosed(1, 1_500)
+                    .forEach(id -> catalog.onProductDeleted(new ProductDeletedEvent(id, LocalDateTime.now())));
+            return stored.stream();
+        });
+
+        // When
+        catalog.rebuild();
+
+        // Then
+        List<Long> expected = LongStream.rangeClosed(1_501, 7_000).boxed().toList();
+        assertThat(catalog.getAll()).extracting(Product::getId).containsExactlyElementsOf(expected);
+        catalog.merge();
+        assertThat(catalog.getAll()).extracting(Product::getId).containsExactlyElementsOf(expected);
+        assertThat(catalog.size()).isEqualTo(5_500);
+        assertThat(catalog.get(1_500)).isEmpty();
+        assertThat(catalog.get(7_000)).isPresent();
+        assertThat(catalog.findByName("Product 1500")).isEmpty();
+        assertThat(catalog.findByName("Product 6999")).isPresent();
+    }
+
+    @Test
+    void shouldKeepChangesAppliedWhileMerging() {
+        // Given
+        when(productRepository.streamAllByOrderByIdAsc()).thenReturn(products(1, 100).stream());
+        catalog.rebuild();
+        catalog.onProductsCreated(new ProductsCreatedEvent(products(101, 200)));
+        catalog.onProductDeleted(new ProductDeletedEvent(5, LocalDateTime.now()));
+
+        // When
+        catalog.merge();
+        catalog.onProductsCreated(new ProductsCreatedEvent(products(201, 210)));
+        catalog.onProductDeleted(new ProductDeletedEvent(150, LocalDateTime.now()));
+        catalog.merge();
+
+        // Then
+        assertThat(catalog.size()).isEqualTo(208);
+        assertThat(catalog.get(5)).isEmpty();
+        assertThat(catalog.get(150)).isEmpty();
+        assertThat(catalog.findByName("Product 205")).isPresent();
+        assertThat(catalog.getAll()).extracting(Product::getId).doesNotContain(5L, 150L).hasSize(208);
+    }
+
+    private static List<Product> products(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId).mapToObj(id -> {
+            Product product = new Product("Product " + id);
+            product.setId(id);
+            product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+            product.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+            return product;
+        }).toList();
+    }
+}
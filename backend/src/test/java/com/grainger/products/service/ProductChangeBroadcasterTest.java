@@ -0,0 +1,176 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ProductChangeBroadcaster. The poll tick is too long to fire;
+ * tests poll by hand.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductChangeBroadcasterTest {
+
+    private static final LocalDateTime READABLE_UNTIL = LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1);
+
+    /**
+     * Where the first poll after subscribing starts: everything readable at the time counts as seen.
+     */
+    private static final ProductChangeToken.Position POLL_START =
+            new ProductChangeToken.Position(READABLE_UNTIL, Long.MAX_VALUE);
+
+    @Mock
+    private ProductChangeService changeService;
+
+    private ProductChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new ProductChangeBroadcaster(changeService, Duration.ofMinutes(1), Duration.ofHours(1),
+                Duration.ofHours(1), 100, 2);
+        // Read when the first client subscribes, then by replays and polls
+        when(changeService.readableUntil()).thenReturn(READABLE_UNTIL, READABLE_UNTIL.plusSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void shouldNotHoldUpOtherSubscribersBehindSlowOne() throws Exception {
+        // Given
+        CountDownLatch stalled = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(stalled);
+        RecordingEmitter fast = new RecordingEmitter(new CountDownLatch(0));
+        broadcaster.subscribe(null, slow);
+        broadcaster.subscribe(null, fast);
+        polling(product(1L));
+
+        // When
+        broadcaster.poll();
+
+        // Then
+        assertThat(fast.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(slow.sent).isEmpty();
+        stalled.countDown();
+        assertThat(slow.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void shouldTellSubscriberWhoseQueueFillsUpToResync() throws Exception {
+        // Given
+        CountDownLatch stalled = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(stalled);
+        broadcaster.subscribe(null, slow);
+        polling(product(1L), product(2L), product(3L), product(4L), product(5L));
+
+        // When
+        broadcaster.poll();
+        stalled.countDown();
+
+        // Then
+        Set<DataWithMediaType> last = null;
+        for (Set<DataWithMediaType> event; (event = slow.sent.poll(1, TimeUnit.SECONDS)) != null; ) {
+            last = event;
+        }
+        assertThat(last).isNotNull();
+        assertThat(last).anySatisfy(data -> assertThat(data.getData().toString())
+                .contains("event:" + ProductChangeBroadcaster.RESYNC_EVENT));
+        assertThat(broadcaster.subscriberCount()).isZero();
+    }
+
+    @Test
+    void shouldSendPolledChangesAfterReplayWithoutRepeatingReplayedOnes() throws Exception {
+        // Given
+        Product replayed = product(1L);
+        Product committedElsewhere = product(2L);
+        when(changeService.replayPosition("since")).thenReturn(ProductChangeToken.ORIGIN);
+        when(changeService.changesAfter(eq(ProductChangeToken.ORIGIN), any(LocalDateTime.class), anyInt()))
+                .thenReturn(batch(replayed));
+        polling(replayed, committedElsewhere);
+        RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(0));
+        broadcaster.subscribe("since", emitter);
+
+        // When
+        broadcaster.poll();
+
+        // Then
+        assertThat(emitter.sent.poll(5, TimeUnit.SECONDS)).anySatisfy(data -> assertThat(data.getData().toString())
+                .contains("id:" + ProductChangeToken.encode(position(replayed))));
+        assertThat(emitter.sent.poll(5, TimeUnit.SECONDS)).anySatisfy(data -> assertThat(data.getData().toString())
+                .contains("id:" + ProductChangeToken.encode(position(committedElsewhere))));
+        assertThat(emitter.sent.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    /**
+     * Answer the first poll after subscribing with the given changes.
+     */
+    private void polling(Product... products) {
+        when(changeService.changesAfter(eq(POLL_START), any(LocalDateTime.class), anyInt())).thenReturn(batch(products));
+    }
+
+    private static ProductChangeService.ChangeBatch batch(Product... products) {
+        return new ProductChangeService.ChangeBatch(
+                List.of(products).stream().map(ProductChangeService.Change::upsert).toList(), false);
+    }
+
+    private static ProductChangeToken.Position position(Product product) {
+        return new ProductChangeToken.Position(product.getUpdatedAt(), product.getId());
+    }
+
+    private static Product product(long id) {
+        Product product = new Product("Product " + id);
+        product.setId(id);
+        product.setCreatedAt(READABLE_UNTIL.plusSeconds(1));
+        product.setUpdatedAt(READABLE_UNTIL.plusSeconds(1));
+        return product;
+    }
+
+    /**
+     * Records what is sent, after waiting for a latch to simulate a client that stopped reading.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<Set<DataWithMediaType>> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch released;
+
+        RecordingEmitter(CountDownLatch released) {
+            this.released = released;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            try {
+                released.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
+            sent.add(items);
+        }
+    }
+}
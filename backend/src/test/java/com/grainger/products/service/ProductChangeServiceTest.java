@@ -0,0 +1,148 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductChanges;
+import com.grainger.products.model.ProductTombstone;
+import com.grainger.products.repository.ProductChangeClock;
+import com.grainger.products.repository.ProductRepository;
+import com.grainger.products.repository.ProductTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for ProductChangeService against the in-memory database.
+ * The service is built by hand so each test can choose its clock and horizon.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ProductChangeServiceTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductTombstoneRepository tombstoneRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        tombstoneRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReturnUpsertsAndDeletionsAfterWatermark() {
+        // Given
+        Product kept = productRepository.saveAndFlush(new Product("Kept"));
+        Product removed = productRepository.saveAndFlush(new Product("Removed"));
+        productRepository.deleteById(removed.getId());
+        tombstoneRepository.saveAndFlush(new ProductTombstone(removed.getId()));
+        ProductChangeService service = serviceAt(Duration.ofHours(1));
+
+        // When
+        ProductChanges changes = service.getChanges(null, 10);
+
+        // Then
+        assertThat(changes.upserts()).extracting(Product::getId).containsExactly(kept.getId());
+        assertThat(changes.deletedIds()).containsExactly(removed.getId());
+        assertThat(changes.hasMore()).isFalse();
+        assertThat(service.getChanges(changes.nextToken(), 10).upserts()).isEmpty();
+    }
+
+    @Test
+    void shouldPageThroughChangesWithNextToken() {
+        // Given
+        Product first = productRepository.saveAndFlush(new Product("First"));
+        Product second = productRepository.saveAndFlush(new Product("Second"));
+        ProductChangeService service = serviceAt(Duration.ofHours(1));
+
+        // When
+        ProductChanges page1 = service.getChanges(null, 1);
+        ProductChanges page2 = service.getChanges(page1.nextToken(), 1);
+
+        // Then
+        assertThat(page1.upserts()).extracting(Product::getId).containsExactly(first.getId());
+        assertThat(page1.hasMore()).isTrue();
+        assertThat(page2.upserts()).extracting(Product::getId).containsExactly(second.getId());
+        assertThat(page2.hasMore()).isFalse();
+    }
+
+    @Test
+    void shouldHoldBackChangesWithinSafetyLag() {
+        // Given
+        productRepository.saveAndFlush(new Product("Recent"));
+        ProductChangeService service = serviceAt(Duration.ZERO);
+
+        // When
+        ProductChanges changes = service.getChanges(null, 10);
+
+        // Then
+        assertThat(changes.upserts()).isEmpty();
+        assertThat(changes.nextToken()).isEqualTo(ProductChangeToken.encode(ProductChangeToken.ORIGIN));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenTokenIsMalformed() {
+        // Given
+        ProductChangeService service = serviceAt(Duration.ZERO);
+
+        // When & Then
+        assertThatThrownBy(() -> service.getChanges("not-a-token", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid change token");
+    }
+
+    @Test
+    void shouldThrowExceptionWhenLimitOutOfRange() {
+        // Given
+        ProductChangeService service = serviceAt(Duration.ZERO);
+
+        // When & Then
+        assertThatThrownBy(() -> service.getChanges(null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldHoldBackChangesBehindOpenTransaction() {
+        // Given
+        productRepository.saveAndFlush(new Product("Committed"));
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).plusHours(1);
+        ProductChangeService service = new ProductChangeService(productRepository, tombstoneRepository,
+                clockAt(now, now.minusHours(2)), Duration.ofMinutes(1));
+
+        // When
+        ProductChanges changes = service.getChanges(null, 10);
+
+        // Then
+        assertThat(changes.upserts()).isEmpty();
+        assertThat(changes.nextToken()).isEqualTo(ProductChangeToken.encode(ProductChangeToken.ORIGIN));
+    }
+
+    private ProductChangeService serviceAt(Duration ahead) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).plus(ahead);
+        return new ProductChangeService(productRepository, tombstoneRepository, clockAt(now, now), Duration.ofMinutes(1));
+    }
+
+    private static ProductChangeClock clockAt(LocalDateTime now, LocalDateTime horizon) {
+        return new ProductChangeClock() {
+            @Override
+            public LocalDateTime now() {
+                return now;
+            }
+
+            @Override
+            public LocalDateTime horizon() {
+                return horizon;
+            }
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.grainger.products.service;
+
+import com.grainger.products.BenchmarkData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput benchmark for the NDJSON export over a large H2 dataset.
+ * Excluded from the regular test run; execute with ./gradlew benchmark.
+ * The row count can be changed with -Dbenchmark.rows=N.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class ProductExportBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 500_000);
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        BenchmarkData.seedProducts(jdbcTemplate, ROWS);
+    }
+
+    @Test
+    void exportThroughput() throws IOException {
+        run("plain", false);
+        run("gzip", true);
+    }
+
+    private void run(String label, boolean gzip) throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        long start = System.nanoTime();
+        long rows;
+        if (gzip) {
+            GZIPOutputStream out = new GZIPOutputStream(counter, 64 * 1024);
+            rows = productExportService.exportNdjson(out);
+            out.finish();
+        } else {
+            rows = productExportService.exportNdjson(counter);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+        assertThat(rows).isEqualTo(ROWS);
+        System.out.printf("export[%s]: %d rows in %.2fs = %.0f rows/s, %.1f MB written, heap delta %.1f MB%n",
+                label, rows, seconds, rows / seconds, counter.bytes / 1e6, (heapAfter - heapBefore) / 1e6);
+    }
+
+    /**
+     * Output stream that discards everything and counts bytes.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
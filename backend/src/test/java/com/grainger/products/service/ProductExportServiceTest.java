@@ -0,0 +1,85 @@
+package com.grainger.products.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grainger.products.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for ProductExportService.
+ * Streams from the in-memory H2 database used by @DataJpaTest.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductExportService.class, JacksonAutoConfiguration.class})
+class ProductExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldWriteOneProductPerLineOrderedById() throws Exception {
+        // Given
+        Product product1 = entityManager.persist(new Product("Product 1"));
+        Product product2 = entityManager.persist(new Product("Product 2"));
+        entityManager.flush();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long count = productExportService.exportNdjson(out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(first.get("id").asLong()).isEqualTo(product1.getId());
+        assertThat(first.get("name").asText()).isEqualTo("Product 1");
+        assertThat(second.get("id").asLong()).isEqualTo(product2.getId());
+        assertThat(second.get("name").asText()).isEqualTo("Product 2");
+    }
+
+    @Test
+    void shouldDetachExportedProducts() throws Exception {
+        // Given
+        Product product = entityManager.persistAndFlush(new Product("Product 1"));
+
+        // When
+        productExportService.exportNdjson(new ByteArrayOutputStream());
+
+        // Then
+        assertThat(entityManager.getEntityManager().contains(product)).isFalse();
+    }
+
+    @Test
+    void shouldWriteNothingWhenNoProducts() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long count = productExportService.exportNdjson(out);
+
+        // Then
+        assertThat(count).isZero();
+        assertThat(out.size()).isZero();
+    }
+}
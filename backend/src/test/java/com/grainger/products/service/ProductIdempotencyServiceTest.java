@@ -0,0 +1,145 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.repository.ProductIdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductIdempotencyService with the in-memory key store.
+ * Uses Mockito to mock the ProductService that performs the inserts.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductIdempotencyServiceTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductIdempotencyKeyRepository keyRepository;
+
+    private ProductIdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new ProductIdempotencyService(productService, keyRepository, null,
+                "memory", 100, Duration.ofHours(24), Duration.ofHours(1), Clock.systemDefaultZone());
+    }
+
+    @Test
+    void shouldCreateOnceAndReplayRetries() {
+        // Given
+        Product saved = createProduct(1L, "Drill");
+        when(productService.createProduct(any(Product.class))).thenReturn(saved);
+        when(productService.getProductById(1L)).thenReturn(Optional.of(saved));
+
+        // When
+        ProductIdempotencyService.IdempotentCreation first = idempotencyService.createProduct("key-1", new Product("Drill"));
+        ProductIdempotencyService.IdempotentCreation retry = idempotencyService.createProduct("key-1", new Product("Drill"));
+
+        // Then
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.product()).isSameAs(saved);
+        verify(productService, times(1)).createProduct(any(Product.class));
+        verifyNoInteractions(keyRepository);
+    }
+
+    @Test
+    void shouldReplayDeletedProductAsMissing() {
+        // Given
+        when(productService.createProduct(any(Product.class))).thenReturn(createProduct(1L, "Drill"));
+        when(productService.getProductById(1L)).thenReturn(Optional.empty());
+        idempotencyService.createProduct("key-1", new Product("Drill"));
+
+        // When
+        ProductIdempotencyService.IdempotentCreation retry = idempotencyService.createProduct("key-1", new Product("Drill"));
+
+        // Then
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.product()).isNull();
+        verify(productService, times(1)).createProduct(any(Product.class));
+    }
+
+    @Test
+    void shouldPurgeKeysOlderThanTtlFromDatabaseStore() {
+        // Given
+        Clock clock = Clock.fixed(Instant.parse("2024-01-02T00:00:00Z"), ZoneId.of("UTC"));
+        ProductIdempotencyService databaseService = new ProductIdempotencyService(productService, keyRepository,
+                null, "database", 100, Duration.ofHours(24), Duration.ofHours(1), clock);
+        when(keyRepository.deleteCreatedBefore(any(LocalDateTime.class))).thenReturn(3);
+
+        // When
+        int purged = databaseService.purgeExpired();
+
+        // Then
+        assertThat(purged).isEqualTo(3);
+        verify(keyRepository).deleteCreatedBefore(LocalDateTime.of(2024, 1, 1, 0, 0));
+        databaseService.shutdown();
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentProduct() {
+        // Given
+        when(productService.createProduct(any(Product.class))).thenReturn(createProduct(1L, "Drill"));
+        idempotencyService.createProduct("key-1", new Product("Drill"));
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.createProduct("key-1", new Product("Hammer")))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        verify(productService, times(1)).createProduct(any(Product.class));
+    }
+
+    @Test
+    void shouldForgetFailedAttemptSoItCanBeRetried() {
+        // Given
+        when(productService.createProduct(any(Product.class)))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenReturn(createProduct(1L, "Drill"));
+        assertThatThrownBy(() -> idempotencyService.createProduct("key-1", new Product("Drill")))
+                .isInstanceOf(IllegalStateException.class);
+
+        // When
+        ProductIdempotencyService.IdempotentCreation retry = idempotencyService.createProduct("key-1", new Product("Drill"));
+
+        // Then
+        assertThat(retry.replayed()).isFalse();
+        assertThat(retry.product().getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenKeyOrProductIsInvalid() {
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.createProduct(" ", new Product("Drill")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Idempotency key must be between 1 and 255 characters");
+        assertThatThrownBy(() -> idempotencyService.createProduct("k".repeat(256), new Product("Drill")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> idempotencyService.createProduct("key-1", new Product("")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Product name cannot be null or empty");
+        verifyNoInteractions(productService);
+    }
+
+    // Helper method to create a product with ID
+    private Product createProduct(Long id, String name) {
+        Product product = new Product(name);
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,132 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.repository.ProductIdempotencyKeyRepository;
+import com.grainger.products.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrency stress test for idempotent product creation with the database key store.
+ * Many threads retry the same requests at once, through the application's
+ * service and through a second instance sharing only the database, the way
+ * retries spread over several application instances.
+ */
+@SpringBootTest(properties = "products.idempotency.store=database")
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+class ProductIdempotencyStressTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ProductIdempotencyService idempotencyService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductIdempotencyKeyRepository keyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ProductIdempotencyService otherInstance;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        otherInstance = new ProductIdempotencyService(productService, keyRepository,
+                new TransactionTemplate(transactionManager), "database", 1000, Duration.ofHours(24),
+                Duration.ofHours(1), Clock.systemDefaultZone());
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldInsertOnceForConcurrentRetriesOfOneKey() throws Exception {
+        // Given
+        String key = UUID.randomUUID().toString();
+        String name = "Stress " + key;
+
+        // When
+        List<ProductIdempotencyService.IdempotentCreation> results = runConcurrently(THREADS * 4, i -> key, name);
+
+        // Then
+        assertThat(results).extracting(result -> result.product().getId()).containsOnly(results.get(0).product().getId());
+        assertThat(results).filteredOn(result -> !result.replayed()).hasSize(1);
+        assertThat(countByName(name)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldInsertOncePerKeyForConcurrentRetriesOfManyKeys() throws Exception {
+        // Given
+        String prefix = UUID.randomUUID().toString();
+        int keys = 20;
+
+        // When
+        List<ProductIdempotencyService.IdempotentCreation> results =
+                runConcurrently(keys * 10, i -> prefix + "-" + (i % keys), "Stress " + prefix);
+
+        // Then
+        assertThat(results).filteredOn(result -> !result.replayed()).hasSize(keys);
+        assertThat(countByName("Stress " + prefix)).isEqualTo(keys);
+    }
+
+    /**
+     * Fire the requests at once from all threads, alternating between the two instances.
+     */
+    private List<ProductIdempotencyService.IdempotentCreation> runConcurrently(
+            int requests, IntFunction<String> keyForRequest, String name) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ProductIdempotencyService.IdempotentCreation>> futures = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            ProductIdempotencyService instance = i % 2 == 0 ? idempotencyService : otherInstance;
+            String key = keyForRequest.apply(i);
+            Callable<ProductIdempotencyService.IdempotentCreation> request = () -> {
+                start.await();
+                return instance.createProduct(key, new Product(name));
+            };
+            futures.add(executor.submit(request));
+        }
+        start.countDown();
+
+        List<ProductIdempotencyService.IdempotentCreation> results = new ArrayList<>();
+        for (Future<ProductIdempotencyService.IdempotentCreation> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private long countByName(String name) {
+        return productRepository.findAll().stream().filter(product -> name.equals(product.getName())).count();
+    }
+}
@@ -0,0 +1,81 @@
+package com.grainger.products.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grainger.products.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ProductIngestJournal.
+ */
+class ProductIngestJournalTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void shouldRecoverRemainingItemsOfUnfinishedRequests() throws Exception {
+        // Given
+        Path path = tempDir.resolve("ingest.journal");
+        try (ProductIngestJournal journal = new ProductIngestJournal(path, OBJECT_MAPPER)) {
+            journal.recover();
+            journal.appendSubmitted("a", products("Drill", "Saw"));
+            journal.appendSubmitted("b", products("Hammer", "Wrench", "Pliers"));
+            journal.appendDone(Map.of("a", 2, "b", 1));
+        }
+
+        // When
+        List<ProductIngestJournal.Pending> pending;
+        try (ProductIngestJournal journal = new ProductIngestJournal(path, OBJECT_MAPPER)) {
+            pending = journal.recover();
+        }
+
+        // Then
+        assertThat(pending).hasSize(1);
+        assertThat(pending.get(0).id()).isEqualTo("b");
+        assertThat(pending.get(0).total()).isEqualTo(3);
+        assertThat(pending.get(0).done()).isEqualTo(1);
+        assertThat(pending.get(0).products()).extracting(Product::getName).containsExactly("Wrench", "Pliers");
+    }
+
+    @Test
+    void shouldCompactToUnfinishedRequestsOnceGrown() throws Exception {
+        // Given
+        Path path = tempDir.resolve("ingest.journal");
+        try (ProductIngestJournal journal = new ProductIngestJournal(path, OBJECT_MAPPER, 1024)) {
+            journal.recover();
+            for (int i = 0; i < 20; i++) {
+                journal.appendSubmitted("finished-" + i, products("Drill " + i));
+                journal.appendDone(Map.of("finished-" + i, 1));
+            }
+            journal.appendSubmitted("b", products("Hammer", "Wrench"));
+            journal.appendDone(Map.of("b", 1));
+            assertThat(journal.shouldCompact()).isTrue();
+
+            // When
+            journal.compact(List.of(new ProductIngestJournal.Pending("b", 2, 1, products("Wrench"))));
+            journal.appendSubmitted("c", products("Pliers"));
+
+            // Then
+            assertThat(journal.shouldCompact()).isFalse();
+        }
+        String content = Files.readString(path);
+        assertThat(content).doesNotContain("finished-").contains("Wrench", "Pliers").doesNotContain("Hammer");
+        try (ProductIngestJournal journal = new ProductIngestJournal(path, OBJECT_MAPPER)) {
+            assertThat(journal.recover()).extracting(ProductIngestJournal.Pending::id).containsExactly("b", "c");
+        }
+    }
+
+    private static List<Product> products(String... names) {
+        return List.of(names).stream().map(Product::new).toList();
+    }
+}
@@ -0,0 +1,253 @@
+package com.grainger.products.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductBatchItemResult;
+import com.grainger.products.model.ProductBatchResult;
+import com.grainger.products.model.ProductIngestStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductIngestService.
+ * Uses Mockito to mock the ProductBatchService that performs the inserts.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductIngestServiceTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private ProductBatchService batchService;
+
+    @Mock
+    private ProductBatchService recoveryBatchService;
+
+    @TempDir
+    private Path tempDir;
+
+    private final List<ProductIngestService> services = new ArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        services.forEach(ProductIngestService::shutdown);
+    }
+
+    @Test
+    void shouldWriteQueuedProductsInBackground() throws Exception {
+        // Given
+        List<String> written = new CopyOnWriteArrayList<>();
+        when(batchService.createProducts(any())).thenAnswer(creating(written));
+        ProductIngestService service = service(batchService, 10, "");
+
+        // When
+        ProductIngestStatus accepted = service.submit(List.of(new Product("Drill"), new Product("Saw")));
+        ProductIngestStatus completed = awaitCompleted(service, accepted.id());
+
+        // Then
+        assertThat(accepted.state()).isEqualTo(ProductIngestStatus.State.PENDING);
+        assertThat(accepted.accepted()).isEqualTo(2);
+        assertThat(completed.created()).isEqualTo(2);
+        assertThat(completed.items()).extracting(ProductBatchItemResult::index).containsExactly(0, 1);
+        assertThat(written).containsExactly("Drill", "Saw");
+        assertThat(service.queuedCount()).isZero();
+    }
+
+    @Test
+    void shouldRejectRequestWhenQueueIsFull() {
+        // Given
+        when(batchService.createProducts(any())).thenAnswer(blocking());
+        ProductIngestService service = service(batchService, 2, "");
+        service.submit(List.of(new Product("Drill"), new Product("Saw")));
+
+        // When & Then
+        assertThatThrownBy(() -> service.submit(List.of(new Product("Hammer"))))
+                .isInstanceOf(IngestQueueFullException.class);
+        assertThat(service.queuedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectRequestWhileShuttingDown() {
+        // Given
+        ProductIngestService service = service(batchService, 10, "");
+        service.shutdown();
+
+        // When & Then
+        assertThatThrownBy(() -> service.submit(List.of(new Product("Drill"))))
+                .isInstanceOf(IngestShuttingDownException.class);
+        assertThat(service.queuedCount()).isZero();
+    }
+
+    @Test
+    void shouldRejectInvalidItemsBeforeQueueing() {
+        // Given
+        ProductIngestService service = service(batchService, 10, "");
+
+        // When & Then
+        assertThatThrownBy(() -> service.submit(List.of(new Product("Drill"), new Product(" "))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Item 1: Product name cannot be null or empty");
+        assertThat(service.queuedCount()).isZero();
+        verifyNoInteractions(batchService);
+    }
+
+    @Test
+    void shouldRetryFailedBatch() throws Exception {
+        // Given
+        List<String> written = new CopyOnWriteArrayList<>();
+        when(batchService.createProducts(any()))
+                .thenReturn(new ProductBatchResult(0, 1, List.of(ProductBatchItemResult.failed(0, "Insert failed"))))
+                .thenAnswer(creating(written));
+        ProductIngestService service = service(batchService, 10, "");
+
+        // When
+        ProductIngestStatus accepted = service.submit(List.of(new Product("Drill")));
+        ProductIngestStatus completed = awaitCompleted(service, accepted.id());
+
+        // Then
+        assertThat(completed.created()).isEqualTo(1);
+        assertThat(completed.failed()).isZero();
+        verify(batchService, times(2)).createProducts(any());
+    }
+
+    @Test
+    void shouldRetryTransientFailure() throws Exception {
+        // Given
+        List<String> written = new CopyOnWriteArrayList<>();
+        when(batchService.createProducts(any()))
+                .thenThrow(new QueryTimeoutException("Statement timed out"))
+                .thenAnswer(creating(written));
+        ProductIngestService service = service(batchService, 10, "");
+
+        // When
+        ProductIngestStatus accepted = service.submit(List.of(new Product("Drill")));
+        ProductIngestStatus completed = awaitCompleted(service, accepted.id());
+
+        // Then
+        assertThat(completed.created()).isEqualTo(1);
+        assertThat(written).containsExactly("Drill");
+        verify(batchService, times(2)).createProducts(any());
+    }
+
+    @Test
+    void shouldRecordRefusedItemsWithoutRetrying() throws Exception {
+        // Given
+        when(batchService.createProducts(any())).thenReturn(new ProductBatchResult(1, 1, List.of(
+                ProductBatchItemResult.created(0, 1L),
+                ProductBatchItemResult.rejected(1, "Insert refused: duplicate key"))));
+        ProductIngestService service = service(batchService, 10, "");
+
+        // When
+        ProductIngestStatus accepted = service.submit(List.of(new Product("Drill"), new Product("Saw")));
+        ProductIngestStatus completed = awaitCompleted(service, accepted.id());
+
+        // Then
+        assertThat(completed.created()).isEqualTo(1);
+        assertThat(completed.failed()).isEqualTo(1);
+        assertThat(completed.items()).extracting(ProductBatchItemResult::status)
+                .containsExactly(ProductBatchItemResult.Status.CREATED, ProductBatchItemResult.Status.REJECTED);
+        verify(batchService, times(1)).createProducts(any());
+    }
+
+    @Test
+    void shouldNotRetryLastingFailure() throws Exception {
+        // Given
+        when(batchService.createProducts(any())).thenThrow(new IllegalStateException("Unexpected"));
+        ProductIngestService service = service(batchService, 10, "");
+
+        // When
+        ProductIngestStatus accepted = service.submit(List.of(new Product("Drill")));
+        ProductIngestStatus completed = awaitCompleted(service, accepted.id());
+
+        // Then
+        assertThat(completed.failed()).isEqualTo(1);
+        assertThat(completed.items().get(0).error()).isEqualTo("Insert failed: Unexpected");
+        verify(batchService, times(1)).createProducts(any());
+    }
+
+    @Test
+    void shouldRecoverUnfinishedRequestsFromJournal() throws Exception {
+        // Given a process that accepted products but never wrote them
+        String journal = tempDir.resolve("ingest.journal").toString();
+        when(batchService.createProducts(any())).thenAnswer(blocking());
+        ProductIngestService crashed = service(batchService, 10, journal);
+        ProductIngestStatus accepted = crashed.submit(List.of(new Product("Drill"), new Product("Saw")));
+
+        // When the next process starts on the same journal
+        List<String> written = new CopyOnWriteArrayList<>();
+        when(recoveryBatchService.createProducts(any())).thenAnswer(creating(written));
+        ProductIngestService restarted = service(recoveryBatchService, 10, journal);
+        ProductIngestStatus completed = awaitCompleted(restarted, accepted.id());
+
+        // Then
+        assertThat(completed.created()).isEqualTo(2);
+        assertThat(written).containsExactly("Drill", "Saw");
+    }
+
+    private ProductIngestService service(ProductBatchService batchService, int capacity, String journalPath) {
+        ProductIngestService service = new ProductIngestService(batchService, OBJECT_MAPPER, capacity, 100,
+                Duration.ofMillis(1), Duration.ofHours(1), journalPath);
+        services.add(service);
+        return service;
+    }
+
+    private static ProductIngestStatus awaitCompleted(ProductIngestService service, String id) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            ProductIngestStatus status = service.getStatus(id).orElseThrow();
+            if (status.state() == ProductIngestStatus.State.COMPLETED) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Ingestion request " + id + " did not complete");
+    }
+
+    /**
+     * Answer that records the names it is given and reports every item as created.
+     */
+    private static Answer<ProductBatchResult> creating(List<String> written) {
+        AtomicLong ids = new AtomicLong();
+        return invocation -> {
+            Iterator<Product> products = invocation.getArgument(0);
+            List<ProductBatchItemResult> results = new ArrayList<>();
+            while (products.hasNext()) {
+                written.add(products.next().getName());
+                results.add(ProductBatchItemResult.created(results.size(), ids.incrementAndGet()));
+            }
+            return new ProductBatchResult(results.size(), 0, results);
+        };
+    }
+
+    /**
+     * Answer that holds the worker until the test ends, keeping the queue occupied.
+     */
+    private Answer<ProductBatchResult> blocking() {
+        return invocation -> {
+            release.await();
+            return new ProductBatchResult(0, 0, List.of());
+        };
+    }
+}
@@ -0,0 +1,160 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductLookupBatcher.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductLookupBatcherTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Test
+    void shouldCoalesceConcurrentLoadsIntoOneQuery() throws Exception {
+        // Given a load already in progress, so the next batch waits for others to join
+        ProductLookupBatcher batcher = new ProductLookupBatcher(productRepository, Duration.ofMillis(200), 100);
+        CountDownLatch slowQueryStarted = new CountDownLatch(1);
+        CountDownLatch releaseSlowQuery = new CountDownLatch(1);
+        when(productRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            if (ids.contains(99L)) {
+                slowQueryStarted.countDown();
+                releaseSlowQuery.await();
+            }
+            return ids.stream().filter(id -> id != 3L).map(id -> createProduct(id)).toList();
+        });
+        try (ExecutorService slow = Executors.newSingleThreadExecutor()) {
+            Future<Optional<Product>> inProgress = slow.submit(() -> batcher.load(99L));
+            slowQueryStarted.await();
+
+            // When
+            List<Optional<Product>> results = loadConcurrently(batcher, 1L, 2L, 3L, 4L);
+            releaseSlowQuery.countDown();
+
+            // Then
+            assertThat(results.get(0)).hasValueSatisfying(product -> assertThat(product.getId()).isEqualTo(1L));
+            assertThat(results.get(1)).hasValueSatisfying(product -> assertThat(product.getId()).isEqualTo(2L));
+            assertThat(results.get(2)).isEmpty();
+            assertThat(results.get(3)).hasValueSatisfying(product -> assertThat(product.getId()).isEqualTo(4L));
+            assertThat(inProgress.get()).isPresent();
+        }
+        verify(productRepository, times(2)).findAllById(anyList());
+        assertThat(batcher.requestCount()).isEqualTo(5);
+        assertThat(batcher.queryCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotWaitForWindowWhenNoOtherLoadIsInProgress() {
+        // Given
+        ProductLookupBatcher batcher = new ProductLookupBatcher(productRepository, Duration.ofMinutes(1), 100);
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(createProduct(1L)));
+
+        // When
+        long start = System.nanoTime();
+        Optional<Product> result = batcher.load(1L);
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+        assertThat(batcher.queryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunFullBatchWithoutWaitingForWindow() {
+        // Given
+        ProductLookupBatcher batcher = new ProductLookupBatcher(productRepository, Duration.ofMinutes(1), 1);
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(createProduct(1L)));
+
+        // When
+        Optional<Product> result = batcher.load(1L);
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(batcher.queryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPropagateQueryFailureToEveryCaller() {
+        // Given
+        ProductLookupBatcher batcher = new ProductLookupBatcher(productRepository, Duration.ZERO, 100);
+        when(productRepository.findAllById(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        // When & Then
+        assertThatThrownBy(() -> batcher.load(1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("database down");
+    }
+
+    @Test
+    void shouldCompleteEveryCallerWhenQueryThrowsError() throws Exception {
+        // Given
+        ProductLookupBatcher batcher = new ProductLookupBatcher(productRepository, Duration.ofMillis(200), 100);
+        when(productRepository.findAllById(anyList())).thenThrow(new AssertionError("query failed"));
+
+        // When
+        List<Future<Optional<Product>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            for (long id = 1; id <= 3; id++) {
+                long requested = id;
+                futures.add(executor.submit(() -> batcher.load(requested)));
+            }
+
+            // Then
+            for (Future<Optional<Product>> future : futures) {
+                assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                        .isInstanceOf(ExecutionException.class)
+                        .hasCauseInstanceOf(AssertionError.class);
+            }
+        }
+    }
+
+    @Test
+    void shouldRejectNonPositiveMaxBatchSize() {
+        // When & Then
+        assertThatThrownBy(() -> new ProductLookupBatcher(productRepository, Duration.ofMillis(2), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Optional<Product>> loadConcurrently(ProductLookupBatcher batcher, Long... ids) throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(ids.length)) {
+            List<Future<Optional<Product>>> futures = new ArrayList<>();
+            for (Long id : ids) {
+                futures.add(executor.submit(() -> batcher.load(id)));
+            }
+            List<Optional<Product>> results = new ArrayList<>();
+            for (Future<Optional<Product>> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+    }
+
+    private static Product createProduct(Long id) {
+        Product product = new Product("Product " + id);
+        product.setId(id);
+        return product;
+    }
+}
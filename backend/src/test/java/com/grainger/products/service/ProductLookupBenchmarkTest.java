@@ -0,0 +1,117 @@
+package com.grainger.products.service;
+
+import com.grainger.products.BenchmarkData;
+import com.grainger.products.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+
+/**
+ * Counts database queries per by-id request under concurrent load:
+ * one findById per request, coalesced getProductById, and the bulk lookup.
+ * Excluded from the regular test run; execute with ./gradlew benchmark.
+ * Both product caches are disabled so every request reaches the database.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "products.cache.maximum-size=0",
+        "products.lookup.coalescing.enabled=true"
+})
+@ActiveProfiles("test")
+class ProductLookupBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 200);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        BenchmarkData.seedProducts(jdbcTemplate, ROWS);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void queriesPerRequest() throws Exception {
+        report("findById per request", run(productRepository::findById));
+        report("coalesced getProductById", run(productService::getProductById));
+
+        statistics.clear();
+        long start = System.nanoTime();
+        int lookups = REQUESTS / ProductService.MAX_LOOKUP_IDS;
+        for (int i = 0; i < lookups; i++) {
+            List<Long> ids = new ArrayList<>(ProductService.MAX_LOOKUP_IDS);
+            for (int j = 0; j < ProductService.MAX_LOOKUP_IDS; j++) {
+                ids.add(randomId());
+            }
+            productService.lookupProducts(ids);
+        }
+        report("bulk lookup of " + ProductService.MAX_LOOKUP_IDS + " ids",
+                new Run(lookups * ProductService.MAX_LOOKUP_IDS, statistics.getPrepareStatementCount(),
+                        System.nanoTime() - start));
+    }
+
+    private Run run(LongConsumer lookup) throws Exception {
+        statistics.clear();
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int w = 0; w < CONCURRENCY; w++) {
+                workers.add(clients.submit(() -> {
+                    for (int i = 0; i < REQUESTS / CONCURRENCY; i++) {
+                        lookup.accept(randomId());
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        return new Run(REQUESTS / CONCURRENCY * CONCURRENCY, statistics.getPrepareStatementCount(),
+                System.nanoTime() - start);
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+    }
+
+    private static void report(String label, Run run) {
+        System.out.printf("%s: %d ids, %d queries, %.3f queries/id, %.0f ids/s%n",
+                label, run.ids(), run.queries(), (double) run.queries() / run.ids(), run.ids() / (run.nanos() / 1e9));
+    }
+
+    private record Run(long ids, long queries, long nanos) {
+    }
+}
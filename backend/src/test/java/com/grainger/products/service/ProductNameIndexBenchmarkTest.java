@@ -0,0 +1,62 @@
+package com.grainger.products.service;
+
+import com.grainger.products.BenchmarkData;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Heap footprint and lookup latency of the typeahead index.
+ * Excluded from the regular test run; execute with ./gradlew benchmark.
+ * The entry count can be changed with -Dbenchmark.rows=N.
+ */
+@Tag("benchmark")
+class ProductNameIndexBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int LOOKUPS = 200_000;
+    private static final String[] PREFIXES = {
+            "c", "cord", "cordless drill model 12", "ins", "portable pump", "heavy-duty w", "zz"
+    };
+
+    @Test
+    void footprintAndLatency() {
+        long[] ids = new long[ROWS];
+        String[] names = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            ids[i] = i + 1;
+            names[i] = BenchmarkData.productName(i + 1);
+        }
+
+        ProductNameIndex index = new ProductNameIndex(null, mock(ProductChangeService.class), null,
+                mock(PlatformTransactionManager.class), Duration.ofHours(1));
+        long start = System.nanoTime();
+        index.add(NameSegment.of(ids, names, ROWS));
+        double buildMillis = (System.nanoTime() - start) / 1e6;
+
+        Random random = new Random(42);
+        for (int i = 0; i < LOOKUPS; i++) {
+            index.suggest(PREFIXES[random.nextInt(PREFIXES.length)], 10);
+        }
+        long[] nanos = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String prefix = PREFIXES[random.nextInt(PREFIXES.length)];
+            long lookupStart = System.nanoTime();
+            index.suggest(prefix, 10);
+            nanos[i] = System.nanoTime() - lookupStart;
+        }
+        Arrays.sort(nanos);
+
+        // Bytes per entry equals MB per million entries
+        System.out.printf("name index: %d entries built in %.0f ms, %.1f MB total, %.1f MB per 1M products%n",
+                index.size(), buildMillis, index.heapBytes() / 1e6, index.heapBytes() / (double) ROWS);
+        System.out.printf("suggest(limit 10): p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                nanos[LOOKUPS / 2] / 1e3, nanos[(int) (LOOKUPS * 0.99)] / 1e3, nanos[LOOKUPS - 1] / 1e3);
+    }
+}
@@ -0,0 +1,246 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductSuggestion;
+import com.grainger.products.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductNameIndex.
+ * Uses Mockito to mock the repository the index is loaded from.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductNameIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductChangeService changeService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private static final LocalDateTime LOADED_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private ProductNameIndex productNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        productNameIndex = new ProductNameIndex(productRepository, changeService, entityManager, transactionManager,
+                Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productNameIndex.shutdown();
+    }
+
+    @Test
+    void shouldSuggestByPrefixIgnoringCaseInAlphabeticalOrder() {
+        // Given
+        loadFromDatabase(createProduct(1L, "Drill Bits"), createProduct(2L, "Hammer"),
+                createProduct(3L, "drill press"), createProduct(4L, "Cordless Drill"));
+
+        // When
+        List<ProductSuggestion> suggestions = productNameIndex.suggest("DRI", 10);
+
+        // Then
+        assertThat(suggestions).containsExactly(
+                new ProductSuggestion(1L, "Drill Bits"), new ProductSuggestion(3L, "drill press"));
+        verify(entityManager, times(4)).detach(any(Product.class));
+    }
+
+    @Test
+    void shouldRespectLimit() {
+        // Given
+        loadFromDatabase(createProduct(1L, "Valve A"), createProduct(2L, "Valve B"), createProduct(3L, "Valve C"));
+
+        // When
+        List<ProductSuggestion> suggestions = productNameIndex.suggest("valve", 2);
+
+        // Then
+        assertThat(suggestions).extracting(ProductSuggestion::name).containsExactly("Valve A", "Valve B");
+    }
+
+    @Test
+    void shouldIncludeProductsCreatedAfterLoad() {
+        // Given
+        loadFromDatabase(createProduct(1L, "Valve A"), createProduct(3L, "Valve C"));
+
+        // When
+        productNameIndex.onProductsCreated(new ProductsCreatedEvent(List.of(createProduct(2L, "Valve B"))));
+
+        // Then
+        assertThat(productNameIndex.suggest("valve", 10)).extracting(ProductSuggestion::name)
+                .containsExactly("Valve A", "Valve B", "Valve C");
+        assertThat(productNameIndex.size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldFoldLargeDeltaIntoBase() {
+        // Given
+        loadFromDatabase(createProduct(1L, "Pump 0"));
+
+        // When
+        for (long id = 2; id <= 5000; id++) {
+            productNameIndex.onProductsCreated(new ProductsCreatedEvent(List.of(createProduct(id, "Pump " + id))));
+        }
+
+        // Then
+        assertThat(productNameIndex.size()).isEqualTo(5000);
+        assertThat(productNameIndex.suggest("pump 4999", 10)).containsExactly(new ProductSuggestion(4999L, "Pump 4999"));
+    }
+
+    @Test
+    void shouldNotDuplicateProductsCreatedWhileLoading() {
+        // Given
+        productNameIndex.onProductsCreated(new ProductsCreatedEvent(List.of(createProduct(7L, "Ladder"))));
+
+        // When
+        loadFromDatabase(createProduct(7L, "Ladder"));
+
+        // Then
+        assertThat(productNameIndex.size()).isEqualTo(1);
+        assertThat(productNameIndex.suggest("lad", 10)).hasSize(1);
+    }
+
+    @Test
+    void shouldHideDeletedProducts() {
+        // Given
+        loadFromDatabase(createProduct(1L, "Valve A"), createProduct(2L, "Valve B"));
+        productNameIndex.onProductsCreated(new ProductsCreatedEvent(List.of(createProduct(3L, "Valve C"))));
+
+        // When
+        productNameIndex.onProductDeleted(new ProductDeletedEvent(1L, LocalDateTime.now()));
+        productNameIndex.onProductDeleted(new ProductDeletedEvent(3L, LocalDateTime.now()));
+
+        // Then
+        assertThat(productNameIndex.suggest("valve", 10)).containsExactly(new ProductSuggestion(2L, "Valve B"));
+        assertThat(productNameIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropDeletedProductsOnRebuild() {
+        // Given
+        loadFromDatabase(createProduct(1L, "Valve A"), createProduct(2L, "Valve B"));
+        productNameIndex.onProductDeleted(new ProductDeletedEvent(1L, LocalDateTime.now()));
+
+        // When
+        loadFromDatabase(createProduct(1L, "Valve A"), createProduct(2L, "Valve B"));
+
+        // Then
+        assertThat(productNameIndex.suggest("valve", 10)).containsExactly(new ProductSuggestion(2L, "Valve B"));
+        assertThat(productNameIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepChangesCommittedDuringRebuild() {
+        // Given
+        List<Product> stored = LongStream.rangeClosed(1, 2_000).mapToObj(id -> createProduct(id, "Pump " + id)).toList();
+        loadFromDatabase(stored.toArray(Product[]::new));
+        when(productRepository.streamAllByOrderByIdAsc()).thenAnswer(invocation -> {
+            // Enough changes to fold the delta and the deleted ids, all committed after the load's snapshot
+            for (long id = 2_001; id <= 7_000; id++) {
+                productNameIndex.onProductsCreated(new ProductsCreatedEvent(List.of(createProduct(id, "Pump " + id))));
+            }
+            LongStream.rangeClosed(1, 1_500)
+                    .forEach(id -> productNameIndex.onProductDeleted(new ProductDeletedEvent(id, LocalDateTime.now())));
+            return stored.stream();
+        });
+
+        // When
+        productNameIndex.rebuild();
+
+        // Then
+        assertThat(productNameIndex.size()).isEqualTo(5_500);
+        assertThat(productNameIndex.suggest("pump 1500", 10)).isEmpty();
+        assertThat(productNameIndex.suggest("pump 6999", 10)).containsExactly(new ProductSuggestion(6999L, "Pump 6999"));
+        productNameIndex.merge();
+        assertThat(productNameIndex.size()).isEqualTo(5_500);
+        assertThat(productNameIndex.suggest("pump 1501", 10)).containsExactly(new ProductSuggestion(1501L, "Pump 1501"));
+    }
+
+    @Test
+    void shouldKeepChangesAppliedWhileMerging() {
+        // Given
+        loadFromDatabase(createProduct(1L, "Valve A"), createProduct(2L, "Valve B"));
+        productNameIndex.onProductsCreated(new ProductsCreatedEvent(List.of(createProduct(3L, "Valve C"))));
+        productNameIndex.onProductDeleted(new ProductDeletedEvent(1L, LocalDateTime.now()));
+
+        // When
+        productNameIndex.merge();
+        productNameIndex.onProductsCreated(new ProductsCreatedEvent(List.of(createProduct(4L, "Valve D"))));
+        productNameIndex.onProductDeleted(new ProductDeletedEvent(3L, LocalDateTime.now()));
+        productNameIndex.merge();
+
+        // Then
+        assertThat(productNameIndex.suggest("valve", 10)).containsExactly(
+                new ProductSuggestion(2L, "Valve B"), new ProductSuggestion(4L, "Valve D"));
+        assertThat(productNameIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldApplyChangesMadeElsewhere() {
+        // Given
+        loadFromDatabase(createProduct(1L, "Valve A"), createProduct(2L, "Valve B"), createProduct(3L, "Valve C"));
+        Product renamed = createProduct(1L, "Valve Z");
+        when(changeService.changesAfter(any(), any(), anyInt())).thenReturn(new ProductChangeService.ChangeBatch(
+                List.of(new ProductChangeService.Change(new ProductChangeToken.Position(LOADED_AT, 1L), renamed),
+                        new ProductChangeService.Change(new ProductChangeToken.Position(LOADED_AT, 2L), null)),
+                false));
+
+        // When
+        int applied = productNameIndex.tail();
+
+        // Then
+        assertThat(applied).isEqualTo(2);
+        assertThat(productNameIndex.suggest("valve", 10)).containsExactly(
+                new ProductSuggestion(3L, "Valve C"), new ProductSuggestion(1L, "Valve Z"));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenPrefixOrLimitIsInvalid() {
+        // When & Then
+        assertThatThrownBy(() -> productNameIndex.suggest(" ", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Prefix must be between 1 and 100 characters");
+        assertThatThrownBy(() -> productNameIndex.suggest("dr", 51))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Limit must be between 1 and 50");
+    }
+
+    // Helper method to run the startup load over the given products
+    private void loadFromDatabase(Product... products) {
+        when(productRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(products));
+        when(changeService.readableUntil()).thenReturn(LOADED_AT);
+        productNameIndex.rebuild();
+    }
+
+    // Helper method to create a product with ID
+    private Product createProduct(Long id, String name) {
+        Product product = new Product(name);
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,221 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.repository.ProductPartitions;
+import com.grainger.products.repository.ProductPartitions.Partition;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ProductPartitionMaintenance.
+ */
+class ProductPartitionMaintenanceTest {
+
+    private static final long SIZE = 1_000;
+
+    private final ProductPartitions partitions = mock(ProductPartitions.class);
+
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<ProductCatalog> catalog = mock(ObjectProvider.class);
+
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<ProductNameIndex> nameIndex = mock(ObjectProvider.class);
+
+    private final ProductCache productCache = mock(ProductCache.class);
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private final Cache secondLevelCache = mock(Cache.class);
+    private final org.hibernate.Cache hibernateCache = mock(org.hibernate.Cache.class);
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        when(secondLevelCache.unwrap(org.hibernate.Cache.class)).thenReturn(hibernateCache);
+        when(partitions.withMaintenanceLock(any())).thenAnswer(invocation ->
+                Optional.of(invocation.<Supplier<?>>getArgument(0).get()));
+    }
+
+    @Test
+    void shouldCreatePartitionsAheadOfTheSequence() {
+        // Given
+        when(partitions.list()).thenReturn(List.of(new Partition("products_p0", null, 1_000L)));
+        when(partitions.sequenceValue()).thenReturn(900L);
+        when(partitions.create(anyLong(), anyLong())).thenAnswer(invocation ->
+                new Partition("products_p" + invocation.getArgument(0), invocation.getArgument(0),
+                        invocation.getArgument(1)));
+
+        // When
+        ProductPartitionMaintenance.Run run = maintenance(Duration.ZERO).maintain();
+
+        // Then
+        assertThat(run.created()).containsExactly("products_p1000", "products_p2000");
+        assertThat(run.archived()).isEmpty();
+        verify(partitions).create(1_000, 2_000);
+        verify(partitions).create(2_000, 3_000);
+    }
+
+    @Test
+    void shouldSkipRunWhileAnotherInstanceHoldsTheLock() {
+        // Given
+        when(partitions.withMaintenanceLock(any())).thenReturn(Optional.empty());
+
+        // When
+        ProductPartitionMaintenance.Run run = maintenance(Duration.ofDays(30)).maintain();
+
+        // Then
+        assertThat(run.created()).isEmpty();
+        assertThat(run.archived()).isEmpty();
+        verify(partitions, never()).list();
+        verify(productCache, never()).invalidateAll();
+    }
+
+    @Test
+    void shouldCreateNothingWhenEnoughPartitionsAreReady() {
+        // Given
+        List<Partition> existing = List.of(
+                new Partition("products_p0", null, 1_000L),
+                new Partition("products_p1000", 1_000L, 2_000L),
+                new Partition("products_p2000", 2_000L, 3_000L));
+
+        // When
+        List<long[]> missing = ProductPartitionMaintenance.missingRanges(existing, 900, SIZE, 2);
+
+        // Then
+        assertThat(missing).isEmpty();
+    }
+
+    @Test
+    void shouldKeepIdsHeldInSequenceBlocksCovered() {
+        // Given
+        List<Partition> existing = List.of(
+                new Partition("products_p0", null, 1_000L),
+                new Partition("products_p1000", 1_000L, 2_000L),
+                new Partition("products_p2000", 2_000L, 3_000L));
+
+        // When
+        List<long[]> missing = ProductPartitionMaintenance.missingRanges(existing, 990, SIZE, 2);
+
+        // Then
+        assertThat(missing).containsExactly(new long[]{3_000, 4_000});
+    }
+
+    @Test
+    void shouldRejectTablesWithoutBoundedPartitions() {
+        assertThatThrownBy(() -> ProductPartitionMaintenance.missingRanges(List.of(), 0, SIZE, 2))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ProductPartitionMaintenance.missingRanges(
+                List.of(new Partition("products_p0", null, null)), 0, SIZE, 2))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldArchiveOnlyOldPartitionsTheSequenceHasPassed() {
+        // Given
+        when(partitions.list()).thenReturn(List.of(
+                new Partition("products_p0", null, 1_000L),
+                new Partition("products_p1000", 1_000L, 2_000L),
+                new Partition("products_p2000", 2_000L, 3_000L),
+                new Partition("products_p3000", 3_000L, 4_000L),
+                new Partition("products_p4000", 4_000L, 5_000L)));
+        when(partitions.sequenceValue()).thenReturn(2_500L);
+        when(partitions.lastUpdated("products_p0")).thenReturn(Optional.of(LocalDateTime.now().minusDays(60)));
+        when(partitions.archive(eq("products_p0"), eq("products_archive"), any())).thenReturn(true);
+
+        // When
+        ProductPartitionMaintenance.Run run = maintenance(Duration.ofDays(30)).maintain();
+
+        // Then
+        assertThat(run.archived()).containsExactly("products_p0");
+        verify(partitions, never()).lastUpdated("products_p1000");
+        verify(partitions).recordArchived("products_archive", "products_p0");
+        verify(productCache).invalidateAll();
+        verify(secondLevelCache).evict(Product.class);
+        verify(hibernateCache).evictQueryRegions();
+        verify(nameIndex).ifAvailable(any());
+        verify(catalog).ifAvailable(any());
+    }
+
+    @Test
+    void shouldKeepPartitionsWithRecentUpdates() {
+        // Given
+        when(partitions.list()).thenReturn(List.of(
+                new Partition("products_p0", null, 1_000L),
+                new Partition("products_p1000", 1_000L, 2_000L),
+                new Partition("products_p2000", 2_000L, 3_000L),
+                new Partition("products_p3000", 3_000L, 4_000L),
+                new Partition("products_p4000", 4_000L, 5_000L)));
+        when(partitions.sequenceValue()).thenReturn(2_500L);
+        when(partitions.lastUpdated("products_p0")).thenReturn(Optional.of(LocalDateTime.now().minusDays(1)));
+
+        // When
+        ProductPartitionMaintenance.Run run = maintenance(Duration.ofDays(30)).maintain();
+
+        // Then
+        assertThat(run.archived()).isEmpty();
+        verify(partitions, never()).archive(anyString(), anyString(), any());
+        verify(productCache, never()).invalidateAll();
+        verify(catalog, never()).ifAvailable(any());
+    }
+
+    @Test
+    void shouldNotArchiveWithoutRetention() {
+        // Given
+        when(partitions.list()).thenReturn(List.of(
+                new Partition("products_p0", null, 1_000L),
+                new Partition("products_p1000", 1_000L, 2_000L),
+                new Partition("products_p2000", 2_000L, 3_000L),
+                new Partition("products_p3000", 3_000L, 4_000L),
+                new Partition("products_p4000", 4_000L, 5_000L)));
+        when(partitions.sequenceValue()).thenReturn(2_500L);
+
+        // When
+        maintenance(Duration.ZERO).maintain();
+
+        // Then
+        verify(partitions, never()).lastUpdated(anyString());
+        verify(partitions, never()).archive(anyString(), anyString(), any());
+    }
+
+    @Test
+    void shouldFinishRecordingInterruptedArchives() {
+        // Given
+        when(partitions.list()).thenReturn(List.of(
+                new Partition("products_p1000", 1_000L, 2_000L),
+                new Partition("products_p2000", 2_000L, 3_000L),
+                new Partition("products_p3000", 3_000L, 4_000L)));
+        when(partitions.sequenceValue()).thenReturn(1_500L);
+        when(partitions.unrecordedArchives("products_archive")).thenReturn(List.of("products_p0"));
+
+        // When
+        maintenance(Duration.ZERO).maintain();
+
+        // Then
+        verify(partitions).recordArchived("products_archive", "products_p0");
+        verify(productCache).invalidateAll();
+        verify(secondLevelCache).evict(Product.class);
+    }
+
+    private ProductPartitionMaintenance maintenance(Duration retention) {
+        return new ProductPartitionMaintenance(partitions, catalog, productCache, nameIndex, entityManagerFactory,
+                SIZE, 2, Duration.ofHours(1), retention, "products_archive");
+    }
+}
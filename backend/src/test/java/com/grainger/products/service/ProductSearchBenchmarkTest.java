@@ -0,0 +1,72 @@
+package com.grainger.products.service;
+
+import com.grainger.products.BenchmarkData;
+import com.grainger.products.repository.ProductSearch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Latency benchmark for product search over a large seeded dataset.
+ * Excluded from the regular test run; execute with ./gradlew benchmark.
+ * Runs the strategy configured for the test profile (LIKE on H2). To measure
+ * the pg_trgm path, point SPRING_DATASOURCE_URL (with SPRING_DATASOURCE_DRIVER_CLASS_NAME,
+ * username and password) at a migrated PostgreSQL and set PRODUCTS_SEARCH_STRATEGY=trigram.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class ProductSearchBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int QUERIES = Integer.getInteger("benchmark.queries", 500);
+    private static final String[] TERMS = {"drill", "cordless ham", "valv", "Model 4242", "respirator", "stainles"};
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductSearch productSearch;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        BenchmarkData.seedProducts(jdbcTemplate, ROWS);
+    }
+
+    @Test
+    void searchLatency() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20; i++) {
+            productSearchService.searchProducts(TERMS[i % TERMS.length], 0, 20);
+        }
+
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String term = TERMS[random.nextInt(TERMS.length)];
+            int page = random.nextInt(5);
+            long start = System.nanoTime();
+            productSearchService.searchProducts(term, page, 20);
+            nanos[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(nanos);
+        System.out.printf("search[%s, %d rows]: p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                productSearch.getClass().getSimpleName(), ROWS,
+                percentile(nanos, 0.50), percentile(nanos, 0.95), percentile(nanos, 0.99),
+                nanos[nanos.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,73 @@
+package com.grainger.products.service;
+
+import com.grainger.products.model.Product;
+import com.grainger.products.repository.ProductSearch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductSearchService.
+ * Uses Mockito to mock the ProductSearch dependency.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductSearchServiceTest {
+
+    @Mock
+    private ProductSearch productSearch;
+
+    @InjectMocks
+    private ProductSearchService productSearchService;
+
+    @Test
+    void shouldTrimQueryAndTranslatePageToOffset() {
+        // Given
+        List<Product> products = List.of(new Product("Drill"));
+        when(productSearch.search("drill", 40, 20)).thenReturn(products);
+
+        // When
+        List<Product> result = productSearchService.searchProducts("  drill ", 2, 20);
+
+        // Then
+        assertThat(result).isEqualTo(products);
+        verify(productSearch, times(1)).search("drill", 40, 20);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenQueryIsBlank() {
+        // When & Then
+        assertThatThrownBy(() -> productSearchService.searchProducts("   ", 0, 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Search query must be between 1 and 100 characters");
+
+        verifyNoInteractions(productSearch);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenPageSizeOutOfRange() {
+        // When & Then
+        assertThatThrownBy(() -> productSearchService.searchProducts("drill", 0, 101))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Page size must be between 1 and 100");
+
+        verifyNoInteractions(productSearch);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenPagingTooDeep() {
+        // When & Then
+        assertThatThrownBy(() -> productSearchService.searchProducts("drill", 500, 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Page must be between 0 and 499");
+
+        verifyNoInteractions(productSearch);
+    }
+}
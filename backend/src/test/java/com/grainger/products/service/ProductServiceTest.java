@@ -1,14 +1,29 @@
 package com.grainger.products.service;
 
+import com.grainger.products.config.ReplicaRoutingDataSource;
 import com.grainger.products.model.Product;
+import com.grainger.products.model.ProductLookupResult;
+import com.grainger.products.model.ProductTombstone;
+import com.grainger.products.model.ProductVersion;
+import com.grainger.products.model.ProductView;
+import com.grainger.products.model.ProductViewPage;
 import com.grainger.products.repository.ProductRepository;
+import com.grainger.products.repository.ProductTombstoneRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +43,18 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectProvider<ProductLookupBatcher> lookupBatcher;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(10), Duration.ofSeconds(30));
+
     @InjectMocks
     private ProductService productService;
 
@@ -39,37 +66,77 @@ class ProductServiceTest {
         testProduct.setId(1L);
     }
 
-    // Tests for getAllProducts()
+    // Tests for getProductViewPage()
 
     @Test
-    void shouldGetAllProducts() {
+    void shouldReturnLastPageWithoutCursor() {
         // Given
-        Product product1 = new Product("Product 1");
-        Product product2 = new Product("Product 2");
-        List<Product> products = Arrays.asList(product1, product2);
+        List<ProductView> rows = Arrays.asList(view(1L, "Product 1"), view(2L, "Product 2"));
+        when(productRepository.findViewsByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(rows);
 
-        when(productRepository.findAll()).thenReturn(products);
+        // When
+        ProductViewPage page = productService.getProductViewPage(null, 2);
+
+        // Then
+        assertThat(page.items()).containsExactlyElementsOf(rows);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void shouldSeekPastCursorForNextPage() {
+        // Given
+        List<ProductView> firstRows = Arrays.asList(
+                view(1L, "Product 1"), view(2L, "Product 2"), view(3L, "Product 3"));
+        when(productRepository.findViewsByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(firstRows);
+        List<ProductView> secondRows = Arrays.asList(view(3L, "Product 3"));
+        when(productRepository.findViewsByIdGreaterThanOrderByIdAsc(2L, Limit.of(3))).thenReturn(secondRows);
 
         // When
-        List<Product> result = productService.getAllProducts();
+        ProductViewPage first = productService.getProductViewPage(null, 2);
+        ProductViewPage second = productService.getProductViewPage(first.nextCursor(), 2);
 
         // Then
-        assertThat(result).hasSize(2);
-        assertThat(result).containsExactly(product1, product2);
-        verify(productRepository, times(1)).findAll();
+        assertThat(first.items()).extracting(ProductView::id).containsExactly(1L, 2L);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.items()).extracting(ProductView::id).containsExactly(3L);
+        assertThat(second.hasNext()).isFalse();
     }
 
     @Test
-    void shouldReturnEmptyListWhenNoProducts() {
+    void shouldPageThroughViewsWithoutLoadingEntities() {
         // Given
-        when(productRepository.findAll()).thenReturn(Arrays.asList());
+        List<ProductView> rows = Arrays.asList(view(1L, "Product 1"), view(2L, "Product 2"), view(3L, "Product 3"));
+        when(productRepository.findViewsByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(rows);
 
         // When
-        List<Product> result = productService.getAllProducts();
+        ProductViewPage page = productService.getProductViewPage(null, 2);
 
         // Then
-        assertThat(result).isEmpty();
-        verify(productRepository, times(1)).findAll();
+        assertThat(page.items()).extracting(ProductView::id).containsExactly(1L, 2L);
+        assertThat(page.nextCursor()).isEqualTo(ProductCursor.encode(2L));
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenPageSizeOutOfRange() {
+        // When & Then
+        assertThatThrownBy(() -> productService.getProductViewPage(null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Page size must be between 1 and 1000");
+        assertThatThrownBy(() -> productService.getProductViewPage(null, ProductService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCursorIsMalformed() {
+        // When & Then
+        assertThatThrownBy(() -> productService.getProductViewPage("not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+
+        verifyNoInteractions(productRepository);
     }
 
     // Tests for getProductById()
@@ -101,6 +168,197 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findById(999L);
     }
 
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        // When
+        productService.getProductById(1L);
+        Optional<Product> result = productService.getProductById(1L);
+
+        // Then
+        assertThat(result).contains(testProduct);
+        verify(productRepository, times(1)).findById(1L);
+        assertThat(productCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCacheMissingProducts() {
+        // Given
+        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+
+        // When
+        productService.getProductById(999L);
+        Optional<Product> result = productService.getProductById(999L);
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(productRepository, times(1)).findById(999L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldLoadMissesThroughBatcherOutsideCacheLoad() {
+        // Given
+        ProductLookupBatcher batcher = mock(ProductLookupBatcher.class);
+        when(lookupBatcher.getIfAvailable()).thenReturn(batcher);
+        when(batcher.load(1L)).thenAnswer(invocation -> {
+            assertThat(productCache.nativeCache().asMap()).doesNotContainKey(1L);
+            return Optional.of(testProduct);
+        });
+        ProductService batched = new ProductService(productRepository, tombstoneRepository, productCache,
+                eventPublisher, lookupBatcher, mock(ObjectProvider.class), mock(ObjectProvider.class));
+
+        // When
+        batched.getProductById(1L);
+        Optional<Product> result = batched.getProductById(1L);
+
+        // Then
+        assertThat(result).contains(testProduct);
+        verify(batcher, times(1)).load(1L);
+        verify(productCache, never()).get(any(), any());
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void shouldNotCacheMissReadFromLaggingReplica() {
+        // Given
+        ReplicaRoutingDataSource routing = mock(ReplicaRoutingDataSource.class);
+        when(routing.mayReadFromReplica()).thenReturn(true);
+        ProductService routed = routedService(routing);
+        // The replica has not applied the create yet when it is first asked
+        when(productRepository.findById(1L)).thenReturn(Optional.empty(), Optional.of(testProduct));
+
+        // When
+        Optional<Product> beforeCatchUp = routed.getProductById(1L);
+        Optional<Product> afterCatchUp = routed.getProductById(1L);
+
+        // Then
+        assertThat(beforeCatchUp).isEmpty();
+        assertThat(afterCatchUp).contains(testProduct);
+        assertThat(productCache.peek(1L)).contains(testProduct);
+    }
+
+    @Test
+    void shouldReadPinnedRequestFromPrimaryPastCachedLookup() {
+        // Given
+        ReplicaRoutingDataSource routing = mock(ReplicaRoutingDataSource.class);
+        when(routing.isPinnedToPrimary()).thenReturn(true);
+        ProductService routed = routedService(routing);
+        productCache.putIfCurrent(1L, Optional.empty(), productCache.generation(1L));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        // When
+        Optional<Product> result = routed.getProductById(1L);
+
+        // Then
+        assertThat(result).contains(testProduct);
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    // Tests for getProductVersion()
+
+    @Test
+    void shouldAnswerVersionFromCacheWhenProductIsCached() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        productService.getProductById(1L);
+
+        // When
+        Optional<ProductVersion> version = productService.getProductVersion(1L);
+
+        // Then
+        assertThat(version).contains(ProductVersion.of(testProduct));
+        verify(productRepository, never()).findVersionById(any());
+    }
+
+    @Test
+    void shouldQueryVersionWhenProductIsNotCached() {
+        // Given
+        ProductVersion stored = new ProductVersion(1L, LocalDateTime.of(2024, 1, 15, 10, 30));
+        when(productRepository.findVersionById(1L)).thenReturn(Optional.of(stored));
+
+        // When
+        Optional<ProductVersion> version = productService.getProductVersion(1L);
+
+        // Then
+        assertThat(version).contains(stored);
+        verify(productRepository, never()).findById(any());
+    }
+
+    // Tests for lookupProducts()
+
+    @Test
+    void shouldLookupProductsInRequestOrderWithOneQuery() {
+        // Given
+        Product product2 = createProduct(2L, "Product 2");
+        Product product3 = createProduct(3L, "Product 3");
+        when(productRepository.findAllById(any())).thenReturn(List.of(product2, product3));
+
+        // When
+        ProductLookupResult result = productService.lookupProducts(List.of(3L, 99L, 2L, 3L));
+
+        // Then
+        assertThat(result.products()).containsExactly(product3, product2);
+        assertThat(result.missing()).containsExactly(99L);
+        verify(productRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void shouldServeCachedIdsWithoutQueryingThemAgain() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        productService.getProductById(1L);
+
+        // When
+        ProductLookupResult result = productService.lookupProducts(List.of(1L));
+
+        // Then
+        assertThat(result.products()).containsExactly(testProduct);
+        verify(productRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void shouldNotCacheBulkLookupMissesReadFromLaggingReplica() {
+        // Given
+        ReplicaRoutingDataSource routing = mock(ReplicaRoutingDataSource.class);
+        when(routing.mayReadFromReplica()).thenReturn(true);
+        ProductService routed = routedService(routing);
+        Product product2 = createProduct(2L, "Product 2");
+        when(productRepository.findAllById(any())).thenReturn(List.of(), List.of(product2));
+
+        // When
+        ProductLookupResult beforeCatchUp = routed.lookupProducts(List.of(2L));
+        ProductLookupResult afterCatchUp = routed.lookupProducts(List.of(2L));
+
+        // Then
+        assertThat(beforeCatchUp.missing()).containsExactly(2L);
+        assertThat(afterCatchUp.products()).containsExactly(product2);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenLookingUpTooManyIds() {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= ProductService.MAX_LOOKUP_IDS + 1; id++) {
+            ids.add(id);
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> productService.lookupProducts(ids))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("At most 1000 ids can be looked up at once");
+    }
+
+    @Test
+    void shouldThrowExceptionWhenLookupIdsContainNull() {
+        // When & Then
+        assertThatThrownBy(() -> productService.lookupProducts(Arrays.asList(1L, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Ids cannot contain null");
+    }
+
     // Tests for createProduct()
 
     @Test
@@ -120,6 +378,7 @@ class ProductServiceTest {
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getName()).isEqualTo("New Product");
         verify(productRepository, times(1)).save(newProduct);
+        verify(eventPublisher, times(1)).publishEvent(new ProductsCreatedEvent(List.of(savedProduct)));
     }
 
     @Test
@@ -148,6 +407,19 @@ class ProductServiceTest {
         verify(productRepository, never()).save(any(Product.class));
     }
 
+    @Test
+    void shouldThrowExceptionWhenCreatingProductWithTooLongName() {
+        // Given
+        Product productWithLongName = new Product("x".repeat(ProductService.MAX_NAME_LENGTH + 1));
+
+        // When & Then
+        assertThatThrownBy(() -> productService.createProduct(productWithLongName))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Product name cannot be longer than 255 characters");
+
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
     @Test
     void shouldThrowExceptionWhenCreatingProductWithBlankName() {
         // Given
@@ -171,4 +443,58 @@ class ProductServiceTest {
         verify(productRepository, never()).save(any(Product.class));
     }
 
+    // Tests for deleteProduct()
+
+    @Test
+    void shouldDeleteProductAndRecordTombstone() {
+        // Given
+        when(productRepository.existsById(1L)).thenReturn(true);
+        when(tombstoneRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        boolean deleted = productService.deleteProduct(1L);
+
+        // Then
+        assertThat(deleted).isTrue();
+        verify(productRepository, times(1)).deleteById(1L);
+        verify(tombstoneRepository, times(1)).saveAndFlush(argThat((ProductTombstone t) -> t.getProductId() == 1L));
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object e) ->
+                e instanceof ProductDeletedEvent deletedEvent && deletedEvent.productId() == 1L));
+    }
+
+    @Test
+    void shouldNotDeleteMissingProduct() {
+        // Given
+        when(productRepository.existsById(99L)).thenReturn(false);
+
+        // When
+        boolean deleted = productService.deleteProduct(99L);
+
+        // Then
+        assertThat(deleted).isFalse();
+        verify(productRepository, never()).deleteById(any());
+        verifyNoInteractions(tombstoneRepository, eventPublisher);
+    }
+
+    // Helper method to create a service routing reads through the given data source
+    @SuppressWarnings("unchecked")
+    private ProductService routedService(ReplicaRoutingDataSource routing) {
+        ObjectProvider<ReplicaRoutingDataSource> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(routing);
+        return new ProductService(productRepository, tombstoneRepository, productCache, eventPublisher,
+                mock(ObjectProvider.class), mock(ObjectProvider.class), provider);
+    }
+
+    // Helper method to create a product view with ID
+    private ProductView view(Long id, String name) {
+        return ProductView.of(createProduct(id, name));
+    }
+
+    // Helper method to create a product with ID
+    private Product createProduct(Long id, String name) {
+        Product product = new Product(name);
+        product.setId(id);
+        return product;
+    }
+
 }